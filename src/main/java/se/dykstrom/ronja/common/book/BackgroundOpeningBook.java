@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * An opening book that is loaded in a background thread, so the engine can start reading commands
+ * while the book is still loading. Until loading has completed, each lookup waits at most a short
+ * time for the book, and if it is still not loaded, the lookup finds no book moves. If loading fails,
+ * the {@link OpeningBook#DEFAULT default opening book} is used instead.
+ *
+ * @author Johan Dykstrom
+ */
+public class BackgroundOpeningBook extends OpeningBook {
+
+    private static final Logger TLOG = Logger.getLogger(BackgroundOpeningBook.class.getName());
+
+    /** The opening book, completed when loading has finished. */
+    private final CompletableFuture<OpeningBook> future = new CompletableFuture<>();
+
+    /** The maximum time in milliseconds to wait for the book in each lookup. */
+    private final long maxWait;
+
+    private BackgroundOpeningBook(final long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Starts loading an opening book in a background thread, and returns immediately.
+     *
+     * @param loader Loads the opening book.
+     * @param maxWait The maximum time in milliseconds to wait for the book in each lookup.
+     * @return The opening book, that finds no book moves until loading has completed.
+     */
+    public static BackgroundOpeningBook load(final Callable<OpeningBook> loader, final long maxWait) {
+        final BackgroundOpeningBook book = new BackgroundOpeningBook(maxWait);
+        final Thread thread = new Thread(() -> book.run(loader), "ronja-book-loader");
+        thread.setDaemon(true);
+        thread.start();
+        return book;
+    }
+
+    private void run(final Callable<OpeningBook> loader) {
+        final long start = System.currentTimeMillis();
+        try {
+            final OpeningBook book = loader.call();
+            final long stop = System.currentTimeMillis();
+            // Do not log the size, counting the positions may require reading the entire book
+            TLOG.info("Loaded opening book in background in " + (stop - start) + " ms");
+            future.complete(book);
+        } catch (Exception e) {
+            TLOG.severe("Failed to load opening book. " + e.getMessage());
+            future.complete(DEFAULT);
+        }
+    }
+
+    /**
+     * Returns {@code true} if loading has completed, successfully or not.
+     */
+    public boolean isLoaded() {
+        return future.isDone();
+    }
+
+    /**
+     * Waits until loading has completed, and returns the loaded book.
+     */
+    public OpeningBook await() throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Loading never completes exceptionally
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the number of unique positions in the book, or 0 if the book has not been loaded yet.
+     */
+    @Override
+    public int size() {
+        final OpeningBook book = future.getNow(null);
+        return (book != null) ? book.size() : 0;
+    }
+
+    @Override
+    public int findBestMove(final Position position) {
+        final OpeningBook book = getBook();
+        return (book != null) ? book.findBestMove(position) : 0;
+    }
+
+    @Override
+    public List<BookMove> findAllMoves(final Position position) {
+        final OpeningBook book = getBook();
+        return (book != null) ? book.findAllMoves(position) : null;
+    }
+
+    /**
+     * Returns the loaded book, after waiting at most {@link #maxWait} milliseconds, or {@code null}
+     * if the book has not been loaded yet.
+     */
+    private OpeningBook getBook() {
+        final OpeningBook book = future.getNow(null);
+        if (book != null || maxWait <= 0) {
+            return book;
+        }
+        try {
+            return future.get(maxWait, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            TLOG.fine(() -> "Opening book not loaded yet, no book move");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import se.dykstrom.ronja.common.model.Position;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static se.dykstrom.ronja.common.book.OpeningBookCompiler.ENTRY_SIZE;
+import static se.dykstrom.ronja.common.book.OpeningBookCompiler.HEADER_SIZE;
+import static se.dykstrom.ronja.common.book.OpeningBookCompiler.MAGIC;
+import static se.dykstrom.ronja.common.book.OpeningBookCompiler.VERSION;
+
+/**
+ * An opening book that reads its moves from a compiled opening book file, created by {@link OpeningBookCompiler}.
+ * The file is memory-mapped when the book is opened, and positions are looked up using a binary search on the
+ * position key. Opening the book therefore takes constant time, regardless of the size of the book, and the
+ * book moves are not stored on the Java heap.
+ * <p>
+ * The mapped buffer is only accessed using absolute reads, so this class is thread safe.
+ *
+ * @author Johan Dykstrom
+ */
+public class CompiledOpeningBook extends OpeningBook {
+
+    /** The memory-mapped opening book file. */
+    private final ByteBuffer buffer;
+
+    /** The number of unique positions. */
+    private final int numberOfPositions;
+
+    /** The number of entries, that is, book moves. */
+    private final int numberOfEntries;
+
+    /** Used when there are several possible moves in one position. */
+    private final Random random = new Random();
+
+    private CompiledOpeningBook(final ByteBuffer buffer, final int numberOfPositions, final int numberOfEntries) {
+        this.buffer = buffer;
+        this.numberOfPositions = numberOfPositions;
+        this.numberOfEntries = numberOfEntries;
+    }
+
+    /**
+     * Opens the given compiled opening book file.
+     *
+     * @param path The path of the compiled opening book file.
+     * @return The opening book.
+     * @throws IOException If the file cannot be read, or is not a valid compiled opening book file.
+     */
+    public static CompiledOpeningBook open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("invalid size of opening book file: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            final int magic = buffer.getInt(0);
+            final int version = buffer.getInt(4);
+            final int numberOfPositions = buffer.getInt(8);
+            final int numberOfEntries = buffer.getInt(12);
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("not a valid opening book file: " + path);
+            }
+            if (numberOfEntries < 0 || size != HEADER_SIZE + (long) numberOfEntries * ENTRY_SIZE) {
+                throw new IOException("invalid number of entries in opening book file: " + path);
+            }
+            return new CompiledOpeningBook(buffer, numberOfPositions, numberOfEntries);
+        }
+    }
+
+    @Override
+    public int size() {
+        return numberOfPositions;
+    }
+
+    @Override
+    public int findBestMove(final Position position) {
+        final long key = position.getKey();
+        final int first = findFirstEntry(key);
+        if (first == -1) {
+            return 0;
+        }
+
+        // Make a random decision on which move to make
+        final int value = random.nextInt(100);
+        for (int index = first; index < numberOfEntries && getKey(index) == key; index++) {
+            if (value < getCumulativeWeight(index)) {
+                return getMove(index);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public List<BookMove> findAllMoves(final Position position) {
+        final long key = position.getKey();
+        final int first = findFirstEntry(key);
+        if (first == -1) {
+            return null;
+        }
+
+        final List<BookMove> moves = new ArrayList<>();
+        int previousWeight = 0;
+        for (int index = first; index < numberOfEntries && getKey(index) == key; index++) {
+            final int cumulativeWeight = getCumulativeWeight(index);
+            moves.add(new BookMove(getMove(index), cumulativeWeight - previousWeight));
+            previousWeight = cumulativeWeight;
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the index of the first entry with the given key, or -1 if there is no such entry.
+     */
+    private int findFirstEntry(final long key) {
+        int low = 0;
+        int high = numberOfEntries;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (getKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (low < numberOfEntries && getKey(low) == key) ? low : -1;
+    }
+
+    private long getKey(final int index) {
+        return buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+    }
+
+    private int getMove(final int index) {
+        return buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + Long.BYTES);
+    }
+
+    private int getCumulativeWeight(final int index) {
+        return buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + Long.BYTES + Integer.BYTES);
+    }
+}
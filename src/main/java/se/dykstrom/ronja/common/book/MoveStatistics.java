@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table that collects statistics for moves made in positions, used when building opening
+ * books from game archives. The table uses open addressing with linear probing, and is made up of primitive
+ * arrays only. Each entry is identified by a position key and a move, and holds the number of games in which
+ * the move was made, and the number of points the side making the move scored in those games, counting two
+ * points for a win, and one point for a draw.
+ * <p>
+ * The table does not grow. Instead, the owner should check {@link #isFull()}, and make room by calling
+ * {@link #prune(int)}, which removes all entries with few games. This class is not thread safe.
+ *
+ * @author Johan Dykstrom
+ */
+final class MoveStatistics {
+
+    /** The maximum load factor, in percent, before the table is considered full. */
+    private static final int MAX_LOAD = 75;
+
+    private final long[] keys;
+    private final int[] moves;
+
+    /** The number of games of each entry, where 0 marks an empty slot. */
+    private final int[] games;
+
+    private final int[] points;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+
+    /**
+     * Creates a new table with room for at least the given number of entries.
+     */
+    MoveStatistics(final int minEntries) {
+        final long entries = Math.max(minEntries, 2) * 100L / MAX_LOAD;
+        final int capacity = (int) Math.min(Long.highestOneBit(entries * 2 - 1), 1 << 30);
+        this.keys = new long[capacity];
+        this.moves = new int[capacity];
+        this.games = new int[capacity];
+        this.points = new int[capacity];
+        this.mask = capacity - 1;
+        this.maxSize = (int) ((long) capacity * MAX_LOAD / 100);
+    }
+
+    /**
+     * Returns the number of entries in the table.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if the table is full, that is, if no more entries can be added.
+     * Existing entries can always be updated.
+     */
+    boolean isFull() {
+        return size >= maxSize;
+    }
+
+    /**
+     * Adds the given number of games and points to the entry for the given position key and move.
+     * If there is no such entry, and the table is full, this method throws an exception.
+     */
+    void add(final long key, final int move, final int numberOfGames, final int numberOfPoints) {
+        int slot = slot(key, move);
+        while (games[slot] != 0) {
+            if (keys[slot] == key && moves[slot] == move) {
+                games[slot] += numberOfGames;
+                points[slot] += numberOfPoints;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (isFull()) {
+            throw new IllegalStateException("move statistics table is full");
+        }
+        keys[slot] = key;
+        moves[slot] = move;
+        games[slot] = numberOfGames;
+        points[slot] = numberOfPoints;
+        size++;
+    }
+
+    /**
+     * Removes all entries from the table.
+     */
+    void clear() {
+        Arrays.fill(games, 0);
+        size = 0;
+    }
+
+    /**
+     * Removes all entries with fewer than {@code minGames} games from the table.
+     *
+     * @return The number of entries removed.
+     */
+    int prune(final int minGames) {
+        // Move the remaining entries to the start of the arrays, and then insert them again
+        int remaining = 0;
+        for (int slot = 0; slot < games.length; slot++) {
+            if (games[slot] >= minGames) {
+                keys[remaining] = keys[slot];
+                moves[remaining] = moves[slot];
+                games[remaining] = games[slot];
+                points[remaining] = points[slot];
+                remaining++;
+            }
+        }
+        final long[] remainingKeys = Arrays.copyOf(keys, remaining);
+        final int[] remainingMoves = Arrays.copyOf(moves, remaining);
+        final int[] remainingGames = Arrays.copyOf(games, remaining);
+        final int[] remainingPoints = Arrays.copyOf(points, remaining);
+
+        final int oldSize = size;
+        clear();
+        for (int index = 0; index < remaining; index++) {
+            add(remainingKeys[index], remainingMoves[index], remainingGames[index], remainingPoints[index]);
+        }
+        return oldSize - size;
+    }
+
+    /**
+     * Calls the given consumer once for each entry in the table.
+     */
+    void forEach(final EntryConsumer consumer) {
+        for (int slot = 0; slot < games.length; slot++) {
+            if (games[slot] != 0) {
+                consumer.accept(keys[slot], moves[slot], games[slot], points[slot]);
+            }
+        }
+    }
+
+    private int slot(final long key, final int move) {
+        long hash = key ^ (move * 0x9e3779b97f4a7c15L);
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+
+    /**
+     * Receives the entries of the table, see {@link #forEach(EntryConsumer)}.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, int move, int games, int points);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.TreeMap;
 
 import se.dykstrom.ronja.common.model.Move;
 import se.dykstrom.ronja.common.model.Position;
@@ -46,22 +47,65 @@ import static se.dykstrom.ronja.common.model.Square.E7_IDX;
  * occur in the different opening lines is stored together with the known moves
  * for that position, and is used when the user requests a move for that
  * certain position.
+ * <p>
+ * The positions are stored in an open-addressing hash table with linear probing,
+ * indexed by their Zobrist keys. The table is made up of primitive arrays only.
+ * The moves of each position are stored in consecutive elements of a flat array,
+ * together with their cumulative percent weights, so a move can be selected using
+ * a binary search. Positions that differ only in their move counters, for example
+ * because they were reached by transposition, share the same key, and their book
+ * moves are merged.
+ * <p>
+ * Subclasses, like {@link CompiledOpeningBook}, may store their positions in
+ * some other way, and override the lookup methods.
  *
  * @author Johan Dykstrom
  */
 public class OpeningBook {
 
     /** A small opening book to use if the opening book file cannot be loaded. */
-    public static final OpeningBook DEFAULT = new OpeningBook();
+    public static final OpeningBook DEFAULT = new OpeningBook(createDefaultPositions());
 
-    /** Map with board positions. */
-    private final Map<Position, List<BookMove>> positions;
+    /** Marks an empty slot in {@link #firstMoves}. */
+    private static final int EMPTY = -1;
+
+    /** The position keys, indexed by slot. */
+    private final long[] keys;
+
+    /** The index of the first move of each slot in {@link #moves}, or {@link #EMPTY} if the slot is empty. */
+    private final int[] firstMoves;
+
+    /** The number of moves of each slot. */
+    private final int[] numberOfMoves;
+
+    /** The book moves of all positions. */
+    private final int[] moves;
+
+    /** The cumulative percent weights of the book moves, restarting from 0 in each position. */
+    private final int[] cumulativeWeights;
+
+    /** Mask used to convert a key into a slot in the table. */
+    private final int mask;
+
+    /** The number of unique positions. */
+    private final int numberOfPositions;
 
     /** Used when there are several possible moves in one position. */
     private final Random random = new Random();
 
-    private OpeningBook() {
-        positions = new HashMap<>();
+    /**
+     * Creates an empty opening book. This constructor is used by subclasses
+     * that store their positions in some other way.
+     */
+    protected OpeningBook() {
+        this(Map.of());
+    }
+
+    /**
+     * Returns the positions of the default opening book.
+     */
+    private static Map<Position, List<BookMove>> createDefaultPositions() {
+        final Map<Position, List<BookMove>> positions = new HashMap<>();
 
         // Add some simple moves to the empty opening book
         int e2e4 = Move.create(PAWN, E2_IDX, E4_IDX);
@@ -75,6 +119,7 @@ public class OpeningBook {
         } catch (IllegalMoveException e) {
             // Ignore
         }
+        return positions;
     }
 
     /**
@@ -83,14 +128,76 @@ public class OpeningBook {
      * @param positions A map that maps positions to lists of possible moves.
      */
     public OpeningBook(Map<Position, List<BookMove>> positions) {
-        this.positions = convertAllWeightsToPercent(positions);
+        final Map<Long, List<BookMove>> mergedPositions = mergeByKey(positions);
+        final int numberOfEntries = mergedPositions.values().stream().mapToInt(List::size).sum();
+
+        // Keep the load factor at or below 0.5 to keep the probe sequences short
+        final int capacity = Integer.highestOneBit(Math.max(2 * mergedPositions.size(), 1) * 2 - 1);
+        this.keys = new long[capacity];
+        this.firstMoves = new int[capacity];
+        this.numberOfMoves = new int[capacity];
+        this.moves = new int[numberOfEntries];
+        this.cumulativeWeights = new int[numberOfEntries];
+        this.mask = capacity - 1;
+        this.numberOfPositions = mergedPositions.size();
+        Arrays.fill(firstMoves, EMPTY);
+
+        int entry = 0;
+        for (Map.Entry<Long, List<BookMove>> position : mergedPositions.entrySet()) {
+            final long key = position.getKey();
+            int slot = slot(key);
+            while (firstMoves[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            firstMoves[slot] = entry;
+
+            int cumulativeWeight = 0;
+            for (BookMove bookMove : convertWeightsToPercent(position.getValue())) {
+                cumulativeWeight += bookMove.weight();
+                moves[entry] = bookMove.move();
+                cumulativeWeights[entry] = cumulativeWeight;
+                entry++;
+            }
+            numberOfMoves[slot] = entry - firstMoves[slot];
+        }
     }
 
     /**
      * returns the size of the opening book, that is, the number of unique positions.
      */
     public int size() {
-        return positions.size();
+        return numberOfPositions;
+    }
+
+    /**
+     * Returns a map of position keys and book moves, sorted on the key. Positions that differ only in their move
+     * counters, for example because they were reached by transposition, have the same key, and their book moves
+     * are merged. If the same move occurs in more than one such position, the weights of the move are added.
+     */
+    static Map<Long, List<BookMove>> mergeByKey(final Map<Position, List<BookMove>> positions) {
+        final Map<Long, List<BookMove>> sortedPositions = new TreeMap<>();
+        for (Map.Entry<Position, List<BookMove>> entry : positions.entrySet()) {
+            final List<BookMove> mergedMoves = sortedPositions.computeIfAbsent(entry.getKey().getKey(), key -> new ArrayList<>());
+            for (BookMove bookMove : entry.getValue()) {
+                final int index = indexOfMove(mergedMoves, bookMove.move());
+                if (index == -1) {
+                    mergedMoves.add(bookMove);
+                } else {
+                    mergedMoves.set(index, bookMove.withWeight(mergedMoves.get(index).weight() + bookMove.weight()));
+                }
+            }
+        }
+        return sortedPositions;
+    }
+
+    private static int indexOfMove(final List<BookMove> bookMoves, final int move) {
+        for (int index = 0; index < bookMoves.size(); index++) {
+            if (bookMoves.get(index).move() == move) {
+                return index;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -173,15 +280,27 @@ public class OpeningBook {
      * @return One of the possible moves found, or {@code null} if no move was found.
      */
     public int findBestMove(Position position) {
-        List<BookMove> moves = positions.get(position);
+        final int slot = findSlot(position.getKey());
 
         // If no book moves are known for this position
-        if (moves == null) {
+        if (slot == -1) {
             return 0;
         }
 
-        // Make a random decision on which move to make
-        return findMoveInList(moves, random.nextInt(100));
+        // Make a random decision on which move to make, by finding the first move with a cumulative weight above the value
+        final int value = random.nextInt(100);
+        int low = firstMoves[slot];
+        int high = low + numberOfMoves[slot];
+        final int end = high;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (low < end) ? moves[low] : 0;
     }
 
     /**
@@ -213,6 +332,63 @@ public class OpeningBook {
      * @return The list of book moves found for this position, or {@code null} if no moves were found.
      */
     public List<BookMove> findAllMoves(Position position) {
-        return positions.get(position);
+        final int slot = findSlot(position.getKey());
+        if (slot == -1) {
+            return null;
+        }
+
+        final List<BookMove> bookMoves = new ArrayList<>(numberOfMoves[slot]);
+        int previousWeight = 0;
+        for (int index = firstMoves[slot]; index < firstMoves[slot] + numberOfMoves[slot]; index++) {
+            bookMoves.add(new BookMove(moves[index], cumulativeWeights[index] - previousWeight));
+            previousWeight = cumulativeWeights[index];
+        }
+        return bookMoves;
+    }
+
+    /**
+     * Returns a random line of book moves from the start position. The moves are selected randomly
+     * according to their weights, until there are no more book moves, or the maximum number of plies
+     * is reached. Using a seeded random number generator makes the line reproducible.
+     *
+     * @param random The random number generator used to select the moves.
+     * @param maxPlies The maximum number of plies in the line.
+     * @return The moves of the line, possibly empty.
+     */
+    public int[] findRandomLine(final Random random, final int maxPlies) {
+        final int[] line = new int[maxPlies];
+        int plies = 0;
+        Position position = Position.START;
+        while (plies < maxPlies) {
+            final List<BookMove> bookMoves = findAllMoves(position);
+            if (bookMoves == null) {
+                break;
+            }
+            final int move = findMoveInList(bookMoves, random.nextInt(100));
+            if (move == 0) {
+                break;
+            }
+            line[plies++] = move;
+            position = position.withMove(move);
+        }
+        return Arrays.copyOf(line, plies);
+    }
+
+    /**
+     * Returns the slot of the position with the given key, or -1 if there is no such position.
+     */
+    private int findSlot(final long key) {
+        int slot = slot(key);
+        while (firstMoves[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(final long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
     }
 }
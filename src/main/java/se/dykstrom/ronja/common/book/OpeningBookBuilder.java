@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.CanParser;
+import se.dykstrom.ronja.common.parser.PgnGame;
+import se.dykstrom.ronja.common.parser.PgnReader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Builds opening books from game archives in PGN format. Each game is replayed up to a maximum number of plies,
+ * and the number of games and the number of points scored are collected for each move in each position. When
+ * all games have been added, the moves that were made in enough games, and scored at least some points, become
+ * book moves, weighted by the number of points scored, counting two points for a win and one for a draw.
+ * <p>
+ * Games are read and replayed in parallel using {@link PgnReader#readAll(Path, int, java.util.function.Consumer)}.
+ * The statistics are collected in a small table per worker thread, that is merged into a shared table when full,
+ * and when all games in the file have been read.
+ * The shared table has a fixed size, so memory use is bounded regardless of the number of games. If the shared
+ * table fills up, the entries with the fewest games are removed to make room, so very large archives may lose
+ * some rare moves, but never the popular ones.
+ * <p>
+ * The book is written either in CSV format, or as a compiled opening book, depending on the file extension, see
+ * {@link OpeningBookLoader}. Only positions that can be reached from the start position by playing book moves
+ * are included in the book, since each line in the CSV format lists the moves from the start position. Games that
+ * do not start from the start position, and games without a result, are skipped. The result is taken from the
+ * Result tag if there is one, and otherwise from the game termination marker.
+ * <p>
+ * Usage: OpeningBookBuilder [-p PLIES] [-m MIN_GAMES] [-e MAX_ENTRIES] [-c THREADS] OUTPUT INPUT...
+ *
+ * @author Johan Dykstrom
+ */
+public class OpeningBookBuilder {
+
+    private static final Logger TLOG = Logger.getLogger(OpeningBookBuilder.class.getName());
+
+    private static final String USAGE = "Usage: OpeningBookBuilder [-p PLIES] [-m MIN_GAMES] [-e MAX_ENTRIES] [-c THREADS] OUTPUT INPUT...";
+
+    /** The default maximum number of plies to replay in each game. */
+    public static final int DEFAULT_MAX_PLIES = 20;
+
+    /** The default minimum number of games for a move to become a book move. */
+    public static final int DEFAULT_MIN_GAMES = 5;
+
+    /** The default maximum number of entries in the shared statistics table, about 80 MB. */
+    public static final int DEFAULT_MAX_ENTRIES = 2_000_000;
+
+    /** The number of entries in the statistics table of each worker thread. */
+    private static final int LOCAL_ENTRIES = 1 << 14;
+
+    private final int maxPlies;
+    private final int minGames;
+
+    /** The shared statistics table, guarded by this. */
+    private final MoveStatistics statistics;
+
+    /** Entries with fewer games than this are removed from the shared table when it is full, guarded by this. */
+    private int pruneThreshold = 1;
+
+    private final AtomicLong numberOfGames = new AtomicLong();
+    private final AtomicLong numberOfSkippedGames = new AtomicLong();
+
+    /**
+     * Creates a new opening book builder.
+     *
+     * @param maxPlies The maximum number of plies to replay in each game.
+     * @param minGames The minimum number of games for a move to become a book move.
+     * @param maxEntries The maximum number of entries, that is, unique moves in unique positions, to keep in memory.
+     */
+    public OpeningBookBuilder(final int maxPlies, final int minGames, final int maxEntries) {
+        this.maxPlies = maxPlies;
+        this.minGames = minGames;
+        this.statistics = new MoveStatistics(maxEntries);
+    }
+
+    /**
+     * Reads all games in the given PGN file, and adds them to the book, using {@code threads} threads.
+     * This method must not be called by several threads concurrently.
+     *
+     * @return The number of games read.
+     */
+    public int addAll(final Path path, final int threads) throws IOException, InterruptedException {
+        final List<MoveStatistics> localStatistics = new ArrayList<>();
+        final ThreadLocal<MoveStatistics> threadStatistics = ThreadLocal.withInitial(() -> {
+            final MoveStatistics local = new MoveStatistics(LOCAL_ENTRIES);
+            synchronized (localStatistics) {
+                localStatistics.add(local);
+            }
+            return local;
+        });
+
+        final int count = PgnReader.readAll(path, threads, game -> add(game, threadStatistics.get()));
+
+        // All worker threads have finished, so the local statistics can be merged without locking
+        localStatistics.forEach(this::flush);
+        return count;
+    }
+
+    /**
+     * Adds the given game to the given local statistics, and merges them into the shared statistics when full.
+     */
+    private void add(final PgnGame game, final MoveStatistics local) {
+        Position position = game.startPosition();
+        if (position.getKey() != Position.START.getKey()) {
+            numberOfSkippedGames.incrementAndGet();
+            return;
+        }
+        // Games without a result, for example unfinished games, would count as losses for both sides
+        final String resultTag = game.tag("Result");
+        final int whitePoints = switch ((resultTag != null) ? resultTag : game.result()) {
+            case "1-0" -> 2;
+            case "1/2-1/2" -> 1;
+            case "0-1" -> 0;
+            default -> -1;
+        };
+        if (whitePoints < 0) {
+            numberOfSkippedGames.incrementAndGet();
+            return;
+        }
+        final int blackPoints = 2 - whitePoints;
+        numberOfGames.incrementAndGet();
+
+        final int[] moves = game.moves();
+        for (int ply = 0; ply < Math.min(maxPlies, moves.length); ply++) {
+            if (local.isFull()) {
+                flush(local);
+            }
+            local.add(position.getKey(), moves[ply], 1, position.isWhiteMove() ? whitePoints : blackPoints);
+            position = position.withMove(moves[ply]);
+        }
+    }
+
+    /**
+     * Merges the given local statistics into the shared statistics, and clears the local statistics.
+     */
+    private synchronized void flush(final MoveStatistics local) {
+        local.forEach((key, move, games, points) -> {
+            if (statistics.isFull()) {
+                makeRoom();
+            }
+            statistics.add(key, move, games, points);
+        });
+        local.clear();
+    }
+
+    /**
+     * Makes room in the shared statistics, by removing the entries with the fewest games,
+     * until at least a quarter of the entries have been removed.
+     */
+    private void makeRoom() {
+        final int oldSize = statistics.size();
+        do {
+            pruneThreshold++;
+            statistics.prune(pruneThreshold);
+        } while (statistics.size() > oldSize * 3 / 4);
+        TLOG.info("Removed " + (oldSize - statistics.size()) + " moves with fewer than " + pruneThreshold + " games");
+    }
+
+    /**
+     * Returns the number of games added to the book so far.
+     */
+    public long getNumberOfGames() {
+        return numberOfGames.get();
+    }
+
+    /**
+     * Returns the number of games skipped so far, because they did not start from the start position,
+     * or had no result.
+     */
+    public long getNumberOfSkippedGames() {
+        return numberOfSkippedGames.get();
+    }
+
+    /**
+     * Writes the book to the given file, either in CSV format, or as a compiled opening book if the
+     * file extension is {@value OpeningBookLoader#COMPILED_EXTENSION}. This method must not be called
+     * while games are being added.
+     *
+     * @return The number of positions in the book.
+     */
+    public int write(final Path path) throws IOException {
+        final List<BookLine> lines = build();
+        if (path.getFileName().toString().endsWith(OpeningBookLoader.COMPILED_EXTENSION)) {
+            final Map<Position, List<BookMove>> positions = new LinkedHashMap<>();
+            for (BookLine line : lines) {
+                positions.put(line.position(), line.moves().stream().map(m -> new BookMove(m.move(), m.points())).toList());
+            }
+            return OpeningBookCompiler.compile(positions, path);
+        } else {
+            writeCsv(lines, path);
+            return lines.size();
+        }
+    }
+
+    /**
+     * Returns the book positions, with their book moves, in breadth-first order from the start position.
+     */
+    List<BookLine> build() {
+        // Collect the book moves of each position, with the most successful moves first
+        final Map<Long, List<MoveData>> bookMoves = new HashMap<>();
+        synchronized (this) {
+            statistics.forEach((key, move, games, points) -> {
+                if (games >= minGames && points > 0) {
+                    bookMoves.computeIfAbsent(key, k -> new ArrayList<>()).add(new MoveData(move, games, points));
+                }
+            });
+        }
+        bookMoves.values().forEach(list -> list.sort(Comparator.comparingInt(MoveData::points).reversed()));
+
+        // Find all positions that can be reached from the start position
+        final List<BookLine> lines = new ArrayList<>();
+        final Set<Long> visited = new HashSet<>();
+        final Queue<BookLine> queue = new ArrayDeque<>();
+        final List<MoveData> startMoves = bookMoves.get(Position.START.getKey());
+        if (startMoves != null) {
+            queue.add(new BookLine("", Position.START, startMoves));
+            visited.add(Position.START.getKey());
+        }
+        while (!queue.isEmpty()) {
+            final BookLine line = queue.remove();
+            lines.add(line);
+            for (MoveData moveData : line.moves()) {
+                final Position position = line.position().withMove(moveData.move());
+                final List<MoveData> moves = bookMoves.get(position.getKey());
+                if (moves != null && visited.add(position.getKey())) {
+                    final String prefix = line.prefix().isEmpty() ? "" : line.prefix() + " ";
+                    queue.add(new BookLine(prefix + CanParser.format(moveData.move()), position, moves));
+                }
+            }
+        }
+        return lines;
+    }
+
+    private void writeCsv(final List<BookLine> lines, final Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8)) {
+            writer.write("# Built by OpeningBookBuilder from " + numberOfGames.get() + " games");
+            writer.newLine();
+            for (BookLine line : lines) {
+                for (MoveData moveData : line.moves()) {
+                    writer.write(line.prefix());
+                    writer.write(';');
+                    writer.write(CanParser.format(moveData.move()));
+                    writer.write('/');
+                    writer.write(Integer.toString(moveData.points()));
+                    writer.write(';');
+                    writer.write(moveData.games() + " games, " + (50 * moveData.points() / moveData.games()) + "%");
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * A book move, with the number of games it was made in, and the number of points scored.
+     */
+    record MoveData(int move, int games, int points) { }
+
+    /**
+     * A book position, with the moves leading to it from the start position, and its book moves.
+     */
+    record BookLine(String prefix, Position position, List<MoveData> moves) { }
+
+    /**
+     * Builds an opening book from one or more PGN files.
+     */
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int maxPlies = DEFAULT_MAX_PLIES;
+        int minGames = DEFAULT_MIN_GAMES;
+        int maxEntries = DEFAULT_MAX_ENTRIES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path output = null;
+        final List<Path> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-p" -> maxPlies = Integer.parseInt(args[++i]);
+                    case "-m" -> minGames = Integer.parseInt(args[++i]);
+                    case "-e" -> maxEntries = Integer.parseInt(args[++i]);
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            inputs.add(Path.of(args[i]));
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            output = null;
+        }
+        if (output == null || inputs.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies, minGames, maxEntries);
+        final long start = System.nanoTime();
+        for (Path input : inputs) {
+            builder.addAll(input, threads);
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Read %d games in %.1f s (%.0f games/s), skipped %d games%n",
+                          builder.getNumberOfGames(), seconds, builder.getNumberOfGames() / seconds, builder.getNumberOfSkippedGames());
+
+        final int numberOfPositions = builder.write(output);
+        System.out.println("Wrote " + numberOfPositions + " positions to " + output);
+    }
+}
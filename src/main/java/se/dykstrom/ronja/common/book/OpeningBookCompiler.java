@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+
+import se.dykstrom.ronja.common.model.Position;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Compiles the Ronja opening book file from CSV format into the binary format read by {@link CompiledOpeningBook}.
+ * The compiled file consists of a header, followed by one entry for each book move. The entries are sorted on the
+ * Zobrist key of the position, and the entries of each position keep the order of the moves in the CSV file.
+ * Note that the key does not depend on the move counters, so positions reached by transposition share entries.
+ * <p>
+ * The header contains four ints: the magic number, the version, the number of positions, and the number of entries.
+ * Each entry contains the position key (long), the move (int), and the cumulative weight in percent (int), that is,
+ * the sum of the weights of this move and all moves before it in the same position. All numbers are stored in
+ * little-endian byte order.
+ *
+ * @author Johan Dykstrom
+ */
+public final class OpeningBookCompiler {
+
+    static final int MAGIC = 0x4b424e52;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+    static final int ENTRY_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private OpeningBookCompiler() { }
+
+    /**
+     * Compiles the given opening book file in CSV format, and writes the result to {@code binaryFile}.
+     *
+     * @param csvFile The opening book file in CSV format.
+     * @param binaryFile The compiled opening book file.
+     * @return The number of positions in the compiled opening book.
+     * @throws IOException If a file cannot be read or written.
+     * @throws ParseException If the opening book file cannot be parsed.
+     */
+    public static int compile(final File csvFile, final Path binaryFile) throws IOException, ParseException {
+        return compile(OpeningBookParser.readPositions(csvFile), binaryFile);
+    }
+
+    /**
+     * Compiles the given map of positions and book moves, and writes the result to {@code binaryFile}.
+     * The weights of the book moves are converted to percent before they are written.
+     *
+     * @param positions A map that maps positions to lists of possible moves.
+     * @param binaryFile The compiled opening book file.
+     * @return The number of positions in the compiled opening book.
+     * @throws IOException If the file cannot be written.
+     */
+    public static int compile(final Map<Position, List<BookMove>> positions, final Path binaryFile) throws IOException {
+        final Map<Long, List<BookMove>> sortedPositions = OpeningBook.mergeByKey(positions);
+
+        final int numberOfEntries = sortedPositions.values().stream().mapToInt(List::size).sum();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + numberOfEntries * ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(HEADER_SIZE);
+
+        for (Map.Entry<Long, List<BookMove>> entry : sortedPositions.entrySet()) {
+            final long key = entry.getKey();
+            int cumulativeWeight = 0;
+            for (BookMove bookMove : OpeningBook.convertWeightsToPercent(entry.getValue())) {
+                cumulativeWeight += bookMove.weight();
+                buffer.putLong(key).putInt(bookMove.move()).putInt(cumulativeWeight);
+            }
+        }
+
+        final int numberOfPositions = sortedPositions.size();
+        final int size = buffer.position();
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, numberOfPositions).putInt(12, (size - HEADER_SIZE) / ENTRY_SIZE);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(binaryFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return numberOfPositions;
+    }
+
+    /**
+     * Compiles an opening book file. The first argument is the opening book file in CSV format,
+     * and the second argument is the compiled opening book file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: OpeningBookCompiler <book.csv> <book" + OpeningBookLoader.COMPILED_EXTENSION + ">");
+            System.exit(1);
+        }
+        try {
+            final long start = System.currentTimeMillis();
+            final int numberOfPositions = compile(new File(args[0]), Path.of(args[1]));
+            System.out.println("Compiled " + numberOfPositions + " positions in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (IOException | ParseException e) {
+            System.err.println("Cannot compile opening book: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
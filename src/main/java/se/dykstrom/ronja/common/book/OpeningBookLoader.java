@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.logging.Logger;
+
+/**
+ * Loads opening books from file. The format of the opening book file is determined by the file
+ * extension. Files with extension {@value #COMPILED_EXTENSION} are compiled opening books, created
+ * by {@link OpeningBookCompiler}, files with extension {@value #POLYGLOT_EXTENSION} are opening books
+ * in Polyglot format, and all other files are opening books in CSV format.
+ *
+ * @author Johan Dykstrom
+ */
+public final class OpeningBookLoader {
+
+    private static final Logger TLOG = Logger.getLogger(OpeningBookLoader.class.getName());
+
+    /** The file extension of compiled opening book files. */
+    public static final String COMPILED_EXTENSION = ".rbk";
+
+    /** The file extension of Polyglot opening book files. */
+    public static final String POLYGLOT_EXTENSION = ".bin";
+
+    private OpeningBookLoader() { }
+
+    /**
+     * Loads the opening book file.
+     *
+     * @param file The opening book file.
+     * @return The opening book.
+     * @throws IOException If the opening book file cannot be read.
+     * @throws ParseException If the opening book file cannot be parsed.
+     */
+    public static OpeningBook load(final File file) throws IOException, ParseException {
+        if (file.getName().endsWith(COMPILED_EXTENSION)) {
+            final long start = System.currentTimeMillis();
+            final OpeningBook book = CompiledOpeningBook.open(file.toPath());
+            final long stop = System.currentTimeMillis();
+            TLOG.info("Opened compiled opening book with " + book.size() + " positions in " + (stop - start) + " ms");
+            return book;
+        }
+        if (file.getName().endsWith(POLYGLOT_EXTENSION)) {
+            final long start = System.currentTimeMillis();
+            final PolyglotOpeningBook book = PolyglotOpeningBook.open(file.toPath());
+            final long stop = System.currentTimeMillis();
+            TLOG.info("Opened Polyglot opening book with " + book.getNumberOfEntries() + " entries in " + (stop - start) + " ms");
+            return book;
+        }
+        return OpeningBookParser.parse(file);
+    }
+}
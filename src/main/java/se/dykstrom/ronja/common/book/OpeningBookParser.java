@@ -27,8 +27,8 @@ import java.nio.file.Files;
 import java.text.ParseException;
 import java.util.*;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
-import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
@@ -44,6 +44,9 @@ public class OpeningBookParser {
 
     private static final Logger TLOG = Logger.getLogger(OpeningBookParser.class.getName());
 
+    /** Subtrees of the trie of opening lines are resolved in parallel down to this depth. */
+    private static final int PARALLEL_DEPTH = 3;
+
     /**
      * Loads the opening book file.
      *
@@ -53,76 +56,169 @@ public class OpeningBookParser {
      * @throws ParseException If the opening book file cannot be parsed.
      */
     public static OpeningBook parse(File file) throws IOException, ParseException {
-        Map<Position, List<BookMove>> positions;
-
         long start = System.currentTimeMillis();
+        Map<Position, List<BookMove>> positions = readPositions(file);
+        long stop = System.currentTimeMillis();
+        TLOG.info("Loaded opening book in " + (stop - start) + " ms");
+
+        // Do some counting
+        Set<Integer> hashCodes = positions.keySet().stream().map(Position::hashCode).collect(toSet());
+        TLOG.info("Unique positions: " + positions.size() + ", unique hash codes: " + hashCodes.size());
+
+        return new OpeningBook(positions);
+    }
+
+    /**
+     * Reads and parses the opening book file, and returns the positions and book moves found in the file.
+     * The weights of the book moves are returned as found in the file, without converting them to percent.
+     *
+     * @param file The opening book file.
+     * @return A map of positions and book moves.
+     * @throws IOException If the opening book file cannot be read.
+     * @throws ParseException If the opening book file cannot be parsed.
+     */
+    static Map<Position, List<BookMove>> readPositions(File file) throws IOException, ParseException {
         try {
             // Read all lines and remove empty lines and comments
             List<String> lines = Files.lines(file.toPath())
                     .map(String::trim)
                     .filter(line -> !line.isEmpty() && !line.startsWith("#"))
                     .collect(toList());
-            positions = parseLines(lines);
+            return parseLines(lines);
         } catch (IOException e) {
             TLOG.severe("Failed to open file '" + file.getName() + "': " + e);
             throw e;
         }
-        long stop = System.currentTimeMillis();
-        TLOG.info("Loaded opening book in " + (stop - start) + " ms");
-
-        // Do some counting
-        Set<Integer> hashCodes = positions.keySet().stream().map(Position::hashCode).collect(toSet());
-        TLOG.info("Unique positions: " + positions.size() + ", unique hash codes: " + hashCodes.size());
-
-        return new OpeningBook(positions);
     }
 
     /**
      * Parses all non-empty lines that were read from the opening book file.
+     * <p>
+     * Since each line lists all moves from the start position, many lines share the same prefix. The lines
+     * are therefore first arranged in a trie of move texts, so that the position after each distinct prefix
+     * is calculated exactly once. Independent subtrees of the trie are then resolved in parallel. Finally,
+     * the book moves are collected in the order of the lines, so the result is the same as if each line was
+     * parsed on its own.
      *
      * @param lines The opening lines to parse.
      * @return A map of positions and book moves.
      */
     static Map<Position, List<BookMove>> parseLines(List<String> lines) throws ParseException {
-        Map<Position, List<BookMove>> positions = new HashMap<>();
-
-        for (String line : lines) {
+        final Node root = new Node(null);
+        root.position = Position.START;
+
+        // Build the trie, and check the syntax of all lines before doing anything else
+        final Node[] nodes = new Node[lines.size()];
+        final String[][] lineMoves = new String[lines.size()][];
+        final String[] bookMoves = new String[lines.size()];
+        for (int index = 0; index < lines.size(); index++) {
+            String line = lines.get(index);
             String[] fields = line.split(";", -1);
             if (fields.length != 3) {
                 throw new ParseException("Syntax error on line '" + line + "'", 0);
             }
 
             String[] moves = fields[0].trim().split(" ");
-            String bookMove = fields[1].trim();
+            bookMoves[index] = fields[1].trim();
             // Ignore the comment field
 
-            // Create book position from available moves
-            Position position;
-            try {
-                if (moves.length == 1 && moves[0].isBlank()) {
-                    position = Position.START;
-                } else {
-                    position = Position.of(asList(moves));
+            Node node = root;
+            if (!(moves.length == 1 && moves[0].isBlank())) {
+                for (String move : moves) {
+                    node = node.children.computeIfAbsent(move, Node::new);
                 }
-            } catch (IllegalMoveException e) {
-                TLOG.warning("Illegal move in opening line " + Arrays.toString(moves) + ": " + e);
+            }
+            node.lines.add(index);
+            nodes[index] = node;
+            lineMoves[index] = moves;
+        }
+
+        // Calculate all positions, and parse the book moves in them
+        final BookMove[] results = new BookMove[lines.size()];
+        final String[] warnings = new String[lines.size()];
+        resolve(root, 0, lineMoves, bookMoves, results, warnings);
+
+        // Collect the book moves in the order of the lines
+        Map<Position, List<BookMove>> positions = new HashMap<>();
+        for (int index = 0; index < lines.size(); index++) {
+            final Node node = nodes[index];
+            if (node.error != null) {
+                TLOG.warning("Illegal move in opening line " + Arrays.toString(lineMoves[index]) + ": " + node.error);
                 continue;
             }
 
             // Get/create the list of possible moves for this position
-            List<BookMove> list = positions.computeIfAbsent(position, key -> new ArrayList<>());
-
-            // Create book move and add to list
-            try {
-                String[] moveAndWeight = bookMove.split(("/"));
-                list.add(new BookMove(MoveParser.parse(moveAndWeight[0], position), Integer.parseInt(moveAndWeight[1])));
-            } catch (IllegalMoveException e) {
-                TLOG.warning("Illegal move in opening line " + Arrays.toString(moves) + ": " + bookMove);
-            } catch (NumberFormatException e) {
-                TLOG.warning("Illegal weight in opening line " + Arrays.toString(moves) + ": " + bookMove);
+            List<BookMove> list = positions.computeIfAbsent(node.position, key -> new ArrayList<>());
+            if (results[index] != null) {
+                list.add(results[index]);
+            } else {
+                TLOG.warning(warnings[index]);
             }
         }
 
         return positions;
     }
+
+    /**
+     * Calculates the positions of all children of the given node, and parses the book moves of all lines
+     * that end in the given node. The children near the root of the trie are resolved in parallel.
+     */
+    private static void resolve(Node node, int depth, String[][] lineMoves, String[] bookMoves, BookMove[] results, String[] warnings) {
+        if (node.error == null) {
+            for (int index : node.lines) {
+                String bookMove = bookMoves[index];
+                try {
+                    String[] moveAndWeight = bookMove.split(("/"));
+                    results[index] = new BookMove(MoveParser.parse(moveAndWeight[0], node.position), Integer.parseInt(moveAndWeight[1]));
+                } catch (IllegalMoveException e) {
+                    warnings[index] = "Illegal move in opening line " + Arrays.toString(lineMoves[index]) + ": " + bookMove;
+                } catch (NumberFormatException e) {
+                    warnings[index] = "Illegal weight in opening line " + Arrays.toString(lineMoves[index]) + ": " + bookMove;
+                }
+            }
+        }
+
+        Stream<Node> children = node.children.values().stream();
+        if (depth < PARALLEL_DEPTH) {
+            children = children.parallel();
+        }
+        children.forEach(child -> {
+            if (node.error != null) {
+                child.error = node.error;
+            } else {
+                try {
+                    child.position = node.position.withMove(MoveParser.parse(child.move, node.position));
+                } catch (IllegalMoveException e) {
+                    child.error = e;
+                }
+            }
+            resolve(child, depth + 1, lineMoves, bookMoves, results, warnings);
+        });
+    }
+
+    /**
+     * A node in the trie of opening lines. Each node represents the position after the moves on
+     * the path from the root to the node.
+     */
+    private static class Node {
+
+        /** The move leading to this node, or null for the root node. */
+        private final String move;
+
+        /** The child nodes, in the order they were found in the file. */
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        /** The indices of the lines that end in this node. */
+        private final List<Integer> lines = new ArrayList<>();
+
+        /** The position after the moves leading to this node. */
+        private Position position;
+
+        /** The error that occurred when calculating the position, if any. */
+        private IllegalMoveException error;
+
+        Node(String move) {
+            this.move = move;
+        }
+    }
 }
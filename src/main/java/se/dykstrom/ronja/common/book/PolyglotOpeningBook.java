@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.model.Square;
+import se.dykstrom.ronja.common.parser.CanParser;
+import se.dykstrom.ronja.common.parser.IllegalMoveException;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static se.dykstrom.ronja.common.model.Piece.KING;
+
+/**
+ * An opening book that reads its moves from an opening book file in Polyglot format. The file is memory-mapped
+ * when the book is opened, and positions are looked up using a binary search on the Polyglot key, calculated by
+ * {@link PolyglotKeys}. Opening the book therefore takes constant time, regardless of the size of the book, and
+ * the book moves are not stored on the Java heap.
+ * <p>
+ * A Polyglot book file is a sequence of 16-byte entries, sorted on key, with all values in big-endian byte order:
+ * <p>
+ * 00-07 - key (unsigned)
+ * 08-09 - move
+ * 10-11 - weight
+ * 12-15 - learn data (ignored)
+ * <p>
+ * The bits of the move are organized like this:
+ * <p>
+ * 00-05 - to square
+ * 06-11 - from square
+ * 12-14 - promotion piece (0 = none, 1 = knight, 2 = bishop, 3 = rook, 4 = queen)
+ * <p>
+ * Castling moves are stored as the king capturing its own rook, for example e1h1 instead of e1g1.
+ * <p>
+ * The weights of the book moves in a position are converted to percent, and the move to make is selected
+ * the same way as in {@link OpeningBook}. The mapped buffer is only accessed using absolute reads, so this
+ * class is thread safe.
+ *
+ * @author Johan Dykstrom
+ */
+public class PolyglotOpeningBook extends OpeningBook {
+
+    private static final Logger TLOG = Logger.getLogger(PolyglotOpeningBook.class.getName());
+
+    /** The size of each entry in bytes. */
+    static final int ENTRY_SIZE = 16;
+
+    private static final String PROMOTION_PIECES = " nbrq";
+
+    /** The memory-mapped opening book file. */
+    private final ByteBuffer buffer;
+
+    /** The number of entries, that is, book moves. */
+    private final int numberOfEntries;
+
+    /** Used to calculate the keys of the positions to look up. */
+    private final PolyglotKeys keys;
+
+    /** Used when there are several possible moves in one position. */
+    private final Random random = new Random();
+
+    /** The number of unique positions, or -1 if they have not been counted yet. */
+    private volatile int numberOfPositions = -1;
+
+    private PolyglotOpeningBook(final ByteBuffer buffer, final int numberOfEntries, final PolyglotKeys keys) {
+        this.buffer = buffer;
+        this.numberOfEntries = numberOfEntries;
+        this.keys = keys;
+    }
+
+    /**
+     * Opens the given Polyglot opening book file, using the standard Polyglot random numbers.
+     *
+     * @param path The path of the Polyglot opening book file.
+     * @return The opening book.
+     * @throws IOException If the file cannot be read, or is not a valid Polyglot opening book file.
+     * @see PolyglotKeys#standard()
+     */
+    public static PolyglotOpeningBook open(final Path path) throws IOException {
+        return open(path, PolyglotKeys.standard());
+    }
+
+    /**
+     * Opens the given Polyglot opening book file, using the given keys to look up positions.
+     *
+     * @param path The path of the Polyglot opening book file.
+     * @param keys Used to calculate the keys of the positions to look up.
+     * @return The opening book.
+     * @throws IOException If the file cannot be read, or is not a valid Polyglot opening book file.
+     */
+    public static PolyglotOpeningBook open(final Path path, final PolyglotKeys keys) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            final long size = channel.size();
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("invalid size of Polyglot opening book file: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.BIG_ENDIAN);
+            return new PolyglotOpeningBook(buffer, (int) (size / ENTRY_SIZE), keys);
+        }
+    }
+
+    /**
+     * Returns the number of unique positions in the book. The positions are counted the first
+     * time this method is called, which requires reading the entire file.
+     */
+    @Override
+    public int size() {
+        int count = numberOfPositions;
+        if (count == -1) {
+            count = 0;
+            for (int index = 0; index < numberOfEntries; index++) {
+                if (index == 0 || getKey(index) != getKey(index - 1)) {
+                    count++;
+                }
+            }
+            numberOfPositions = count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns {@code true} if the positions in the book have been counted.
+     */
+    boolean isSizeKnown() {
+        return numberOfPositions != -1;
+    }
+
+    /**
+     * Returns the number of entries, that is, book moves, in the book.
+     */
+    public int getNumberOfEntries() {
+        return numberOfEntries;
+    }
+
+    @Override
+    public int findBestMove(final Position position) {
+        final List<BookMove> moves = findAllMoves(position);
+
+        // If no book moves are known for this position
+        if (moves == null) {
+            return 0;
+        }
+
+        // Make a random decision on which move to make
+        return findMoveInList(moves, random.nextInt(100));
+    }
+
+    @Override
+    public List<BookMove> findAllMoves(final Position position) {
+        final long key = keys.key(position);
+        final int first = findFirstEntry(key);
+        if (first == -1) {
+            return null;
+        }
+
+        final List<BookMove> moves = new ArrayList<>();
+        for (int index = first; index < numberOfEntries && getKey(index) == key; index++) {
+            final int move = decodeMove(getMove(index), position);
+            if (move != 0) {
+                moves.add(new BookMove(move, getWeight(index)));
+            }
+        }
+        return moves.isEmpty() ? null : convertWeightsToPercent(moves);
+    }
+
+    /**
+     * Decodes the given Polyglot move, and converts it to a move in the given position.
+     * Returns 0 if the move is not legal in the position, which may happen in case of
+     * a key collision.
+     */
+    static int decodeMove(final int polyglotMove, final Position position) {
+        final int from = (polyglotMove >>> 6) & 0x3f;
+        int to = polyglotMove & 0x3f;
+        final int promotion = (polyglotMove >>> 12) & 0x7;
+
+        // Castling is encoded as the king capturing its own rook
+        if (position.getPiece(Square.indexToId(from)) == KING && (from & 7) == 4 && (from >> 3) == (to >> 3)) {
+            if ((to & 7) == 7) {
+                to = from + 2;
+            } else if ((to & 7) == 0) {
+                to = from - 2;
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder(5);
+        builder.append(Square.indexToName(from)).append(Square.indexToName(to));
+        if (promotion > 0 && promotion < PROMOTION_PIECES.length()) {
+            builder.append(PROMOTION_PIECES.charAt(promotion));
+        }
+        final String move = builder.toString().toLowerCase();
+
+        try {
+            return CanParser.parse(move, position);
+        } catch (IllegalMoveException e) {
+            TLOG.fine(() -> "Ignoring illegal book move " + move + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the index of the first entry with the given key, or -1 if there is no such entry.
+     * Keys are compared as unsigned values, since that is how they are sorted in the file.
+     */
+    private int findFirstEntry(final long key) {
+        int low = 0;
+        int high = numberOfEntries;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(getKey(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (low < numberOfEntries && getKey(low) == key) ? low : -1;
+    }
+
+    private long getKey(final int index) {
+        return buffer.getLong(index * ENTRY_SIZE);
+    }
+
+    private int getMove(final int index) {
+        return Short.toUnsignedInt(buffer.getShort(index * ENTRY_SIZE + Long.BYTES));
+    }
+
+    private int getWeight(final int index) {
+        return Short.toUnsignedInt(buffer.getShort(index * ENTRY_SIZE + Long.BYTES + Short.BYTES));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.database;
+
+/**
+ * Statistics for a move made in a position, found in a {@link PositionIndex}.
+ *
+ * @param move The move.
+ * @param games The number of times the move was made in the position.
+ * @param whiteWins The number of those games that white won.
+ * @param draws The number of those games that were drawn.
+ * @param blackWins The number of those games that black won.
+ * @author Johan Dykstrom
+ */
+public record MoveCount(int move, int games, int whiteWins, int draws, int blackWins) {
+
+    /**
+     * Returns a new move count, that also includes one game with the given result.
+     */
+    MoveCount add(final int result) {
+        return new MoveCount(move,
+                             games + 1,
+                             whiteWins + (result == PositionIndex.WHITE_WINS ? 1 : 0),
+                             draws + (result == PositionIndex.DRAW ? 1 : 0),
+                             blackWins + (result == PositionIndex.BLACK_WINS ? 1 : 0));
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import se.dykstrom.ronja.common.model.Position;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * An index of all positions in all games of a PGN file, created by {@link PositionIndexBuilder}. The index is
+ * used to find the games that reached a certain position, and the moves that were made in that position.
+ * <p>
+ * The index file starts with a header, followed by one 16-byte record for each position in each game, sorted
+ * on the Zobrist key of the position. All values are in little-endian byte order. The header contains:
+ * <p>
+ * 00-03 - magic number
+ * 04-07 - version
+ * 08-15 - number of records
+ * <p>
+ * Each record contains the key of the position, followed by a value with these bits:
+ * <p>
+ * 00-22 - the move made in the position, or 0 if it was the last position of the game
+ * 23-24 - the game result, see {@link #WHITE_WINS}, {@link #BLACK_WINS}, and {@link #DRAW}
+ * 25-63 - the byte offset of the game in the PGN file
+ * <p>
+ * The file is memory-mapped when the index is opened, in chunks of 1 GB, so the index can be larger than
+ * both the Java heap and the 2 GB limit of a single mapping. Positions are looked up using a binary search.
+ * The mapped buffers are only accessed using absolute reads, so this class is thread safe.
+ *
+ * @author Johan Dykstrom
+ */
+public class PositionIndex {
+
+    static final int MAGIC = 0x58444952;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+
+    /** Game result when the result is unknown. */
+    public static final int UNKNOWN = 0;
+
+    /** Game result when white won. */
+    public static final int WHITE_WINS = 1;
+
+    /** Game result when black won. */
+    public static final int BLACK_WINS = 2;
+
+    /** Game result when the game was drawn. */
+    public static final int DRAW = 3;
+
+    static final int MOVE_MASK = 0x7fffff;
+    static final int RESULT_OFFSET = 23;
+    static final int RESULT_MASK = 0x03;
+    static final int GAME_OFFSET = 25;
+
+    /** The largest game offset that can be stored in a record. */
+    static final long MAX_GAME_OFFSET = (1L << (Long.SIZE - GAME_OFFSET)) - 1;
+
+    /** The number of records in each mapped chunk, 1 GB. */
+    private static final int CHUNK_BITS = 26;
+    private static final long CHUNK_RECORDS = 1L << CHUNK_BITS;
+
+    /** The memory-mapped chunks of the index file. */
+    private final ByteBuffer[] chunks;
+
+    /** The number of records. */
+    private final long numberOfRecords;
+
+    private PositionIndex(final ByteBuffer[] chunks, final long numberOfRecords) {
+        this.chunks = chunks;
+        this.numberOfRecords = numberOfRecords;
+    }
+
+    /**
+     * Opens the given position index file.
+     *
+     * @param path The path of the position index file.
+     * @return The position index.
+     * @throws IOException If the file cannot be read, or is not a valid position index file.
+     */
+    public static PositionIndex open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("invalid size of position index file: " + path);
+            }
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            final long numberOfRecords = header.getLong(8);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("not a valid position index file: " + path);
+            }
+            if (numberOfRecords < 0 || size != HEADER_SIZE + numberOfRecords * RECORD_SIZE) {
+                throw new IOException("invalid number of records in position index file: " + path);
+            }
+
+            final ByteBuffer[] chunks = new ByteBuffer[(int) ((numberOfRecords + CHUNK_RECORDS - 1) / CHUNK_RECORDS)];
+            for (int i = 0; i < chunks.length; i++) {
+                final long first = i * CHUNK_RECORDS;
+                final long records = Math.min(CHUNK_RECORDS, numberOfRecords - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE)
+                                   .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new PositionIndex(chunks, numberOfRecords);
+        }
+    }
+
+    /**
+     * Returns the number of records in the index, that is, the total number of positions in all games.
+     */
+    public long size() {
+        return numberOfRecords;
+    }
+
+    /**
+     * Returns the number of times the given position occurs in the indexed games.
+     */
+    public long count(final Position position) {
+        final long key = position.getKey();
+        final long first = findFirstRecord(key);
+        long index = first;
+        while (index < numberOfRecords && getKey(index) == key) {
+            index++;
+        }
+        return index - first;
+    }
+
+    /**
+     * Returns the byte offsets in the PGN file of all games that reached the given position, in ascending order.
+     * The games can be read using {@link se.dykstrom.ronja.common.parser.PgnReader#open(Path, long)}.
+     */
+    public long[] findGames(final Position position) {
+        final long key = position.getKey();
+        long[] offsets = new long[16];
+        int count = 0;
+        for (long index = findFirstRecord(key); index < numberOfRecords && getKey(index) == key; index++) {
+            final long offset = getValue(index) >>> GAME_OFFSET;
+            // The records are sorted on game offset within each key, so repetitions in the same game are adjacent
+            if (count == 0 || offsets[count - 1] != offset) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = offset;
+            }
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Returns statistics for all moves that were made in the given position, with the most common move first.
+     * If the position does not occur in the indexed games, or only as the last position of games, this method
+     * returns an empty list.
+     */
+    public List<MoveCount> findMoves(final Position position) {
+        final long key = position.getKey();
+        final Map<Integer, MoveCount> moves = new LinkedHashMap<>();
+        for (long index = findFirstRecord(key); index < numberOfRecords && getKey(index) == key; index++) {
+            final long value = getValue(index);
+            final int move = (int) value & MOVE_MASK;
+            if (move != 0) {
+                final int result = (int) (value >>> RESULT_OFFSET) & RESULT_MASK;
+                moves.compute(move, (m, count) -> (count != null ? count : new MoveCount(m, 0, 0, 0, 0)).add(result));
+            }
+        }
+        final List<MoveCount> result = new ArrayList<>(moves.values());
+        result.sort(Comparator.comparingInt(MoveCount::games).reversed());
+        return result;
+    }
+
+    /**
+     * Returns the index of the first record with the given key, or, if there is no such record,
+     * the index of the first record with a greater key.
+     */
+    private long findFirstRecord(final long key) {
+        long low = 0;
+        long high = numberOfRecords;
+        while (low < high) {
+            final long middle = (low + high) >>> 1;
+            if (getKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long getKey(final long index) {
+        return chunks[(int) (index >>> CHUNK_BITS)].getLong((int) (index & (CHUNK_RECORDS - 1)) * RECORD_SIZE);
+    }
+
+    private long getValue(final long index) {
+        return chunks[(int) (index >>> CHUNK_BITS)].getLong((int) (index & (CHUNK_RECORDS - 1)) * RECORD_SIZE + Long.BYTES);
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.PgnGame;
+import se.dykstrom.ronja.common.parser.PgnReader;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static se.dykstrom.ronja.common.database.PositionIndex.GAME_OFFSET;
+import static se.dykstrom.ronja.common.database.PositionIndex.HEADER_SIZE;
+import static se.dykstrom.ronja.common.database.PositionIndex.MAGIC;
+import static se.dykstrom.ronja.common.database.PositionIndex.MAX_GAME_OFFSET;
+import static se.dykstrom.ronja.common.database.PositionIndex.MOVE_MASK;
+import static se.dykstrom.ronja.common.database.PositionIndex.RECORD_SIZE;
+import static se.dykstrom.ronja.common.database.PositionIndex.RESULT_OFFSET;
+import static se.dykstrom.ronja.common.database.PositionIndex.VERSION;
+
+/**
+ * Builds a {@link PositionIndex} from a PGN file, using external sorting, so the index can be larger than the
+ * Java heap. The games are read and replayed in parallel using
+ * {@link PgnReader#readAll(Path, int, java.util.function.Consumer)}, and each worker thread collects records in
+ * a fixed-size buffer. When a buffer is full, it is sorted and written to a temporary run file. When all games
+ * have been read, the runs are merged into the index file, in several passes if there are many runs. Memory use
+ * is therefore bounded by the number of threads times the size of the buffers, regardless of the size of the
+ * PGN file.
+ * <p>
+ * Usage: PositionIndexBuilder [-c THREADS] [-r RECORDS_PER_RUN] PGN INDEX
+ *
+ * @author Johan Dykstrom
+ */
+public class PositionIndexBuilder {
+
+    private static final Logger TLOG = Logger.getLogger(PositionIndexBuilder.class.getName());
+
+    private static final String USAGE = "Usage: PositionIndexBuilder [-c THREADS] [-r RECORDS_PER_RUN] PGN INDEX";
+
+    /** The default number of records in each run, 16 MB per thread. */
+    public static final int DEFAULT_RECORDS_PER_RUN = 1 << 20;
+
+    /** The default maximum number of runs to merge in one pass. */
+    static final int DEFAULT_MAX_FAN_IN = 128;
+
+    /** The size of the buffers used to read and write run files. */
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    /** Below this size, ranges are sorted using insertion sort. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final int recordsPerRun;
+    private final int maxFanIn;
+
+    /**
+     * Creates a new position index builder, that sorts the given number of records in memory per thread.
+     */
+    public PositionIndexBuilder(final int recordsPerRun) {
+        this(recordsPerRun, DEFAULT_MAX_FAN_IN);
+    }
+
+    PositionIndexBuilder(final int recordsPerRun, final int maxFanIn) {
+        this.recordsPerRun = recordsPerRun;
+        this.maxFanIn = maxFanIn;
+    }
+
+    /**
+     * Reads all games in the given PGN file, using {@code threads} threads, and writes an index of all
+     * positions in the games to the given index file. Temporary run files are created in the directory
+     * of the index file, and deleted when the index has been built.
+     *
+     * @return The number of records in the index.
+     */
+    public long build(final Path pgnFile, final Path indexFile, final int threads) throws IOException, InterruptedException {
+        final Path directory = Files.createTempDirectory(indexFile.toAbsolutePath().getParent(), "ronja-index-");
+        final List<Path> runs = new ArrayList<>();
+        try {
+            final AtomicInteger runNumber = new AtomicInteger();
+            final List<RunBuffer> buffers = new ArrayList<>();
+            final ThreadLocal<RunBuffer> threadBuffer = ThreadLocal.withInitial(() -> {
+                final RunBuffer buffer = new RunBuffer(recordsPerRun, directory, runNumber, runs);
+                synchronized (buffers) {
+                    buffers.add(buffer);
+                }
+                return buffer;
+            });
+
+            final long start = System.currentTimeMillis();
+            final int numberOfGames;
+            try {
+                numberOfGames = PgnReader.readAll(pgnFile, threads, game -> threadBuffer.get().add(game));
+            } catch (IllegalStateException e) {
+                if (e.getCause() instanceof UncheckedIOException uioe) {
+                    throw uioe.getCause();
+                }
+                throw e;
+            }
+            for (RunBuffer buffer : buffers) {
+                buffer.writeRun();
+            }
+            final long stop = System.currentTimeMillis();
+            TLOG.info("Read " + numberOfGames + " games into " + runs.size() + " runs in " + (stop - start) + " ms");
+
+            return merge(runs, directory, indexFile);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Merges the given runs into the index file, in several passes if there are more than {@link #maxFanIn} runs.
+     * Runs that have been merged are deleted, and removed from the list.
+     *
+     * @return The number of records in the index.
+     */
+    private long merge(final List<Path> runs, final Path directory, final Path indexFile) throws IOException {
+        int pass = 0;
+        while (runs.size() > maxFanIn) {
+            final List<Path> group = new ArrayList<>(runs.subList(0, maxFanIn));
+            final Path mergedRun = directory.resolve("merge-" + pass++ + ".run");
+            runs.add(mergedRun);
+            try (FileChannel out = FileChannel.open(mergedRun, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                mergeRuns(group, out);
+            }
+            for (Path run : group) {
+                Files.delete(run);
+            }
+            runs.removeAll(group);
+        }
+
+        try (FileChannel out = FileChannel.open(indexFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            out.position(HEADER_SIZE);
+            final long numberOfRecords = mergeRuns(runs, out);
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(numberOfRecords).flip();
+            out.write(header, 0);
+            return numberOfRecords;
+        }
+    }
+
+    /**
+     * Merges the given sorted runs into a single sorted sequence of records, written to the given channel.
+     *
+     * @return The number of records written.
+     */
+    private static long mergeRuns(final List<Path> runs, final FileChannel out) throws IOException {
+        final PriorityQueue<RunReader> queue = new PriorityQueue<>(
+                (a, b) -> compare(a.key(), a.value(), b.key(), b.value()));
+        final List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                final RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long count = 0;
+            while (!queue.isEmpty()) {
+                final RunReader reader = queue.remove();
+                if (!buffer.hasRemaining()) {
+                    write(buffer, out);
+                }
+                buffer.putLong(reader.key()).putLong(reader.value());
+                count++;
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            write(buffer, out);
+            return count;
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static void write(final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Returns the result of the given game, encoded as in {@link PositionIndex}.
+     */
+    static int getResult(final PgnGame game) {
+        return switch (game.result()) {
+            case "1-0" -> PositionIndex.WHITE_WINS;
+            case "0-1" -> PositionIndex.BLACK_WINS;
+            case "1/2-1/2" -> PositionIndex.DRAW;
+            default -> PositionIndex.UNKNOWN;
+        };
+    }
+
+    // ------------------------------------------------------------------------
+    // Sorting:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Sorts the first {@code size} records, given as two parallel arrays, on key and then on value.
+     * The sorting algorithm used is quicksort, with insertion sort for small ranges.
+     */
+    static void sort(final long[] keys, final long[] values, final int size) {
+        sort(keys, values, 0, size - 1);
+    }
+
+    private static void sort(final long[] keys, final long[] values, int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            // Use the median of three as pivot, and recurse into the smaller part to limit the stack depth
+            final int middle = (low + high) >>> 1;
+            if (compare(keys, values, middle, low) < 0) {
+                swap(keys, values, middle, low);
+            }
+            if (compare(keys, values, high, low) < 0) {
+                swap(keys, values, high, low);
+            }
+            if (compare(keys, values, high, middle) < 0) {
+                swap(keys, values, high, middle);
+            }
+            final long pivotKey = keys[middle];
+            final long pivotValue = values[middle];
+
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(keys[i], values[i], pivotKey, pivotValue) < 0) {
+                    i++;
+                }
+                while (compare(keys[j], values[j], pivotKey, pivotValue) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            if (j - low < high - i) {
+                sort(keys, values, low, j);
+                low = i;
+            } else {
+                sort(keys, values, i, high);
+                high = j;
+            }
+        }
+
+        for (int index = low + 1; index <= high; index++) {
+            final long key = keys[index];
+            final long value = values[index];
+            int position = index;
+            while (position > low && compare(key, value, keys[position - 1], values[position - 1]) < 0) {
+                keys[position] = keys[position - 1];
+                values[position] = values[position - 1];
+                position--;
+            }
+            keys[position] = key;
+            values[position] = value;
+        }
+    }
+
+    private static int compare(final long[] keys, final long[] values, final int i, final int j) {
+        return compare(keys[i], values[i], keys[j], values[j]);
+    }
+
+    private static int compare(final long key1, final long value1, final long key2, final long value2) {
+        final int result = Long.compare(key1, key2);
+        // The values are compared unsigned, to keep game offsets in ascending order even if they use the sign bit
+        return (result != 0) ? result : Long.compareUnsigned(value1, value2);
+    }
+
+    private static void swap(final long[] keys, final long[] values, final int i, final int j) {
+        final long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        final long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    // ------------------------------------------------------------------------
+    // Runs:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Collects the records of one worker thread, and writes them to a new run file when full.
+     */
+    private static class RunBuffer {
+
+        private final long[] keys;
+        private final long[] values;
+        private final Path directory;
+        private final AtomicInteger runNumber;
+        private final List<Path> runs;
+        private int size;
+
+        RunBuffer(final int capacity, final Path directory, final AtomicInteger runNumber, final List<Path> runs) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.directory = directory;
+            this.runNumber = runNumber;
+            this.runs = runs;
+        }
+
+        /**
+         * Adds a record for each position in the given game.
+         */
+        void add(final PgnGame game) {
+            if (game.offset() > MAX_GAME_OFFSET) {
+                throw new UncheckedIOException(new IOException("game offset too large for position index: " + game.offset()));
+            }
+            final long gameValue = (game.offset() << GAME_OFFSET) | ((long) getResult(game) << RESULT_OFFSET);
+            Position position = game.startPosition();
+            for (int move : game.moves()) {
+                add(position.getKey(), gameValue | (move & MOVE_MASK));
+                position = position.withMove(move);
+            }
+            add(position.getKey(), gameValue);
+        }
+
+        private void add(final long key, final long value) {
+            if (size == keys.length) {
+                writeRun();
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * Sorts the records in the buffer, and writes them to a new run file.
+         */
+        void writeRun() {
+            if (size == 0) {
+                return;
+            }
+            sort(keys, values, size);
+            final Path run = directory.resolve("run-" + runNumber.getAndIncrement() + ".run");
+            synchronized (runs) {
+                runs.add(run);
+            }
+            try (FileChannel channel = FileChannel.open(run, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                for (int index = 0; index < size; index++) {
+                    if (!buffer.hasRemaining()) {
+                        write(buffer, channel);
+                    }
+                    buffer.putLong(keys[index]).putLong(values[index]);
+                }
+                write(buffer, channel);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Reads the records of a run file, one at a time.
+     */
+    private static class RunReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long key;
+        private long value;
+
+        RunReader(final Path path) throws IOException {
+            this.channel = FileChannel.open(path, READ);
+            this.buffer.limit(0);
+        }
+
+        /**
+         * Reads the next record, and returns {@code true} if there was one.
+         */
+        boolean next() throws IOException {
+            if (buffer.remaining() < RECORD_SIZE) {
+                buffer.compact();
+                while (buffer.position() < RECORD_SIZE && channel.read(buffer) != -1) {
+                    // Keep reading until there is a complete record, or the end of the file
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_SIZE) {
+                    return false;
+                }
+            }
+            key = buffer.getLong();
+            value = buffer.getLong();
+            return true;
+        }
+
+        long key() {
+            return key;
+        }
+
+        long value() {
+            return value;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Builds a position index from a PGN file.
+     */
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int recordsPerRun = DEFAULT_RECORDS_PER_RUN;
+        Path input = null;
+        Path output = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    case "-r" -> recordsPerRun = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (input == null) {
+                            input = Path.of(args[i]);
+                        } else if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("too many arguments");
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            input = null;
+        }
+        if (input == null || output == null) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final long start = System.nanoTime();
+        final long numberOfRecords = new PositionIndexBuilder(recordsPerRun).build(input, output, threads);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Indexed %d positions in %.1f s (%.0f positions/s)%n", numberOfRecords, seconds, numberOfRecords / seconds);
+    }
+}
@@ -17,12 +17,18 @@
 
 package se.dykstrom.ronja.common.model;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.logging.Logger;
 
 import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.engine.core.NnueNetwork;
+import se.dykstrom.ronja.engine.core.SearchEngine;
 import se.dykstrom.ronja.engine.time.TimeControl;
 import se.dykstrom.ronja.engine.time.TimeData;
+import se.dykstrom.ronja.engine.utils.AppConfig;
 
 import static se.dykstrom.ronja.engine.time.TimeControlType.CLASSIC;
 import static se.dykstrom.ronja.engine.time.TimeControlType.SECONDS_PER_MOVE;
@@ -88,6 +94,9 @@ public class Game {
     /** Remaining time and moves for the engine. */
     private TimeData timeData;
 
+    /** The search engine used in this game, created when first needed. */
+    private SearchEngine searchEngine;
+
     // ------------------------------------------------------------------------
 
     /**
@@ -110,6 +119,40 @@ public class Game {
         setStartTime(LocalDateTime.now());
         setTimeControl(TWO_MINUTES);
         setTimeData(TimeData.from(TWO_MINUTES));
+        if (searchEngine != null) {
+            searchEngine.clear();
+        }
+    }
+
+    /**
+     * Returns the search engine used in this game. The search engine is created the first time
+     * this method is called, and is then kept for the rest of the session. It is cleared when
+     * a new game starts. If a neural network is configured, it is loaded when the search engine
+     * is created. If the network cannot be loaded, the hand-written evaluator is used instead.
+     */
+    public SearchEngine getSearchEngine() {
+        if (searchEngine == null) {
+            searchEngine = new SearchEngine(this, AppConfig.getHashSize(), AppConfig.getEvalCacheSize(), loadNetwork());
+        }
+        return searchEngine;
+    }
+
+    /**
+     * Loads the configured neural network, or returns null if no network is configured,
+     * or if the network cannot be loaded.
+     */
+    private static NnueNetwork loadNetwork() {
+        final String filename = AppConfig.getNnueFilename();
+        if (filename == null) {
+            return null;
+        }
+        try {
+            return NnueNetwork.load(Path.of(filename));
+        } catch (IOException e) {
+            final var logger = Logger.getLogger(Game.class.getName());
+            logger.severe("Failed to load neural network. " + e.getMessage());
+            return null;
+        }
     }
 
     /**
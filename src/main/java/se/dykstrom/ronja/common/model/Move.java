@@ -124,6 +124,20 @@ public class Move {
         return indexToId(move & SQUARE_MASK);
     }
 
+    /**
+     * Returns the index of the square moved from.
+     */
+    public static int getFromIndex(int move) {
+        return (move >> FROM_OFFSET) & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the index of the square moved to.
+     */
+    public static int getToIndex(int move) {
+        return move & SQUARE_MASK;
+    }
+
     /**
      * Returns the captured piece, or 0 if no piece captured.
      */
@@ -23,6 +23,7 @@ import java.util.List;
 import se.dykstrom.ronja.common.parser.IllegalMoveException;
 import se.dykstrom.ronja.common.parser.MoveParser;
 import se.dykstrom.ronja.engine.core.AttackGenerator;
+import se.dykstrom.ronja.engine.core.AttackTables;
 
 import static se.dykstrom.ronja.common.model.Piece.BISHOP;
 import static se.dykstrom.ronja.common.model.Piece.KING;
@@ -112,10 +113,12 @@ public class Position {
     public final long black;
 
     /**
-     * Bitboards representing the squares attacked by white/black pieces.
+     * Bitboards representing the squares attacked by white/black pieces, or 0 if they have not been
+     * calculated yet. The attack bitboards are expensive to calculate, and most positions created
+     * during a search never need them, so they are calculated lazily on first access.
      */
-    public final long whiteAttack;
-    public final long blackAttack;
+    private long whiteAttack;
+    private long blackAttack;
 
     /**
      * The ID of the 'en passant' target square, or 0 if 'en passant' is not allowed in this position.
@@ -132,6 +135,18 @@ public class Position {
      */
     private final int halfMoveClock;
 
+    /**
+     * The Zobrist key of this position, or 0 if it has not been calculated yet. The key is
+     * updated incrementally when making a move, and calculated lazily in all other cases.
+     */
+    private long key;
+
+    /**
+     * The Zobrist key of the pawns in this position, or 0 if it has not been calculated yet. Like the
+     * position key, it is updated incrementally when making a move, and calculated lazily in all other cases.
+     */
+    private long pawnKey;
+
     /**
      * Used to find attacked squares.
      */
@@ -139,6 +154,12 @@ public class Position {
 
     public Position(long bishop, long king, long knight, long pawn, long queen, long rook, long white, long black,
                     long whiteAttack, long blackAttack, long enPassantSquare, int fullMoveNumber, int halfMoveClock, long flags) {
+        this(bishop, king, knight, pawn, queen, rook, white, black, whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags, 0, 0);
+    }
+
+    private Position(long bishop, long king, long knight, long pawn, long queen, long rook, long white, long black,
+                     long whiteAttack, long blackAttack, long enPassantSquare, int fullMoveNumber, int halfMoveClock, long flags,
+                     long key, long pawnKey) {
         this.bishop = bishop;
         this.king = king;
         this.knight = knight;
@@ -153,6 +174,8 @@ public class Position {
         this.fullMoveNumber = fullMoveNumber;
         this.halfMoveClock = halfMoveClock;
         this.flags = flags;
+        this.key = key;
+        this.pawnKey = pawnKey;
     }
 
     /**
@@ -208,6 +231,30 @@ public class Position {
         return position;
     }
 
+    /**
+     * Creates a new position from the given bitboards and game state. The attack bitboards and the
+     * Zobrist keys are calculated once, when the position is created, so the returned position is
+     * complete. This is the fastest way to create a position that is not derived from another position.
+     *
+     * @param isWhiteMove True if it is white's move.
+     * @param castlingRights The castling rights, as a bit mask with white king-side castling in bit 0,
+     *                       white queen-side in bit 1, black king-side in bit 2, and black queen-side in bit 3.
+     * @param enPassantSquare The ID of the 'en passant' target square, or 0.
+     * @param halfMoveClock The number of half moves since the last pawn advance or capture.
+     * @param fullMoveNumber The number of the full move.
+     */
+    public static Position of(long bishop, long king, long knight, long pawn, long queen, long rook, long white, long black,
+                              boolean isWhiteMove, int castlingRights, long enPassantSquare, int halfMoveClock, int fullMoveNumber) {
+        final long flags = getCastlingRights(castlingRights) | (isWhiteMove ? ACTIVE_COLOR_MASK : 0);
+        final Position position = new Position(bishop, king, knight, pawn, queen, rook, white, black,
+                                               0, 0, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
+        position.whiteAttack = ATTACK_GENERATOR.getAttackedSquares(Color.WHITE, position);
+        position.blackAttack = ATTACK_GENERATOR.getAttackedSquares(Color.BLACK, position);
+        position.key = position.calculateKey();
+        position.pawnKey = position.calculatePawnKey();
+        return position;
+    }
+
     /**
      * Returns a copy of this position, after making the given move. This position remains unchanged.
      *
@@ -230,6 +277,22 @@ public class Position {
         long pawn = this.pawn;
         long rook = this.rook;
 
+        // Update the key with the moved piece and the side to move
+        long key = getKey() ^ Zobrist.WHITE_TO_MOVE;
+        int fromIndex = Square.idToIndex(from);
+        int toIndex = Square.idToIndex(to);
+        key ^= Zobrist.piece(fromPiece, isWhiteMove(), fromIndex);
+        key ^= Zobrist.piece(Move.isPromotion(move) ? Move.getPromoted(move) : fromPiece, isWhiteMove(), toIndex);
+
+        // Update the pawn key if a pawn moved, unless it was promoted
+        long pawnKey = getPawnKey();
+        if (fromPiece == PAWN) {
+            pawnKey ^= Zobrist.piece(PAWN, isWhiteMove(), fromIndex);
+            if (!Move.isPromotion(move)) {
+                pawnKey ^= Zobrist.piece(PAWN, isWhiteMove(), toIndex);
+            }
+        }
+
         // Update white/black bitboards
         if (isWhiteMove()) {
             white = white ^ from | to;
@@ -261,6 +324,11 @@ public class Position {
 
         // If there was a piece on the to square (a capture)
         if (toPiece != 0) {
+            key ^= Zobrist.piece(toPiece, !isWhiteMove(), toIndex);
+            if (toPiece == PAWN) {
+                pawnKey ^= Zobrist.piece(PAWN, !isWhiteMove(), toIndex);
+            }
+
             // Update white/black bitboards to remove the piece that has been captured
             if (isWhiteMove()) {
                 black = black ^ to;
@@ -322,15 +390,19 @@ public class Position {
             if (to == Square.G1) {          // White king-side castling
                 rook = rook ^ Square.H1 | Square.F1;
                 white = white ^ Square.H1 | Square.F1;
+                key ^= Zobrist.piece(ROOK, true, Square.H1_IDX) ^ Zobrist.piece(ROOK, true, Square.F1_IDX);
             } else if (to == Square.C1) {   // White queen-side castling
                 rook = rook ^ Square.A1 | Square.D1;
                 white = white ^ Square.A1 | Square.D1;
+                key ^= Zobrist.piece(ROOK, true, Square.A1_IDX) ^ Zobrist.piece(ROOK, true, Square.D1_IDX);
             } else if (to == Square.G8) {   // Black king-side castling
                 rook = rook ^ Square.H8 | Square.F8;
                 black = black ^ Square.H8 | Square.F8;
+                key ^= Zobrist.piece(ROOK, false, Square.H8_IDX) ^ Zobrist.piece(ROOK, false, Square.F8_IDX);
             } else if (to == Square.C8) {   // Black queen-side castling
                 rook = rook ^ Square.A8 | Square.D8;
                 black = black ^ Square.A8 | Square.D8;
+                key ^= Zobrist.piece(ROOK, false, Square.A8_IDX) ^ Zobrist.piece(ROOK, false, Square.D8_IDX);
             } else {
                 throw new IllegalArgumentException("invalid castling square: " + Square.idToName(to));
             }
@@ -344,9 +416,13 @@ public class Position {
             if (isWhiteMove()) {
                 black = black ^ Square.south(to);
                 pawn = pawn ^ Square.south(to);
+                key ^= Zobrist.piece(PAWN, false, toIndex - 8);
+                pawnKey ^= Zobrist.piece(PAWN, false, toIndex - 8);
             } else {
                 white = white ^ Square.north(to);
                 pawn = pawn ^ Square.north(to);
+                key ^= Zobrist.piece(PAWN, true, toIndex + 8);
+                pawnKey ^= Zobrist.piece(PAWN, true, toIndex + 8);
             }
         }
 
@@ -365,15 +441,13 @@ public class Position {
         // Flip sides
         flags = flags ^ ACTIVE_COLOR_MASK;
 
-        // Create the new position, though we still have the old attack bitboards
-        Position position = new Position(bishop, king, knight, pawn, queen, rook, white, black,
-                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
+        // Update the key with the new 'en passant' square and castling rights
+        key ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        key ^= Zobrist.castling(getCastlingRights(this.flags)) ^ Zobrist.castling(getCastlingRights(flags));
 
-        // Return the new position, including new attack bitboards
-        return position.withAttackBitboards(
-                ATTACK_GENERATOR.getAttackedSquares(Color.WHITE, position),
-                ATTACK_GENERATOR.getAttackedSquares(Color.BLACK, position)
-        );
+        // Create the new position, the attack bitboards will be calculated when needed
+        return new Position(bishop, king, knight, pawn, queen, rook, white, black,
+                0, 0, enPassantSquare, fullMoveNumber, halfMoveClock, flags, key, pawnKey);
     }
 
     /**
@@ -385,7 +459,7 @@ public class Position {
      */
     public Position withAttackBitboards(long whiteAttack, long blackAttack) {
         return new Position(bishop, king, knight, pawn, queen, rook, white, black,
-                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
+                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags, key, pawnKey);
     }
 
     /**
@@ -476,7 +550,7 @@ public class Position {
      */
     public Position withFullMoveNumber(int fullMoveNumber) {
         return new Position(bishop, king, knight, pawn, queen, rook, white, black,
-                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
+                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags, key, pawnKey);
     }
 
     /**
@@ -495,7 +569,7 @@ public class Position {
      */
     public Position withHalfMoveClock(int halfMoveClock) {
         return new Position(bishop, king, knight, pawn, queen, rook, white, black,
-                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
+                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags, key, pawnKey);
     }
 
     /**
@@ -587,7 +661,7 @@ public class Position {
         }
 
         return new Position(bishop, king, knight, pawn, queen, rook, white, black,
-                whiteAttack, blackAttack, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
+                0, 0, enPassantSquare, fullMoveNumber, halfMoveClock, flags);
     }
 
     /**
@@ -612,6 +686,15 @@ public class Position {
         }
     }
 
+    /**
+     * Returns the castling rights, as a bit mask with white king-side castling in bit 0, white queen-side
+     * in bit 1, black king-side in bit 2, and black queen-side in bit 3. This is the same bit mask that is
+     * used by {@link #of(long, long, long, long, long, long, long, long, boolean, int, long, int, int)}.
+     */
+    public int getCastlingRights() {
+        return getCastlingRights(flags);
+    }
+
     /**
      * Returns a copy of this position, with the king-side castling rights altered. This position remains unchanged.
      *
@@ -678,14 +761,120 @@ public class Position {
     }
 
     /**
-     * Returns {@code true} if side {@code color} is in check in this position.
+     * Returns the Zobrist key of this position. The key depends on the pieces, the active color,
+     * the castling rights, and the 'en passant' square, but not on the move number or the half
+     * move clock. Positions that are {@link #equalTo(Position) equal to} each other have the same key.
      */
-    public boolean isCheck(Color color) {
+    public long getKey() {
+        if (key == 0) {
+            key = calculateKey();
+        }
+        return key;
+    }
+
+    /**
+     * Returns the Zobrist key of the pawns in this position. The pawn key only depends on the pawns,
+     * so all positions with the same pawn structure have the same pawn key.
+     */
+    public long getPawnKey() {
+        if (pawnKey == 0) {
+            pawnKey = calculatePawnKey();
+        }
+        return pawnKey;
+    }
+
+    /**
+     * Calculates the Zobrist key of the pawns in this position from scratch.
+     */
+    private long calculatePawnKey() {
+        long pawnKey = 0;
+        for (long b = pawn; b != 0; b &= b - 1) {
+            int index = Long.numberOfTrailingZeros(b);
+            pawnKey ^= Zobrist.piece(PAWN, ((1L << index) & white) != 0, index);
+        }
+        return pawnKey;
+    }
+
+    /**
+     * Calculates the Zobrist key of this position from scratch.
+     */
+    private long calculateKey() {
+        long key = isWhiteMove() ? Zobrist.WHITE_TO_MOVE : 0;
+        for (long b = white | black; b != 0; b &= b - 1) {
+            int index = Long.numberOfTrailingZeros(b);
+            long square = 1L << index;
+            key ^= Zobrist.piece(getPiece(square), (square & white) != 0, index);
+        }
+        key ^= Zobrist.enPassant(enPassantSquare);
+        key ^= Zobrist.castling(getCastlingRights(flags));
+        return key;
+    }
+
+    /**
+     * Returns the castling rights part of the given flags, as an int between 0 and 15.
+     */
+    private static int getCastlingRights(long flags) {
+        return (int) (flags & (WKS_CASTLING_MASK | WQS_CASTLING_MASK | BKS_CASTLING_MASK | BQS_CASTLING_MASK));
+    }
+
+    /**
+     * Returns a bitboard representing the squares attacked by side {@code color} in this position.
+     * The attack bitboards are calculated the first time they are requested.
+     */
+    public long getAttackedSquares(Color color) {
         if (color == Color.WHITE) {
-            return (white & king & blackAttack) != 0;
+            if (whiteAttack == 0) {
+                whiteAttack = ATTACK_GENERATOR.getAttackedSquares(Color.WHITE, this);
+            }
+            return whiteAttack;
         } else {
-            return (black & king & whiteAttack) != 0;
+            if (blackAttack == 0) {
+                blackAttack = ATTACK_GENERATOR.getAttackedSquares(Color.BLACK, this);
+            }
+            return blackAttack;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the square with index {@code index} is attacked by side {@code color}
+     * in this position. This is much cheaper than calculating all attacked squares, because it only
+     * looks for attackers of a single square.
+     */
+    public boolean isAttacked(int index, Color color) {
+        long attackers = (color == Color.WHITE) ? white : black;
+        long occupied = white | black;
+        return ((AttackTables.pawnAttacks(index, color != Color.WHITE) & pawn & attackers) != 0) ||
+               ((AttackTables.knightAttacks(index) & knight & attackers) != 0) ||
+               ((AttackTables.kingAttacks(index) & king & attackers) != 0) ||
+               ((AttackTables.bishopAttacks(index, occupied) & (bishop | queen) & attackers) != 0) ||
+               ((AttackTables.rookAttacks(index, occupied) & (rook | queen) & attackers) != 0);
+    }
+
+    /**
+     * Returns a bitboard representing the pieces of both colors that attack the square with index
+     * {@code index}, given the occupied squares. Sliding pieces are blocked by the given occupied
+     * squares rather than by the pieces in this position, which makes it possible to find pieces
+     * that attack the square through other pieces (x-ray attacks). Pieces that are not among the
+     * occupied squares are not included.
+     */
+    public long getAttackersTo(int index, long occupied) {
+        return ((AttackTables.pawnAttacks(index, false) & pawn & white) |
+                (AttackTables.pawnAttacks(index, true) & pawn & black) |
+                (AttackTables.knightAttacks(index) & knight) |
+                (AttackTables.kingAttacks(index) & king) |
+                (AttackTables.bishopAttacks(index, occupied) & (bishop | queen)) |
+                (AttackTables.rookAttacks(index, occupied) & (rook | queen))) & occupied;
+    }
+
+    /**
+     * Returns {@code true} if side {@code color} is in check in this position.
+     */
+    public boolean isCheck(Color color) {
+        long myKing = king & ((color == Color.WHITE) ? white : black);
+        if (myKing == 0) {
+            return false;
         }
+        return isAttacked(Long.numberOfTrailingZeros(myKing), color.flip());
     }
 
     /**
@@ -697,14 +886,8 @@ public class Position {
 
     @Override
     public int hashCode() {
-        return (int) (((white) ^
-                (black) ^
-                (bishop << 1) ^
-                (king << 2) ^
-                (knight << 3) ^
-                (pawn << 4) ^
-                (queen << 5) ^
-                (rook << 6)) >> 32);
+        // The Zobrist key is well distributed, and positions that are equal have the same key
+        return Long.hashCode(getKey());
     }
 
     @Override
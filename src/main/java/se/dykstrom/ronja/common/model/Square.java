@@ -184,6 +184,9 @@ public class Square {
      *
      * Example: bitboardToIds(Square.A1 | Square.B1) will store [Square.A1, Square.B1] in the array, and return 2.
      *
+     * Note that the array is shared by all callers, so this method is not thread safe.
+     * Performance critical code should iterate over the bits of the bitboard instead.
+     *
      * @param bitboard The bitboard to split into square IDs.
      * @return The number of square IDs found in the bitboard.
      */
@@ -236,6 +239,9 @@ public class Square {
      * Example: bitboardToIndices(Square.A1 | Square.E4) returns 2,
      * and stores values 0 and 28 in {@link #SQUARE_INDICES}.
      *
+     * Note that the array is shared by all callers, so this method is not thread safe.
+     * Performance critical code should iterate over the bits of the bitboard instead.
+     *
      * @param bitboard The bitboard to split into square indices.
      * @return The number of square indices found in the bitboard.
      */
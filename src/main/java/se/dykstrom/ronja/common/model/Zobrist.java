@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Contains the random numbers used to calculate Zobrist keys for positions. A Zobrist key is a 64-bit
+ * hash of a position, that can be updated incrementally when making a move. The random numbers are
+ * generated from a fixed seed, so the keys are the same every time the engine runs.
+ * <p>
+ * For an explanation of Zobrist hashing, see
+ * <a href="https://www.chessprogramming.org/Zobrist_Hashing">Chess Programming Wiki</a>.
+ *
+ * @author Johan Dykstrom
+ */
+public final class Zobrist {
+
+    /** The seed used to generate the random numbers. */
+    private static final long SEED = 0x5265_6e6a_6121_0001L;
+
+    /** Random numbers for each piece and color on each square, indexed by [piece + color offset][square index]. */
+    private static final long[][] PIECES = new long[16][Square.MAX_SQUARES];
+
+    /** Random numbers for each combination of castling rights. */
+    private static final long[] CASTLING = new long[16];
+
+    /** Random numbers for each file of the 'en passant' target square. */
+    private static final long[] EN_PASSANT = new long[8];
+
+    /** Random number used when it is white's move. */
+    public static final long WHITE_TO_MOVE;
+
+    /** Offset added to the piece when looking up black pieces in {@link #PIECES}. */
+    private static final int BLACK_OFFSET = 8;
+
+    static {
+        final var random = new SplittableRandom(SEED);
+        for (long[] squares : PIECES) {
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = random.nextLong();
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() { }
+
+    /**
+     * Returns the random number for the given piece and color on the given square.
+     *
+     * @param piece The piece.
+     * @param isWhite True if the piece is white.
+     * @param index The square index.
+     */
+    public static long piece(final int piece, final boolean isWhite, final int index) {
+        return PIECES[isWhite ? piece : piece + BLACK_OFFSET][index];
+    }
+
+    /**
+     * Returns the random number for the given castling rights. The castling rights
+     * are given as a bit mask of four bits, one for each type of castling.
+     */
+    public static long castling(final int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * Returns the random number for the given 'en passant' target square,
+     * or 0 if there is no 'en passant' target square.
+     */
+    public static long enPassant(final long square) {
+        return (square == 0) ? 0 : EN_PASSANT[Square.idToIndex(square) & 7];
+    }
+}
@@ -34,9 +34,29 @@ public class CanParser extends AbstractMoveParser {
      * @return True if the given string is a syntactically valid move.
      */
     public static boolean isMove(String move) {
-        return move.matches("[a-h][1-8][a-h][1-8]") ||     // Normal move
-               move.matches("[a-h][7][a-h][8][qrbn]") ||   // White promotion
-               move.matches("[a-h][2][a-h][1][qrbn]");     // Black promotion
+        final int length = move.length();
+        if (length != 4 && length != 5) {
+            return false;
+        }
+        if (!isFile(move.charAt(0)) || !isRank(move.charAt(1)) || !isFile(move.charAt(2)) || !isRank(move.charAt(3))) {
+            return false;                                   // Not a move
+        }
+        if (length == 4) {
+            return true;                                    // Normal move
+        }
+        final char fromRank = move.charAt(1);
+        final char toRank = move.charAt(3);
+        return ((fromRank == '7' && toRank == '8') ||       // White promotion
+                (fromRank == '2' && toRank == '1')) &&      // Black promotion
+               "qrbn".indexOf(move.charAt(4)) != -1;
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
     }
 
 	/**
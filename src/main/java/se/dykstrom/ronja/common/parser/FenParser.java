@@ -17,23 +17,30 @@
 
 package se.dykstrom.ronja.common.parser;
 
-import static se.dykstrom.ronja.common.model.Piece.KING;
-import static se.dykstrom.ronja.common.model.Piece.QUEEN;
-
 import java.text.ParseException;
 
-import se.dykstrom.ronja.common.model.*;
-import se.dykstrom.ronja.engine.core.AttackGenerator;
+import se.dykstrom.ronja.common.model.Color;
+import se.dykstrom.ronja.common.model.Piece;
+import se.dykstrom.ronja.common.model.Position;
+
+import static se.dykstrom.ronja.common.model.Piece.BISHOP;
+import static se.dykstrom.ronja.common.model.Piece.KING;
+import static se.dykstrom.ronja.common.model.Piece.KNIGHT;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
 
 /**
  * A class that can parse and format positions specified in Forsyth-Edwards Notation (FEN).
+ * <p>
+ * Parsing is done in a single pass over the characters, that fills in the bitboards directly,
+ * and creates a single {@link Position} object at the end. Formatting appends the FEN string
+ * to a caller supplied {@link StringBuilder}, that can be reused for many positions.
  *
  * @author Johan Dykstrom
  */
 public class FenParser {
 
-    private static final AttackGenerator ATTACK_GENERATOR = new AttackGenerator();
-
     // -----------------------------------------------------------------------
     // Formatting:
     // -----------------------------------------------------------------------
@@ -42,278 +49,277 @@ public class FenParser {
      * Formats the given {@code position} in FEN format.
      */
     public static String format(Position position) {
-        StringBuilder builder = new StringBuilder();
+        return format(position, new StringBuilder(90)).toString();
+    }
 
+    /**
+     * Formats the given {@code position} in FEN format, and appends the result to {@code builder}.
+     *
+     * @param position The position to format.
+     * @param builder The string builder to append the formatted position to.
+     * @return The given string builder.
+     */
+    public static StringBuilder format(Position position, StringBuilder builder) {
         // Field 1 - piece placement
-        builder.append(formatPieces(position));
-        builder.append(" ");
+        formatPieces(position, builder);
+        builder.append(' ');
 
         // Field 2 - active color
-        builder.append(formatActiveColor(position));
-        builder.append(" ");
+        builder.append(position.getActiveColor().getSymbol());
+        builder.append(' ');
 
         // Field 3 - castling availability
-        builder.append(formatCastlingAvailability(position));
-        builder.append(" ");
+        formatCastlingAvailability(position, builder);
+        builder.append(' ');
 
         // Field 4 - 'en passant' target square
-        builder.append(formatEnPassantSquare(position));
-        builder.append(" ");
+        formatEnPassantSquare(position, builder);
+        builder.append(' ');
 
         // Field 5 - half move clock
-        builder.append(formatHalfMoveClock(position));
-        builder.append(" ");
+        builder.append(position.getHalfMoveClock());
+        builder.append(' ');
 
         // Field 6 - full move number
-        builder.append(formatFullMoveNumber(position));
+        builder.append(position.getFullMoveNumber());
 
-        return builder.toString();
+        return builder;
     }
 
     /**
      * Formats the piece placement in the given position.
      */
-    private static String formatPieces(Position position) {
-        StringBuilder builder = new StringBuilder();
-
-        for (int r = 8; r > 0; r--) {
-            builder.append(formatRank(r, position));
-            builder.append("/");
-        }
-        builder.setLength(builder.length() - 1);
-
-        return builder.toString();
-    }
-
-    /**
-     * Formats rank number {@code r} in the given {@code position}.
-     */
-    private static String formatRank(int r, Position position) {
-        StringBuilder builder = new StringBuilder();
-
-        // Number of consecutive empty squares
-        int noOfEmptyInARow = 0;
-
-        for (Long square : Board.getSquaresInRank(r)) {
-            int piece = position.getPiece(square);
-            Color color = position.getColor(square);
-            if (piece == 0) {
-                noOfEmptyInARow++;
-            } else {
-                if (noOfEmptyInARow != 0) {
-                    builder.append(noOfEmptyInARow);
-                    noOfEmptyInARow = 0;
+    private static void formatPieces(Position position, StringBuilder builder) {
+        final long occupied = position.white | position.black;
+        for (int rank = 7; rank >= 0; rank--) {
+            // Number of consecutive empty squares
+            int noOfEmptyInARow = 0;
+            for (int file = 0; file < 8; file++) {
+                final long square = 1L << (rank * 8 + file);
+                if ((occupied & square) == 0) {
+                    noOfEmptyInARow++;
+                } else {
+                    if (noOfEmptyInARow != 0) {
+                        builder.append((char) ('0' + noOfEmptyInARow));
+                        noOfEmptyInARow = 0;
+                    }
+                    final char symbol = Piece.toSymbol(position.getPiece(square));
+                    builder.append(((position.white & square) != 0) ? symbol : Character.toLowerCase(symbol));
                 }
-                builder.append(Piece.toSymbol(piece, color));
+            }
+            if (noOfEmptyInARow != 0) {
+                builder.append((char) ('0' + noOfEmptyInARow));
+            }
+            if (rank > 0) {
+                builder.append('/');
             }
         }
-        if (noOfEmptyInARow != 0) {
-            builder.append(noOfEmptyInARow);
-        }
-
-        return builder.toString();
-    }
-
-    /**
-     * Formats the active color in the given position.
-     */
-    private static char formatActiveColor(Position position) {
-        return position.getActiveColor().getSymbol();
     }
 
     /**
      * Formats the castling availability for the given position.
      */
-    private static String formatCastlingAvailability(Position position) {
-        StringBuilder builder = new StringBuilder();
-
+    private static void formatCastlingAvailability(Position position, StringBuilder builder) {
+        final int length = builder.length();
         if (position.isKingSideCastlingAllowed(Color.WHITE)) {
-            builder.append("K");
+            builder.append('K');
         }
         if (position.isQueenSideCastlingAllowed(Color.WHITE)) {
-            builder.append("Q");
+            builder.append('Q');
         }
         if (position.isKingSideCastlingAllowed(Color.BLACK)) {
-            builder.append("k");
+            builder.append('k');
         }
         if (position.isQueenSideCastlingAllowed(Color.BLACK)) {
-            builder.append("q");
+            builder.append('q');
         }
-        if (builder.length() == 0) {
-            builder.append("-");
+        if (builder.length() == length) {
+            builder.append('-');
         }
-
-        return builder.toString();
     }
 
     /**
      * Formats the 'en passant' target square for the given position.
      */
-    private static String formatEnPassantSquare(Position position) {
-        if (position.getEnPassantSquare() != 0) {
-            return Square.idToName(position.getEnPassantSquare());
+    private static void formatEnPassantSquare(Position position, StringBuilder builder) {
+        final long square = position.getEnPassantSquare();
+        if (square != 0) {
+            final int index = Long.numberOfTrailingZeros(square);
+            builder.append((char) ('a' + (index & 7))).append((char) ('1' + (index >> 3)));
         } else {
-            return "-";
+            builder.append('-');
         }
     }
 
-    /**
-     * Formats the half move clock in the given position.
-     */
-    private static int formatHalfMoveClock(Position position) {
-        return position.getHalfMoveClock();
-    }
-
-    /**
-     * Formats the full move number in the given position.
-     */
-    private static int formatFullMoveNumber(Position position) {
-        return position.getFullMoveNumber();
-    }
-
     // -----------------------------------------------------------------------
     // Parsing:
     // -----------------------------------------------------------------------
 
     /**
      * Parses the given position specified in FEN format, and returns a {@code Position} object.
+     * The attack bitboards and the Zobrist keys of the returned position are already calculated.
+     *
+     * @param fen The position in FEN format.
+     * @return The parsed position.
+     * @throws ParseException If the given characters cannot be parsed as a position in FEN format.
      */
-    public static Position parse(String fen) throws ParseException {
-        Position position = Position.START;
+    public static Position parse(CharSequence fen) throws ParseException {
+        final int length = fen.length();
 
-        String[] fields = fen.split(" ");
-        if (fields.length != 6) {
-            throw new ParseException("invalid number of fields (" + fields.length + " != 6)", 0);
+        // Field 1 - piece placement
+        final long[] pieces = new long[KING + 1];
+        long white = 0;
+        long black = 0;
+        int index = 0;
+        int rank = 7;
+        int file = 0;
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            final char c = fen.charAt(index);
+            if (c == '/') {
+                if (file != 8 || rank == 0) {
+                    throw error("invalid rank " + (rank + 1), fen, index);
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                final int piece = toPiece(c);
+                if (piece == 0 || file > 7) {
+                    throw error("invalid piece placement", fen, index);
+                }
+                final long square = 1L << (rank * 8 + file);
+                pieces[piece] |= square;
+                if (c < 'a') {
+                    white |= square;
+                } else {
+                    black |= square;
+                }
+                file++;
+            }
+            if (file > 8) {
+                throw error("invalid rank " + (rank + 1), fen, index);
+            }
+        }
+        if (rank != 0 || file != 8) {
+            throw error("invalid number of ranks (" + (8 - rank) + " != 8)", fen, index);
+        }
+        if (Long.bitCount(pieces[KING] & white) != 1 || Long.bitCount(pieces[KING] & black) != 1) {
+            throw error("each side must have exactly one king", fen, 0);
         }
 
-        try {
-            // Field 1 - piece placement
-            position = parsePieces(fields[0], position);
-
-            // Field 2 - active color
-            position = parseActiveColor(fields[1], position);
-
-            // Field 3 - castling availability
-            position = parseCastlingAvailability(fields[2], position);
-
-            // Field 4 - 'en passant' target square
-            position = parseEnPassantSquare(fields[3], position);
-
-            // Field 5 - half move clock
-            position = parseHalfMoveClock(fields[4], position);
-
-            // Field 6 - full move number
-            position = parseFullMoveNumber(fields[5], position);
+        // Field 2 - active color
+        index = nextField(fen, index, 2);
+        final char color = fen.charAt(index++);
+        if ((color != 'w' && color != 'b') || (index < length && fen.charAt(index) != ' ')) {
+            throw error("invalid active color", fen, index - 1);
+        }
 
-            // Update attack bitboards in the parsed position
-            position = updateAttackBitboards(position);
-        } catch (ParseException pe) {
-            throw pe;
-        } catch (Exception e) {
-            throw new ParseException("failed to parse FEN '" + fen + "': " + e.getMessage(), 0);
+        // Field 3 - castling availability
+        index = nextField(fen, index, 3);
+        int castlingRights = 0;
+        if (fen.charAt(index) == '-') {
+            index++;
+        } else {
+            for (; index < length && fen.charAt(index) != ' '; index++) {
+                castlingRights |= switch (fen.charAt(index)) {
+                    case 'K' -> 1;
+                    case 'Q' -> 2;
+                    case 'k' -> 4;
+                    case 'q' -> 8;
+                    default -> throw error("invalid castling availability", fen, index);
+                };
+            }
         }
 
-        return position;
-    }
+        // Field 4 - 'en passant' target square
+        index = nextField(fen, index, 4);
+        long enPassantSquare = 0;
+        if (fen.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < length && isFile(fen.charAt(index)) && isRank(fen.charAt(index + 1))) {
+            enPassantSquare = 1L << ((fen.charAt(index + 1) - '1') * 8 + (fen.charAt(index) - 'a'));
+            index += 2;
+        } else {
+            throw error("invalid 'en passant' square", fen, index);
+        }
 
-    /**
-     * Parses the piece placement sub string.
-     */
-    private static Position parsePieces(String s, Position position) throws ParseException {
-        String[] ranks = s.split("/");
-        if (ranks.length != 8) {
-            throw new ParseException("invalid number of ranks (" + ranks.length + " != 8)", 0);
+        // Field 5 - half move clock
+        index = nextField(fen, index, 5);
+        final int halfMoveClockStart = index;
+        int halfMoveClock = 0;
+        for (; index < length && isDigit(fen.charAt(index)); index++) {
+            halfMoveClock = halfMoveClock * 10 + (fen.charAt(index) - '0');
+        }
+        if (index == halfMoveClockStart) {
+            throw error("invalid half move clock", fen, index);
         }
 
-        for (int r = 8; r > 0; r--) {
-            position = parseRank(r, ranks[8 - r], position);
+        // Field 6 - full move number
+        index = nextField(fen, index, 6);
+        final int fullMoveNumberStart = index;
+        int fullMoveNumber = 0;
+        for (; index < length && isDigit(fen.charAt(index)); index++) {
+            fullMoveNumber = fullMoveNumber * 10 + (fen.charAt(index) - '0');
+        }
+        if (index == fullMoveNumberStart) {
+            throw error("invalid full move number", fen, index);
         }
-        return position;
-    }
 
-    /**
-     * Parses a single rank in the piece placement sub string.
-     *
-     * @param r The number of the rank (1-8).
-     * @param rank The string to parse for this rank.
-     * @param position The position to update with pieces.
-     * @return The updated position.
-     */
-    private static Position parseRank(int r, String rank, Position position) {
-        int f = 1;
-        for (int i = 0; i < rank.length(); i++) {
-            String s = rank.substring(i, i + 1);
-            if (s.matches("[BKNPQR]")) {
-                position = withPieceAndColor(Piece.valueOf(s.charAt(0)), Color.WHITE, f, r, position);
-                f++;
-            } else if (s.matches("[bknpqr]")) {
-                position = withPieceAndColor(Piece.valueOf(s.charAt(0)), Color.BLACK, f, r, position);
-                f++;
-            } else {
-                int numberOfEmptyInARow = Integer.parseInt(s);
-                while (numberOfEmptyInARow-- > 0) {
-                    position = withPieceAndColor(0, null, f, r, position);
-                    f++;
-                }
+        // Only trailing white space is allowed after the last field
+        for (; index < length; index++) {
+            if (!Character.isWhitespace(fen.charAt(index))) {
+                throw error("invalid number of fields (> 6)", fen, index);
             }
         }
-        return position;
-    }
 
-    /**
-     * Returns an updated position, with the given {@code piece} and {@code color} at file {@code f} and rank {@code r}.
-     */
-    private static Position withPieceAndColor(int piece, Color color, int f, int r, Position position) {
-        return position.withPieceAndColor(Board.getSquareId(f, r), piece, color);
+        return Position.of(pieces[BISHOP], pieces[KING], pieces[KNIGHT], pieces[PAWN], pieces[QUEEN], pieces[ROOK], white, black,
+                           color == 'w', castlingRights, enPassantSquare, halfMoveClock, fullMoveNumber);
     }
 
     /**
-     * Parses the active color sub string.
+     * Skips the single space that separates two fields, and returns the index of the start of
+     * field number {@code field}. Also verifies that the previous field ended at the space.
      */
-    private static Position parseActiveColor(String s, Position position) {
-        return position.withActiveColor(Color.valueOf(s.charAt(0)));
+    private static int nextField(CharSequence fen, int index, int field) throws ParseException {
+        if (index >= fen.length() || fen.charAt(index) != ' ') {
+            throw error("invalid field " + (field - 1), fen, index);
+        }
+        index++;
+        if (index >= fen.length() || fen.charAt(index) == ' ') {
+            throw error("invalid number of fields (" + (field - 1) + " != 6)", fen, index);
+        }
+        return index;
     }
 
-    /**
-     * Parses the castling availability sub string.
-     */
-    private static Position parseCastlingAvailability(String s, Position position) {
-        return position.withKingSideCastlingAllowed(Color.WHITE, s.indexOf(Piece.toSymbol(KING, Color.WHITE)) != -1)
-                       .withKingSideCastlingAllowed(Color.BLACK, s.indexOf(Piece.toSymbol(KING, Color.BLACK)) != -1)
-                       .withQueenSideCastlingAllowed(Color.WHITE, s.indexOf(Piece.toSymbol(QUEEN, Color.WHITE)) != -1)
-                       .withQueenSideCastlingAllowed(Color.BLACK, s.indexOf(Piece.toSymbol(QUEEN, Color.BLACK)) != -1);
+    private static ParseException error(String message, CharSequence fen, int index) {
+        return new ParseException("failed to parse FEN '" + fen + "': " + message, index);
     }
 
     /**
-     * Parses the 'en passant' target square sub string.
+     * Returns the piece that corresponds to the given symbol, or 0 if the symbol is not a piece.
      */
-    private static Position parseEnPassantSquare(String s, Position position) {
-        if (s.startsWith("-")) {
-            return position.withEnPassantSquare(0);
-        } else {
-            return position.withEnPassantSquare(Square.nameToId(s));
-        }
+    private static int toPiece(char symbol) {
+        return switch (symbol) {
+            case 'P', 'p' -> PAWN;
+            case 'N', 'n' -> KNIGHT;
+            case 'B', 'b' -> BISHOP;
+            case 'R', 'r' -> ROOK;
+            case 'Q', 'q' -> QUEEN;
+            case 'K', 'k' -> KING;
+            default -> 0;
+        };
     }
 
-    /**
-     * Parses the half move clock sub string.
-     */
-    private static Position parseHalfMoveClock(String s, Position position) {
-        return position.withHalfMoveClock(Integer.parseInt(s));
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
     }
 
-    /**
-     * Parses the full move number sub string.
-     */
-    private static Position parseFullMoveNumber(String s, Position position) {
-        return position.withFullMoveNumber(Integer.parseInt(s));
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
     }
 
-    /**
-     * Returns a position with the attack bitboards updated.
-     */
-    private static Position updateAttackBitboards(Position position) {
-        return position.withAttackBitboards(ATTACK_GENERATOR.getAttackedSquares(Color.WHITE, position),
-                                            ATTACK_GENERATOR.getAttackedSquares(Color.BLACK, position));
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.model.Square;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static se.dykstrom.ronja.common.model.Piece.BISHOP;
+import static se.dykstrom.ronja.common.model.Piece.KING;
+import static se.dykstrom.ronja.common.model.Piece.KNIGHT;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
+
+/**
+ * Encodes positions in a compact, fixed-size binary format, for storing large numbers of positions,
+ * for example tuning and training data sets. A packed position takes {@link #SIZE} bytes, which is
+ * about half the size of the same position in FEN format, and can be decoded without parsing.
+ * <p>
+ * The bytes of a packed position are organized like this:
+ * <p>
+ * 00-07 - occupied squares (bitboard)
+ * 08-23 - one nibble for each occupied square, in ascending square order, with the piece in bits 0-2,
+ *         and the color in bit 3 (0 = white, 1 = black), the nibble of the first square in the low bits
+ * 24    - castling rights in bits 0-3, as in {@link Position#getCastlingRights()}, active color in bit 4
+ *         (1 = white, 0 = black)
+ * 25    - the square index of the 'en passant' target square, or 0 if there is none
+ * 26    - the half move clock, limited to 255
+ * 27    - reserved, always 0
+ * 28-31 - the full move number
+ * <p>
+ * All numbers are stored in little-endian byte order, regardless of the byte order of the buffer.
+ * A file of packed positions consists of a header, with the magic number (int), the version (int),
+ * and the number of positions (long), followed by the packed positions.
+ * <p>
+ * All methods in this class are thread safe.
+ *
+ * @author Johan Dykstrom
+ */
+public final class PackedPositionCodec {
+
+    /** The number of bytes in a packed position. */
+    public static final int SIZE = 32;
+
+    static final int MAGIC = 0x534f5052;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+
+    /** The maximum number of pieces in a position that can be packed. */
+    private static final int MAX_PIECES = 32;
+
+    private static final int BLACK_NIBBLE = 8;
+    private static final int WHITE_TO_MOVE = 0x10;
+    private static final int MAX_HALF_MOVE_CLOCK = 0xff;
+
+    /** The number of positions read or written in each I/O operation. */
+    private static final int POSITIONS_PER_BUFFER = 2048;
+
+    private PackedPositionCodec() { }
+
+    // -----------------------------------------------------------------------
+    // Encoding and decoding:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Encodes the given position, and writes it to the buffer at its current position. The position
+     * of the buffer is incremented by {@link #SIZE}.
+     *
+     * @throws IllegalArgumentException If the position has more than 32 pieces.
+     */
+    public static void encode(final Position position, final ByteBuffer buffer) {
+        final long occupied = position.white | position.black;
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("too many pieces to pack position: " + Long.bitCount(occupied));
+        }
+
+        long lowNibbles = 0;
+        long highNibbles = 0;
+        int shift = 0;
+        for (long squares = occupied; squares != 0; squares &= squares - 1) {
+            final long square = squares & -squares;
+            final long nibble = getPiece(position, square) | ((position.black & square) != 0 ? BLACK_NIBBLE : 0);
+            if (shift < Long.SIZE) {
+                lowNibbles |= nibble << shift;
+            } else {
+                highNibbles |= nibble << (shift - Long.SIZE);
+            }
+            shift += 4;
+        }
+
+        final long enPassantSquare = position.getEnPassantSquare();
+        final int flags = position.getCastlingRights() | (position.isWhiteMove() ? WHITE_TO_MOVE : 0);
+        final int enPassantIndex = (enPassantSquare != 0) ? Square.idToIndex(enPassantSquare) : 0;
+        final int halfMoveClock = Math.min(position.getHalfMoveClock(), MAX_HALF_MOVE_CLOCK);
+        final long state = flags | (enPassantIndex << 8) | ((long) halfMoveClock << 16) | ((long) position.getFullMoveNumber() << 32);
+
+        putLong(buffer, occupied);
+        putLong(buffer, lowNibbles);
+        putLong(buffer, highNibbles);
+        putLong(buffer, state);
+    }
+
+    /**
+     * Encodes the given position into a new byte array.
+     */
+    public static byte[] encode(final Position position) {
+        final byte[] bytes = new byte[SIZE];
+        encode(position, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Reads a packed position from the buffer at its current position, and decodes it. The position
+     * of the buffer is incremented by {@link #SIZE}. The attack bitboards and the Zobrist keys of the
+     * returned position are already calculated.
+     */
+    public static Position decode(final ByteBuffer buffer) {
+        final long occupied = getLong(buffer);
+        final long lowNibbles = getLong(buffer);
+        final long highNibbles = getLong(buffer);
+        final long state = getLong(buffer);
+
+        long bishop = 0;
+        long king = 0;
+        long knight = 0;
+        long pawn = 0;
+        long queen = 0;
+        long rook = 0;
+        long black = 0;
+        int shift = 0;
+        for (long squares = occupied; squares != 0; squares &= squares - 1) {
+            final long square = squares & -squares;
+            final int nibble = (int) ((shift < Long.SIZE) ? lowNibbles >>> shift : highNibbles >>> (shift - Long.SIZE)) & 0xf;
+            switch (nibble & ~BLACK_NIBBLE) {
+                case PAWN -> pawn |= square;
+                case KNIGHT -> knight |= square;
+                case BISHOP -> bishop |= square;
+                case ROOK -> rook |= square;
+                case QUEEN -> queen |= square;
+                case KING -> king |= square;
+                default -> throw new IllegalArgumentException("invalid piece in packed position: " + nibble);
+            }
+            if ((nibble & BLACK_NIBBLE) != 0) {
+                black |= square;
+            }
+            shift += 4;
+        }
+
+        final int flags = (int) state & 0xff;
+        final int enPassantIndex = (int) (state >>> 8) & 0xff;
+        final int halfMoveClock = (int) (state >>> 16) & 0xff;
+        final int fullMoveNumber = (int) (state >>> 32);
+        return Position.of(bishop, king, knight, pawn, queen, rook, occupied & ~black, black,
+                           (flags & WHITE_TO_MOVE) != 0,
+                           flags & 0xf,
+                           (enPassantIndex != 0) ? Square.indexToId(enPassantIndex) : 0,
+                           halfMoveClock,
+                           fullMoveNumber);
+    }
+
+    /**
+     * Decodes the packed position in the given byte array.
+     */
+    public static Position decode(final byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Encodes all given positions, and writes them to the buffer at its current position.
+     *
+     * @throws BufferOverflowException If there is not enough room in the buffer.
+     */
+    public static void encodeAll(final Collection<Position> positions, final ByteBuffer buffer) {
+        if (buffer.remaining() < positions.size() * SIZE) {
+            throw new BufferOverflowException();
+        }
+        for (Position position : positions) {
+            encode(position, buffer);
+        }
+    }
+
+    /**
+     * Decodes all packed positions remaining in the buffer, and returns them in a list.
+     */
+    public static List<Position> decodeAll(final ByteBuffer buffer) {
+        final List<Position> positions = new ArrayList<>(buffer.remaining() / SIZE);
+        while (buffer.remaining() >= SIZE) {
+            positions.add(decode(buffer));
+        }
+        return positions;
+    }
+
+    // -----------------------------------------------------------------------
+    // Files:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Writes the given positions to a new file of packed positions.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(final Path path, final Collection<Position> positions) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(POSITIONS_PER_BUFFER * SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(positions.size());
+            for (Position position : positions) {
+                if (buffer.remaining() < SIZE) {
+                    write(buffer, channel);
+                }
+                encode(position, buffer);
+            }
+            write(buffer, channel);
+        }
+    }
+
+    /**
+     * Reads all positions in the given file of packed positions.
+     *
+     * @throws IOException If the file cannot be read, or is not a valid file of packed positions.
+     */
+    public static List<Position> read(final Path path) throws IOException {
+        final List<Position> positions = new ArrayList<>();
+        read(path, positions::add);
+        return positions;
+    }
+
+    /**
+     * Reads the positions in the given file of packed positions one at a time, and passes them
+     * to the given consumer. This method does not keep any positions in memory, so it can be
+     * used for files of any size.
+     *
+     * @return The number of positions read.
+     * @throws IOException If the file cannot be read, or is not a valid file of packed positions.
+     */
+    public static long read(final Path path, final Consumer<Position> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(POSITIONS_PER_BUFFER * SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_SIZE);
+            readFully(buffer, channel);
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("not a valid packed position file: " + path);
+            }
+            final long numberOfPositions = buffer.getLong();
+            if (numberOfPositions < 0 || channel.size() != HEADER_SIZE + numberOfPositions * SIZE) {
+                throw new IOException("invalid number of positions in packed position file: " + path);
+            }
+
+            long count = 0;
+            while (count < numberOfPositions) {
+                buffer.clear();
+                readFully(buffer, channel);
+                while (buffer.remaining() >= SIZE) {
+                    consumer.accept(decode(buffer));
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static void write(final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads from the channel until the buffer is full or the end of the channel is reached, and flips the buffer.
+     */
+    private static void readFully(final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+            // Keep reading until the buffer is full, or the end of the file
+        }
+        buffer.flip();
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers:
+    // -----------------------------------------------------------------------
+
+    private static int getPiece(final Position position, final long square) {
+        if ((position.pawn & square) != 0) {
+            return PAWN;
+        } else if ((position.knight & square) != 0) {
+            return KNIGHT;
+        } else if ((position.bishop & square) != 0) {
+            return BISHOP;
+        } else if ((position.rook & square) != 0) {
+            return ROOK;
+        } else if ((position.queen & square) != 0) {
+            return QUEEN;
+        } else if ((position.king & square) != 0) {
+            return KING;
+        }
+        throw new IllegalArgumentException("no piece on occupied square: " + Square.idToName(square));
+    }
+
+    private static void putLong(final ByteBuffer buffer, final long value) {
+        buffer.putLong(buffer.order() == ByteOrder.LITTLE_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    private static long getLong(final ByteBuffer buffer) {
+        final long value = buffer.getLong();
+        return buffer.order() == ByteOrder.LITTLE_ENDIAN ? value : Long.reverseBytes(value);
+    }
+}
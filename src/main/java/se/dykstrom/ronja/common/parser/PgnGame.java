@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.util.Map;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * A game read from a PGN file, with its tags, start position, and moves. If the game contains an illegal
+ * or unreadable move, the moves end just before that move.
+ *
+ * @param tags The tag pairs of the game, in the order they appeared in the file.
+ * @param startPosition The start position, from the FEN tag if there is one.
+ * @param moves The moves of the game.
+ * @param result The game termination marker, for example "1-0" or "*", or an empty string if there was none.
+ * @param offset The byte offset of the start of the game in the file, see {@link PgnReader#open(java.nio.file.Path, long)}.
+ * @author Johan Dykstrom
+ */
+public record PgnGame(Map<String, String> tags, Position startPosition, int[] moves, String result, long offset) {
+
+    /**
+     * Returns the value of the given tag, or null if the game does not have that tag.
+     */
+    public String tag(final String name) {
+        return tags.get(name);
+    }
+}
@@ -96,7 +96,7 @@ public final class PgnParser {
         StringBuilder line = new StringBuilder();
 
         int moveNumber = game.getStartMoveNumber();
-        Iterator<String> iterator = SanParser.format(game.getStartPosition(), game.getMoves()).iterator();
+        Iterator<String> iterator = SanCodec.format(game.getStartPosition(), game.getMoves()).iterator();
         // If the game was setup, and the first move was by black, we need some special formatting
         if (!game.getStartPosition().isWhiteMove() && iterator.hasNext()) {
             line.append(String.format("%d... %s ", moveNumber++, iterator.next()));
@@ -0,0 +1,514 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A streaming reader of files in Portable Game Notation (PGN). The file is read through a channel into
+ * a fixed-size buffer, and games are returned one at a time, so files of any size can be read without
+ * loading them into memory.
+ * <p>
+ * Reading a game is done in two steps. First, the tags and the SAN moves of the game are tokenized into
+ * a {@link RawGame}. The tokenizer works directly on the bytes in the buffer, and collects the SAN moves
+ * of a game in a single, reusable character array. Second, the SAN moves are replayed from the start
+ * position, to turn them into moves. The second step is by far the most expensive one, and can be done
+ * in parallel, see {@link #readAll(Path, int, Consumer)}.
+ * <p>
+ * The tokenizer skips comments, variations, numeric annotation glyphs, move numbers, and escaped lines.
+ * The file is assumed to be encoded in ISO-8859-1, which is a superset of the PGN character set.
+ *
+ * @author Johan Dykstrom
+ */
+public class PgnReader implements Closeable {
+
+    private static final Logger TLOG = Logger.getLogger(PgnReader.class.getName());
+
+    /** The size of the read buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** The number of raw games queued per worker thread when reading in parallel. */
+    private static final int QUEUE_SIZE_PER_THREAD = 16;
+
+    /** Marks the end of input in the queue when reading in parallel. */
+    private static final RawGame END = new RawGame(Map.of(), new char[0], new int[0], 0, "", -1);
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** A byte that has been read, but not consumed, or -1 if there is none. */
+    private int pushedBack = -1;
+
+    /** The last byte read from the buffer. */
+    private int lastByte = '\n';
+
+    /** True if the byte returned by the last call to {@link #read()} was the first byte on a line. */
+    private boolean startOfLine;
+
+    /** The value of {@link #startOfLine} for the byte that has been pushed back. */
+    private boolean pushedBackStartOfLine;
+
+    /** The characters of all SAN moves in the current game, reused between games. */
+    private char[] moveChars = new char[1024];
+
+    /** The end index in {@link #moveChars} of each SAN move in the current game, reused between games. */
+    private int[] moveEnds = new int[256];
+
+    /** The number of SAN moves in the current game. */
+    private int moveCount;
+
+    /** The number of characters used in {@link #moveChars}. */
+    private int charCount;
+
+    /** The number of games read so far. */
+    private int gameNumber;
+
+    /** The offset in the input of the next byte to read, not counting any byte that has been pushed back. */
+    private long offset;
+
+    /**
+     * Creates a new PGN reader that reads from the given channel.
+     */
+    public PgnReader(final ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Opens a PGN reader for the given file.
+     */
+    public static PgnReader open(final Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, READ));
+    }
+
+    /**
+     * Opens a PGN reader for the given file, that starts reading at the given byte offset,
+     * for example the offset of a game, as returned by {@link PgnGame#offset()}.
+     */
+    public static PgnReader open(final Path path, final long offset) throws IOException {
+        final FileChannel channel = FileChannel.open(path, READ);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        final PgnReader reader = new PgnReader(channel);
+        reader.offset = offset;
+        return reader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads and replays the next game, or returns null if there are no more games.
+     */
+    public PgnGame next() throws IOException {
+        final RawGame rawGame = nextRawGame();
+        return (rawGame != null) ? rawGame.replay() : null;
+    }
+
+    /**
+     * Reads all games in the given file, and passes them to the given consumer. The games are tokenized
+     * by the calling thread, and replayed by {@code threads} worker threads. The calling thread waits
+     * if the workers cannot keep up, so the number of games in memory is bounded.
+     * <p>
+     * The consumer is called concurrently by the worker threads, and the games are not necessarily
+     * passed to the consumer in the same order as in the file.
+     *
+     * @return The number of games read.
+     * @throws IOException If reading the file fails.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     */
+    public static int readAll(final Path path, final int threads, final Consumer<PgnGame> consumer)
+            throws IOException, InterruptedException {
+        final BlockingQueue<RawGame> queue = new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int count = 0;
+        try (PgnReader reader = open(path)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    RawGame rawGame;
+                    while ((rawGame = queue.take()) != END) {
+                        consumer.accept(rawGame.replay());
+                    }
+                    return null;
+                }));
+            }
+
+            RawGame rawGame;
+            while ((rawGame = reader.nextRawGame()) != null) {
+                put(queue, rawGame, futures);
+                count++;
+            }
+            for (int i = 0; i < threads; i++) {
+                put(queue, END, futures);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("reading PGN file failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return count;
+    }
+
+    /**
+     * Puts a raw game in the queue, waiting for space to become available. While waiting,
+     * the workers are checked for failures, so we do not wait forever if all workers have died.
+     */
+    private static void put(final BlockingQueue<RawGame> queue, final RawGame rawGame, final List<Future<?>> futures)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(rawGame, 100, MILLISECONDS)) {
+            for (Future<?> future : futures) {
+                if (future.isDone()) {
+                    future.get();
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Tokenizing:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reads the tags and the SAN moves of the next game, without replaying the moves.
+     * Returns null if there are no more games.
+     */
+    RawGame nextRawGame() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        moveCount = 0;
+        charCount = 0;
+        String result = "";
+        long gameOffset = -1;
+
+        int variationDepth = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (gameOffset == -1 && !isWhitespace(c)) {
+                gameOffset = offset - 1;
+            }
+            if (c == '%' && startOfLine) {
+                skipLine();
+            } else if (c == '{') {
+                skipTo('}');
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '(') {
+                variationDepth++;
+            } else if (c == ')') {
+                variationDepth = Math.max(variationDepth - 1, 0);
+            } else if (variationDepth > 0 || isWhitespace(c)) {
+                // Skip variations and whitespace
+            } else if (c == '[') {
+                // A tag after moves means that the previous game had no termination marker
+                if (moveCount > 0) {
+                    pushBack(c);
+                    break;
+                }
+                readTag(tags);
+            } else if (c == '$') {
+                skipWhile(Character::isDigit);
+            } else if (c == '*') {
+                result = "*";
+                break;
+            } else if (Character.isDigit(c)) {
+                result = readNumberToken(c);
+                if (result != null) {
+                    break;
+                }
+                result = "";
+            } else {
+                readMove(c);
+            }
+        }
+
+        if (c == -1 && tags.isEmpty() && moveCount == 0) {
+            return null;
+        }
+        gameNumber++;
+        return new RawGame(tags, Arrays.copyOf(moveChars, charCount), Arrays.copyOf(moveEnds, moveCount), gameNumber, result, gameOffset);
+    }
+
+    /**
+     * Reads a tag pair, after the opening bracket, and adds it to the given map.
+     */
+    private void readTag(final Map<String, String> tags) throws IOException {
+        final StringBuilder name = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '"' && c != ']') {
+            if (!isWhitespace(c)) {
+                name.append((char) c);
+            }
+        }
+        final StringBuilder value = new StringBuilder();
+        if (c == '"') {
+            while ((c = read()) != -1 && c != '"' && c != '\n') {
+                if (c == '\\') {
+                    c = read();
+                }
+                value.append((char) c);
+            }
+            skipTo(']');
+        }
+        tags.put(name.toString(), value.toString());
+    }
+
+    /**
+     * Reads a token that starts with a digit. This is either a move number, which is skipped,
+     * a game termination marker, which is returned, or castling written with zeros, which is
+     * added as a move. Returns null if the token was not a game termination marker.
+     */
+    private String readNumberToken(final int first) throws IOException {
+        final int start = charCount;
+        append((char) first);
+        int c;
+        while ((c = read()) != -1 && !isWhitespace(c) && !isDelimiter(c)) {
+            if (c == '.' && isDigits(start)) {
+                // A move number, and the move may follow without whitespace
+                skipWhile(ch -> ch == '.');
+                charCount = start;
+                return null;
+            }
+            append((char) c);
+        }
+        pushBack(c);
+
+        final String token = new String(moveChars, start, charCount - start);
+        charCount = start;
+        switch (token) {
+            case "1-0", "0-1", "1/2-1/2" -> {
+                return token;
+            }
+            case "0-0" -> addMove("O-O");
+            case "0-0-0" -> addMove("O-O-O");
+            default -> { /* A move number without dots, skip it */ }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a SAN move, and removes any move suffix annotations, like "!" and "?".
+     */
+    private void readMove(final int first) throws IOException {
+        append((char) first);
+        int c;
+        while ((c = read()) != -1 && !isWhitespace(c) && !isDelimiter(c)) {
+            append((char) c);
+        }
+        pushBack(c);
+        while (moveChars[charCount - 1] == '!' || moveChars[charCount - 1] == '?') {
+            if (--charCount == startOfMove()) {
+                return;
+            }
+        }
+        endMove();
+    }
+
+    private void addMove(final String move) {
+        for (int i = 0; i < move.length(); i++) {
+            append(move.charAt(i));
+        }
+        endMove();
+    }
+
+    private int startOfMove() {
+        return (moveCount == 0) ? 0 : moveEnds[moveCount - 1];
+    }
+
+    private void endMove() {
+        if (moveCount == moveEnds.length) {
+            moveEnds = Arrays.copyOf(moveEnds, moveCount * 2);
+        }
+        moveEnds[moveCount++] = charCount;
+    }
+
+    private void append(final char c) {
+        if (charCount == moveChars.length) {
+            moveChars = Arrays.copyOf(moveChars, charCount * 2);
+        }
+        moveChars[charCount++] = c;
+    }
+
+    private boolean isDigits(final int start) {
+        for (int i = start; i < charCount; i++) {
+            if (!Character.isDigit(moveChars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static boolean isDelimiter(final int c) {
+        return c == '{' || c == '}' || c == '(' || c == ')' || c == '[' || c == ']' || c == ';' || c == '$';
+    }
+
+    // ------------------------------------------------------------------------
+    // Reading bytes:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns the next byte in the input, or -1 at the end of the input.
+     */
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            final int c = pushedBack;
+            pushedBack = -1;
+            startOfLine = pushedBackStartOfLine;
+            offset++;
+            return c;
+        }
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int count;
+            do {
+                count = channel.read(buffer);
+            } while (count == 0);
+            buffer.flip();
+            if (count == -1) {
+                return -1;
+            }
+        }
+        final int c = buffer.get() & 0xff;
+        offset++;
+        startOfLine = (lastByte == '\n');
+        lastByte = c;
+        return c;
+    }
+
+    private void pushBack(final int c) {
+        if (c != -1) {
+            offset--;
+        }
+        pushedBack = c;
+        pushedBackStartOfLine = startOfLine;
+    }
+
+    private void skipLine() throws IOException {
+        skipTo('\n');
+    }
+
+    private void skipTo(final int end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != end);
+    }
+
+    private void skipWhile(final IntPredicate predicate) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && predicate.test(c));
+        pushBack(c);
+    }
+
+    // ------------------------------------------------------------------------
+    // Replaying:
+    // ------------------------------------------------------------------------
+
+    /**
+     * A game that has been tokenized, but not yet replayed. The SAN moves are stored in a single
+     * character array, with the end index of each move in a separate array.
+     */
+    record RawGame(Map<String, String> tags, char[] moveChars, int[] moveEnds, int gameNumber, String result, long offset) {
+
+        /**
+         * Returns the number of SAN moves in this game.
+         */
+        int size() {
+            return moveEnds.length;
+        }
+
+        /**
+         * Returns SAN move number {@code index} in this game.
+         */
+        String getSanMove(final int index) {
+            final int start = (index == 0) ? 0 : moveEnds[index - 1];
+            return new String(moveChars, start, moveEnds[index] - start);
+        }
+
+        /**
+         * Replays the SAN moves of this game from its start position, and returns the resulting game.
+         * If a move cannot be parsed, the rest of the game is skipped.
+         */
+        PgnGame replay() {
+            final String fen = tags.get("FEN");
+            Position position;
+            try {
+                position = (fen != null) ? FenParser.parse(fen) : Position.START;
+            } catch (ParseException e) {
+                TLOG.warning("Skipping game " + gameNumber + " with invalid FEN '" + fen + "': " + e.getMessage());
+                return new PgnGame(tags, Position.START, new int[0], result, offset);
+            }
+
+            final Position startPosition = position;
+            final int[] moves = new int[size()];
+            // Parse the moves directly from the character buffer, without creating a string for each move
+            final CharBuffer sanMove = CharBuffer.wrap(moveChars);
+            int ply = 0;
+            try {
+                for (; ply < moves.length; ply++) {
+                    sanMove.clear().position((ply == 0) ? 0 : moveEnds[ply - 1]).limit(moveEnds[ply]);
+                    moves[ply] = SanCodec.parse(sanMove, position);
+                    position = position.withMove(moves[ply]);
+                }
+            } catch (IllegalMoveException | RuntimeException e) {
+                TLOG.warning("Skipping rest of game " + gameNumber + " after ply " + ply + ": " + getSanMove(ply));
+            }
+            return new PgnGame(tags, startPosition, (ply == moves.length) ? moves : Arrays.copyOf(moves, ply), result, offset);
+        }
+    }
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Piece;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.AttackTables;
+import se.dykstrom.ronja.engine.utils.PositionUtils;
+
+import static se.dykstrom.ronja.common.model.Piece.BISHOP;
+import static se.dykstrom.ronja.common.model.Piece.KING;
+import static se.dykstrom.ronja.common.model.Piece.KNIGHT;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
+
+/**
+ * A fast codec for moves in Standard Algebraic Notation (SAN). Unlike {@link SanParser}, this class
+ * does not generate all moves in the position, or make the move, to disambiguate and validate moves.
+ * Instead, it finds the candidate pieces using attack bitboards, and checks legality and check status
+ * using targeted attack queries. Moves are formatted into a caller supplied {@link StringBuilder},
+ * that can be reused for many moves, and parsed from any {@link CharSequence} without regular
+ * expressions or intermediate strings.
+ * <p>
+ * Only moves that give check are actually made, to find out if they are also checkmate. All methods
+ * in this class are thread safe.
+ *
+ * @author Johan Dykstrom
+ */
+public final class SanCodec {
+
+    /** Bitboard of all squares on file A, shifted to get the other files. */
+    private static final long FILE_A = 0x0101010101010101L;
+
+    /** Bitboard of all squares on rank 1, shifted to get the other ranks. */
+    private static final long RANK_1 = 0xffL;
+
+    private static final int E1_IDX = 4;
+    private static final int E8_IDX = 60;
+
+    private SanCodec() { }
+
+    // -----------------------------------------------------------------------
+    // Validation:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Returns {@code true} if the given sequence of characters is a syntactically
+     * valid chess move in standard algebraic notation.
+     *
+     * @param move The move to validate.
+     * @return True if the given sequence is a syntactically valid move.
+     */
+    public static boolean isMove(final CharSequence move) {
+        int end = move.length();
+        if (end > 0 && isCheckSymbol(move.charAt(end - 1))) {
+            end--;
+        }
+        if (end < 2) {
+            return false;
+        }
+
+        final char first = move.charAt(0);
+        if (first == 'O') {
+            return isCastling(move, end);
+        } else if (isPieceSymbol(first)) {
+            // [BKNRQ][a-h]?[1-8]?x?[a-h][1-8]
+            if (end < 3 || !isFile(move.charAt(end - 2)) || !isRank(move.charAt(end - 1))) {
+                return false;
+            }
+            int index = 1;
+            if (index < end - 2 && isFile(move.charAt(index))) {
+                index++;
+            }
+            if (index < end - 2 && isRank(move.charAt(index))) {
+                index++;
+            }
+            if (index < end - 2 && move.charAt(index) == 'x') {
+                index++;
+            }
+            return index == end - 2;
+        } else if (isFile(first)) {
+            // ([a-h]x)?[a-h][1-8](=[BNRQ])?
+            int index = 0;
+            if (end > 2 && move.charAt(1) == 'x') {
+                index = 2;
+            }
+            if (index + 2 > end || !isFile(move.charAt(index)) || !isRank(move.charAt(index + 1))) {
+                return false;
+            }
+            final char rank = move.charAt(index + 1);
+            index += 2;
+            if (rank == '1' || rank == '8') {
+                return index + 2 == end && move.charAt(index) == '=' && isPromotionSymbol(move.charAt(index + 1));
+            }
+            return index == end;
+        }
+        return false;
+    }
+
+    // -----------------------------------------------------------------------
+    // Parsing:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Parses and validates a move specified in SAN format in the given {@code Position}.
+     * Any check or checkmate symbols at the end of the move are ignored.
+     *
+     * @param san The move in SAN format.
+     * @param position The position when the move is made.
+     * @return The parsed move.
+     * @throws IllegalMoveException If the given characters cannot be parsed as a legal move in SAN format.
+     */
+    public static int parse(final CharSequence san, final Position position) throws IllegalMoveException {
+        int end = san.length();
+        while (end > 0 && isCheckSymbol(san.charAt(end - 1))) {
+            end--;
+        }
+        if (end < 2) {
+            throw new IllegalMoveException("invalid move '" + san + "'");
+        }
+
+        final char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            return parseCastling(san, end, position);
+        } else if (isPieceSymbol(first)) {
+            return parsePieceMove(san, end, position);
+        } else if (isFile(first)) {
+            return parsePawnMove(san, end, position);
+        }
+        throw new IllegalMoveException("invalid move '" + san + "'");
+    }
+
+    private static int parseCastling(final CharSequence san, final int end, final Position position) throws IllegalMoveException {
+        if (!isCastling(san, end)) {
+            throw new IllegalMoveException("invalid move '" + san + "'");
+        }
+        final boolean isWhite = position.isWhiteMove();
+        final boolean isKingSide = end == 3;
+        final int from = isWhite ? E1_IDX : E8_IDX;
+        final int to = isKingSide ? from + 2 : from - 2;
+        final int rookFrom = isKingSide ? from + 3 : from - 4;
+        final long own = isWhite ? position.white : position.black;
+
+        if (isKingSide ? !position.isKingSideCastlingAllowed(position.getActiveColor()) : !position.isQueenSideCastlingAllowed(position.getActiveColor())) {
+            throw new IllegalMoveException((isKingSide ? "king-side" : "queen-side") + " castling not allowed");
+        }
+        if ((position.king & own & (1L << from)) == 0 || (position.rook & own & (1L << rookFrom)) == 0) {
+            throw new IllegalMoveException("illegal castling, king or rook has moved");
+        }
+        if ((AttackTables.between(from, rookFrom) & (position.white | position.black)) != 0) {
+            throw new IllegalMoveException("illegal castling, path is blocked");
+        }
+        final var enemy = position.getActiveColor().flip();
+        for (int index = from; index != to + (to - from) / 2; index += (to - from) / 2) {
+            if (position.isAttacked(index, enemy)) {
+                throw new IllegalMoveException("illegal castling, king is in check or passes an attacked square");
+            }
+        }
+        return Move.createCastling(from, to);
+    }
+
+    private static int parsePieceMove(final CharSequence san, final int end, final Position position) throws IllegalMoveException {
+        final int piece = Piece.valueOf(san.charAt(0));
+        if (end < 3 || !isFile(san.charAt(end - 2)) || !isRank(san.charAt(end - 1))) {
+            throw new IllegalMoveException("invalid move '" + san + "'");
+        }
+        final int to = toIndex(san.charAt(end - 2), san.charAt(end - 1));
+
+        // The to square may be preceded by the file and/or rank of the from square, and a capture symbol
+        long fromMask = -1L;
+        for (int index = 1; index < end - 2; index++) {
+            final char c = san.charAt(index);
+            if (isFile(c)) {
+                fromMask &= FILE_A << (c - 'a');
+            } else if (isRank(c)) {
+                fromMask &= RANK_1 << (8 * (c - '1'));
+            } else if (c != 'x') {
+                throw new IllegalMoveException("invalid move '" + san + "'");
+            }
+        }
+
+        final boolean isWhite = position.isWhiteMove();
+        final long own = isWhite ? position.white : position.black;
+        final long toSquare = 1L << to;
+        if ((own & toSquare) != 0 || (position.king & toSquare) != 0) {
+            throw new IllegalMoveException("illegal capture on " + squareName(to));
+        }
+
+        long candidates = attacksTo(piece, to, position.white | position.black) & pieces(piece, position) & own & fromMask;
+        int from = -1;
+        for (; candidates != 0; candidates &= candidates - 1) {
+            final int candidate = Long.numberOfTrailingZeros(candidates);
+            if (isLegal(position, piece, candidate, to, 0)) {
+                if (from != -1) {
+                    throw new IllegalMoveException("ambiguous move, more than one " + Piece.toSymbol(piece) + " can move to " + squareName(to));
+                }
+                from = candidate;
+            }
+        }
+        if (from == -1) {
+            throw new IllegalMoveException("illegal move, no " + Piece.toSymbol(piece) + " can move to " + squareName(to));
+        }
+
+        final int captured = position.getPiece(toSquare);
+        return (captured == 0) ? Move.create(piece, from, to) : Move.createCapture(piece, from, to, captured);
+    }
+
+    private static int parsePawnMove(final CharSequence san, final int end, final Position position) throws IllegalMoveException {
+        final boolean isCapture = end > 2 && san.charAt(1) == 'x';
+        int index = isCapture ? 2 : 0;
+        if (index + 2 > end || !isFile(san.charAt(index)) || !isRank(san.charAt(index + 1))) {
+            throw new IllegalMoveException("invalid move '" + san + "'");
+        }
+        final int to = toIndex(san.charAt(index), san.charAt(index + 1));
+        index += 2;
+
+        // Promotion, with or without the '=' symbol
+        int promoted = 0;
+        if (index < end && san.charAt(index) == '=') {
+            index++;
+        }
+        if (index < end) {
+            if (index + 1 != end || !isPromotionSymbol(san.charAt(index))) {
+                throw new IllegalMoveException("invalid promotion piece in '" + san + "'");
+            }
+            promoted = Piece.valueOf(san.charAt(index));
+        }
+
+        final boolean isWhite = position.isWhiteMove();
+        final long own = isWhite ? position.white : position.black;
+        final long enemy = isWhite ? position.black : position.white;
+        final long occupied = position.white | position.black;
+        final long toSquare = 1L << to;
+        final int forward = isWhite ? 8 : -8;
+
+        final int from;
+        int captured = 0;
+        boolean isEnPassant = false;
+        if (isCapture) {
+            final int fromFile = san.charAt(0) - 'a';
+            if (Math.abs(fromFile - (to & 7)) != 1 || to - forward < 0 || to - forward > 63) {
+                throw new IllegalMoveException("illegal pawn move");
+            }
+            from = ((to - forward) & ~7) | fromFile;
+            if ((position.pawn & own & (1L << from)) == 0) {
+                throw new IllegalMoveException("illegal pawn move, no pawn on " + squareName(from));
+            }
+            if (toSquare == position.getEnPassantSquare()) {
+                captured = PAWN;
+                isEnPassant = true;
+            } else {
+                captured = position.getPiece(toSquare);
+                if ((enemy & toSquare) == 0 || captured == KING) {
+                    throw new IllegalMoveException("illegal capture");
+                }
+            }
+        } else {
+            final int single = to - forward;
+            final int twoRanksBack = to - 2 * forward;
+            final int doublePushRank = isWhite ? 3 : 4;
+            if ((occupied & toSquare) != 0) {
+                throw new IllegalMoveException("illegal pawn move");
+            } else if (single >= 0 && single < 64 && (position.pawn & own & (1L << single)) != 0) {
+                from = single;
+            } else if ((to >> 3) == doublePushRank && (occupied & (1L << single)) == 0 &&
+                       (position.pawn & own & (1L << twoRanksBack)) != 0) {
+                from = twoRanksBack;
+            } else {
+                throw new IllegalMoveException("illegal pawn move");
+            }
+        }
+
+        final int toRank = to >> 3;
+        if ((toRank == 0 || toRank == 7) != (promoted != 0)) {
+            throw new IllegalMoveException("illegal pawn move, " + ((promoted != 0) ? "cannot promote on " : "must promote on ") + squareName(to));
+        }
+        if (!isLegal(position, PAWN, from, to, isEnPassant ? to - forward : 0)) {
+            throw new IllegalMoveException("illegal pawn move, king would be in check");
+        }
+
+        if (isEnPassant) {
+            return Move.createEnPassant(from, to);
+        } else if (promoted != 0) {
+            return (captured == 0) ? Move.createPromotion(from, to, promoted) : Move.createCapturePromotion(from, to, captured, promoted);
+        } else {
+            return (captured == 0) ? Move.create(PAWN, from, to) : Move.createCapture(PAWN, from, to, captured);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Formatting:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Formats the given array of moves in SAN format in the context of the given start position.
+     *
+     * @param startPosition The position of the first move.
+     * @param moves The moves to format.
+     * @return The formatted moves.
+     */
+    public static List<String> format(final Position startPosition, final int... moves) {
+        final List<String> formattedMoves = new ArrayList<>(moves.length);
+        final StringBuilder builder = new StringBuilder(8);
+        Position position = startPosition;
+        for (int move : moves) {
+            builder.setLength(0);
+            formattedMoves.add(format(position, move, builder).toString());
+            position = position.withMove(move);
+        }
+        return formattedMoves;
+    }
+
+    /**
+     * Formats the given move in SAN format in the context of the given position.
+     *
+     * @param position The current position.
+     * @param move The move to format.
+     * @return The formatted move.
+     */
+    public static String format(final Position position, final int move) {
+        return format(position, move, new StringBuilder(8)).toString();
+    }
+
+    /**
+     * Formats the given move in SAN format in the context of the given position, and appends
+     * the formatted move to {@code builder}.
+     *
+     * @param position The current position.
+     * @param move The move to format.
+     * @param builder The string builder to append the formatted move to.
+     * @return The given string builder.
+     */
+    public static StringBuilder format(final Position position, final int move, final StringBuilder builder) {
+        final int piece = Move.getPiece(move);
+        final int from = Move.getFromIndex(move);
+        final int to = Move.getToIndex(move);
+
+        if (Move.isCastling(move)) {
+            builder.append(((to & 7) == 6) ? "O-O" : "O-O-O");
+        } else {
+            if (piece == PAWN) {
+                if (Move.isCapture(move)) {
+                    builder.append(fileChar(from));
+                }
+            } else {
+                builder.append(Piece.toSymbol(piece));
+                appendFileOrRank(position, piece, from, to, builder);
+            }
+            if (Move.isCapture(move)) {
+                builder.append('x');
+            }
+            builder.append(fileChar(to)).append(rankChar(to));
+            if (Move.isPromotion(move)) {
+                builder.append('=').append(Piece.toSymbol(Move.getPromoted(move)));
+            }
+        }
+
+        if (isCheck(position, move)) {
+            builder.append(PositionUtils.isCheckMate(position.withMove(move)) ? '#' : '+');
+        }
+        return builder;
+    }
+
+    /**
+     * Appends the file and/or rank of the from square of a piece move, if more than one piece of this type
+     * can legally move to the to square.
+     */
+    private static void appendFileOrRank(final Position position, final int piece, final int from, final int to, final StringBuilder builder) {
+        if (piece == KING) {
+            return;
+        }
+        final long own = position.isWhiteMove() ? position.white : position.black;
+        long others = attacksTo(piece, to, position.white | position.black) & pieces(piece, position) & own & ~(1L << from);
+        for (long candidates = others; candidates != 0; candidates &= candidates - 1) {
+            final int candidate = Long.numberOfTrailingZeros(candidates);
+            if (!isLegal(position, piece, candidate, to, 0)) {
+                others &= ~(1L << candidate);
+            }
+        }
+        if (others != 0) {
+            if ((others & (FILE_A << (from & 7))) == 0) {
+                builder.append(fileChar(from));
+            } else if ((others & (RANK_1 << (from & ~7))) == 0) {
+                builder.append(rankChar(from));
+            } else {
+                builder.append(fileChar(from)).append(rankChar(from));
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given move, made in the given position, checks the opponent's king.
+     * This method looks for direct checks by the moved (or promoted) piece, and discovered checks
+     * by own sliding pieces, including the rook in a castling move.
+     */
+    static boolean isCheck(final Position position, final int move) {
+        final boolean isWhite = position.isWhiteMove();
+        final long own = isWhite ? position.white : position.black;
+        final long enemyKing = position.king & (isWhite ? position.black : position.white);
+        if (enemyKing == 0) {
+            return false;
+        }
+        final int king = Long.numberOfTrailingZeros(enemyKing);
+        final int from = Move.getFromIndex(move);
+        final int to = Move.getToIndex(move);
+        final long fromSquare = 1L << from;
+        final long toSquare = 1L << to;
+
+        long occupied = ((position.white | position.black) & ~fromSquare) | toSquare;
+        long diagonal = (position.bishop | position.queen) & own & ~fromSquare;
+        long straight = (position.rook | position.queen) & own & ~fromSquare;
+
+        if (Move.isEnPassant(move)) {
+            occupied &= ~(1L << (isWhite ? to - 8 : to + 8));
+        } else if (Move.isCastling(move)) {
+            final boolean isKingSide = (to & 7) == 6;
+            final long rookFrom = 1L << (isKingSide ? from + 3 : from - 4);
+            final long rookTo = 1L << (isKingSide ? from + 1 : from - 1);
+            occupied = (occupied & ~rookFrom) | rookTo;
+            straight = (straight & ~rookFrom) | rookTo;
+        }
+
+        switch (Move.isPromotion(move) ? Move.getPromoted(move) : Move.getPiece(move)) {
+            case PAWN -> {
+                if ((AttackTables.pawnAttacks(to, isWhite) & enemyKing) != 0) {
+                    return true;
+                }
+            }
+            case KNIGHT -> {
+                if ((AttackTables.knightAttacks(to) & enemyKing) != 0) {
+                    return true;
+                }
+            }
+            case BISHOP -> diagonal |= toSquare;
+            case ROOK -> straight |= toSquare;
+            case QUEEN -> {
+                diagonal |= toSquare;
+                straight |= toSquare;
+            }
+            default -> { }
+        }
+
+        return (AttackTables.bishopAttacks(king, occupied) & diagonal) != 0 ||
+               (AttackTables.rookAttacks(king, occupied) & straight) != 0;
+    }
+
+    // -----------------------------------------------------------------------
+    // Utility methods:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Returns {@code true} if moving the given piece from {@code from} to {@code to} does not leave the own
+     * king in check. If {@code enPassantIndex} is not 0, it is the square of a pawn captured 'en passant'.
+     * This method does not handle castling moves.
+     */
+    private static boolean isLegal(final Position position, final int piece, final int from, final int to, final int enPassantIndex) {
+        final boolean isWhite = position.isWhiteMove();
+        final long own = isWhite ? position.white : position.black;
+        final long toSquare = 1L << to;
+        long enemy = (isWhite ? position.black : position.white) & ~toSquare;
+        long occupied = ((position.white | position.black) & ~(1L << from)) | toSquare;
+        if (enPassantIndex != 0) {
+            enemy &= ~(1L << enPassantIndex);
+            occupied &= ~(1L << enPassantIndex);
+        }
+        final int king = (piece == KING) ? to : Long.numberOfTrailingZeros(position.king & own);
+        return (AttackTables.pawnAttacks(king, isWhite) & position.pawn & enemy) == 0 &&
+               (AttackTables.knightAttacks(king) & position.knight & enemy) == 0 &&
+               (AttackTables.kingAttacks(king) & position.king & enemy) == 0 &&
+               (AttackTables.bishopAttacks(king, occupied) & (position.bishop | position.queen) & enemy) == 0 &&
+               (AttackTables.rookAttacks(king, occupied) & (position.rook | position.queen) & enemy) == 0;
+    }
+
+    /**
+     * Returns all squares from which a piece of the given type attacks square {@code to}.
+     */
+    private static long attacksTo(final int piece, final int to, final long occupied) {
+        return switch (piece) {
+            case KNIGHT -> AttackTables.knightAttacks(to);
+            case BISHOP -> AttackTables.bishopAttacks(to, occupied);
+            case ROOK -> AttackTables.rookAttacks(to, occupied);
+            case QUEEN -> AttackTables.queenAttacks(to, occupied);
+            case KING -> AttackTables.kingAttacks(to);
+            default -> 0;
+        };
+    }
+
+    /**
+     * Returns the bitboard of all pieces of the given type, of both colors.
+     */
+    private static long pieces(final int piece, final Position position) {
+        return switch (piece) {
+            case PAWN -> position.pawn;
+            case KNIGHT -> position.knight;
+            case BISHOP -> position.bishop;
+            case ROOK -> position.rook;
+            case QUEEN -> position.queen;
+            case KING -> position.king;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Returns {@code true} if the first {@code end} characters of {@code move} are "O-O" or "O-O-O".
+     * The digit zero is also accepted instead of the letter O.
+     */
+    private static boolean isCastling(final CharSequence move, final int end) {
+        if (end != 3 && end != 5) {
+            return false;
+        }
+        final char o = move.charAt(0);
+        for (int index = 0; index < end; index++) {
+            final char expected = ((index & 1) == 0) ? o : '-';
+            if (move.charAt(index) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCheckSymbol(final char c) {
+        return c == '+' || c == '#';
+    }
+
+    private static boolean isPieceSymbol(final char c) {
+        return c == 'N' || c == 'B' || c == 'R' || c == 'Q' || c == 'K';
+    }
+
+    private static boolean isPromotionSymbol(final char c) {
+        return c == 'N' || c == 'B' || c == 'R' || c == 'Q';
+    }
+
+    private static boolean isFile(final char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(final char c) {
+        return c >= '1' && c <= '8';
+    }
+
+    private static int toIndex(final char file, final char rank) {
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    private static char fileChar(final int index) {
+        return (char) ('a' + (index & 7));
+    }
+
+    private static char rankChar(final int index) {
+        return (char) ('1' + (index >> 3));
+    }
+
+    private static String squareName(final int index) {
+        return new String(new char[] {fileChar(index), rankChar(index)});
+    }
+}
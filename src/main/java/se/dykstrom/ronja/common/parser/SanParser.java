@@ -39,6 +39,8 @@ import static se.dykstrom.ronja.common.model.Piece.PAWN;
 
 /**
  * A class that can parse and format moves specified in Standard Algebraic Notation (SAN).
+ * This class generates all moves in the position to disambiguate moves, and makes the move
+ * to find out if it is check or checkmate. For a faster alternative, see {@link SanCodec}.
  *
  * @author Johan Dykstrom
  */
@@ -46,7 +48,8 @@ public class SanParser extends AbstractMoveParser {
 
     private static final Logger TLOG = Logger.getLogger(SanParser.class.getName());
 
-    private static final FullMoveGenerator MOVE_GENERATOR = new FullMoveGenerator();
+    /** One move generator per thread, since move generators are not thread safe. */
+    private static final ThreadLocal<FullMoveGenerator> MOVE_GENERATOR = ThreadLocal.withInitial(FullMoveGenerator::new);
 
     /**
      * Returns {@code true} if the given string of characters is a syntactically
@@ -56,10 +59,7 @@ public class SanParser extends AbstractMoveParser {
      * @return True if the given string is a syntactically valid move.
      */
     public static boolean isMove(String move) {
-        return move.matches("[BKNRQ][a-h]?[1-8]?[x]?[a-h][1-8][+#]?") ||   // Piece move
-               move.matches("([a-h][x])?[a-h][2-7][+#]?") ||               // Pawn move
-               move.matches("([a-h][x])?[a-h][18][=][BNRQ][+#]?") ||       // Promotion
-               move.matches("O-O(-O)?[+#]?");                              // Castling
+        return SanCodec.isMove(move);
     }
 
     // -----------------------------------------------------------------------
@@ -108,14 +108,17 @@ public class SanParser extends AbstractMoveParser {
 
 			// Get piece
 			if (move.charAt(0) < 'Z') {
-				// Remove piece name
-				move = move.substring(1);
-
-				// Remove 'x'
-				if (move.startsWith("x")) {
-					move = move.substring(1);
-					capture = true;
-				}
+				final int piece = Piece.valueOf(move.charAt(0));
+
+				// Remove piece name, 'x', and check and check mate symbols
+				capture = move.contains("x");
+				final String squares = move.substring(1).replace("x", "").replace("+", "").replace("#", "");
+
+				// The to square is always last, and may be preceded by the file and/or rank of the from square
+				final int length = squares.length();
+				to = Square.nameToId(squares.substring(length - 2));
+				from = getFromSquare(piece, to, squares.substring(0, length - 2), position);
+				move = squares.substring(length - 2);
 			}
 
 			// Or pawn
@@ -199,9 +202,6 @@ public class SanParser extends AbstractMoveParser {
                 move = move.substring(0, move.length() - 1);
             }
 
-			// Get from square
-			// TODO: Get from square of piece moves.
-
 			// Promotion
 			if (move.contains("=")) {
                 promotedPiece = getPromotionPiece(position, from, move.charAt(move.indexOf("=") + 1));
@@ -218,12 +218,52 @@ public class SanParser extends AbstractMoveParser {
         return create(piece, from, to, capturedPiece, promotedPiece, isCastling, isEnPassant);
 	}
 
+    /**
+     * Returns the from square of a piece move, that is, the square of the only piece of the given type
+     * that can legally move to the given to square, and that is on the file and/or rank specified
+     * in {@code fromFileOrRank}.
+     *
+     * @param piece The piece to move.
+     * @param to The square to move to.
+     * @param fromFileOrRank The file, rank, file and rank, or none of these, of the from square.
+     * @param position The current position.
+     * @return The from square.
+     * @throws IllegalMoveException If no piece, or more than one piece, matches the move.
+     */
+    private static long getFromSquare(int piece, long to, String fromFileOrRank, Position position) throws IllegalMoveException {
+        long from = 0;
+        for (long square : getAllFromSquares(piece, to, position)) {
+            final String name = Square.idToName(square);
+            if (fromFileOrRank.chars().allMatch(c -> name.indexOf(c) >= 0) && isLegal(piece, square, to, position)) {
+                if (from != 0) {
+                    throw new IllegalMoveException("ambiguous move, more than one " + Piece.toSymbol(piece) + " can move to " + Square.idToName(to));
+                }
+                from = square;
+            }
+        }
+        if (from == 0) {
+            throw new IllegalMoveException("illegal move, no " + Piece.toSymbol(piece) + " can move to " + Square.idToName(to));
+        }
+        return from;
+    }
+
+    /**
+     * Returns {@code true} if moving the given piece does not leave the own king in check.
+     */
+    private static boolean isLegal(int piece, long from, long to, Position position) {
+        final int captured = position.getPiece(to);
+        final int move = (captured == 0)
+                ? Move.create(piece, Square.idToIndex(from), Square.idToIndex(to))
+                : Move.createCapture(piece, Square.idToIndex(from), Square.idToIndex(to), captured);
+        return !position.withMove(move).isCheck(position.getActiveColor());
+    }
+
     private static boolean isQueenSideCastling(String move) {
-        return move.equals("O-O-O");
+        return move.startsWith("O-O-O");
     }
 
     private static boolean isKingSideCastling(String move) {
-        return move.equals("O-O");
+        return move.equals("O-O") || move.equals("O-O+") || move.equals("O-O#");
     }
 
     // -----------------------------------------------------------------------
@@ -325,9 +365,10 @@ public class SanParser extends AbstractMoveParser {
      */
     static Set<Long> getAllFromSquares(int piece, long toSquare, Position position) {
         Set<Long> squares = new HashSet<>();
-        int numberOfMoves = MOVE_GENERATOR.generateMoves(position, 0);
+        final FullMoveGenerator moveGenerator = MOVE_GENERATOR.get();
+        int numberOfMoves = moveGenerator.generateMoves(position, 0);
         for (int moveIndex = 0; moveIndex < numberOfMoves; moveIndex++) {
-            int move = MOVE_GENERATOR.moves[0][moveIndex];
+            int move = moveGenerator.moves[0][moveIndex];
             if (Move.getPiece(move) == piece && Move.getTo(move) == toSquare) {
                 squares.add(Move.getFrom(move));
             }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * The result of analyzing a single position.
+ *
+ * @param id The id of the position.
+ * @param position The analyzed position.
+ * @param move The best move found, or 0 if the game is over in this position.
+ * @param score The score of the best move in centipawns, from the perspective of the side to move.
+ * @param depth The deepest search depth completed.
+ * @param nodes The number of nodes searched.
+ * @param time The search time in milliseconds.
+ * @author Johan Dykstrom
+ */
+public record AnalysisResult(String id, Position position, int move, int score, int depth, long nodes, long time) { }
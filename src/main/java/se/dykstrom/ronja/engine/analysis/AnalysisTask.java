@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * A position to analyze, together with an id that identifies it in the input.
+ *
+ * @param id The id of the position, for example its line number in a FEN file.
+ * @param position The position to analyze.
+ * @author Johan Dykstrom
+ */
+public record AnalysisTask(String id, Position position) { }
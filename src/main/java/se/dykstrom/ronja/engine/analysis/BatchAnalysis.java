@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.engine.utils.Version;
+
+/**
+ * The entry point of the headless batch analysis mode. Reads positions from a FEN, EPD, or PGN file,
+ * analyzes them using a pool of search engines, and writes the results to a CSV or JSON Lines file.
+ * The search engines are configured like in XBoard mode, using the configuration file.
+ * <p>
+ * Usage: BatchAnalysis [-d DEPTH | -t MILLIS] [-c THREADS] INPUT OUTPUT
+ *
+ * @author Johan Dykstrom
+ */
+public class BatchAnalysis {
+
+    static {
+        if (System.getProperty("java.util.logging.config.file") == null) {
+            System.setProperty("java.util.logging.config.file", "ronja.properties");
+        }
+    }
+
+    private static final String USAGE = "Usage: BatchAnalysis [-d DEPTH | -t MILLIS] [-c THREADS] INPUT OUTPUT";
+
+    /** The default search time per position in milliseconds. */
+    private static final long DEFAULT_TIME = 1000;
+
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int depth = 0;
+        long maxTime = DEFAULT_TIME;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path input = null;
+        Path output = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-d" -> depth = Integer.parseInt(args[++i]);
+                    case "-t" -> maxTime = Long.parseLong(args[++i]);
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (input == null) {
+                            input = Path.of(args[i]);
+                        } else if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("too many arguments");
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            input = null;
+        }
+        if (input == null || output == null) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        System.out.println("# Ronja version " + Version.instance());
+        final BatchAnalyzer analyzer = new BatchAnalyzer(Game::getSearchEngine, depth, maxTime, threads);
+        final long start = System.nanoTime();
+        try (PositionReader reader = PositionReader.open(input); ResultWriter writer = ResultWriter.open(output)) {
+            final long count = analyzer.analyze(reader, writer);
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Analyzed %d positions in %.1f s (%.1f positions/s)%n", count, seconds, count / seconds);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.engine.core.Evaluator;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.engine.core.SearchListener;
+import se.dykstrom.ronja.engine.time.SearchClock;
+import se.dykstrom.ronja.engine.utils.PositionUtils;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Analyzes a stream of positions with a pool of worker threads, each with its own game and search engine.
+ * Positions are read by the calling thread, and handed over to the workers through a bounded queue, so the
+ * memory used does not depend on the size of the input. Each result is written as soon as it is available,
+ * which means that results are written in the order they are finished, not in the order they were read.
+ * <p>
+ * Each position is searched either to a fixed depth, or for a fixed time. The search engines are not cleared
+ * between positions, so consecutive positions from the same game can benefit from the transposition table.
+ *
+ * @author Johan Dykstrom
+ */
+public class BatchAnalyzer {
+
+    private static final Logger TLOG = Logger.getLogger(BatchAnalyzer.class.getName());
+
+    /** The number of queued positions per worker thread. */
+    private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+    /** Put in the queue to tell a worker to stop. */
+    private static final AnalysisTask END = new AnalysisTask("", null);
+
+    private final Function<Game, SearchEngine> engineFactory;
+    private final int depth;
+    private final long maxTime;
+    private final int threads;
+
+    /**
+     * Creates a new batch analyzer.
+     *
+     * @param engineFactory Creates a search engine for a game, called once for each worker thread.
+     * @param depth The search depth, or 0 to search for a fixed time instead.
+     * @param maxTime The search time per position in milliseconds, used if {@code depth} is 0.
+     * @param threads The number of worker threads.
+     */
+    public BatchAnalyzer(final Function<Game, SearchEngine> engineFactory, final int depth, final long maxTime, final int threads) {
+        if (depth < 0 || (depth == 0 && maxTime < 1) || threads < 1) {
+            throw new IllegalArgumentException("invalid analysis settings");
+        }
+        this.engineFactory = engineFactory;
+        this.depth = depth;
+        this.maxTime = maxTime;
+        this.threads = threads;
+    }
+
+    /**
+     * Analyzes all positions read by {@code reader}, and writes the results using {@code writer}.
+     *
+     * @return The number of positions analyzed.
+     * @throws IOException If reading or writing fails.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     */
+    public long analyze(final PositionReader reader, final ResultWriter writer) throws IOException, InterruptedException {
+        final BlockingQueue<AnalysisTask> queue = new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD);
+        final AtomicLong count = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    final Worker worker = new Worker();
+                    AnalysisTask task;
+                    while ((task = queue.take()) != END) {
+                        writer.write(worker.analyze(task));
+                        count.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            AnalysisTask task;
+            while ((task = reader.next()) != null) {
+                put(queue, task, futures);
+            }
+            for (int i = 0; i < threads; i++) {
+                put(queue, END, futures);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new IllegalStateException("analysis failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        TLOG.fine(() -> "Analyzed " + count.get() + " positions");
+        return count.get();
+    }
+
+    /**
+     * Puts a task in the queue, waiting for space to become available. While waiting,
+     * the workers are checked for failures, so we do not wait forever if all workers have died.
+     */
+    private static void put(final BlockingQueue<AnalysisTask> queue, final AnalysisTask task, final List<Future<?>> futures)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(task, 100, MILLISECONDS)) {
+            for (Future<?> future : futures) {
+                if (future.isDone()) {
+                    future.get();
+                }
+            }
+        }
+    }
+
+    /**
+     * A worker, that is, a game and a search engine that searches in that game. The worker also
+     * listens to the search engine, to get the score and depth of the last completed iteration.
+     */
+    private class Worker implements SearchListener {
+
+        private final Game game = new Game(OpeningBook.DEFAULT);
+        private final SearchEngine searchEngine;
+        private final SearchClock clock = new SearchClock();
+
+        private int lastDepth;
+        private int lastScore;
+
+        Worker() {
+            this.searchEngine = engineFactory.apply(game);
+            this.searchEngine.setSearchListener(this);
+        }
+
+        AnalysisResult analyze(final AnalysisTask task) {
+            game.setPosition(task.position());
+            if (PositionUtils.isGameOver(task.position(), game)) {
+                return new AnalysisResult(task.id(), task.position(), 0, 0, 0, 0, 0);
+            }
+
+            lastDepth = 0;
+            lastScore = 0;
+            clock.start();
+            final int move = (depth > 0) ? searchEngine.findBestMove(depth) : searchEngine.findBestMoveWithinTime(maxTime);
+            final long time = clock.getElapsedTime();
+            return new AnalysisResult(task.id(), task.position(), move, Evaluator.toCentipawns(lastScore), lastDepth,
+                                      searchEngine.getNodes(), time);
+        }
+
+        @Override
+        public void depthCompleted(final int depth, final int bestMove, final int score, final long nodes, final long elapsedTime) {
+            lastDepth = depth;
+            lastScore = score;
+        }
+    }
+}
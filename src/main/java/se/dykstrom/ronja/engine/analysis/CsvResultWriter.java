@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+
+import se.dykstrom.ronja.common.parser.FenParser;
+
+/**
+ * Writes analysis results in CSV format, with a header line.
+ *
+ * @author Johan Dykstrom
+ */
+public class CsvResultWriter extends ResultWriter {
+
+    static final String HEADER = "id,fen,move,score,depth,nodes,time";
+
+    public CsvResultWriter(final BufferedWriter writer) throws IOException {
+        super(writer);
+        writeLine(HEADER);
+    }
+
+    @Override
+    protected String format(final AnalysisResult result) {
+        return quote(result.id()) + "," +
+               FenParser.format(result.position()) + "," +
+               formatMove(result) + "," +
+               result.score() + "," +
+               result.depth() + "," +
+               result.nodes() + "," +
+               result.time();
+    }
+
+    /**
+     * Quotes the given text if it contains characters that have a special meaning in CSV.
+     */
+    static String quote(final String text) {
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
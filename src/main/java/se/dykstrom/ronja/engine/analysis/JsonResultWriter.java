@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.BufferedWriter;
+
+import se.dykstrom.ronja.common.parser.FenParser;
+
+/**
+ * Writes analysis results in JSON Lines format, that is, one JSON object per line.
+ *
+ * @author Johan Dykstrom
+ */
+public class JsonResultWriter extends ResultWriter {
+
+    public JsonResultWriter(final BufferedWriter writer) {
+        super(writer);
+    }
+
+    @Override
+    protected String format(final AnalysisResult result) {
+        return "{\"id\":" + quote(result.id()) +
+               ",\"fen\":" + quote(FenParser.format(result.position())) +
+               ",\"move\":" + quote(formatMove(result)) +
+               ",\"score\":" + result.score() +
+               ",\"depth\":" + result.depth() +
+               ",\"nodes\":" + result.nodes() +
+               ",\"time\":" + result.time() + "}";
+    }
+
+    /**
+     * Returns the given text as a JSON string, with special characters escaped.
+     */
+    static String quote(final String text) {
+        final StringBuilder builder = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.common.parser.PgnGame;
+import se.dykstrom.ronja.common.parser.PgnReader;
+import se.dykstrom.ronja.engine.epd.EpdParser;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Reads positions to analyze from a file, one at a time, so the whole file never has to be kept in memory.
+ * The file can contain either one position in FEN or EPD format on each line, or games in PGN format.
+ * For PGN files, all positions in which a move was made are returned, one game at a time.
+ * Lines, or games, that cannot be parsed are logged and skipped.
+ *
+ * @author Johan Dykstrom
+ */
+public class PositionReader implements Closeable {
+
+    private static final Logger TLOG = Logger.getLogger(PositionReader.class.getName());
+
+    /** Reads FEN or EPD positions, or null if reading PGN games. */
+    private final BufferedReader reader;
+
+    /** Reads PGN games, or null if reading FEN or EPD positions. */
+    private final PgnReader pgnReader;
+
+    /** The current PGN game. */
+    private PgnGame game;
+
+    /** The position before the next move in the current PGN game. */
+    private Position position;
+
+    private int ply;
+    private int lineNumber;
+    private int gameNumber;
+
+    /**
+     * Creates a new position reader that reads one FEN or EPD position per line from the given reader.
+     */
+    public PositionReader(final BufferedReader reader) {
+        this.reader = reader;
+        this.pgnReader = null;
+    }
+
+    /**
+     * Creates a new position reader that reads PGN games from the given PGN reader.
+     */
+    public PositionReader(final PgnReader pgnReader) {
+        this.reader = null;
+        this.pgnReader = pgnReader;
+    }
+
+    /**
+     * Opens a position reader for the given file. The file is assumed to be in PGN format
+     * if its name ends with ".pgn", and to contain FEN or EPD positions otherwise.
+     */
+    public static PositionReader open(final Path path) throws IOException {
+        if (path.toString().toLowerCase().endsWith(".pgn")) {
+            return new PositionReader(PgnReader.open(path));
+        } else {
+            return new PositionReader(Files.newBufferedReader(path, ISO_8859_1));
+        }
+    }
+
+    /**
+     * Returns the next position to analyze, or null if there are no more positions.
+     */
+    public AnalysisTask next() throws IOException {
+        return (pgnReader != null) ? nextPgnPosition() : nextFenPosition();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pgnReader != null) {
+            pgnReader.close();
+        } else {
+            reader.close();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // FEN:
+    // ------------------------------------------------------------------------
+
+    private AnalysisTask nextFenPosition() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank() && !line.startsWith("#")) {
+                try {
+                    return new AnalysisTask(Integer.toString(lineNumber), parseFen(line));
+                } catch (ParseException e) {
+                    TLOG.warning("Skipping line " + lineNumber + " '" + line + "': " + e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a line with a position in FEN format, or in EPD format, in which case the
+     * position is parsed by {@link EpdParser#parsePosition(String)}.
+     */
+    static Position parseFen(final String line) throws ParseException {
+        final String[] fields = line.strip().split("\\s+");
+        if (fields.length >= 6 && isNumber(fields[4]) && isNumber(fields[5])) {
+            return FenParser.parse(String.join(" ", fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]));
+        }
+        return EpdParser.parsePosition(line);
+    }
+
+    private static boolean isNumber(final String text) {
+        return text.chars().allMatch(Character::isDigit);
+    }
+
+    // ------------------------------------------------------------------------
+    // PGN:
+    // ------------------------------------------------------------------------
+
+    private AnalysisTask nextPgnPosition() throws IOException {
+        while (game == null || ply == game.moves().length) {
+            game = pgnReader.next();
+            if (game == null) {
+                return null;
+            }
+            gameNumber++;
+            position = game.startPosition();
+            ply = 0;
+        }
+        final AnalysisTask task = new AnalysisTask(gameNumber + ":" + (ply + 1), position);
+        position = position.withMove(game.moves()[ply++]);
+        return task;
+    }
+}
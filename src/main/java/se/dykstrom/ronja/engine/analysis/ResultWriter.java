@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import se.dykstrom.ronja.common.parser.SanCodec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes analysis results to a file, one result per line, as soon as they are available.
+ * Subclasses decide the output format.
+ *
+ * @author Johan Dykstrom
+ */
+public abstract class ResultWriter implements Closeable {
+
+    private final BufferedWriter writer;
+
+    protected ResultWriter(final BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Opens a result writer for the given file. The results are written in JSON Lines format
+     * if the file name ends with ".jsonl" or ".json", and in CSV format otherwise.
+     */
+    public static ResultWriter open(final Path path) throws IOException {
+        final String name = path.toString().toLowerCase();
+        final BufferedWriter writer = Files.newBufferedWriter(path, UTF_8);
+        if (name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return new JsonResultWriter(writer);
+        } else {
+            return new CsvResultWriter(writer);
+        }
+    }
+
+    /**
+     * Writes the given result, and flushes the output, so that the file can be followed while it is written.
+     * This method is thread safe.
+     */
+    public synchronized void write(final AnalysisResult result) throws IOException {
+        writer.write(format(result));
+        writer.newLine();
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Writes a line of text that is not a result, for example a header.
+     */
+    protected synchronized void writeLine(final String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+    }
+
+    /**
+     * Formats the given result as a single line of text, without line terminator.
+     */
+    protected abstract String format(AnalysisResult result);
+
+    /**
+     * Returns the best move of the given result in SAN format, or an empty string if there is no best move.
+     */
+    protected static String formatMove(final AnalysisResult result) {
+        return (result.move() != 0) ? SanCodec.format(result.position(), result.move()) : "";
+    }
+}
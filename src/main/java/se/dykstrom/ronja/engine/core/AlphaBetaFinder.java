@@ -18,23 +18,41 @@
 package se.dykstrom.ronja.engine.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
 
 import se.dykstrom.ronja.common.model.Game;
-import se.dykstrom.ronja.common.parser.SanParser;
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.parser.SanCodec;
+import se.dykstrom.ronja.engine.time.SearchClock;
 import se.dykstrom.ronja.engine.time.TimeUtils;
 import se.dykstrom.ronja.engine.utils.PositionUtils;
 
 import static se.dykstrom.ronja.engine.core.Evaluator.CHECK_MATE_VALUE;
 import static se.dykstrom.ronja.engine.core.Evaluator.DRAW_VALUE;
 import static se.dykstrom.ronja.engine.core.Evaluator.ILLEGAL_CHECK_VALUE;
+import static se.dykstrom.ronja.engine.core.FullMoveGenerator.MAX_MOVES;
+import static se.dykstrom.ronja.engine.core.FullMoveGenerator.MAX_POSITIONS;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.EXACT;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.LOWER_BOUND;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.NOT_FOUND;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.UPPER_BOUND;
 import static se.dykstrom.ronja.engine.time.TimeUtils.formatTime;
 
 /**
  * This class implements the {@link Finder} interface using the alpha-beta
  * search algorithm. For an explanation of the alpha-beta algorithm, see
  * <a href="https://en.wikipedia.org/wiki/Alpha-beta_pruning">Wikipedia</a>.
+ * <p>
+ * At the leaves of the search tree, a quiescence search that only searches captures and promotions
+ * is used to make sure that only quiet positions are evaluated. Captures that lose material according
+ * to the static exchange evaluation are not searched in the quiescence search.
+ * <p>
+ * The finder keeps a transposition table, killer moves, and a history table that are used
+ * to order moves and to avoid searching the same position twice. This search state survives
+ * between searches, so a finder that is reused for all moves in a game benefits from the work
+ * done in previous searches. See {@link SearchEngine}.
  *
  * @author Johan Dykstrom
  */
@@ -49,8 +67,31 @@ public class AlphaBetaFinder extends AbstractFinder {
     /** True if debugging this class. */
     private static final boolean DEBUG = false;
 
+    /** The number of nodes to search between each time the search clock is polled. */
+    private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+
+    /** The transposition table size in megabytes used by finders that do not share a table. */
+    private static final int DEFAULT_HASH_SIZE = 1;
+
+    /** The evaluation cache size in megabytes used by finders that do not share a cache. */
+    private static final int DEFAULT_EVAL_CACHE_SIZE = 1;
+
+    /**
+     * Sort keys used to order moves: hash move first, then good captures and promotions, then killer moves,
+     * then other quiet moves by history value, and finally bad captures by their static exchange evaluation.
+     */
+    private static final int HASH_MOVE_SORT_KEY = Integer.MAX_VALUE;
+    private static final int CAPTURE_SORT_KEY = 1 << 30;
+    private static final int KILLER_SORT_KEY = 1 << 29;
+
+    /** The maximum history value, to keep quiet moves sorted after killer moves. */
+    private static final int MAX_HISTORY_VALUE = KILLER_SORT_KEY - 1;
+
     /** Used to evaluate positions. */
-    private final Evaluator evaluator = new Evaluator();
+    private final Evaluator evaluator;
+
+    /** Used to find captures that lose material. */
+    private final StaticExchangeEvaluator staticExchangeEvaluator = new StaticExchangeEvaluator();
 
     /** Used to generate moves. */
     private final FullMoveGenerator fullMoveGenerator = new FullMoveGenerator();
@@ -58,20 +99,114 @@ public class AlphaBetaFinder extends AbstractFinder {
     /** The current game. */
     private final Game game;
 
+    /** Stores search results from this and previous searches. */
+    private final TranspositionTable transpositionTable;
+
+    /** Two killer moves for each ply, that is, quiet moves that caused a beta cut-off. */
+    private final int[][] killerMoves = new int[MAX_POSITIONS][2];
+
+    /** History values for quiet moves, indexed by color, from square, and to square. */
+    private final int[] history = new int[2 * 64 * 64];
+
+    /** Sort keys for the generated moves, one array for each depth. */
+    private final int[][] sortKeys = new int[MAX_POSITIONS][MAX_MOVES];
+
+    /** Used to measure the search time. */
+    private final SearchClock clock = new SearchClock();
+
     /** The number of nodes evaluated. */
-    private int nodes;
+    private long nodes;
+
+    /** The maximum number of nodes to evaluate in a search started by {@link #findBestMoveWithinTime(long)}. */
+    private long maxNodes = Long.MAX_VALUE;
+
+    /** The node limit of the current search. */
+    private long nodeLimit = Long.MAX_VALUE;
+
+    /** Notified each time a search depth has been completed, or null. */
+    private SearchListener searchListener;
+
+    /** The score of the best move found by the last completed root search. */
+    private int rootScore;
+
+    /** The number of nodes left to search before polling the search clock again. */
+    private int nodesUntilTimeCheck;
+
+    /** The index of the root move currently being searched. */
+    private int rootMoveIndex;
+
+    /** The number of root moves in the current search. */
+    private int rootNumberOfMoves;
 
     /** The maximum search depth. */
     private int maxDepth;
 
     public AlphaBetaFinder(final Game game) {
+        this(game, new TranspositionTable(DEFAULT_HASH_SIZE), new EvaluationCache(DEFAULT_EVAL_CACHE_SIZE));
+    }
+
+    AlphaBetaFinder(final Game game, final TranspositionTable transpositionTable, final EvaluationCache evaluationCache) {
+        this(game, transpositionTable, new Evaluator(evaluationCache));
+    }
+
+    AlphaBetaFinder(final Game game, final TranspositionTable transpositionTable, final Evaluator evaluator) {
         this.game = game;
+        this.transpositionTable = transpositionTable;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Prepares the search state for a new search. Entries in the transposition table are aged,
+     * history values are halved, and killer moves are forgotten, because they are related to plies
+     * in the previous search.
+     */
+    void prepareForNewSearch() {
+        transpositionTable.incrementAge();
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+        for (int[] killers : killerMoves) {
+            Arrays.fill(killers, 0);
+        }
+    }
+
+    /**
+     * Clears all search state, for example when starting a new game.
+     */
+    void clear() {
+        transpositionTable.clear();
+        Arrays.fill(history, 0);
+        for (int[] killers : killerMoves) {
+            Arrays.fill(killers, 0);
+        }
     }
 
     public void setMaxDepth(final int maxDepth) {
         this.maxDepth = maxDepth;
     }
 
+    /**
+     * Sets the maximum number of nodes to evaluate in a search started by {@link #findBestMoveWithinTime(long)}.
+     * Like the time limit, the node limit does not apply to the first search depth.
+     */
+    public void setMaxNodes(final long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Returns the number of nodes evaluated in the last search.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Sets the listener that is notified each time a search depth has been completed, or null to remove it.
+     */
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
     @Override
     public int findBestMoveWithinTime(final long maxTime) {
         TLOG.fine(() -> "Available time " + maxTime + " = " + formatTime(maxTime));
@@ -79,26 +214,30 @@ public class AlphaBetaFinder extends AbstractFinder {
 
         // Reset statistics
         nodes = 0;
+        nodesUntilTimeCheck = NODES_BETWEEN_TIME_CHECKS;
+        nodeLimit = maxNodes;
         maxDepth = 1;
-        long startTime = System.currentTimeMillis();
+        clock.start(maxTime);
         long remainingTime = maxTime;
         long estimatedTime = 0;
         int bestMove = 0;
 
+        evaluator.setRootPosition(game.getPosition());
+
         // Generate moves once for all depths
         int numberOfMoves = fullMoveGenerator.generateMoves(game.getPosition(), 0);
 
         try {
             while (estimatedTime < remainingTime) {
-                long startTimeForDepth = System.currentTimeMillis();
+                long startTimeForDepth = clock.getElapsedTime();
 
                 sort(0, numberOfMoves, bestMove);
                 bestMove = findBestMove(numberOfMoves, maxDepth, remainingTime);
                 if (DEBUG) TLOG.fine("Best move at depth " + maxDepth + " is " + format(bestMove));
+                notifyDepthCompleted(bestMove, rootScore);
 
-                searchTimes.add(System.currentTimeMillis() - startTimeForDepth);
-                long usedTime = System.currentTimeMillis() - startTime;
-                remainingTime = maxTime - usedTime;
+                searchTimes.add(clock.getElapsedTime() - startTimeForDepth);
+                remainingTime = clock.getRemainingTime();
                 estimatedTime = TimeUtils.estimateTimeForNextDepth(searchTimes);
                 if (DEBUG) TLOG.fine("Estimated time = " + estimatedTime + ", remaining time = " + remainingTime);
                 maxDepth++;
@@ -115,26 +254,37 @@ public class AlphaBetaFinder extends AbstractFinder {
                     maxDepth, format(e.getBestMove()), e.getScore()));
             bestMove = e.getBestMove();
             if (DEBUG) TLOG.fine("Best move at depth " + maxDepth + " is " + format(bestMove));
+            notifyDepthCompleted(bestMove, e.getScore());
             maxDepth++;
         }
         if (DEBUG) TLOG.fine(() -> "Search times: " + searchTimes);
 
-        final long stopTime = System.currentTimeMillis();
-        final long elapsedTime = stopTime - startTime;
+        final long elapsedTime = clock.getElapsedTime();
         TLOG.fine(() -> "Evaluated " + nodes + " nodes (depth " + (maxDepth - 1) + ") in " + elapsedTime +
                         " ms = " + Math.round(nodes / (elapsedTime / 1000.0)) + " nps");
+        TLOG.fine(() -> String.format("Evaluation cache hit rate = %.1f%%, pawn hash table hit rate = %.1f%%",
+                                      evaluator.getEvaluationCache().getHitRate() * 100,
+                                      evaluator.getPawnHashTable().getHitRate() * 100));
         return bestMove;
     }
 
     @Override
     public int findBestMove(final int depth) {
+        evaluator.setRootPosition(game.getPosition());
         final int numberOfMoves = fullMoveGenerator.generateMoves(game.getPosition(), 0);
         sort(0, numberOfMoves);
 
         try {
             setMaxDepth(depth);
-            return findBestMove(numberOfMoves, depth, 60_000);
+            nodes = 0;
+            nodesUntilTimeCheck = NODES_BETWEEN_TIME_CHECKS;
+            nodeLimit = Long.MAX_VALUE;
+            clock.start();
+            final int bestMove = findBestMove(numberOfMoves, depth, 60_000);
+            notifyDepthCompleted(bestMove, rootScore);
+            return bestMove;
         } catch (EndOfGameException e) {
+            notifyDepthCompleted(e.getBestMove(), e.getScore());
             return e.getBestMove();
         }
     }
@@ -147,28 +297,33 @@ public class AlphaBetaFinder extends AbstractFinder {
     private int findBestMove(final int numberOfMoves, final int depth, final long maxTime) {
         if (DEBUG) TLOG.finest(enter(depth));
 
-        long startTime = System.currentTimeMillis();
+        long startTime = clock.getElapsedTime();
         int alpha = ALPHA_START;
         int beta = BETA_START;
         int bestMove = 0;
+        rootNumberOfMoves = numberOfMoves;
 
         // For all possible moves
         for (int moveIndex = 0; moveIndex < numberOfMoves; moveIndex++) {
             // Abort search if we realize we won't finish in time
             abortSearchIfOutOfTime(moveIndex, numberOfMoves, startTime, maxTime);
+            rootMoveIndex = moveIndex;
 
             // Always read position index 0 in this case, because moves were generated by caller
             int move = fullMoveGenerator.moves[0][moveIndex];
             if (DEBUG) TLOG.finest(stay(depth) + ", trying " + format(move));
 
             // Make the move
-            game.makeMove(move);
+            makeMove(move);
 
             // Calculate the score for the move by searching deeper
-            int score = -alphaBeta(depth - 1, -beta, -alpha);
-
-            // Unmake the move again
-            game.unmakeMove();
+            int score;
+            try {
+                score = -alphaBeta(depth - 1, -beta, -alpha);
+            } finally {
+                // Unmake the move again, also if the search was aborted
+                unmakeMove();
+            }
 
             // No beta cut-off needed here
 
@@ -184,6 +339,7 @@ public class AlphaBetaFinder extends AbstractFinder {
         final int finalBestMove = bestMove;
         final int finalAlpha = alpha;
         TLOG.fine(() -> "Returning best move " + format(finalBestMove) + " with score " + finalAlpha + " for depth " + depth);
+        rootScore = finalAlpha;
         abortSearchIfEndOfGame(finalBestMove, finalAlpha);
         return bestMove;
     }
@@ -214,7 +370,7 @@ public class AlphaBetaFinder extends AbstractFinder {
                                         final int numberOfMoves,
                                         final long startTime,
                                         final long maxTime) {
-        final long usedTime = System.currentTimeMillis() - startTime;
+        final long usedTime = clock.getElapsedTime() - startTime;
         final long remainingTime = maxTime - usedTime;
         final long averageTimePerMove = (moveIndex == 0) ? 0 : usedTime / moveIndex;
         if (averageTimePerMove > remainingTime) {
@@ -222,6 +378,29 @@ public class AlphaBetaFinder extends AbstractFinder {
         }
     }
 
+    /**
+     * Notifies the search listener, if any, that the current search depth has been completed.
+     */
+    private void notifyDepthCompleted(final int bestMove, final int score) {
+        if (searchListener != null) {
+            searchListener.depthCompleted(maxDepth, bestMove, score, nodes, clock.getElapsedTime());
+        }
+    }
+
+    /**
+     * Polls the search clock every {@link #NODES_BETWEEN_TIME_CHECKS} nodes, and aborts the search
+     * by throwing an exception if the time limit or the node limit has been reached. The search is never
+     * aborted before the first search depth has been completed, because then we would have no move to return.
+     */
+    private void abortSearchIfTimeLimitReached() {
+        if (--nodesUntilTimeCheck <= 0) {
+            nodesUntilTimeCheck = NODES_BETWEEN_TIME_CHECKS;
+            if (maxDepth > 1 && (clock.isOutOfTime() || nodes >= nodeLimit)) {
+                throw new OutOfTimeException(rootMoveIndex, rootNumberOfMoves, 0, clock.getRemainingTime());
+            }
+        }
+    }
+
     /**
      * Returns the score of the given position. The score will be positive if
      * the side to move is in the lead. The values {@code alpha} and {@code beta}
@@ -234,6 +413,9 @@ public class AlphaBetaFinder extends AbstractFinder {
     int alphaBeta(final int depth, int alpha, final int beta) {
         if (DEBUG) TLOG.finest(enter(depth) + ", alpha = " + alpha + ", beta = " + beta);
 
+        // Abort search if we have run out of time
+        abortSearchIfTimeLimitReached();
+
         // Check that we do not pass by an end-of-game position
         if (game.getPosition().isIllegalCheck()) {
             if (DEBUG) TLOG.finest(leave(depth, ILLEGAL_CHECK_VALUE));
@@ -244,18 +426,41 @@ public class AlphaBetaFinder extends AbstractFinder {
             return DRAW_VALUE;
         }
 
-        // If we have reached a leaf node, evaluate the position
+        // Drawn king and pawn versus king positions are known from the bitbase, and need not be searched
+        if (KpkBitbase.isKpk(game.getPosition()) && !KpkBitbase.isWin(game.getPosition())) {
+            if (DEBUG) TLOG.finest(leave(depth, DRAW_VALUE));
+            return DRAW_VALUE;
+        }
+
+        // If we have reached a leaf node, search captures until the position is quiet
         if (depth == 0) {
-            int score = evaluator.evaluate(game.getPosition());
-            nodes++;
+            int score = quiesce(0, alpha, beta);
             if (DEBUG) TLOG.finest(leave(depth, score));
             return score;
         }
 
+        // Look up the position in the transposition table
+        final long key = game.getPosition().getKey();
+        final long entry = transpositionTable.probe(key);
+        int hashMove = 0;
+        if (entry != NOT_FOUND) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                final int bound = TranspositionTable.getBound(entry);
+                final int score = TranspositionTable.getScore(entry);
+                if (bound == EXACT || (bound == LOWER_BOUND && score >= beta) || (bound == UPPER_BOUND && score <= alpha)) {
+                    final int clampedScore = Math.max(alpha, Math.min(beta, score));
+                    if (DEBUG) TLOG.finest(leave(depth, clampedScore) + " (transposition table hit)");
+                    return clampedScore;
+                }
+            }
+        }
+
+        final int ply = maxDepth - depth;
         int bestMove = 0;
 
         int numberOfMoves = fullMoveGenerator.generateMoves(game.getPosition(), depth);
-        sort(depth, numberOfMoves);
+        sort(depth, numberOfMoves, hashMove, ply);
 
         // For all possible moves
         for (int moveIndex = 0; moveIndex < numberOfMoves; moveIndex++) {
@@ -263,18 +468,26 @@ public class AlphaBetaFinder extends AbstractFinder {
             if (DEBUG) TLOG.finest(stay(depth) + ", trying " + format(move));
 
             // Make the move
-            game.makeMove(move);
+            makeMove(move);
 
             // Calculate the score for the move by searching deeper
-            int score = -alphaBeta(depth - 1, -beta, -alpha);
-
-            // Unmake the move again
-            game.unmakeMove();
+            int score;
+            try {
+                score = -alphaBeta(depth - 1, -beta, -alpha);
+            } finally {
+                // Unmake the move again, also if the search was aborted
+                unmakeMove();
+            }
 
             // If the score is too good, we cut off the search tree here,
             // because the opponent will not select this branch
             if (score >= beta) {
                 if (DEBUG) TLOG.finest(leave(depth, beta) + " (beta cut-off for score " + score + ")");
+                if (isQuiet(move)) {
+                    updateKillerMoves(move, ply);
+                    updateHistory(move, depth);
+                }
+                transpositionTable.store(key, move, depth, LOWER_BOUND, beta);
                 return beta;
             }
 
@@ -287,9 +500,148 @@ public class AlphaBetaFinder extends AbstractFinder {
         }
 
         if (DEBUG) TLOG.finest(leave(depth, alpha) + ", final best move = " + format(bestMove));
+        transpositionTable.store(key, bestMove, depth, (bestMove != 0) ? EXACT : UPPER_BOUND, alpha);
         return alpha;
     }
 
+    /**
+     * Makes the given move in the game, and tells the evaluator about it.
+     */
+    private void makeMove(final int move) {
+        game.makeMove(move);
+        evaluator.makeMove(move, game.getPosition());
+    }
+
+    /**
+     * Unmakes the last move in the game, and tells the evaluator about it.
+     */
+    private void unmakeMove() {
+        game.unmakeMove();
+        evaluator.unmakeMove();
+    }
+
+    /**
+     * Returns the score of the given position, searching only captures and promotions, until a quiet position
+     * is reached. The side to move may choose to "stand pat" and accept the static evaluation of the position
+     * instead of capturing. Captures that lose material according to the static exchange evaluation are pruned.
+     *
+     * @param qply The current ply in the quiescence search, starting at 0.
+     * @param alpha The score of the best move found so far in any branch of the tree.
+     * @param beta The score of the best move for our opponent found so far in any branch of the tree.
+     */
+    int quiesce(final int qply, int alpha, final int beta) {
+        // Abort search if we have run out of time
+        abortSearchIfTimeLimitReached();
+
+        // Check that we do not pass by an end-of-game position
+        if (game.getPosition().isIllegalCheck()) {
+            return ILLEGAL_CHECK_VALUE;
+        }
+
+        // The static evaluation is a lower bound of the score, because we can choose not to capture
+        final int standPat = evaluator.evaluate(game.getPosition());
+        nodes++;
+        if (standPat == CHECK_MATE_VALUE) {
+            return standPat;
+        }
+        if (standPat >= beta) {
+            return beta;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        // The quiescence search uses the move arrays after those used by the main search
+        final int index = maxDepth + qply;
+        if (index >= MAX_POSITIONS) {
+            return alpha;
+        }
+
+        final int numberOfMoves = generateGoodCaptures(index);
+
+        // For all good captures and promotions
+        for (int moveIndex = 0; moveIndex < numberOfMoves; moveIndex++) {
+            final int move = fullMoveGenerator.moves[index][moveIndex];
+
+            // Make the move
+            makeMove(move);
+
+            // Calculate the score for the move by searching deeper
+            final int score;
+            try {
+                score = -quiesce(qply + 1, -beta, -alpha);
+            } finally {
+                // Unmake the move again, also if the search was aborted
+                unmakeMove();
+            }
+
+            if (score >= beta) {
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+
+        return alpha;
+    }
+
+    /**
+     * Generates all captures and promotions that do not lose material in the current position, and stores them
+     * in the move array with the given index, sorted with the most valuable captures first. Returns the number
+     * of moves stored.
+     */
+    private int generateGoodCaptures(final int index) {
+        final int[] moves = fullMoveGenerator.moves[index];
+        final int[] keys = sortKeys[index];
+        final int numberOfMoves = fullMoveGenerator.generateMoves(game.getPosition(), index);
+        int numberOfGoodCaptures = 0;
+        for (int i = 0; i < numberOfMoves; i++) {
+            final int move = moves[i];
+            if (!isQuiet(move) && (!Move.isCapture(move) || staticExchangeEvaluator.evaluate(game.getPosition(), move) >= 0)) {
+                moves[numberOfGoodCaptures] = move;
+                keys[numberOfGoodCaptures] = move;
+                numberOfGoodCaptures++;
+            }
+        }
+        SortUtils.sort(moves, keys, numberOfGoodCaptures);
+        return numberOfGoodCaptures;
+    }
+
+    /**
+     * Returns {@code true} if the given move is a quiet move, that is, neither a capture nor a promotion.
+     */
+    private static boolean isQuiet(final int move) {
+        return !Move.isCapture(move) && !Move.isPromotion(move);
+    }
+
+    /**
+     * Stores the given move as the first killer move for the given ply, unless it already is.
+     */
+    private void updateKillerMoves(final int move, final int ply) {
+        final int[] killers = killerMoves[ply];
+        if (killers[0] != move) {
+            killers[1] = killers[0];
+            killers[0] = move;
+        }
+    }
+
+    /**
+     * Increases the history value of the given move, with an amount that depends on the search depth.
+     */
+    private void updateHistory(final int move, final int depth) {
+        final int index = historyIndex(move);
+        history[index] = Math.min(history[index] + depth * depth, MAX_HISTORY_VALUE);
+    }
+
+    /**
+     * Returns the index in the history table of the given move, made in the current position.
+     */
+    private int historyIndex(final int move) {
+        // The lowest 12 bits of the move contain the from and to squares
+        return (game.getPosition().isWhiteMove() ? 4096 : 0) | (move & 0xfff);
+    }
+
     /**
      * Sorts the moves on the given depth, taking into account the previous best move.
      */
@@ -304,6 +656,34 @@ public class AlphaBetaFinder extends AbstractFinder {
         SortUtils.sort(fullMoveGenerator.moves[depth], numberOfMoves);
     }
 
+    /**
+     * Sorts the moves on the given depth, taking into account the hash move from the transposition
+     * table, the killer moves for the given ply, and the history values of quiet moves. Captures
+     * are split into good and bad captures using static exchange evaluation, and bad captures
+     * are tried last.
+     */
+    private void sort(int depth, int numberOfMoves, int hashMove, int ply) {
+        final int[] moves = fullMoveGenerator.moves[depth];
+        final int[] keys = sortKeys[depth];
+        final int[] killers = killerMoves[ply];
+        for (int i = 0; i < numberOfMoves; i++) {
+            final int move = moves[i];
+            if (move == hashMove) {
+                keys[i] = HASH_MOVE_SORT_KEY;
+            } else if (!isQuiet(move)) {
+                final int see = Move.isCapture(move) ? staticExchangeEvaluator.evaluate(game.getPosition(), move) : 0;
+                keys[i] = (see >= 0) ? CAPTURE_SORT_KEY | move : see;
+            } else if (move == killers[0]) {
+                keys[i] = KILLER_SORT_KEY + 1;
+            } else if (move == killers[1]) {
+                keys[i] = KILLER_SORT_KEY;
+            } else {
+                keys[i] = history[historyIndex(move)];
+            }
+        }
+        SortUtils.sort(moves, keys, numberOfMoves);
+    }
+
     private String enter(final int depth) {
         return enter(game.getPosition(), maxDepth - depth);
     }
@@ -321,6 +701,6 @@ public class AlphaBetaFinder extends AbstractFinder {
     }
 
     private String format(final int move) {
-        return SanParser.format(game.getPosition(), move);
+        return SanCodec.format(game.getPosition(), move);
     }
 }
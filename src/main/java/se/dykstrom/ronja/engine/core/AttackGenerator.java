@@ -21,10 +21,12 @@ import se.dykstrom.ronja.common.model.Color;
 import se.dykstrom.ronja.common.model.Position;
 import se.dykstrom.ronja.common.model.Square;
 
-import static se.dykstrom.ronja.common.model.Square.*;
-
 /**
- * A class used to find all squares that are attacked in a given position.
+ * A class used to find all squares that are attacked in a given position. The attacks are
+ * looked up in the shared, precomputed {@link AttackTables}.
+ * <p>
+ * Method {@link #getAttackedSquares(Color, Position)} does not use any internal state, and is
+ * therefore thread safe. The other methods depend on the state set up by {@link #setup(Color, Position)}.
  *
  * @author Johan Dykstrom
  */
@@ -42,37 +44,8 @@ public class AttackGenerator extends AbstractGenerator {
     /** Squares occupied by any piece in any color. */
     private long occupied;
 
-    /**
-     * 64 squares
-     * 256 possible variations of pieces on a rank
-     */
-    private final long[][] horizontalAttacks = new long[64][256];
-
     // ------------------------------------------------------------------------
 
-    public AttackGenerator() {
-        initHorizontalAttacks();
-    }
-
-    /**
-     * Initializes the array of cached horizontal attacks.
-     */
-    private void initHorizontalAttacks() {
-        for (int fromIndex = 0; fromIndex < 64; fromIndex++) {
-            int rank = fromIndex / 8;
-            long fromSquare = indexToId(fromIndex);
-
-            for (int rank_bits = 0; rank_bits < 256; rank_bits++) {
-                // Shift the rank bits to the correct rank, and add the square ID of the
-                // current square. Now we have one possible setup of occupied (on the
-                // current rank), and we can try to slide the piece east and west from
-                // the current square, saving the attacked squares.
-                occupied = ((long) rank_bits) << (rank * 8) | fromSquare;
-                horizontalAttacks[fromIndex][rank_bits] = createCachedHorizontalAttacks(fromSquare);
-            }
-        }
-    }
-
     /**
      * Sets up internal state.
      */
@@ -98,16 +71,17 @@ public class AttackGenerator extends AbstractGenerator {
      * the given {@code position}.
      */
     public long getAttackedSquares(Color color, Position position) {
-        setup(color, position);
+        final boolean isWhite = color == Color.WHITE;
+        final long friend = isWhite ? position.white : position.black;
+        final long occupied = position.white | position.black;
 
         long squares = 0;
 
-        squares |= getAllBishopAttacks();
-        squares |= getAllKingAttacks();
-        squares |= getAllKnightAttacks();
-        squares |= getAllPawnAttacks();
-        squares |= getAllQueenAttacks();
-        squares |= getAllRookAttacks();
+        squares |= getKingAttacks(position.king & friend);
+        squares |= getKnightAttacks(position.knight & friend);
+        squares |= getPawnAttacks(position.pawn & friend, isWhite);
+        squares |= getRookAttacks((position.rook | position.queen) & friend, occupied);
+        squares |= getBishopAttacks((position.bishop | position.queen) & friend, occupied);
 
         return squares;
     }
@@ -118,229 +92,94 @@ public class AttackGenerator extends AbstractGenerator {
      * Returns a bitboard of all squares attacked by my king.
      */
     long getAllKingAttacks() {
-        return KING_MOVES[Square.idToIndex(position.king & friend)];
+        return getKingAttacks(position.king & friend);
     }
 
     /**
      * Returns a bitboard of all squares attacked by all my knights.
      */
     long getAllKnightAttacks() {
-        int numberOfKnights = Square.bitboardToIndices(position.knight & friend);
-
-        long squares = 0;
-        for (int knightIndex = 0; knightIndex < numberOfKnights; knightIndex++) {
-            int fromIndex = SQUARE_INDICES[knightIndex];
-            squares |= KNIGHT_MOVES[fromIndex];
-        }
-        return squares;
+        return getKnightAttacks(position.knight & friend);
     }
 
     /**
      * Returns a bitboard of all squares attacked by all my pawns.
      */
     long getAllPawnAttacks() {
-        long squares = position.pawn & friend;
-
-        if (isWhiteAttack) {
-            return Square.northWest(squares & NOT_WEST_BORDER) | Square.northEast(squares & NOT_EAST_BORDER);
-        } else {
-            return Square.southWest(squares & NOT_WEST_BORDER) | Square.southEast(squares & NOT_EAST_BORDER);
-        }
+        return getPawnAttacks(position.pawn & friend, isWhiteAttack);
     }
 
-    // ------------------------------------------------------------------------
-
     /**
      * Returns a bitboard of all squares attacked by all my rooks.
      */
     long getAllRookAttacks() {
-        int count = Square.bitboardToIndices(position.rook & friend);
-
-        long squares = 0;
-        for (int i = 0; i < count; i++) {
-            int fromIndex = SQUARE_INDICES[i];
-            long fromSquare = indexToId(fromIndex);
-            squares |= getCachedHorizontalAttacks(fromIndex);
-            squares |= getVerticalAttacks(fromSquare);
-        }
-        return squares;
+        return getRookAttacks(position.rook & friend, occupied);
     }
 
     /**
      * Returns a bitboard of all squares attacked by all my bishops.
      */
     long getAllBishopAttacks() {
-        int count = Square.bitboardToIds(position.bishop & friend);
-
-        long squares = 0;
-        for (int i = 0; i < count; i++) {
-            squares |= getDiagonalAttacks(SQUARE_IDS[i]);
-        }
-        return squares;
+        return getBishopAttacks(position.bishop & friend, occupied);
     }
 
     /**
      * Returns a bitboard of all squares attacked by all my queens.
      */
     long getAllQueenAttacks() {
-        int count = Square.bitboardToIndices(position.queen & friend);
-
-        long squares = 0;
-        for (int i = 0; i < count; i++) {
-            int fromIndex = SQUARE_INDICES[i];
-            long fromSquare = indexToId(fromIndex);
-            squares |= getCachedHorizontalAttacks(fromIndex);
-            squares |= getVerticalAttacks(fromSquare);
-            squares |= getDiagonalAttacks(fromSquare);
-        }
-        return squares;
+        return getRookAttacks(position.queen & friend, occupied) | getBishopAttacks(position.queen & friend, occupied);
     }
 
     // ------------------------------------------------------------------------
 
     /**
-     * Returns a bitboard of squares that a sliding piece on square {@code fromIndex}
-     * can attack horizontally.
+     * Returns a bitboard of all squares attacked by the given king. There must be exactly one king.
      */
-    private long getCachedHorizontalAttacks(int fromIndex) {
-        int rank = fromIndex / 8;   // Board.getRank() returns rank 1-8
-        int rank_bits = (int) (occupied >> (rank * 8)) & 0b11111111;
-        return horizontalAttacks[fromIndex][rank_bits];
+    private static long getKingAttacks(long king) {
+        return AttackTables.kingAttacks(Square.idToIndex(king));
     }
 
     /**
-     * Creates a bitboard of squares that a sliding piece on square {@code from} can attack
-     * horizontally. This method assumes that bitboard {@link #occupied} has been initialized
-     * correctly, like it would when actually playing the game.
+     * Returns a bitboard of all squares attacked by the given knights.
      */
-    private long createCachedHorizontalAttacks(long from) {
-        boolean inEastBorder = (EAST_BORDER & from) != 0;
-        boolean inWestBorder = (WEST_BORDER & from) != 0;
-
-        long res = 0;
-
-        // East
-        if (!inEastBorder) {
-            long stop = EAST_BORDER | occupied;
-            long pos = east(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = east(pos);
-            }
-            res |= pos;
-        }
-
-        // West
-        if (!inWestBorder) {
-            long stop = WEST_BORDER | occupied;
-            long pos = west(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = west(pos);
-            }
-            res |= pos;
+    private static long getKnightAttacks(long knights) {
+        long squares = 0;
+        for (long b = knights; b != 0; b &= b - 1) {
+            squares |= AttackTables.knightAttacks(Long.numberOfTrailingZeros(b));
         }
-
-        return res;
+        return squares;
     }
 
     /**
-     * Returns a bitboard of squares that a sliding piece on square {@code from}
-     * can attack vertically.
+     * Returns a bitboard of all squares attacked by the given pawns.
      */
-    private long getVerticalAttacks(long from) {
-        boolean inNorthBorder = (NORTH_BORDER & from) != 0;
-        boolean inSouthBorder = (SOUTH_BORDER & from) != 0;
-
-        long res = 0;
-
-        // North
-        if (!inNorthBorder) {
-            long stop = NORTH_BORDER | occupied;
-            long pos = north(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = north(pos);
-            }
-            res |= pos;
-        }
-
-        // South
-        if (!inSouthBorder) {
-            long stop = SOUTH_BORDER | occupied;
-            long pos = south(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = south(pos);
-            }
-            res |= pos;
+    private static long getPawnAttacks(long pawns, boolean isWhite) {
+        if (isWhite) {
+            return Square.northWest(pawns & NOT_WEST_BORDER) | Square.northEast(pawns & NOT_EAST_BORDER);
+        } else {
+            return Square.southWest(pawns & NOT_WEST_BORDER) | Square.southEast(pawns & NOT_EAST_BORDER);
         }
-
-        return res;
     }
 
     /**
-     * Returns a bitboard of squares that a piece on square {@code from} can attack diagonally.
-     *
-     * The following things are checked:
-     *
-     * - The move does not cross a border.
+     * Returns a bitboard of all squares attacked horizontally and vertically by the given pieces.
      */
-    private long getDiagonalAttacks(long from) {
-        boolean inNorthBorder = (NORTH_BORDER & from) != 0;
-        boolean inEastBorder = (EAST_BORDER & from) != 0;
-        boolean inSouthBorder = (SOUTH_BORDER & from) != 0;
-        boolean inWestBorder = (WEST_BORDER & from) != 0;
-
-        long res = 0;
-
-        long stop;
-        long pos;
-
-        // NE
-        if (!inNorthBorder && !inEastBorder) {
-            stop = NORTH_BORDER | EAST_BORDER | occupied;
-            pos = Square.northEast(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = Square.northEast(pos);
-            }
-            res |= pos;
-        }
-
-        // SE
-        if (!inSouthBorder && !inEastBorder) {
-            stop = SOUTH_BORDER | EAST_BORDER | occupied;
-            pos = Square.southEast(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = Square.southEast(pos);
-            }
-            res |= pos;
-        }
-
-        // SW
-        if (!inSouthBorder && !inWestBorder) {
-            stop = SOUTH_BORDER | WEST_BORDER | occupied;
-            pos = Square.southWest(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = Square.southWest(pos);
-            }
-            res |= pos;
+    private static long getRookAttacks(long pieces, long occupied) {
+        long squares = 0;
+        for (long b = pieces; b != 0; b &= b - 1) {
+            squares |= AttackTables.rookAttacks(Long.numberOfTrailingZeros(b), occupied);
         }
+        return squares;
+    }
 
-        // NW
-        if (!inNorthBorder && !inWestBorder) {
-            stop = NORTH_BORDER | WEST_BORDER | occupied;
-            pos = Square.northWest(from);
-            while ((pos & stop) == 0) {
-                res |= pos;
-                pos = Square.northWest(pos);
-            }
-            res |= pos;
+    /**
+     * Returns a bitboard of all squares attacked diagonally by the given pieces.
+     */
+    private static long getBishopAttacks(long pieces, long occupied) {
+        long squares = 0;
+        for (long b = pieces; b != 0; b &= b - 1) {
+            squares |= AttackTables.bishopAttacks(Long.numberOfTrailingZeros(b), occupied);
         }
-
-        return res;
+        return squares;
     }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import static se.dykstrom.ronja.common.model.Square.MAX_SQUARES;
+
+/**
+ * Precomputed attack tables that are shared by all generators, finders, and parsers. The tables are
+ * initialized once, when the class is loaded, and are never modified after that. All methods in this
+ * class are therefore thread safe, and can be used by any number of engine instances in the same JVM.
+ * <p>
+ * All squares are given as square indices, and all sets of squares are given as bitboards.
+ *
+ * @author Johan Dykstrom
+ */
+public final class AttackTables {
+
+    /** Ray directions, used to index {@link #RAYS}. */
+    public static final int NORTH = 0;
+    public static final int NORTH_EAST = 1;
+    public static final int EAST = 2;
+    public static final int SOUTH_EAST = 3;
+    public static final int SOUTH = 4;
+    public static final int SOUTH_WEST = 5;
+    public static final int WEST = 6;
+    public static final int NORTH_WEST = 7;
+
+    /** The change in file for each direction. */
+    private static final int[] FILE_DELTAS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /** The change in rank for each direction. */
+    private static final int[] RANK_DELTAS = {1, 1, 0, -1, -1, -1, 0, 1};
+
+    /** All squares on a ray from a square in a direction, not including the square itself, indexed by [direction][square]. */
+    private static final long[][] RAYS = new long[8][MAX_SQUARES];
+
+    /** Squares a sliding piece can attack along a rank, indexed by [square][occupied squares on the rank]. */
+    private static final long[][] RANK_ATTACKS = new long[MAX_SQUARES][256];
+
+    /** All squares strictly between two squares on the same line, or 0 if the squares are not on the same line. */
+    private static final long[][] BETWEEN = new long[MAX_SQUARES][MAX_SQUARES];
+
+    /** The entire line (rank, file, or diagonal) through two squares, or 0 if the squares are not on the same line. */
+    private static final long[][] LINE = new long[MAX_SQUARES][MAX_SQUARES];
+
+    /** The distance in king moves between two squares. */
+    private static final int[][] DISTANCE = new int[MAX_SQUARES][MAX_SQUARES];
+
+    static {
+        initRays();
+        initRankAttacks();
+        initBetweenAndLine();
+        initDistance();
+    }
+
+    private AttackTables() { }
+
+    // ------------------------------------------------------------------------
+    // Initialization:
+    // ------------------------------------------------------------------------
+
+    private static void initRays() {
+        for (int direction = 0; direction < 8; direction++) {
+            for (int index = 0; index < MAX_SQUARES; index++) {
+                long ray = 0;
+                int file = (index & 7) + FILE_DELTAS[direction];
+                int rank = (index >> 3) + RANK_DELTAS[direction];
+                while (isOnBoard(file, rank)) {
+                    ray |= 1L << (rank * 8 + file);
+                    file += FILE_DELTAS[direction];
+                    rank += RANK_DELTAS[direction];
+                }
+                RAYS[direction][index] = ray;
+            }
+        }
+    }
+
+    private static void initRankAttacks() {
+        for (int index = 0; index < MAX_SQUARES; index++) {
+            int rank = index >> 3;
+            for (int rankBits = 0; rankBits < 256; rankBits++) {
+                // Shift the rank bits to the correct rank to get one possible setup of occupied squares
+                long occupied = ((long) rankBits) << (rank * 8);
+                RANK_ATTACKS[index][rankBits] = rayAttacks(EAST, index, occupied) | rayAttacks(WEST, index, occupied);
+            }
+        }
+    }
+
+    private static void initBetweenAndLine() {
+        for (int from = 0; from < MAX_SQUARES; from++) {
+            for (int direction = 0; direction < 8; direction++) {
+                long line = RAYS[direction][from] | RAYS[(direction + 4) & 7][from] | (1L << from);
+                for (long b = RAYS[direction][from]; b != 0; b &= b - 1) {
+                    int to = Long.numberOfTrailingZeros(b);
+                    BETWEEN[from][to] = RAYS[direction][from] & ~RAYS[direction][to] & ~(1L << to);
+                    LINE[from][to] = line;
+                }
+            }
+        }
+    }
+
+    private static void initDistance() {
+        for (int from = 0; from < MAX_SQUARES; from++) {
+            for (int to = 0; to < MAX_SQUARES; to++) {
+                DISTANCE[from][to] = Math.max(Math.abs((from & 7) - (to & 7)), Math.abs((from >> 3) - (to >> 3)));
+            }
+        }
+    }
+
+    private static boolean isOnBoard(int file, int rank) {
+        return file >= 0 && file < 8 && rank >= 0 && rank < 8;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookup methods:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns all squares a king on square {@code index} attacks.
+     */
+    public static long kingAttacks(int index) {
+        return AbstractGenerator.KING_MOVES[index];
+    }
+
+    /**
+     * Returns all squares a knight on square {@code index} attacks.
+     */
+    public static long knightAttacks(int index) {
+        return AbstractGenerator.KNIGHT_MOVES[index];
+    }
+
+    /**
+     * Returns all squares a pawn of the given color on square {@code index} attacks.
+     */
+    public static long pawnAttacks(int index, boolean isWhite) {
+        long square = 1L << index;
+        if (isWhite) {
+            return ((square & AbstractGenerator.NOT_WEST_BORDER) << 7) | ((square & AbstractGenerator.NOT_EAST_BORDER) << 9);
+        } else {
+            return ((square & AbstractGenerator.NOT_WEST_BORDER) >>> 9) | ((square & AbstractGenerator.NOT_EAST_BORDER) >>> 7);
+        }
+    }
+
+    /**
+     * Returns all squares a sliding piece on square {@code index} attacks along its rank,
+     * given the occupied squares. The attacked squares include the first blocking square
+     * in each direction.
+     */
+    public static long rankAttacks(int index, long occupied) {
+        int rankBits = (int) (occupied >>> (index & ~7)) & 0xff;
+        return RANK_ATTACKS[index][rankBits];
+    }
+
+    /**
+     * Returns all squares a rook on square {@code index} attacks, given the occupied squares.
+     */
+    public static long rookAttacks(int index, long occupied) {
+        return rankAttacks(index, occupied) | rayAttacks(NORTH, index, occupied) | rayAttacks(SOUTH, index, occupied);
+    }
+
+    /**
+     * Returns all squares a bishop on square {@code index} attacks, given the occupied squares.
+     */
+    public static long bishopAttacks(int index, long occupied) {
+        return rayAttacks(NORTH_EAST, index, occupied) | rayAttacks(SOUTH_EAST, index, occupied) |
+               rayAttacks(SOUTH_WEST, index, occupied) | rayAttacks(NORTH_WEST, index, occupied);
+    }
+
+    /**
+     * Returns all squares a queen on square {@code index} attacks, given the occupied squares.
+     */
+    public static long queenAttacks(int index, long occupied) {
+        return rookAttacks(index, occupied) | bishopAttacks(index, occupied);
+    }
+
+    /**
+     * Returns all squares a sliding piece on square {@code index} attacks in the given direction,
+     * given the occupied squares. The attacked squares include the first blocking square.
+     */
+    public static long rayAttacks(int direction, int index, long occupied) {
+        long attacks = RAYS[direction][index];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            // Directions north, north-east, east, and north-west go towards higher square indices
+            int blocker = (direction <= EAST || direction == NORTH_WEST)
+                    ? Long.numberOfTrailingZeros(blockers)
+                    : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[direction][blocker];
+        }
+        return attacks;
+    }
+
+    /**
+     * Returns all squares on the ray from square {@code index} in the given direction,
+     * not including the square itself.
+     */
+    public static long ray(int direction, int index) {
+        return RAYS[direction][index];
+    }
+
+    /**
+     * Returns all squares strictly between squares {@code from} and {@code to} if they
+     * are on the same rank, file, or diagonal, and 0 otherwise.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns all squares on the rank, file, or diagonal that goes through both squares
+     * {@code from} and {@code to}, and 0 if the squares are not on the same line.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Returns the distance between squares {@code from} and {@code to}, measured in king moves.
+     */
+    public static int distance(int from, int to) {
+        return DISTANCE[from][to];
+    }
+}
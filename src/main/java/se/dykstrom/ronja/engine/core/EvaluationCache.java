@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of evaluation scores, indexed by the Zobrist keys of the evaluated positions.
+ * Each entry is packed into a single long, with the upper 32 bits of the key in the upper half, and
+ * the score in the lower half. The lower bits of the key are used to find the slot. Because an entry
+ * is read and written as a single long, the cache needs no locking. A torn or overwritten entry will
+ * simply not match the key that is looked up.
+ * <p>
+ * The cache keeps track of the number of hits and misses. The counters are not synchronized, so they
+ * are only approximate if the cache is shared between threads.
+ *
+ * @author Johan Dykstrom
+ */
+public class EvaluationCache {
+
+    /** The value returned by {@link #probe(long)} if no entry was found. */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /** The number of bytes needed for each entry. */
+    private static final int ENTRY_SIZE = 8;
+
+    private static final long KEY_MASK = 0xffff_ffff_0000_0000L;
+    private static final long SCORE_MASK = 0x0000_0000_ffff_ffffL;
+
+    /** The packed entries. */
+    private final long[] entries;
+
+    /** Mask used to convert a key into an index in the cache. */
+    private final int mask;
+
+    /** The number of successful lookups. */
+    private long hits;
+
+    /** The number of failed lookups. */
+    private long misses;
+
+    /**
+     * Creates a new evaluation cache with the given size. The actual number of entries
+     * will be the largest power of two that fits into the given size, but at least one.
+     *
+     * @param sizeInMegabytes The size of the cache in megabytes.
+     */
+    public EvaluationCache(final long sizeInMegabytes) {
+        final long maxEntries = Math.min(sizeInMegabytes * 1024 * 1024 / ENTRY_SIZE, 1 << 30);
+        final int numberOfEntries = Integer.highestOneBit((int) Math.max(maxEntries, 1));
+        this.entries = new long[numberOfEntries];
+        this.mask = numberOfEntries - 1;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Removes all entries from the cache, and resets the hit and miss counters.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Returns the score stored for the given key, or {@link #NOT_FOUND} if no score is stored for the key.
+     */
+    public int probe(final long key) {
+        final long entry = entries[(int) key & mask];
+        if (entry != 0 && (entry & KEY_MASK) == (key & KEY_MASK)) {
+            hits++;
+            return (int) entry;
+        }
+        misses++;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores the given score for the given key, replacing any entry in the same slot.
+     */
+    public void store(final long key, final int score) {
+        entries[(int) key & mask] = (key & KEY_MASK) | (score & SCORE_MASK);
+    }
+
+    /**
+     * Returns the number of successful lookups since the cache was created or cleared.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of failed lookups since the cache was created or cleared.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups that were successful, or 0 if there have been no lookups.
+     */
+    public double getHitRate() {
+        final long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+}
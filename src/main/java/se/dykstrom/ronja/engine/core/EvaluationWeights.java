@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.Arrays;
+
+/**
+ * The weights of the terms used by the {@link Evaluator} and the {@link PawnEvaluator}. The default
+ * weights are the hand-tuned values that the evaluators have always used. Other weights can be created,
+ * for example by a tuner, and passed to the evaluators when they are created.
+ * <p>
+ * The weights are stored in an array, indexed by the constants in this class. Objects of this class
+ * are immutable.
+ *
+ * @author Johan Dykstrom
+ */
+public final class EvaluationWeights {
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int BISHOP_PAIR = 5;
+    public static final int ATTACKED_SQUARE = 6;
+    public static final int DOUBLED_PAWN = 7;
+    public static final int ISOLATED_PAWN = 8;
+    public static final int BACKWARD_PAWN = 9;
+    public static final int PAWN_SHIELD = 10;
+
+    /** The first of six passed pawn weights, one for each rank from the second to the seventh. */
+    public static final int PASSED_PAWN = 11;
+
+    /** The number of weights. */
+    public static final int SIZE = PASSED_PAWN + 6;
+
+    private static final String[] NAMES = {
+        "PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "BISHOP_PAIR", "ATTACKED_SQUARE",
+        "DOUBLED_PAWN", "ISOLATED_PAWN", "BACKWARD_PAWN", "PAWN_SHIELD",
+        "PASSED_PAWN_2", "PASSED_PAWN_3", "PASSED_PAWN_4", "PASSED_PAWN_5", "PASSED_PAWN_6", "PASSED_PAWN_7"
+    };
+
+    /** The default weights. */
+    public static final EvaluationWeights DEFAULT = new EvaluationWeights(new int[]{
+        Evaluator.PAWN_VALUE,
+        Evaluator.KNIGHT_VALUE,
+        Evaluator.BISHOP_VALUE,
+        Evaluator.ROOK_VALUE,
+        Evaluator.QUEEN_VALUE,
+        Evaluator.BISHOP_PAIR_VALUE,
+        Evaluator.ATTACKED_SQUARE_VALUE,
+        PawnEvaluator.DOUBLED_PAWN_VALUE,
+        PawnEvaluator.ISOLATED_PAWN_VALUE,
+        PawnEvaluator.BACKWARD_PAWN_VALUE,
+        PawnEvaluator.PAWN_SHIELD_VALUE,
+        PawnEvaluator.PASSED_PAWN_VALUES[1],
+        PawnEvaluator.PASSED_PAWN_VALUES[2],
+        PawnEvaluator.PASSED_PAWN_VALUES[3],
+        PawnEvaluator.PASSED_PAWN_VALUES[4],
+        PawnEvaluator.PASSED_PAWN_VALUES[5],
+        PawnEvaluator.PASSED_PAWN_VALUES[6]
+    });
+
+    private final int[] weights;
+
+    /**
+     * Creates a new set of weights from the given array, that must have {@link #SIZE} elements.
+     */
+    public EvaluationWeights(final int[] weights) {
+        if (weights.length != SIZE) {
+            throw new IllegalArgumentException("expected " + SIZE + " weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Returns the weight with the given index.
+     */
+    public int get(final int index) {
+        return weights[index];
+    }
+
+    /**
+     * Returns a copy of these weights, with the weight with the given index set to {@code value}.
+     */
+    public EvaluationWeights with(final int index, final int value) {
+        final int[] copy = weights.clone();
+        copy[index] = value;
+        return new EvaluationWeights(copy);
+    }
+
+    /**
+     * Returns a copy of the weights as an array.
+     */
+    public int[] toArray() {
+        return weights.clone();
+    }
+
+    /**
+     * Returns the name of the weight with the given index.
+     */
+    public static String getName(final int index) {
+        return NAMES[index];
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return (obj instanceof EvaluationWeights that) && Arrays.equals(this.weights, that.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            builder.append((i == 0) ? "" : ", ").append(NAMES[i]).append("=").append(weights[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -18,6 +18,7 @@
 package se.dykstrom.ronja.engine.core;
 
 import se.dykstrom.ronja.common.model.Board;
+import se.dykstrom.ronja.common.model.Color;
 import se.dykstrom.ronja.common.model.Position;
 import se.dykstrom.ronja.engine.utils.PositionUtils;
 
@@ -37,24 +38,117 @@ public class Evaluator {
     /** Value returned if the position is a draw. */
     public static final int DRAW_VALUE = 0;
 
-    private static final int PAWN_VALUE = 1000;
+    static final int PAWN_VALUE = 1000;
 
-    private static final int BISHOP_VALUE = 3 * PAWN_VALUE;
-    private static final int KNIGHT_VALUE = 3 * PAWN_VALUE;
-    private static final int ROOK_VALUE   = 5 * PAWN_VALUE;
-    private static final int QUEEN_VALUE  = 9 * PAWN_VALUE;
+    static final int BISHOP_VALUE = 3 * PAWN_VALUE;
+    static final int KNIGHT_VALUE = 3 * PAWN_VALUE;
+    static final int ROOK_VALUE   = 5 * PAWN_VALUE;
+    static final int QUEEN_VALUE  = 9 * PAWN_VALUE;
 
-    private static final int BISHOP_PAIR_VALUE = PAWN_VALUE / 2;
+    /**
+     * Value returned if a king and pawn versus king position is known to be won. This must be lower than
+     * the value of the position after promotion, or the search will never promote the pawn.
+     */
+    public static final int KNOWN_WIN_VALUE = ROOK_VALUE;
+
+    static final int BISHOP_PAIR_VALUE = PAWN_VALUE / 2;
+
+    static final int ATTACKED_SQUARE_VALUE = 10;
+
+    /** The evaluation cache size in megabytes used by evaluators that do not share a cache. */
+    private static final int DEFAULT_EVAL_CACHE_SIZE = 1;
+
+    /** Used to evaluate the pawn structure, with a cache of pawn structure scores. */
+    private final PawnEvaluator pawnEvaluator;
+
+    /** Caches the scores of evaluated positions. */
+    private final EvaluationCache evaluationCache;
+
+    /** The weights of the evaluation terms, copied from the evaluation weights for fast access. */
+    private final int pawnValue;
+    private final int knightValue;
+    private final int bishopValue;
+    private final int rookValue;
+    private final int queenValue;
+    private final int bishopPairValue;
+    private final int attackedSquareValue;
+
+    public Evaluator() {
+        this(new EvaluationCache(DEFAULT_EVAL_CACHE_SIZE));
+    }
+
+    public Evaluator(final EvaluationCache evaluationCache) {
+        this(evaluationCache, EvaluationWeights.DEFAULT);
+    }
+
+    public Evaluator(final EvaluationCache evaluationCache, final EvaluationWeights weights) {
+        this.evaluationCache = evaluationCache;
+        this.pawnEvaluator = new PawnEvaluator(weights);
+        this.pawnValue = weights.get(EvaluationWeights.PAWN);
+        this.knightValue = weights.get(EvaluationWeights.KNIGHT);
+        this.bishopValue = weights.get(EvaluationWeights.BISHOP);
+        this.rookValue = weights.get(EvaluationWeights.ROOK);
+        this.queenValue = weights.get(EvaluationWeights.QUEEN);
+        this.bishopPairValue = weights.get(EvaluationWeights.BISHOP_PAIR);
+        this.attackedSquareValue = weights.get(EvaluationWeights.ATTACKED_SQUARE);
+    }
 
-    private static final int ATTACKED_SQUARE_VALUE = 10;
+    /**
+     * Converts the given score, as returned by the evaluator or the search, to centipawns.
+     */
+    public static int toCentipawns(final int score) {
+        return score * 100 / PAWN_VALUE;
+    }
 
     /**
      * Evaluates the given position, and returns a score. The score will be
-     * positive if the side to move is in the lead.
+     * positive if the side to move is in the lead. If the position has been
+     * evaluated before, the score is looked up in the evaluation cache.
+     * King and pawn versus king positions are looked up in the {@link KpkBitbase}.
      * 
      * @param position The position to evaluate.
      */
     public int evaluate(Position position) {
+        if (KpkBitbase.isKpk(position)) {
+            return evaluateKpk(position);
+        }
+        final long key = position.getKey();
+        int score = evaluationCache.probe(key);
+        if (score == EvaluationCache.NOT_FOUND) {
+            score = calculateScore(position);
+            evaluationCache.store(key, score);
+        }
+        return score;
+    }
+
+    /**
+     * Tells the evaluator that a new search starts in the given position. Evaluators that keep
+     * state between related positions can use this to reset that state. This implementation
+     * does nothing.
+     */
+    public void setRootPosition(Position position) {
+        // Nothing to do
+    }
+
+    /**
+     * Tells the evaluator that the given move was made, resulting in the given position.
+     * This implementation does nothing.
+     */
+    public void makeMove(int move, Position position) {
+        // Nothing to do
+    }
+
+    /**
+     * Tells the evaluator that the last move made was unmade. This implementation does nothing.
+     */
+    public void unmakeMove() {
+        // Nothing to do
+    }
+
+    /**
+     * Calculates the score of the given position from scratch.
+     */
+    protected int calculateScore(Position position) {
         if (PositionUtils.isCheckMate(position)) {
             return CHECK_MATE_VALUE;
         }
@@ -68,17 +162,55 @@ public class Evaluator {
         // Calculate value of attacked squares
         score += calculateAttackedSquares(position);
 
+        // Calculate value of the pawn structure and the pawn shields
+        score += pawnEvaluator.evaluate(position);
+
         // If black is to move, negate the score
         return position.isWhiteMove() ? score: -score;
     }
 
     /**
-     * Calculates the value of attacked squares in the given {@code position}.
+     * Evaluates the given king and pawn versus king position using the {@link KpkBitbase}. A won position
+     * scores {@link #KNOWN_WIN_VALUE}, plus a bonus for advancing the pawn, and for bringing the stronger king
+     * close to the promotion square, so the search makes progress towards promotion. All other positions are
+     * draws.
+     */
+    static int evaluateKpk(Position position) {
+        if (!KpkBitbase.isWin(position)) {
+            return DRAW_VALUE;
+        }
+
+        final boolean isWhiteStrong = (position.pawn & position.white) != 0;
+        final int pawn = Long.numberOfTrailingZeros(position.pawn);
+        final int strongKing = Long.numberOfTrailingZeros(position.king & (isWhiteStrong ? position.white : position.black));
+        final int relativeRank = isWhiteStrong ? (pawn >> 3) : 7 - (pawn >> 3);
+        final int promotionSquare = isWhiteStrong ? (pawn | 56) : (pawn & 7);
+        final int score = KNOWN_WIN_VALUE + relativeRank * PAWN_VALUE / 10 - AttackTables.distance(strongKing, promotionSquare) * PAWN_VALUE / 100;
+        return (position.isWhiteMove() == isWhiteStrong) ? score : -score;
+    }
+
+    /**
+     * Returns the evaluation cache used by this evaluator.
+     */
+    EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    /**
+     * Returns the pawn hash table used by this evaluator.
+     */
+    PawnHashTable getPawnHashTable() {
+        return pawnEvaluator.getPawnHashTable();
+    }
+
+    /**
+     * Calculates the value of attacked squares in the given {@code position}. This requests
+     * the attack bitboards from the position, which calculates them if needed.
      */
     public int calculateAttackedSquares(Position position) {
-        int noOfAttackedSquaresWhite = Board.popCount(position.whiteAttack);
-        int noOfAttackedSquaresBlack = Board.popCount(position.blackAttack);
-        return (noOfAttackedSquaresWhite - noOfAttackedSquaresBlack) * ATTACKED_SQUARE_VALUE;
+        int noOfAttackedSquaresWhite = Board.popCount(position.getAttackedSquares(Color.WHITE));
+        int noOfAttackedSquaresBlack = Board.popCount(position.getAttackedSquares(Color.BLACK));
+        return (noOfAttackedSquaresWhite - noOfAttackedSquaresBlack) * attackedSquareValue;
     }
 
     /**
@@ -88,20 +220,20 @@ public class Evaluator {
         int score = 0;
 
         int noOfBishopsWhite = Board.popCount(position.white & position.bishop);
-        score += noOfBishopsWhite * BISHOP_VALUE;
-        score += (noOfBishopsWhite > 1) ? BISHOP_PAIR_VALUE : 0;
-        score += Board.popCount(position.white & position.knight) * KNIGHT_VALUE;
-        score += Board.popCount(position.white & position.queen) * QUEEN_VALUE;
-        score += Board.popCount(position.white & position.pawn) * PAWN_VALUE;
-        score += Board.popCount(position.white & position.rook) * ROOK_VALUE;
+        score += noOfBishopsWhite * bishopValue;
+        score += (noOfBishopsWhite > 1) ? bishopPairValue : 0;
+        score += Board.popCount(position.white & position.knight) * knightValue;
+        score += Board.popCount(position.white & position.queen) * queenValue;
+        score += Board.popCount(position.white & position.pawn) * pawnValue;
+        score += Board.popCount(position.white & position.rook) * rookValue;
 
         int noOfBishopsBlack = Board.popCount(position.black & position.bishop);
-        score -= noOfBishopsBlack * BISHOP_VALUE;
-        score -= (noOfBishopsBlack > 1) ? BISHOP_PAIR_VALUE : 0;
-        score -= Board.popCount(position.black & position.knight) * KNIGHT_VALUE;
-        score -= Board.popCount(position.black & position.queen) * QUEEN_VALUE;
-        score -= Board.popCount(position.black & position.pawn) * PAWN_VALUE;
-        score -= Board.popCount(position.black & position.rook) * ROOK_VALUE;
+        score -= noOfBishopsBlack * bishopValue;
+        score -= (noOfBishopsBlack > 1) ? bishopPairValue : 0;
+        score -= Board.popCount(position.black & position.knight) * knightValue;
+        score -= Board.popCount(position.black & position.queen) * queenValue;
+        score -= Board.popCount(position.black & position.pawn) * pawnValue;
+        score -= Board.popCount(position.black & position.rook) * rookValue;
 
         return score;
     }
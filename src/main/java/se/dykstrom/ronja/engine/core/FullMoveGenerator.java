@@ -56,8 +56,8 @@ public class FullMoveGenerator extends AbstractGenerator {
     /** Squares occupied by the enemy's pieces. */
     private long foe;
 
-    /** Squares attacked by the enemy's pieces. */
-    private long attacked;
+    /** The enemy's color. */
+    private Color enemy;
 
     /** The 'en passant' target square, or 0 if 'en passant' is not allowed. */
     private long enPassant;
@@ -82,11 +82,11 @@ public class FullMoveGenerator extends AbstractGenerator {
         if (isWhiteMove) {
             friend = position.white;
             foe = position.black;
-            attacked = position.blackAttack;
+            enemy = Color.BLACK;
         } else {
             friend = position.black;
             foe = position.white;
-            attacked = position.whiteAttack;
+            enemy = Color.WHITE;
         }
 
         // The 'en passant' target square, if any
@@ -135,7 +135,7 @@ public class FullMoveGenerator extends AbstractGenerator {
         // For each 'to' square, create a move
         for (int toIndex : toIndices) {
             long toSquare = indexToId(toIndex);
-            if ((toSquare & ~friend & ~attacked) != 0) {
+            if ((toSquare & friend) == 0 && !position.isAttacked(toIndex, enemy)) {
                 createAndSaveMove(KING, fromIndex, toIndex, toSquare);
             }
         }
@@ -211,12 +211,9 @@ public class FullMoveGenerator extends AbstractGenerator {
      * Generates all possible knight moves for the side to move in the given position.
      */
     void generateKnightMoves() {
-        // Find all my knights
-        int numberOfKnights = bitboardToIndices(position.knight & friend);
-
-        // For each knight, generate possible moves
-        for (int knightIndex = 0; knightIndex < numberOfKnights; knightIndex++) {
-            generateKnightMoves(SQUARE_INDICES[knightIndex]);
+        // For each of my knights, generate possible moves
+        for (long knights = position.knight & friend; knights != 0; knights &= knights - 1) {
+            generateKnightMoves(Long.numberOfTrailingZeros(knights));
         }
     }
 
@@ -328,12 +325,9 @@ public class FullMoveGenerator extends AbstractGenerator {
      * Generates all possible pawn moves for the side to move in the given position.
      */
     void generatePawnMoves() {
-        // Find the squares of all of my pawns
-        int fromSquareCount = Square.bitboardToIds(position.pawn & friend);
-
-        // For each pawn, find all of its 'to' squares
-        for (int fromSquareIdx = 0; fromSquareIdx < fromSquareCount; fromSquareIdx++) {
-            long fromSquare = SQUARE_IDS[fromSquareIdx];
+        // For each of my pawns, find all of its 'to' squares
+        for (long fromSquares = position.pawn & friend; fromSquares != 0; fromSquares &= fromSquares - 1) {
+            long fromSquare = fromSquares & -fromSquares;
             int fromIndex = idToIndex(fromSquare);
 
             int toSquareCount = getNormalPawnMoves(fromSquare);
@@ -372,12 +366,9 @@ public class FullMoveGenerator extends AbstractGenerator {
      * Generates all possible bishop moves for the side to move in the given position.
      */
     void generateBishopMoves() {
-        // Find all my bishops
-        int fromSquareCount = Square.bitboardToIds(position.bishop & friend);
-
-        // For each bishop, find all of its 'to' squares
-        for (int fromSquareIdx = 0; fromSquareIdx < fromSquareCount; fromSquareIdx++) {
-            long fromSquare = SQUARE_IDS[fromSquareIdx];
+        // For each of my bishops, find all of its 'to' squares
+        for (long fromSquares = position.bishop & friend; fromSquares != 0; fromSquares &= fromSquares - 1) {
+            long fromSquare = fromSquares & -fromSquares;
             int fromIndex = idToIndex(fromSquare);
 
             int toSquareCount = getDiagonalMoves(fromSquare);
@@ -393,12 +384,9 @@ public class FullMoveGenerator extends AbstractGenerator {
      * Generates all possible queen moves for the side to move in the given position.
      */
     void generateQueenMoves() {
-        // Find all my queens
-        int fromSquareCount = Square.bitboardToIds(position.queen & friend);
-
-        // For each queen, find all of its 'to' squares
-        for (int fromSquareIdx = 0; fromSquareIdx < fromSquareCount; fromSquareIdx++) {
-            long fromSquare = SQUARE_IDS[fromSquareIdx];
+        // For each of my queens, find all of its 'to' squares
+        for (long fromSquares = position.queen & friend; fromSquares != 0; fromSquares &= fromSquares - 1) {
+            long fromSquare = fromSquares & -fromSquares;
             int fromIndex = idToIndex(fromSquare);
 
             int toSquareCount = getDiagonalMoves(fromSquare);
@@ -420,12 +408,9 @@ public class FullMoveGenerator extends AbstractGenerator {
      * Generates all possible rook moves for the side to move in the given position.
      */
     void generateRookMoves() {
-        // Find all my rooks
-        int fromSquareCount = Square.bitboardToIds(position.rook & friend);
-
-        // For each rook, find all of its 'to' squares
-        for (int fromSquareIdx = 0; fromSquareIdx < fromSquareCount; fromSquareIdx++) {
-            long fromSquare = SQUARE_IDS[fromSquareIdx];
+        // For each of my rooks, find all of its 'to' squares
+        for (long fromSquares = position.rook & friend; fromSquares != 0; fromSquares &= fromSquares - 1) {
+            long fromSquare = fromSquares & -fromSquares;
             int fromIndex = idToIndex(fromSquare);
 
             int toSquareCount = getStraightMoves(fromSquare);
@@ -616,7 +601,12 @@ public class FullMoveGenerator extends AbstractGenerator {
      * Returns {@code true} if any of the squares in {@code bitboard} is attacked by an enemy piece.
      */
     private boolean isAttacked(long bitboard) {
-        return (bitboard & attacked) != 0;
+        for (long squares = bitboard; squares != 0; squares &= squares - 1) {
+            if (position.isAttacked(Long.numberOfTrailingZeros(squares), enemy)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
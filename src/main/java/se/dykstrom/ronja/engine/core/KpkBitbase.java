@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * A bitbase for the king and pawn versus king (KPK) endgame, that tells if a position is won for the side
+ * with the pawn, or drawn. The bitbase is generated by retrograde analysis when the class is loaded, and is
+ * never modified after that. All methods in this class are therefore thread safe.
+ * <p>
+ * The bitbase is stored from the perspective of white having the pawn, with the pawn on file a-d and rank
+ * 2-7. Other positions are mirrored to this form before probing. There are 2 * 24 * 64 * 64 = 196608 such
+ * positions, so the bitbase takes 24 kilobytes, with one bit for each position, set if the position is won.
+ * <p>
+ * The generation starts by classifying the positions that can be decided immediately: illegal positions,
+ * positions where the pawn can promote safely, and positions where the black king can capture the pawn or
+ * is stalemated. The remaining positions are then classified repeatedly, using the results of the positions
+ * that can be reached in one move, until no more positions can be decided. Positions that are still undecided
+ * are draws, because the stronger side cannot force a win.
+ *
+ * @author Johan Dykstrom
+ */
+public final class KpkBitbase {
+
+    /** The number of positions in the bitbase. */
+    static final int NUMBER_OF_POSITIONS = 2 * 24 * 64 * 64;
+
+    /** Results used during generation, that can be combined as bit masks. */
+    private static final byte INVALID = 0;
+    private static final byte UNKNOWN = 1;
+    private static final byte DRAW = 2;
+    private static final byte WIN = 4;
+
+    private static final int NORTH = 8;
+    private static final int RANK_2 = 1;
+    private static final int RANK_7 = 6;
+
+    /** One bit for each position, set if the position is won for white. */
+    private static final long[] BITS = new long[NUMBER_OF_POSITIONS / Long.SIZE];
+
+    static {
+        generate();
+    }
+
+    private KpkBitbase() { }
+
+    /**
+     * Makes sure the bitbase has been generated. Calling this method loads the class, which generates the
+     * bitbase, if that has not already been done. This can be used to generate the bitbase in advance,
+     * instead of in the first search that reaches a KPK position.
+     */
+    static void initialize() {
+        // Nothing to do, the bitbase is generated when the class is loaded
+    }
+
+    // ------------------------------------------------------------------------
+    // Probing:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns {@code true} if the given position contains only two kings and a single pawn.
+     */
+    public static boolean isKpk(final Position position) {
+        final long occupied = position.white | position.black;
+        return Long.bitCount(occupied) == 3 && Long.bitCount(position.pawn) == 1;
+    }
+
+    /**
+     * Returns {@code true} if the given KPK position is won for the side with the pawn, and {@code false}
+     * if it is a draw. The position must contain only two kings and a single pawn, and the side that is
+     * not to move must not be in check.
+     */
+    public static boolean isWin(final Position position) {
+        final int pawn = Long.numberOfTrailingZeros(position.pawn);
+        final boolean isWhiteStrong = (position.pawn & position.white) != 0;
+        final long strongPieces = isWhiteStrong ? position.white : position.black;
+        final int strongKing = Long.numberOfTrailingZeros(position.king & strongPieces);
+        final int weakKing = Long.numberOfTrailingZeros(position.king & ~strongPieces);
+        final boolean isStrongToMove = position.isWhiteMove() == isWhiteStrong;
+
+        // Flip the board vertically if black has the pawn, and horizontally if the pawn is on file e-h
+        final int flip = (isWhiteStrong ? 0 : 56) ^ (((pawn & 7) >= 4) ? 7 : 0);
+        return isWin(strongKing ^ flip, pawn ^ flip, weakKing ^ flip, isStrongToMove);
+    }
+
+    /**
+     * Returns {@code true} if the given position is won for white. The position is given from
+     * the perspective of white having the pawn, with the pawn on file a-d.
+     *
+     * @param whiteKing The square index of the white king.
+     * @param pawn The square index of the white pawn.
+     * @param blackKing The square index of the black king.
+     * @param isWhiteToMove True if it is white's move.
+     */
+    static boolean isWin(final int whiteKing, final int pawn, final int blackKing, final boolean isWhiteToMove) {
+        final int index = index(whiteKing, pawn, blackKing, isWhiteToMove);
+        return (BITS[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the index of the given position, with the side to move in bit 0, the black king in bits 1-6,
+     * the white king in bits 7-12, the pawn file in bits 13-14, and the pawn rank, counted from rank 7
+     * and down, in bits 15-17.
+     */
+    private static int index(final int whiteKing, final int pawn, final int blackKing, final boolean isWhiteToMove) {
+        return (isWhiteToMove ? 0 : 1) | (blackKing << 1) | (whiteKing << 7) | ((pawn & 7) << 13) | ((RANK_7 - (pawn >> 3)) << 15);
+    }
+
+    // ------------------------------------------------------------------------
+    // Generation:
+    // ------------------------------------------------------------------------
+
+    private static void generate() {
+        final byte[] results = new byte[NUMBER_OF_POSITIONS];
+
+        // Classify all positions that can be decided without looking at other positions
+        for (int index = 0; index < NUMBER_OF_POSITIONS; index++) {
+            results[index] = initialize(index);
+        }
+
+        // Classify the remaining positions using the positions reachable in one move, until nothing changes
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int index = 0; index < NUMBER_OF_POSITIONS; index++) {
+                if (results[index] == UNKNOWN) {
+                    results[index] = classify(index, results);
+                    changed |= results[index] != UNKNOWN;
+                }
+            }
+        }
+
+        for (int index = 0; index < NUMBER_OF_POSITIONS; index++) {
+            if (results[index] == WIN) {
+                BITS[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    private static byte initialize(final int index) {
+        final boolean isWhiteToMove = (index & 1) == 0;
+        final int blackKing = (index >>> 1) & 63;
+        final int whiteKing = (index >>> 7) & 63;
+        final int pawn = ((index >>> 13) & 3) | ((RANK_7 - (index >>> 15)) << 3);
+        final long pawnAttacks = AttackTables.pawnAttacks(pawn, true);
+
+        // Illegal if the kings are adjacent, a king stands on the pawn, or the black king is in check with white to move
+        if (AttackTables.distance(whiteKing, blackKing) <= 1 || whiteKing == pawn || blackKing == pawn ||
+            (isWhiteToMove && (pawnAttacks & (1L << blackKing)) != 0)) {
+            return INVALID;
+        }
+
+        // Win if the pawn can promote without being captured
+        final int promotion = pawn + NORTH;
+        if (isWhiteToMove && (pawn >> 3) == RANK_7 && whiteKing != promotion &&
+            (AttackTables.distance(blackKing, promotion) > 1 || AttackTables.distance(whiteKing, promotion) == 1)) {
+            return WIN;
+        }
+
+        // Draw if black is stalemated, or can capture the pawn
+        final long blackKingMoves = AttackTables.kingAttacks(blackKing);
+        final long whiteKingAttacks = AttackTables.kingAttacks(whiteKing);
+        if (!isWhiteToMove && ((blackKingMoves & ~(whiteKingAttacks | pawnAttacks)) == 0 ||
+                               (blackKingMoves & ~whiteKingAttacks & (1L << pawn)) != 0)) {
+            return DRAW;
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * Classifies the given position using the results of all positions that can be reached in one move.
+     * The side to move chooses the best result for itself, that is, white wins if any move wins, and black
+     * draws if any move draws. If all moves are decided and none of them is good, the position is bad for
+     * the side to move.
+     */
+    private static byte classify(final int index, final byte[] results) {
+        final boolean isWhiteToMove = (index & 1) == 0;
+        final int blackKing = (index >>> 1) & 63;
+        final int whiteKing = (index >>> 7) & 63;
+        final int pawn = ((index >>> 13) & 3) | ((RANK_7 - (index >>> 15)) << 3);
+
+        int reachable = INVALID;
+        if (isWhiteToMove) {
+            for (long moves = AttackTables.kingAttacks(whiteKing); moves != 0; moves &= moves - 1) {
+                reachable |= results[index(Long.numberOfTrailingZeros(moves), pawn, blackKing, false)];
+            }
+            // Pawn moves, promotions are handled when initializing
+            final int rank = pawn >> 3;
+            if (rank < RANK_7) {
+                reachable |= results[index(whiteKing, pawn + NORTH, blackKing, false)];
+            }
+            if (rank == RANK_2 && pawn + NORTH != whiteKing && pawn + NORTH != blackKing) {
+                reachable |= results[index(whiteKing, pawn + 2 * NORTH, blackKing, false)];
+            }
+        } else {
+            for (long moves = AttackTables.kingAttacks(blackKing); moves != 0; moves &= moves - 1) {
+                reachable |= results[index(whiteKing, pawn, Long.numberOfTrailingZeros(moves), true)];
+            }
+        }
+
+        final byte good = isWhiteToMove ? WIN : DRAW;
+        final byte bad = isWhiteToMove ? DRAW : WIN;
+        if ((reachable & good) != 0) {
+            return good;
+        }
+        return ((reachable & UNKNOWN) != 0) ? UNKNOWN : bad;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.utils.PositionUtils;
+
+import static se.dykstrom.ronja.common.model.Piece.BISHOP;
+import static se.dykstrom.ronja.common.model.Piece.KING;
+import static se.dykstrom.ronja.common.model.Piece.KNIGHT;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
+
+/**
+ * An evaluator that uses a neural network, see {@link NnueNetwork}, to evaluate positions.
+ * <p>
+ * The first layer of the network is by far the largest, but only a few of its inputs change when a move
+ * is made. The evaluator therefore keeps a stack of accumulators, one for each position on the current
+ * search path, that are updated incrementally with the features added and removed by each move. The
+ * accumulators are updated lazily, when a position is actually evaluated, because most positions in
+ * the search tree are never evaluated. When the king of one side moves, all features of that side
+ * change, and its accumulator is calculated from scratch.
+ * <p>
+ * The search must tell the evaluator about all moves made and unmade, using {@link #setRootPosition(Position)},
+ * {@link #makeMove(int, Position)}, and {@link #unmakeMove()}. A position that is not the current position
+ * on the stack is still evaluated correctly, but without the benefit of the incremental update.
+ * <p>
+ * This class is not thread safe, but the network can be shared by evaluators in different threads.
+ *
+ * @author Johan Dykstrom
+ */
+public class NnueEvaluator extends Evaluator {
+
+    /** The maximum number of positions on the stack, the root position and one for each ply. */
+    private static final int STACK_SIZE = FullMoveGenerator.MAX_POSITIONS + 1;
+
+    private static final int WHITE_PERSPECTIVE = 0;
+    private static final int BLACK_PERSPECTIVE = 1;
+
+    /** The pieces that are input features, that is, all pieces but the king. */
+    private static final int[] FEATURE_PIECES = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN};
+
+    private final NnueNetwork network;
+
+    /** The positions on the current search path. */
+    private final Position[] positions = new Position[STACK_SIZE];
+
+    /** The moves that lead to the positions on the current search path. */
+    private final int[] moves = new int[STACK_SIZE];
+
+    /** True if the accumulators of the position on the same level of the stack are up-to-date. */
+    private final boolean[] computed = new boolean[STACK_SIZE];
+
+    /** The accumulators, indexed by stack level and perspective. */
+    private final short[][][] accumulators;
+
+    /** Accumulators used to evaluate positions that are not on the stack. */
+    private final short[][] scratchAccumulators;
+
+    /** Scratch space for the network layers after the input layer. */
+    private final short[] input;
+    private final short[] hidden;
+
+    /** The index of the current position on the stack. */
+    private int top;
+
+    /** The number of moves made after the stack was full. */
+    private int overflow;
+
+    public NnueEvaluator(final NnueNetwork network) {
+        this(network, new EvaluationCache(1));
+    }
+
+    public NnueEvaluator(final NnueNetwork network, final EvaluationCache evaluationCache) {
+        super(evaluationCache);
+        this.network = network;
+        final int accumulatorSize = network.getAccumulatorSize();
+        this.accumulators = new short[STACK_SIZE][2][accumulatorSize];
+        this.scratchAccumulators = new short[2][accumulatorSize];
+        this.input = new short[2 * accumulatorSize];
+        this.hidden = new short[network.getHiddenSize()];
+    }
+
+    @Override
+    public void setRootPosition(final Position position) {
+        top = 0;
+        overflow = 0;
+        positions[0] = position;
+        computed[0] = false;
+    }
+
+    @Override
+    public void makeMove(final int move, final Position position) {
+        if (top + 1 < STACK_SIZE && overflow == 0) {
+            top++;
+            positions[top] = position;
+            moves[top] = move;
+            computed[top] = false;
+        } else {
+            overflow++;
+        }
+    }
+
+    @Override
+    public void unmakeMove() {
+        if (overflow > 0) {
+            overflow--;
+        } else if (top > 0) {
+            top--;
+        }
+    }
+
+    @Override
+    protected int calculateScore(final Position position) {
+        if (PositionUtils.isCheckMate(position)) {
+            return CHECK_MATE_VALUE;
+        }
+
+        final short[][] accumulator;
+        if (overflow == 0 && positions[top] == position) {
+            updateAccumulators();
+            accumulator = accumulators[top];
+        } else {
+            refresh(position, true, scratchAccumulators[WHITE_PERSPECTIVE]);
+            refresh(position, false, scratchAccumulators[BLACK_PERSPECTIVE]);
+            accumulator = scratchAccumulators;
+        }
+
+        final short[] us = accumulator[position.isWhiteMove() ? WHITE_PERSPECTIVE : BLACK_PERSPECTIVE];
+        final short[] them = accumulator[position.isWhiteMove() ? BLACK_PERSPECTIVE : WHITE_PERSPECTIVE];
+        return network.propagate(us, them, input, hidden) * PAWN_VALUE / 100;
+    }
+
+    /**
+     * Brings the accumulators of the current position up-to-date, starting from the closest position
+     * on the stack that has up-to-date accumulators, or from scratch if there is no such position.
+     */
+    private void updateAccumulators() {
+        int first = top;
+        while (first > 0 && !computed[first]) {
+            first--;
+        }
+        if (!computed[first]) {
+            refresh(positions[first], true, accumulators[first][WHITE_PERSPECTIVE]);
+            refresh(positions[first], false, accumulators[first][BLACK_PERSPECTIVE]);
+            computed[first] = true;
+        }
+        for (int level = first + 1; level <= top; level++) {
+            update(level, true);
+            update(level, false);
+            computed[level] = true;
+        }
+    }
+
+    /**
+     * Updates the accumulator of one perspective on the given stack level, using the accumulator
+     * on the level below, and the move made between the two levels.
+     */
+    private void update(final int level, final boolean isWhitePerspective) {
+        final int perspective = isWhitePerspective ? WHITE_PERSPECTIVE : BLACK_PERSPECTIVE;
+        final short[] accumulator = accumulators[level][perspective];
+        final Position before = positions[level - 1];
+        final Position after = positions[level];
+        final int move = moves[level];
+        final boolean isWhiteMove = before.isWhiteMove();
+        final int piece = Move.getPiece(move);
+
+        // If our own king moved, all features changed
+        if (piece == KING && isWhiteMove == isWhitePerspective) {
+            refresh(after, isWhitePerspective, accumulator);
+            return;
+        }
+
+        System.arraycopy(accumulators[level - 1][perspective], 0, accumulator, 0, accumulator.length);
+        final int kingIndex = kingIndex(after, isWhitePerspective);
+        final int fromIndex = Move.getFromIndex(move);
+        final int toIndex = Move.getToIndex(move);
+
+        // The kings are not input features
+        if (piece != KING) {
+            final int toPiece = Move.isPromotion(move) ? Move.getPromoted(move) : piece;
+            network.removeFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, piece, isWhiteMove, fromIndex));
+            network.addFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, toPiece, isWhiteMove, toIndex));
+        }
+
+        if (Move.isEnPassant(move)) {
+            final int capturedIndex = isWhiteMove ? toIndex - 8 : toIndex + 8;
+            network.removeFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, PAWN, !isWhiteMove, capturedIndex));
+        } else if (Move.isCastling(move)) {
+            // King-side castling moves the rook from the h-file to the f-file, queen-side from the a-file to the d-file
+            final boolean isKingSide = (toIndex & 7) == 6;
+            final int rookFromIndex = isKingSide ? toIndex + 1 : toIndex - 2;
+            final int rookToIndex = isKingSide ? toIndex - 1 : toIndex + 1;
+            network.removeFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, ROOK, isWhiteMove, rookFromIndex));
+            network.addFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, ROOK, isWhiteMove, rookToIndex));
+        } else {
+            final int captured = before.getPiece(Move.getTo(move));
+            if (captured != 0) {
+                network.removeFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, captured, !isWhiteMove, toIndex));
+            }
+        }
+    }
+
+    /**
+     * Calculates the accumulator of one perspective in the given position from scratch.
+     */
+    private void refresh(final Position position, final boolean isWhitePerspective, final short[] accumulator) {
+        network.resetAccumulator(accumulator);
+        final int kingIndex = kingIndex(position, isWhitePerspective);
+        for (int piece : FEATURE_PIECES) {
+            final long pieces = getPieces(position, piece);
+            for (long bitboard = pieces & position.white; bitboard != 0; bitboard &= bitboard - 1) {
+                final int index = Long.numberOfTrailingZeros(bitboard);
+                network.addFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, piece, true, index));
+            }
+            for (long bitboard = pieces & position.black; bitboard != 0; bitboard &= bitboard - 1) {
+                final int index = Long.numberOfTrailingZeros(bitboard);
+                network.addFeature(accumulator, NnueNetwork.featureIndex(isWhitePerspective, kingIndex, piece, false, index));
+            }
+        }
+    }
+
+    private static int kingIndex(final Position position, final boolean isWhite) {
+        return Long.numberOfTrailingZeros(position.king & (isWhite ? position.white : position.black));
+    }
+
+    private static long getPieces(final Position position, final int piece) {
+        return switch (piece) {
+            case PAWN -> position.pawn;
+            case KNIGHT -> position.knight;
+            case BISHOP -> position.bishop;
+            case ROOK -> position.rook;
+            case QUEEN -> position.queen;
+            default -> throw new IllegalArgumentException("invalid piece: " + piece);
+        };
+    }
+}
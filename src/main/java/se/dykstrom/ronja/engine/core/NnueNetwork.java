@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static se.dykstrom.ronja.common.model.Square.MAX_SQUARES;
+
+/**
+ * The quantized weights of a neural network used to evaluate positions. The network has a HalfKP-like
+ * input layer, where each input feature is the combination of the square of the king of one side,
+ * and the type, color, and square of one of the other pieces. The input layer is evaluated once for
+ * each side, from the perspective of that side, into an accumulator. The two accumulators are then
+ * fed through a hidden layer into a single output.
+ * <p>
+ * The network is immutable after it has been created, and can be shared by any number of evaluators.
+ * <p>
+ * The network file starts with a header of five little-endian ints: the magic number, the file format
+ * version, the number of input features, the accumulator size, and the hidden layer size. The header is
+ * followed by the feature weights (int16), the feature biases (int16), the hidden weights (int16), the
+ * hidden biases (int32), the output weights (int16), and the output bias (int32), all little-endian.
+ *
+ * @author Johan Dykstrom
+ */
+public class NnueNetwork {
+
+    /** The magic number that starts a network file, "RNJN" in ASCII. */
+    static final int MAGIC = 0x4e4a4e52;
+
+    /** The supported file format version. */
+    static final int VERSION = 1;
+
+    /** The number of piece types and colors that are input features, that is, all pieces but the kings. */
+    private static final int PIECE_FEATURES = 10;
+
+    /** The number of input features for each perspective. */
+    public static final int INPUT_SIZE = MAX_SQUARES * PIECE_FEATURES * MAX_SQUARES;
+
+    /** The maximum output of the clipped ReLU activation function. */
+    private static final int MAX_ACTIVATION = 127;
+
+    /** The number of bits the hidden layer sums are shifted right before activation. */
+    private static final int HIDDEN_SHIFT = 6;
+
+    /** The network output is divided by this value to get the score in centipawns. */
+    private static final int OUTPUT_SCALE = 16;
+
+    /** The number of bytes in the file header. */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /** The size of the accumulator, that is, the number of outputs of the input layer for each perspective. */
+    final int accumulatorSize;
+
+    /** The number of neurons in the hidden layer. */
+    final int hiddenSize;
+
+    /** The input layer weights, indexed by feature * accumulatorSize + neuron. */
+    final short[] featureWeights;
+
+    /** The input layer biases. */
+    final short[] featureBiases;
+
+    /** The hidden layer weights, indexed by neuron * 2 * accumulatorSize + input. */
+    final short[] hiddenWeights;
+
+    /** The hidden layer biases. */
+    final int[] hiddenBiases;
+
+    /** The output layer weights. */
+    final short[] outputWeights;
+
+    /** The output layer bias. */
+    final int outputBias;
+
+    NnueNetwork(final int accumulatorSize,
+                final int hiddenSize,
+                final short[] featureWeights,
+                final short[] featureBiases,
+                final short[] hiddenWeights,
+                final int[] hiddenBiases,
+                final short[] outputWeights,
+                final int outputBias) {
+        if (featureWeights.length != INPUT_SIZE * accumulatorSize ||
+            featureBiases.length != accumulatorSize ||
+            hiddenWeights.length != hiddenSize * 2 * accumulatorSize ||
+            hiddenBiases.length != hiddenSize ||
+            outputWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("network layer sizes do not match");
+        }
+        this.accumulatorSize = accumulatorSize;
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Returns the index of the input feature for a piece, seen from the perspective of one side.
+     * For black, the board is flipped vertically, so both sides see the board the same way.
+     *
+     * @param isWhitePerspective True if the feature is seen from the perspective of white.
+     * @param kingIndex The square index of the king of the perspective side.
+     * @param piece The piece, not a king.
+     * @param isWhitePiece True if the piece is white.
+     * @param index The square index of the piece.
+     */
+    static int featureIndex(final boolean isWhitePerspective, final int kingIndex, final int piece, final boolean isWhitePiece, final int index) {
+        final int flip = isWhitePerspective ? 0 : 56;
+        final int pieceFeature = (piece - 1) * 2 + ((isWhitePiece == isWhitePerspective) ? 0 : 1);
+        return ((kingIndex ^ flip) * PIECE_FEATURES + pieceFeature) * MAX_SQUARES + (index ^ flip);
+    }
+
+    // ------------------------------------------------------------------------
+    // Inference:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns the size of the accumulator for each perspective.
+     */
+    public int getAccumulatorSize() {
+        return accumulatorSize;
+    }
+
+    /**
+     * Returns the number of neurons in the hidden layer.
+     */
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    /**
+     * Resets the given accumulator to the input layer biases.
+     */
+    void resetAccumulator(final short[] accumulator) {
+        System.arraycopy(featureBiases, 0, accumulator, 0, accumulatorSize);
+    }
+
+    /**
+     * Adds the weights of the given input feature to the given accumulator.
+     */
+    void addFeature(final short[] accumulator, final int feature) {
+        final int offset = feature * accumulatorSize;
+        // A simple counted loop over arrays, that the JIT compiler can vectorize
+        for (int i = 0; i < accumulatorSize; i++) {
+            accumulator[i] += featureWeights[offset + i];
+        }
+    }
+
+    /**
+     * Subtracts the weights of the given input feature from the given accumulator.
+     */
+    void removeFeature(final short[] accumulator, final int feature) {
+        final int offset = feature * accumulatorSize;
+        for (int i = 0; i < accumulatorSize; i++) {
+            accumulator[i] -= featureWeights[offset + i];
+        }
+    }
+
+    /**
+     * Runs the layers after the input layer, and returns the score in centipawns, seen from the side
+     * to move. The arrays {@code input} and {@code hidden} are used as scratch space, and must have
+     * the sizes 2 * accumulatorSize and hiddenSize.
+     *
+     * @param us The accumulator of the side to move.
+     * @param them The accumulator of the other side.
+     * @param input Scratch space for the clipped accumulators.
+     * @param hidden Scratch space for the clipped hidden layer outputs.
+     */
+    int propagate(final short[] us, final short[] them, final short[] input, final short[] hidden) {
+        clip(us, input, 0);
+        clip(them, input, accumulatorSize);
+
+        final int inputSize = 2 * accumulatorSize;
+        for (int neuron = 0; neuron < hiddenSize; neuron++) {
+            final int offset = neuron * inputSize;
+            int sum = 0;
+            for (int i = 0; i < inputSize; i++) {
+                sum += hiddenWeights[offset + i] * input[i];
+            }
+            hidden[neuron] = (short) Math.max(0, Math.min(MAX_ACTIVATION, (sum + hiddenBiases[neuron]) >> HIDDEN_SHIFT));
+        }
+
+        int output = outputBias;
+        for (int neuron = 0; neuron < hiddenSize; neuron++) {
+            output += outputWeights[neuron] * hidden[neuron];
+        }
+        return output / OUTPUT_SCALE;
+    }
+
+    /**
+     * Applies the clipped ReLU activation function to the accumulator, and writes the result to
+     * {@code input}, starting at {@code offset}.
+     */
+    private void clip(final short[] accumulator, final short[] input, final int offset) {
+        for (int i = 0; i < accumulatorSize; i++) {
+            input[offset + i] = (short) Math.max(0, Math.min(MAX_ACTIVATION, accumulator[i]));
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // File I/O:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Loads a network from the given file.
+     *
+     * @param path The path of the network file.
+     * @return The loaded network.
+     * @throws IOException If the file cannot be read, or is not a valid network file.
+     */
+    public static NnueNetwork load(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer header = readFully(channel, HEADER_SIZE);
+            final int magic = header.getInt();
+            final int version = header.getInt();
+            final int inputSize = header.getInt();
+            final int accumulatorSize = header.getInt();
+            final int hiddenSize = header.getInt();
+            if (magic != MAGIC || version != VERSION || inputSize != INPUT_SIZE) {
+                throw new IOException("not a valid network file: " + path);
+            }
+            if (accumulatorSize <= 0 || hiddenSize <= 0 || channel.size() != fileSize(accumulatorSize, hiddenSize)) {
+                throw new IOException("invalid network size in file: " + path);
+            }
+
+            final short[] featureWeights = readShorts(channel, INPUT_SIZE * accumulatorSize);
+            final short[] featureBiases = readShorts(channel, accumulatorSize);
+            final short[] hiddenWeights = readShorts(channel, hiddenSize * 2 * accumulatorSize);
+            final int[] hiddenBiases = readInts(channel, hiddenSize);
+            final short[] outputWeights = readShorts(channel, hiddenSize);
+            final int outputBias = readInts(channel, 1)[0];
+            return new NnueNetwork(accumulatorSize, hiddenSize, featureWeights, featureBiases, hiddenWeights, hiddenBiases, outputWeights, outputBias);
+        }
+    }
+
+    /**
+     * Saves this network to the given file, in the format read by {@link #load(Path)}.
+     *
+     * @param path The path of the network file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) fileSize(accumulatorSize, hiddenSize)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(INPUT_SIZE).putInt(accumulatorSize).putInt(hiddenSize);
+        buffer.asShortBuffer().put(featureWeights).put(featureBiases).put(hiddenWeights);
+        buffer.position(buffer.position() + (featureWeights.length + featureBiases.length + hiddenWeights.length) * Short.BYTES);
+        buffer.asIntBuffer().put(hiddenBiases);
+        buffer.position(buffer.position() + hiddenBiases.length * Integer.BYTES);
+        buffer.asShortBuffer().put(outputWeights);
+        buffer.position(buffer.position() + outputWeights.length * Short.BYTES);
+        buffer.putInt(outputBias);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the expected size of a network file with the given layer sizes.
+     */
+    private static long fileSize(final int accumulatorSize, final int hiddenSize) {
+        return HEADER_SIZE +
+               ((long) INPUT_SIZE * accumulatorSize + accumulatorSize + (long) hiddenSize * 2 * accumulatorSize + hiddenSize) * Short.BYTES +
+               ((long) hiddenSize + 1) * Integer.BYTES;
+    }
+
+    private static short[] readShorts(final FileChannel channel, final int count) throws IOException {
+        final short[] values = new short[count];
+        readFully(channel, count * Short.BYTES).asShortBuffer().get(values);
+        return values;
+    }
+
+    private static int[] readInts(final FileChannel channel, final int count) throws IOException {
+        final int[] values = new int[count];
+        readFully(channel, count * Integer.BYTES).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static ByteBuffer readFully(final FileChannel channel, final int size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("unexpected end of network file");
+            }
+        }
+        return buffer.flip();
+    }
+}
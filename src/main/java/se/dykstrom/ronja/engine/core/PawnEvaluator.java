@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import se.dykstrom.ronja.common.model.Board;
+import se.dykstrom.ronja.common.model.Position;
+
+import static se.dykstrom.ronja.common.model.Square.MAX_SQUARES;
+import static se.dykstrom.ronja.engine.core.AbstractGenerator.NOT_EAST_BORDER;
+import static se.dykstrom.ronja.engine.core.AbstractGenerator.NOT_WEST_BORDER;
+import static se.dykstrom.ronja.engine.core.AttackTables.NORTH;
+import static se.dykstrom.ronja.engine.core.AttackTables.SOUTH;
+import static se.dykstrom.ronja.engine.core.Evaluator.PAWN_VALUE;
+
+/**
+ * A class used to evaluate the pawn structure of positions. The pawn structure terms are doubled,
+ * isolated, passed, and backward pawns. They only depend on the pawns, so they are cached in a
+ * {@link PawnHashTable}, indexed by the pawn key of the position. The pawn shield in front of each
+ * king also depends on the king position, and is calculated separately, which is cheap.
+ * <p>
+ * This class is not thread safe. Each search thread should use its own instance.
+ *
+ * @author Johan Dykstrom
+ */
+public class PawnEvaluator {
+
+    /** The default number of entries in the pawn hash table. */
+    private static final int DEFAULT_PAWN_HASH_SIZE = 1 << 14;
+
+    static final int DOUBLED_PAWN_VALUE = -PAWN_VALUE / 10;
+    static final int ISOLATED_PAWN_VALUE = -PAWN_VALUE / 10;
+    static final int BACKWARD_PAWN_VALUE = -PAWN_VALUE / 20;
+    static final int PAWN_SHIELD_VALUE = PAWN_VALUE / 20;
+
+    /** The value of a passed pawn, indexed by the rank of the pawn, as seen from its own side. */
+    static final int[] PASSED_PAWN_VALUES = {0, 50, 100, 200, 350, 600, 1000, 0};
+
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+
+    /** All squares on the files next to a file, indexed by file. */
+    private static final long[] ADJACENT_FILES = new long[8];
+
+    /** All squares in front of a square on the same file, indexed by [color][square]. */
+    private static final long[][] FRONT_SPANS = new long[2][MAX_SQUARES];
+
+    /** All squares where an enemy pawn can stop a pawn from becoming a passed pawn, indexed by [color][square]. */
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][MAX_SQUARES];
+
+    /** All squares on the adjacent files where a pawn can be supported by other pawns, indexed by [color][square]. */
+    private static final long[][] SUPPORT_MASKS = new long[2][MAX_SQUARES];
+
+    /** The squares in front of a king, where pawns protect the king, indexed by [color][square]. */
+    private static final long[][] SHIELD_MASKS = new long[2][MAX_SQUARES];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = ((file > 0) ? Board.FILE_A << (file - 1) : 0) | ((file < 7) ? Board.FILE_A << (file + 1) : 0);
+        }
+        for (int index = 0; index < MAX_SQUARES; index++) {
+            final int file = index & 7;
+            final int rank = index >> 3;
+            final long square = 1L << index;
+            final long neighbours = ADJACENT_FILES[file] & (Board.RANK_1 << (rank * 8));
+
+            FRONT_SPANS[WHITE][index] = AttackTables.ray(NORTH, index);
+            FRONT_SPANS[BLACK][index] = AttackTables.ray(SOUTH, index);
+            for (long b = neighbours; b != 0; b &= b - 1) {
+                final int neighbour = Long.numberOfTrailingZeros(b);
+                PASSED_PAWN_MASKS[WHITE][index] |= AttackTables.ray(NORTH, neighbour);
+                PASSED_PAWN_MASKS[BLACK][index] |= AttackTables.ray(SOUTH, neighbour);
+                SUPPORT_MASKS[WHITE][index] |= AttackTables.ray(SOUTH, neighbour) | (1L << neighbour);
+                SUPPORT_MASKS[BLACK][index] |= AttackTables.ray(NORTH, neighbour) | (1L << neighbour);
+            }
+            PASSED_PAWN_MASKS[WHITE][index] |= FRONT_SPANS[WHITE][index];
+            PASSED_PAWN_MASKS[BLACK][index] |= FRONT_SPANS[BLACK][index];
+
+            // The pawn shield is only relevant for a king on one of the two first ranks
+            final long kingZone = square | neighbours;
+            if (rank <= 1) {
+                SHIELD_MASKS[WHITE][index] = (kingZone << 8) | (kingZone << 16);
+            }
+            if (rank >= 6) {
+                SHIELD_MASKS[BLACK][index] = (kingZone >>> 8) | (kingZone >>> 16);
+            }
+        }
+    }
+
+    /** Caches the pawn structure scores. */
+    private final PawnHashTable pawnHashTable;
+
+    /** The weights of the pawn terms, copied from the evaluation weights for fast access. */
+    private final int doubledPawnValue;
+    private final int isolatedPawnValue;
+    private final int backwardPawnValue;
+    private final int pawnShieldValue;
+    private final int[] passedPawnValues = new int[8];
+
+    public PawnEvaluator() {
+        this(EvaluationWeights.DEFAULT);
+    }
+
+    public PawnEvaluator(final EvaluationWeights weights) {
+        this(new PawnHashTable(DEFAULT_PAWN_HASH_SIZE), weights);
+    }
+
+    PawnEvaluator(final PawnHashTable pawnHashTable) {
+        this(pawnHashTable, EvaluationWeights.DEFAULT);
+    }
+
+    PawnEvaluator(final PawnHashTable pawnHashTable, final EvaluationWeights weights) {
+        this.pawnHashTable = pawnHashTable;
+        this.doubledPawnValue = weights.get(EvaluationWeights.DOUBLED_PAWN);
+        this.isolatedPawnValue = weights.get(EvaluationWeights.ISOLATED_PAWN);
+        this.backwardPawnValue = weights.get(EvaluationWeights.BACKWARD_PAWN);
+        this.pawnShieldValue = weights.get(EvaluationWeights.PAWN_SHIELD);
+        for (int rank = 1; rank < 7; rank++) {
+            this.passedPawnValues[rank] = weights.get(EvaluationWeights.PASSED_PAWN + rank - 1);
+        }
+    }
+
+    /**
+     * Returns the pawn hash table used by this pawn evaluator.
+     */
+    PawnHashTable getPawnHashTable() {
+        return pawnHashTable;
+    }
+
+    /**
+     * Evaluates the pawns in the given position, and returns a score. The score will be positive
+     * if white has the better pawns, regardless of which side is to move.
+     */
+    public int evaluate(final Position position) {
+        return calculatePawnStructure(position) + calculatePawnShield(position);
+    }
+
+    /**
+     * Calculates the pawn structure score of the given position, looking it up in the pawn hash table if possible.
+     */
+    public int calculatePawnStructure(final Position position) {
+        final long pawnKey = position.getPawnKey();
+        int score = pawnHashTable.probe(pawnKey);
+        if (score == PawnHashTable.NOT_FOUND) {
+            final long whitePawns = position.pawn & position.white;
+            final long blackPawns = position.pawn & position.black;
+            score = calculatePawnStructure(whitePawns, blackPawns, WHITE) - calculatePawnStructure(blackPawns, whitePawns, BLACK);
+            pawnHashTable.store(pawnKey, score);
+        }
+        return score;
+    }
+
+    /**
+     * Calculates the pawn shield score of the given position, that is, the number of own pawns in front of each king.
+     */
+    public int calculatePawnShield(final Position position) {
+        final int whiteKing = Long.numberOfTrailingZeros(position.king & position.white);
+        final int blackKing = Long.numberOfTrailingZeros(position.king & position.black);
+        if (whiteKing == MAX_SQUARES || blackKing == MAX_SQUARES) {
+            return 0;
+        }
+        final int whiteShield = Board.popCount(SHIELD_MASKS[WHITE][whiteKing] & position.pawn & position.white);
+        final int blackShield = Board.popCount(SHIELD_MASKS[BLACK][blackKing] & position.pawn & position.black);
+        return (whiteShield - blackShield) * pawnShieldValue;
+    }
+
+    /**
+     * Calculates the pawn structure score of the pawns in {@code pawns}, that belong to side {@code color}.
+     */
+    private int calculatePawnStructure(final long pawns, final long enemyPawns, final int color) {
+        int score = 0;
+
+        // Doubled pawns
+        for (int file = 0; file < 8; file++) {
+            final int pawnsOnFile = Board.popCount(pawns & (Board.FILE_A << file));
+            if (pawnsOnFile > 1) {
+                score += (pawnsOnFile - 1) * doubledPawnValue;
+            }
+        }
+
+        final long enemyPawnAttacks = (color == WHITE)
+                ? ((enemyPawns & NOT_WEST_BORDER) >>> 9) | ((enemyPawns & NOT_EAST_BORDER) >>> 7)
+                : ((enemyPawns & NOT_WEST_BORDER) << 7) | ((enemyPawns & NOT_EAST_BORDER) << 9);
+
+        for (long b = pawns; b != 0; b &= b - 1) {
+            final int index = Long.numberOfTrailingZeros(b);
+            final boolean isIsolated = (pawns & ADJACENT_FILES[index & 7]) == 0;
+            if (isIsolated) {
+                score += isolatedPawnValue;
+            }
+
+            if ((enemyPawns & PASSED_PAWN_MASKS[color][index]) == 0 && (pawns & FRONT_SPANS[color][index]) == 0) {
+                // Passed pawn, the value depends on how far it has advanced
+                final int rank = (color == WHITE) ? index >> 3 : 7 - (index >> 3);
+                score += passedPawnValues[rank];
+            } else if (!isIsolated && (pawns & SUPPORT_MASKS[color][index]) == 0) {
+                // Backward pawn, cannot be supported by other pawns, and cannot advance safely
+                final long stopSquare = (color == WHITE) ? 1L << (index + 8) : 1L << (index - 8);
+                if ((enemyPawnAttacks & stopSquare) != 0) {
+                    score += backwardPawnValue;
+                }
+            }
+        }
+
+        return score;
+    }
+}
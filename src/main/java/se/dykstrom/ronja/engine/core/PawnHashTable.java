@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table that stores pawn structure scores, indexed by the pawn keys of positions.
+ * Pawn structures repeat in a large fraction of the positions evaluated in a search, so most pawn
+ * structure evaluations can be looked up in this table instead of being calculated from scratch.
+ * The table keeps track of the number of hits and misses, to make it possible to measure how well
+ * it works.
+ * <p>
+ * This class is not thread safe. Each search thread should use its own instance.
+ *
+ * @author Johan Dykstrom
+ */
+public class PawnHashTable {
+
+    /** The value returned by {@link #probe(long)} if no entry was found. */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /** The pawn keys of the entries. */
+    private final long[] keys;
+
+    /** The pawn structure scores of the entries. */
+    private final int[] scores;
+
+    /** Mask used to convert a key into an index in the table. */
+    private final int mask;
+
+    /** The number of successful lookups. */
+    private long hits;
+
+    /** The number of failed lookups. */
+    private long misses;
+
+    /**
+     * Creates a new pawn hash table with the given number of entries, which must be a power of two.
+     *
+     * @param numberOfEntries The number of entries in the table.
+     */
+    public PawnHashTable(final int numberOfEntries) {
+        if (Integer.bitCount(numberOfEntries) != 1) {
+            throw new IllegalArgumentException("number of entries must be a power of two: " + numberOfEntries);
+        }
+        this.keys = new long[numberOfEntries];
+        this.scores = new int[numberOfEntries];
+        this.mask = numberOfEntries - 1;
+        // Make sure the empty table does not match the key of positions without pawns
+        Arrays.fill(scores, NOT_FOUND);
+    }
+
+    /**
+     * Returns the number of entries in the table.
+     */
+    public int size() {
+        return scores.length;
+    }
+
+    /**
+     * Removes all entries from the table, and resets the hit and miss counters.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(scores, NOT_FOUND);
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Returns the score stored for the given pawn key, or {@link #NOT_FOUND} if no score is stored for the key.
+     */
+    public int probe(final long key) {
+        final int index = (int) key & mask;
+        if (keys[index] == key && scores[index] != NOT_FOUND) {
+            hits++;
+            return scores[index];
+        }
+        misses++;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores the given score for the given pawn key, replacing any entry in the same slot.
+     */
+    public void store(final long key, final int score) {
+        final int index = (int) key & mask;
+        keys[index] = key;
+        scores[index] = score;
+    }
+
+    /**
+     * Returns the number of successful lookups since the table was created or cleared.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of failed lookups since the table was created or cleared.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups that were successful, or 0 if there have been no lookups.
+     */
+    public double getHitRate() {
+        final long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Game;
+
+/**
+ * A long-lived search engine that is used for all searches in a game. The search engine owns
+ * a single {@link AlphaBetaFinder}, with its transposition table, evaluation cache, killer moves,
+ * history table, and preallocated move buffers, and keeps them between moves. If a neural network
+ * is provided, positions are evaluated with an {@link NnueEvaluator}. Before each search, the search
+ * state is aged, so results from previous searches can be reused, but are gradually replaced.
+ * When a new game starts, the search state is cleared, except for the evaluation cache, because
+ * the evaluation of a position does not depend on the game it occurs in. The {@link KpkBitbase} is
+ * generated when the search engine is created.
+ *
+ * @author Johan Dykstrom
+ */
+public class SearchEngine implements Finder {
+
+    private static final Logger TLOG = Logger.getLogger(SearchEngine.class.getName());
+
+    /** The transposition table shared by all searches. */
+    private final TranspositionTable transpositionTable;
+
+    /** The evaluation cache shared by all searches. */
+    private final EvaluationCache evaluationCache;
+
+    /** The finder used for all searches. */
+    private final AlphaBetaFinder finder;
+
+    /**
+     * Creates a new search engine for the given game.
+     *
+     * @param game The game to search in.
+     * @param hashSize The transposition table size in megabytes.
+     * @param evalCacheSize The evaluation cache size in megabytes.
+     */
+    public SearchEngine(final Game game, final long hashSize, final long evalCacheSize) {
+        this(game, hashSize, evalCacheSize, null);
+    }
+
+    /**
+     * Creates a new search engine for the given game, that evaluates positions using the given
+     * neural network. If {@code network} is null, the hand-written evaluator is used instead.
+     *
+     * @param game The game to search in.
+     * @param hashSize The transposition table size in megabytes.
+     * @param evalCacheSize The evaluation cache size in megabytes.
+     * @param network The neural network, or null.
+     */
+    public SearchEngine(final Game game, final long hashSize, final long evalCacheSize, final NnueNetwork network) {
+        // Generate the KPK bitbase now, so it does not use the time of the first search
+        KpkBitbase.initialize();
+        this.transpositionTable = new TranspositionTable(hashSize);
+        this.evaluationCache = new EvaluationCache(evalCacheSize);
+        final Evaluator evaluator = (network != null) ? new NnueEvaluator(network, evaluationCache) : new Evaluator(evaluationCache);
+        this.finder = new AlphaBetaFinder(game, transpositionTable, evaluator);
+        TLOG.fine(() -> "Created transposition table with " + transpositionTable.size() + " entries, and evaluation cache with " +
+                        evaluationCache.size() + " entries");
+    }
+
+    @Override
+    public int findBestMoveWithinTime(final long maxTime) {
+        finder.prepareForNewSearch();
+        return finder.findBestMoveWithinTime(maxTime);
+    }
+
+    @Override
+    public int findBestMove(final int depth) {
+        finder.prepareForNewSearch();
+        return finder.findBestMove(depth);
+    }
+
+    /**
+     * Sets the maximum number of nodes to search in {@link #findBestMoveWithinTime(long)},
+     * in addition to the time limit.
+     */
+    public void setMaxNodes(final long maxNodes) {
+        finder.setMaxNodes(maxNodes);
+    }
+
+    /**
+     * Returns the number of nodes evaluated in the last search.
+     */
+    public long getNodes() {
+        return finder.getNodes();
+    }
+
+    /**
+     * Sets the listener that is notified each time a search depth has been completed, or null to remove it.
+     */
+    public void setSearchListener(final SearchListener searchListener) {
+        finder.setSearchListener(searchListener);
+    }
+
+    /**
+     * Clears all search state, for example when starting a new game.
+     */
+    public void clear() {
+        finder.clear();
+    }
+
+    /**
+     * Returns the transposition table used by this search engine.
+     */
+    TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Returns the evaluation cache used by this search engine.
+     */
+    EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+}
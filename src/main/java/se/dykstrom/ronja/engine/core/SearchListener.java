@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+/**
+ * A listener that is notified each time the iterative deepening search has completed a search depth.
+ *
+ * @author Johan Dykstrom
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * Called when a search depth has been completed.
+     *
+     * @param depth The completed search depth.
+     * @param bestMove The best move found at this depth.
+     * @param score The score of the best move.
+     * @param nodes The number of nodes searched so far in this search.
+     * @param elapsedTime The time elapsed so far in this search, in milliseconds.
+     */
+    void depthCompleted(int depth, int bestMove, int score, long nodes, long elapsedTime);
+}
@@ -51,6 +51,32 @@ public final class SortUtils {
         }
     }
 
+    /**
+     * Sorts the first part of the given array into descending order of the corresponding sort keys.
+     * The sort keys are rearranged together with the array elements. The number of elements to
+     * actually sort is given by {@code number}, which must be less than or equal to the array size.
+     *
+     * @implNote The sorting algorithm used is insert sort.
+     *
+     * @param array The array to sort.
+     * @param keys The sort keys, one for each element in the array.
+     * @param number The number of elements to sort in the array.
+     */
+    public static void sort(int[] array, int[] keys, int number) {
+        for (int index = 1; index < number; index++) {
+            int data = array[index];
+            int key = keys[index];
+            int dataIndex = index;
+            while (dataIndex > 0 && key > keys[dataIndex - 1]) {
+                array[dataIndex] = array[dataIndex - 1];
+                keys[dataIndex] = keys[dataIndex - 1];
+                dataIndex--;
+            }
+            array[dataIndex] = data;
+            keys[dataIndex] = key;
+        }
+    }
+
     /**
      * Sorts the first part of the given array into descending order. The number of elements to
      * actually sort is given by {@code number}, which must be less than or equal to the array size.
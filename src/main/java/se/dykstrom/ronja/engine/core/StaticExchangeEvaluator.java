@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+
+import static se.dykstrom.ronja.common.model.Piece.BISHOP;
+import static se.dykstrom.ronja.common.model.Piece.KING;
+import static se.dykstrom.ronja.common.model.Piece.KNIGHT;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
+import static se.dykstrom.ronja.engine.core.Evaluator.BISHOP_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.KNIGHT_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.PAWN_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.QUEEN_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.ROOK_VALUE;
+
+/**
+ * A class used to calculate the static exchange evaluation (SEE) of a capture. The static exchange
+ * evaluation is the material balance after all captures and recaptures on the target square, where
+ * both sides always capture with their least valuable piece, and may stop capturing when it is no
+ * longer favorable. Sliding pieces that attack the target square through other pieces (x-ray
+ * attacks) join the exchange when the pieces in front of them have captured.
+ * <p>
+ * For an explanation of the algorithm, see
+ * <a href="https://www.chessprogramming.org/SEE_-_The_Swap_Algorithm">Chess Programming Wiki</a>.
+ * <p>
+ * This class is not thread safe. Each search thread should use its own instance.
+ *
+ * @author Johan Dykstrom
+ */
+public class StaticExchangeEvaluator {
+
+    /** The value of the king, high enough to make sure that the king is never exchanged. */
+    private static final int KING_VALUE = 100 * PAWN_VALUE;
+
+    /** The piece values, indexed by piece. */
+    private static final int[] PIECE_VALUES = {0, PAWN_VALUE, KNIGHT_VALUE, BISHOP_VALUE, ROOK_VALUE, QUEEN_VALUE, KING_VALUE};
+
+    /** The maximum number of captures in an exchange, one for each piece on the board. */
+    private static final int MAX_CAPTURES = 32;
+
+    /** The speculative material gain after each capture in the exchange. */
+    private final int[] gain = new int[MAX_CAPTURES + 1];
+
+    /**
+     * Returns the static exchange evaluation of making the given move in the given position.
+     * The returned value is the expected material gain for the side to move, and it is negative
+     * if the move loses material. If the move is not a capture, the value is 0, unless the moving
+     * piece can be captured on its target square.
+     *
+     * @param position The position to make the move in.
+     * @param move The move to evaluate.
+     * @return The expected material gain of the move.
+     */
+    public int evaluate(final Position position, final int move) {
+        final int toIndex = Move.getToIndex(move);
+        long occupied = position.white | position.black;
+
+        // The moving piece leaves its square, and an 'en passant' capture also removes the captured pawn
+        occupied ^= 1L << Move.getFromIndex(move);
+        if (Move.isEnPassant(move)) {
+            occupied ^= 1L << (position.isWhiteMove() ? toIndex - 8 : toIndex + 8);
+        }
+
+        int depth = 0;
+        gain[depth] = PIECE_VALUES[Move.getCaptured(move)];
+        int piece = Move.getPiece(move);
+        if (Move.isPromotion(move)) {
+            piece = Move.getPromoted(move);
+            gain[depth] += PIECE_VALUES[piece] - PAWN_VALUE;
+        }
+
+        long attackers = position.getAttackersTo(toIndex, occupied);
+        boolean isWhite = !position.isWhiteMove();
+
+        while (depth < MAX_CAPTURES) {
+            depth++;
+
+            // The gain if the opponent captures the piece that just captured
+            gain[depth] = PIECE_VALUES[piece] - gain[depth - 1];
+
+            // Find the least valuable piece that can capture next
+            final long sideAttackers = attackers & (isWhite ? position.white : position.black);
+            if (sideAttackers == 0) {
+                break;
+            }
+            piece = PAWN;
+            long attacker = 0;
+            while (piece <= KING && (attacker = sideAttackers & getPieces(position, piece)) == 0) {
+                piece++;
+            }
+            attacker &= -attacker;
+
+            // Remove the attacker, and look again to find any x-ray attackers behind it
+            occupied ^= attacker;
+            attackers = position.getAttackersTo(toIndex, occupied);
+            isWhite = !isWhite;
+        }
+
+        // Let each side choose between capturing and standing pat, starting from the end of the exchange
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * Returns a bitboard representing the pieces of type {@code piece} in the given position, in any color.
+     */
+    private static long getPieces(final Position position, final int piece) {
+        return switch (piece) {
+            case PAWN -> position.pawn;
+            case KNIGHT -> position.knight;
+            case BISHOP -> position.bishop;
+            case ROOK -> position.rook;
+            case QUEEN -> position.queen;
+            case KING -> position.king;
+            default -> throw new IllegalArgumentException("invalid piece: " + piece);
+        };
+    }
+}
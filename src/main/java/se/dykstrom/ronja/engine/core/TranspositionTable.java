@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table that stores search results for positions, indexed by their Zobrist keys.
+ * The table is made up of two primitive arrays, one for the keys and one for the data, and each entry takes
+ * 16 bytes. The data of an entry is packed into a single long, and is returned as such by {@link #probe(long)}.
+ * Use the static accessor methods to extract the different parts of the data.
+ * <p>
+ * The bits of the data are organized like this:
+ * <p>
+ * 00-22 - best move
+ * 23-30 - search depth
+ * 31-32 - bound type
+ * 33-38 - age
+ * 39-63 - score (signed)
+ * <p>
+ * The table is aged between searches. Entries from previous searches are always replaced, while entries from
+ * the current search are replaced only by entries searched to the same or a greater depth.
+ *
+ * @author Johan Dykstrom
+ */
+public class TranspositionTable {
+
+    /** Bound type for an exact score. */
+    public static final int EXACT = 1;
+
+    /** Bound type for a score that is a lower bound, that is, the search failed high. */
+    public static final int LOWER_BOUND = 2;
+
+    /** Bound type for a score that is an upper bound, that is, the search failed low. */
+    public static final int UPPER_BOUND = 3;
+
+    /** The value returned by {@link #probe(long)} if no entry was found. */
+    public static final long NOT_FOUND = 0;
+
+    /** The number of bytes needed for each entry. */
+    private static final int ENTRY_SIZE = 16;
+
+    private static final int MOVE_MASK = 0x7fffff;
+    private static final int DEPTH_MASK = 0xff;
+    private static final int BOUND_MASK = 0x03;
+    private static final int AGE_MASK = 0x3f;
+
+    private static final int DEPTH_OFFSET = 23;
+    private static final int BOUND_OFFSET = 31;
+    private static final int AGE_OFFSET = 33;
+    private static final int SCORE_OFFSET = 39;
+
+    /** The keys of the entries, XOR:ed with the data, to detect entries that were not written atomically. */
+    private final long[] keys;
+
+    /** The packed data of the entries. */
+    private final long[] data;
+
+    /** Mask used to convert a key into an index in the table. */
+    private final int mask;
+
+    /** The age of the current search. */
+    private int age;
+
+    /**
+     * Creates a new transposition table with the given size. The actual number of entries
+     * will be the largest power of two that fits into the given size, but at least one.
+     *
+     * @param sizeInMegabytes The size of the table in megabytes.
+     */
+    public TranspositionTable(final long sizeInMegabytes) {
+        final long maxEntries = Math.min(sizeInMegabytes * 1024 * 1024 / ENTRY_SIZE, 1 << 30);
+        final int numberOfEntries = Integer.highestOneBit((int) Math.max(maxEntries, 1));
+        this.keys = new long[numberOfEntries];
+        this.data = new long[numberOfEntries];
+        this.mask = numberOfEntries - 1;
+    }
+
+    /**
+     * Returns the number of entries in the table.
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Removes all entries from the table, and resets the age.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        age = 0;
+    }
+
+    /**
+     * Increments the age of the table. This should be done before each new search, to make
+     * entries from previous searches replaceable.
+     */
+    public void incrementAge() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Returns the data stored for the given key, or {@link #NOT_FOUND} if no data is stored for the key.
+     */
+    public long probe(final long key) {
+        final int index = (int) key & mask;
+        final long entry = data[index];
+        return ((keys[index] ^ entry) == key) ? entry : NOT_FOUND;
+    }
+
+    /**
+     * Stores data for the given key in the table, unless the slot is occupied by
+     * a more valuable entry from the current search.
+     *
+     * @param key The Zobrist key of the position.
+     * @param move The best move found, or 0 if no best move was found.
+     * @param depth The search depth.
+     * @param bound The bound type of the score.
+     * @param score The score of the position.
+     */
+    public void store(final long key, final int move, final int depth, final int bound, final int score) {
+        final int index = (int) key & mask;
+        final long oldEntry = data[index];
+        if (oldEntry != NOT_FOUND &&
+            getAge(oldEntry) == age &&
+            getDepth(oldEntry) > depth &&
+            (keys[index] ^ oldEntry) != key) {
+            return;
+        }
+        final long entry = (move & MOVE_MASK) |
+                           ((long) (depth & DEPTH_MASK) << DEPTH_OFFSET) |
+                           ((long) bound << BOUND_OFFSET) |
+                           ((long) age << AGE_OFFSET) |
+                           ((long) score << SCORE_OFFSET);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    /**
+     * Returns the best move of the given entry.
+     */
+    public static int getMove(final long entry) {
+        return (int) entry & MOVE_MASK;
+    }
+
+    /**
+     * Returns the search depth of the given entry.
+     */
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> DEPTH_OFFSET) & DEPTH_MASK;
+    }
+
+    /**
+     * Returns the bound type of the given entry.
+     */
+    public static int getBound(final long entry) {
+        return (int) (entry >>> BOUND_OFFSET) & BOUND_MASK;
+    }
+
+    /**
+     * Returns the score of the given entry.
+     */
+    public static int getScore(final long entry) {
+        return (int) (entry >> SCORE_OFFSET);
+    }
+
+    private static int getAge(final long entry) {
+        return (int) (entry >>> AGE_OFFSET) & AGE_MASK;
+    }
+}
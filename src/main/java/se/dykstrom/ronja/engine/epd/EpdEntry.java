@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * A test position read from an EPD file, with the best moves (opcode "bm") and the moves
+ * to avoid (opcode "am") given in the file. A move solves the position if it is one of
+ * the best moves, or if no best moves are given, if it is not one of the moves to avoid.
+ *
+ * @param id The id of the position (opcode "id"), or the line number if no id is given.
+ * @param position The position.
+ * @param bestMoves The best moves, possibly empty.
+ * @param avoidMoves The moves to avoid, possibly empty.
+ * @author Johan Dykstrom
+ */
+public record EpdEntry(String id, Position position, int[] bestMoves, int[] avoidMoves) {
+
+    /**
+     * Returns {@code true} if the given move solves this position.
+     */
+    public boolean isSolution(final int move) {
+        if (move == 0 || contains(avoidMoves, move)) {
+            return false;
+        }
+        return bestMoves.length == 0 || contains(bestMoves, move);
+    }
+
+    private static boolean contains(final int[] moves, final int move) {
+        for (int m : moves) {
+            if (m == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
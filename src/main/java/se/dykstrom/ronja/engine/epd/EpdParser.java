@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.common.parser.IllegalMoveException;
+import se.dykstrom.ronja.common.parser.SanParser;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Parses test positions in Extended Position Description (EPD) format. An EPD line consists of
+ * the first four fields of a FEN string, followed by a number of operations, each terminated by
+ * a semicolon. This parser understands the opcodes "bm" (best move), "am" (avoid move), and
+ * "id" (position id), and ignores all other opcodes. Moves are given in SAN format.
+ * <p>
+ * For a description of the EPD format, see
+ * <a href="https://www.chessprogramming.org/Extended_Position_Description">Chess Programming Wiki</a>.
+ *
+ * @author Johan Dykstrom
+ */
+public final class EpdParser {
+
+    private static final Logger TLOG = Logger.getLogger(EpdParser.class.getName());
+
+    private EpdParser() { }
+
+    /**
+     * Reads all test positions in the given EPD file. Lines that cannot be parsed are logged and skipped.
+     */
+    public static List<EpdEntry> read(final Path path) throws IOException {
+        final List<EpdEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, ISO_8859_1)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    try {
+                        entries.add(parse(line, Integer.toString(lineNumber)));
+                    } catch (ParseException e) {
+                        TLOG.warning("Skipping line " + lineNumber + " '" + line + "': " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Parses a single EPD line. If the line has no "id" opcode, {@code defaultId} is used as id.
+     */
+    public static EpdEntry parse(final String line, final String defaultId) throws ParseException {
+        final String[] fields = line.strip().split("\\s+", 5);
+        final Position position = parsePosition(fields);
+
+        String id = defaultId;
+        int[] bestMoves = new int[0];
+        int[] avoidMoves = new int[0];
+        if (fields.length == 5) {
+            for (String operation : splitOperations(fields[4])) {
+                final String[] tokens = operation.split("\\s+", 2);
+                final String operands = (tokens.length == 2) ? tokens[1] : "";
+                switch (tokens[0]) {
+                    case "bm" -> bestMoves = parseMoves(operands, position);
+                    case "am" -> avoidMoves = parseMoves(operands, position);
+                    case "id" -> id = unquote(operands);
+                    default -> { /* Ignore other opcodes */ }
+                }
+            }
+        }
+        if (bestMoves.length == 0 && avoidMoves.length == 0) {
+            throw new ParseException("no best move or avoid move", 0);
+        }
+        return new EpdEntry(id, position, bestMoves, avoidMoves);
+    }
+
+    /**
+     * Parses the position of a single EPD line, that is, the first four fields. The operations are ignored.
+     */
+    public static Position parsePosition(final String line) throws ParseException {
+        return parsePosition(line.strip().split("\\s+", 5));
+    }
+
+    private static Position parsePosition(final String[] fields) throws ParseException {
+        if (fields.length < 4) {
+            throw new ParseException("invalid number of fields", 0);
+        }
+        return FenParser.parse(fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3] + " 0 1");
+    }
+
+    /**
+     * Splits the operations part of an EPD line into separate operations, without the terminating
+     * semicolons. Semicolons inside quoted strings do not terminate an operation.
+     */
+    static List<String> splitOperations(final String text) {
+        final List<String> operations = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            }
+            if (c == ';' && !quoted) {
+                addOperation(operations, builder);
+            } else {
+                builder.append(c);
+            }
+        }
+        addOperation(operations, builder);
+        return operations;
+    }
+
+    private static void addOperation(final List<String> operations, final StringBuilder builder) {
+        final String operation = builder.toString().strip();
+        if (!operation.isEmpty()) {
+            operations.add(operation);
+        }
+        builder.setLength(0);
+    }
+
+    /**
+     * Parses the given space-separated SAN moves in the given position. Move annotations
+     * like "!" and "?" are removed before parsing.
+     */
+    static int[] parseMoves(final String operands, final Position position) throws ParseException {
+        final String[] sanMoves = operands.strip().split("\\s+");
+        final int[] moves = new int[sanMoves.length];
+        for (int i = 0; i < sanMoves.length; i++) {
+            final String sanMove = sanMoves[i].replace("!", "").replace("?", "");
+            if (!SanParser.isMove(sanMove)) {
+                throw new ParseException("invalid move: " + sanMoves[i], 0);
+            }
+            try {
+                moves[i] = SanParser.parse(sanMove, position);
+            } catch (IllegalMoveException e) {
+                throw new ParseException("illegal move: " + sanMoves[i], 0);
+            }
+        }
+        return moves;
+    }
+
+    private static String unquote(final String text) {
+        final String stripped = text.strip();
+        if (stripped.length() >= 2 && stripped.startsWith("\"") && stripped.endsWith("\"")) {
+            return stripped.substring(1, stripped.length() - 1);
+        }
+        return stripped;
+    }
+}
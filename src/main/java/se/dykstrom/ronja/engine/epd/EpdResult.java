@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+/**
+ * The result of searching a single EPD test position.
+ * <p>
+ * The time and nodes to solution are measured at the end of the first completed search depth, after
+ * which the best move was a solution for all remaining depths. If the position was not solved, they are -1.
+ *
+ * @param entry The test position.
+ * @param move The move found by the search.
+ * @param depth The deepest search depth completed.
+ * @param time The total search time in milliseconds.
+ * @param nodes The total number of nodes searched.
+ * @param timeToSolution The time in milliseconds until the solution was found, or -1.
+ * @param nodesToSolution The number of nodes searched until the solution was found, or -1.
+ * @author Johan Dykstrom
+ */
+public record EpdResult(EpdEntry entry, int move, int depth, long time, long nodes, long timeToSolution, long nodesToSolution) {
+
+    /**
+     * Returns {@code true} if the search found a move that solves the position.
+     */
+    public boolean isSolved() {
+        return timeToSolution >= 0;
+    }
+}
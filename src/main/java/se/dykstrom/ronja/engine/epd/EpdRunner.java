@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.engine.core.SearchListener;
+import se.dykstrom.ronja.engine.time.SearchClock;
+
+/**
+ * Runs a suite of EPD test positions, and measures how long it takes to find the solution of each position.
+ * Each position is searched with a time limit, and optionally a node limit. The positions are searched
+ * concurrently by a number of worker threads, each with its own game and search engine. The search state
+ * is cleared before each position, so the result of a position does not depend on which positions were
+ * searched before it by the same worker.
+ *
+ * @author Johan Dykstrom
+ */
+public class EpdRunner {
+
+    private static final Logger TLOG = Logger.getLogger(EpdRunner.class.getName());
+
+    private final Function<Game, SearchEngine> engineFactory;
+    private final long maxTime;
+    private final long maxNodes;
+    private final int threads;
+
+    /**
+     * Creates a new EPD runner.
+     *
+     * @param engineFactory Creates a search engine for a game, called once for each worker thread.
+     * @param maxTime The maximum search time per position in milliseconds.
+     * @param maxNodes The maximum number of nodes to search per position, or {@link Long#MAX_VALUE} for no limit.
+     * @param threads The number of positions to search concurrently.
+     */
+    public EpdRunner(final Function<Game, SearchEngine> engineFactory, final long maxTime, final long maxNodes, final int threads) {
+        if (maxTime < 1 || maxNodes < 1 || threads < 1) {
+            throw new IllegalArgumentException("invalid EPD runner settings");
+        }
+        this.engineFactory = engineFactory;
+        this.maxTime = maxTime;
+        this.maxNodes = maxNodes;
+        this.threads = threads;
+    }
+
+    /**
+     * Searches all given positions, and returns the results in the same order as the positions.
+     *
+     * @param entries The test positions.
+     * @param listener Notified when each position has been searched. May be called concurrently by several threads.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the searches to finish.
+     */
+    public List<EpdResult> run(final List<EpdEntry> entries, final Consumer<EpdResult> listener) throws InterruptedException {
+        final EpdResult[] results = new EpdResult[entries.size()];
+        final AtomicInteger nextEntry = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(entries.size(), 1)));
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads && i < entries.size(); i++) {
+                futures.add(executor.submit(() -> {
+                    final Worker worker = new Worker();
+                    int index;
+                    while ((index = nextEntry.getAndIncrement()) < entries.size()) {
+                        results[index] = worker.search(entries.get(index));
+                        listener.accept(results[index]);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("EPD run failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * A worker, that is, a game and a search engine that searches in that game. The worker also
+     * listens to the search engine, to keep track of when the solution was found.
+     */
+    private class Worker implements SearchListener {
+
+        private final Game game = new Game(OpeningBook.DEFAULT);
+        private final SearchEngine searchEngine;
+        private final SearchClock clock = new SearchClock();
+
+        private EpdEntry entry;
+        private int depth;
+        private long timeToSolution;
+        private long nodesToSolution;
+
+        Worker() {
+            this.searchEngine = engineFactory.apply(game);
+            this.searchEngine.setMaxNodes(maxNodes);
+            this.searchEngine.setSearchListener(this);
+        }
+
+        EpdResult search(final EpdEntry entry) {
+            this.entry = entry;
+            depth = 0;
+            timeToSolution = -1;
+            nodesToSolution = -1;
+
+            searchEngine.clear();
+            game.setPosition(entry.position());
+            clock.start();
+            final int move = searchEngine.findBestMoveWithinTime(maxTime);
+            final long time = clock.getElapsedTime();
+            if (!entry.isSolution(move)) {
+                timeToSolution = -1;
+                nodesToSolution = -1;
+            }
+            TLOG.fine(() -> "Position " + entry.id() + (isSolved() ? " solved in " + timeToSolution + " ms" : " not solved"));
+            return new EpdResult(entry, move, depth, time, searchEngine.getNodes(), timeToSolution, nodesToSolution);
+        }
+
+        private boolean isSolved() {
+            return timeToSolution >= 0;
+        }
+
+        @Override
+        public void depthCompleted(final int depth, final int bestMove, final int score, final long nodes, final long elapsedTime) {
+            this.depth = depth;
+            if (!entry.isSolution(bestMove)) {
+                timeToSolution = -1;
+                nodesToSolution = -1;
+            } else if (!isSolved()) {
+                timeToSolution = elapsedTime;
+                nodesToSolution = nodes;
+            }
+        }
+    }
+}
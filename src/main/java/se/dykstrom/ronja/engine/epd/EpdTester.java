@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import se.dykstrom.ronja.common.parser.SanParser;
+import se.dykstrom.ronja.engine.core.NnueNetwork;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+
+/**
+ * A tool that runs an EPD test suite, and reports the time and nodes to solution for each position.
+ * Each position is searched until the time or node limit is reached, and the search engines are
+ * configured with the given transposition table size, and optionally a neural network.
+ * <p>
+ * Usage: EpdTester [-t MILLIS] [-n NODES] [-c THREADS] [--hash MB] [--nnue NETWORK] INPUT
+ *
+ * @author Johan Dykstrom
+ */
+public class EpdTester {
+
+    private static final String USAGE = "Usage: EpdTester [-t MILLIS] [-n NODES] [-c THREADS] [--hash MB] [--nnue NETWORK] INPUT";
+
+    /** The default search time per position in milliseconds. */
+    private static final long DEFAULT_TIME = 5000;
+
+    /** The default transposition table size in megabytes per thread. */
+    private static final long DEFAULT_HASH_SIZE = 16;
+
+    /** The evaluation cache size in megabytes per thread. */
+    private static final long EVAL_CACHE_SIZE = 4;
+
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long maxTime = DEFAULT_TIME;
+        long maxNodes = Long.MAX_VALUE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long hashSize = DEFAULT_HASH_SIZE;
+        Path networkFile = null;
+        Path input = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-t" -> maxTime = Long.parseLong(args[++i]);
+                    case "-n" -> maxNodes = Long.parseLong(args[++i]);
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    case "--hash" -> hashSize = Long.parseLong(args[++i]);
+                    case "--nnue" -> networkFile = Path.of(args[++i]);
+                    default -> {
+                        if (input == null) {
+                            input = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("too many arguments");
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            input = null;
+        }
+        if (input == null) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final List<EpdEntry> entries = EpdParser.read(input);
+        final NnueNetwork network = (networkFile != null) ? NnueNetwork.load(networkFile) : null;
+
+        final long finalHashSize = hashSize;
+        final EpdRunner runner = new EpdRunner(game -> new SearchEngine(game, finalHashSize, EVAL_CACHE_SIZE, network), maxTime, maxNodes, threads);
+        final long start = System.nanoTime();
+        final List<EpdResult> results = runner.run(entries, EpdTester::printResult);
+        final long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        final List<EpdResult> solved = results.stream().filter(EpdResult::isSolved).toList();
+        System.out.printf("Solved %d/%d positions in %d ms%n", solved.size(), results.size(), elapsed);
+        System.out.printf("Total time to solution: %d ms, total nodes to solution: %d%n",
+                          solved.stream().mapToLong(EpdResult::timeToSolution).sum(),
+                          solved.stream().mapToLong(EpdResult::nodesToSolution).sum());
+        results.stream().filter(result -> !result.isSolved()).forEach(result -> System.out.println("Not solved: " + result.entry().id()));
+    }
+
+    @SuppressWarnings("java:S106")
+    private static synchronized void printResult(final EpdResult result) {
+        final String move = (result.move() != 0) ? SanParser.format(result.entry().position(), result.move()) : "-";
+        if (result.isSolved()) {
+            System.out.printf("%-20s %-8s solved  depth %2d, time %6d ms, nodes %10d%n", result.entry().id(), move, result.depth(),
+                              result.timeToSolution(), result.nodesToSolution());
+        } else {
+            System.out.printf("%-20s %-8s failed  depth %2d%n", result.entry().id(), move, result.depth());
+        }
+    }
+}
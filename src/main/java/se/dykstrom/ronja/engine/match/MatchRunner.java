@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.engine.time.SearchClock;
+import se.dykstrom.ronja.engine.time.TimeData;
+import se.dykstrom.ronja.engine.time.TimeUtils;
+import se.dykstrom.ronja.engine.utils.PositionUtils;
+
+/**
+ * Runs a match between two engines in the same JVM, playing many games concurrently. Each thread creates
+ * its own pair of engines, and reuses them for all games it plays. The engines share the static attack
+ * tables and the opening book, which are both read-only.
+ * <p>
+ * The games start from openings selected randomly from the opening book. Each opening is played twice,
+ * with the engines switching colors, to reduce the influence of unbalanced openings. Results are always
+ * counted from the perspective of the first engine. If an SPRT is configured, the match stops as soon as
+ * the SPRT accepts one of its hypotheses.
+ * <p>
+ * An engine loses on time if it uses more than its remaining time for a move.
+ *
+ * @author Johan Dykstrom
+ */
+public class MatchRunner {
+
+    private static final Logger TLOG = Logger.getLogger(MatchRunner.class.getName());
+
+    private final OpeningBook book;
+
+    private final MatchSettings settings;
+
+    /** Creates the engines. */
+    private final Function<Game, SearchEngine> firstEngineFactory;
+    private final Function<Game, SearchEngine> secondEngineFactory;
+
+    /** Notified after each game, with the updated statistics. */
+    private final Consumer<MatchStatistics> listener;
+
+    /** The index of the next pair of games to play. */
+    private final AtomicInteger nextPair = new AtomicInteger();
+
+    /** Set when the match should stop, because the SPRT has finished. */
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    /** The statistics of all games played so far, guarded by this object. */
+    private MatchStatistics statistics = MatchStatistics.EMPTY;
+
+    /** The result of the SPRT, guarded by this object. */
+    private Sprt.Result sprtResult = Sprt.Result.CONTINUE;
+
+    public MatchRunner(final OpeningBook book,
+                       final MatchSettings settings,
+                       final Function<Game, SearchEngine> firstEngineFactory,
+                       final Function<Game, SearchEngine> secondEngineFactory,
+                       final Consumer<MatchStatistics> listener) {
+        this.book = book;
+        this.settings = settings;
+        this.firstEngineFactory = firstEngineFactory;
+        this.secondEngineFactory = secondEngineFactory;
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the match, and returns the final statistics when all games have been played,
+     * or when the SPRT has finished.
+     *
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the match to finish.
+     */
+    public MatchStatistics run() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(settings.threads());
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < settings.threads(); i++) {
+                futures.add(executor.submit(this::playGames));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("match failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return getStatistics();
+    }
+
+    /**
+     * Returns the statistics of all games played so far.
+     */
+    public synchronized MatchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the result of the SPRT, or {@link Sprt.Result#CONTINUE} if no SPRT was configured,
+     * or it has not finished yet.
+     */
+    public synchronized Sprt.Result getSprtResult() {
+        return sprtResult;
+    }
+
+    /**
+     * Plays pairs of games until all games have been played, or the match is stopped.
+     */
+    private void playGames() {
+        final Engine first = new Engine(firstEngineFactory);
+        final Engine second = new Engine(secondEngineFactory);
+        int pair;
+        while (!stopped.get() && (pair = nextPair.getAndIncrement()) * 2 < settings.games()) {
+            final int[] opening = selectOpening(new Random(settings.seed() + pair));
+            addResult(playGame(opening, first, second));
+            if (pair * 2 + 1 < settings.games() && !stopped.get()) {
+                addResult(1.0 - playGame(opening, second, first));
+            }
+        }
+    }
+
+    private synchronized void addResult(final double score) {
+        statistics = statistics.withResult(score);
+        if (settings.sprt() != null && sprtResult == Sprt.Result.CONTINUE) {
+            sprtResult = settings.sprt().test(statistics);
+            if (sprtResult != Sprt.Result.CONTINUE) {
+                TLOG.info("SPRT finished with " + sprtResult + " after " + statistics.games() + " games");
+                stopped.set(true);
+            }
+        }
+        listener.accept(statistics);
+    }
+
+    /**
+     * Selects an opening by making random book moves from the start position, weighted by their
+     * book weights, until there are no more book moves, or the maximum number of plies is reached.
+     */
+    int[] selectOpening(final Random random) {
+        return book.findRandomLine(random, settings.openingPlies());
+    }
+
+    /**
+     * Plays a single game from the given opening, and returns the score of the white engine.
+     */
+    double playGame(final int[] opening, final Engine white, final Engine black) {
+        white.startGame(opening);
+        black.startGame(opening);
+
+        final SearchClock clock = new SearchClock();
+        for (int ply = opening.length; ply < settings.maxPlies(); ply++) {
+            final Position position = white.game.getPosition();
+            if (PositionUtils.isCheckMate(position)) {
+                return position.isWhiteMove() ? 0.0 : 1.0;
+            }
+            if (PositionUtils.isDraw(position, white.game)) {
+                return 0.5;
+            }
+
+            final Engine engine = position.isWhiteMove() ? white : black;
+            final TimeData timeData = engine.game.getTimeData();
+            final long availableTime = TimeUtils.calculateTimeForNextMove(engine.game.getTimeControl(), timeData);
+            clock.start();
+            final int move = engine.searchEngine.findBestMoveWithinTime(availableTime);
+            final long usedTime = clock.getElapsedTime();
+            if (usedTime > timeData.remainingTime()) {
+                TLOG.fine(() -> (position.isWhiteMove() ? "White" : "Black") + " lost on time, used " + usedTime + " ms");
+                return position.isWhiteMove() ? 0.0 : 1.0;
+            }
+            engine.game.updateTimeDataAfterMove(usedTime);
+
+            white.game.makeMove(move);
+            black.game.makeMove(move);
+        }
+        return 0.5;
+    }
+
+    /**
+     * An engine, that is, a game and a search engine that searches in that game.
+     */
+    class Engine {
+
+        private final Game game = new Game(OpeningBook.DEFAULT);
+        private final SearchEngine searchEngine;
+
+        Engine(final Function<Game, SearchEngine> factory) {
+            this.searchEngine = factory.apply(game);
+        }
+
+        /**
+         * Prepares for a new game, by clearing the search state, resetting the clock,
+         * and making the opening moves.
+         */
+        void startGame(final int[] opening) {
+            searchEngine.clear();
+            game.setPosition(Position.START);
+            for (int move : opening) {
+                game.makeMove(move);
+            }
+            game.setTimeControl(settings.timeControl());
+            game.setTimeData(TimeData.from(settings.timeControl()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+import se.dykstrom.ronja.engine.time.TimeControl;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The settings of a match between two engines.
+ *
+ * @param timeControl The time control used by both engines.
+ * @param games The maximum number of games to play. Each opening is played twice, with colors reversed.
+ * @param threads The number of games to play concurrently.
+ * @param openingPlies The maximum number of plies to play from the opening book before the engines take over.
+ * @param maxPlies The number of plies after which a game is adjudicated as a draw, at most {@link #MAX_PLIES}.
+ * @param seed The seed used to select openings, so matches can be repeated with the same openings.
+ * @param sprt The SPRT used to stop the match early, or {@code null} to play all games.
+ * @author Johan Dykstrom
+ */
+public record MatchSettings(TimeControl timeControl, int games, int threads, int openingPlies, int maxPlies, long seed, Sprt sprt) {
+
+    /** The maximum number of plies in a game, limited by the size of the game history. */
+    public static final int MAX_PLIES = 400;
+
+    public MatchSettings {
+        requireNonNull(timeControl);
+        if (games < 1 || threads < 1 || openingPlies < 0 || maxPlies < 1 || maxPlies > MAX_PLIES) {
+            throw new IllegalArgumentException("invalid match settings");
+        }
+    }
+}
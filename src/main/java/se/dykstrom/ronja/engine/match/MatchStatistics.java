@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+/**
+ * The results of a match between two engines, seen from the perspective of the first engine,
+ * with methods to calculate the Elo difference, its error bars, and the log-likelihood ratio
+ * used by the sequential probability ratio test (SPRT).
+ * <p>
+ * Objects of this class are immutable.
+ *
+ * @author Johan Dykstrom
+ */
+public record MatchStatistics(int wins, int draws, int losses) {
+
+    /** The z-value of a two-sided 95% confidence interval. */
+    private static final double Z_95 = 1.959964;
+
+    public static final MatchStatistics EMPTY = new MatchStatistics(0, 0, 0);
+
+    /**
+     * Returns a copy of these statistics, with the given game result added.
+     *
+     * @param score The score of the first engine in the game: 1.0 for a win, 0.5 for a draw, and 0.0 for a loss.
+     */
+    public MatchStatistics withResult(final double score) {
+        if (score == 1.0) {
+            return new MatchStatistics(wins + 1, draws, losses);
+        } else if (score == 0.5) {
+            return new MatchStatistics(wins, draws + 1, losses);
+        } else {
+            return new MatchStatistics(wins, draws, losses + 1);
+        }
+    }
+
+    /**
+     * Returns the total number of games.
+     */
+    public int games() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * Returns the average score per game of the first engine, or 0.5 if no games have been played.
+     */
+    public double score() {
+        return (games() == 0) ? 0.5 : (wins + 0.5 * draws) / games();
+    }
+
+    /**
+     * Returns the variance of the score of a single game.
+     */
+    public double variance() {
+        if (games() == 0) {
+            return 0;
+        }
+        final double score = score();
+        return (wins * square(1 - score) + draws * square(0.5 - score) + losses * square(score)) / games();
+    }
+
+    /**
+     * Returns the Elo difference between the first and the second engine.
+     */
+    public double elo() {
+        return toElo(score());
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the Elo difference.
+     */
+    public double eloError() {
+        if (games() == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        final double margin = Z_95 * Math.sqrt(variance() / games());
+        return (toElo(score() + margin) - toElo(score() - margin)) / 2;
+    }
+
+    /**
+     * Returns the log-likelihood ratio of the hypothesis that the Elo difference is {@code elo1},
+     * over the hypothesis that it is {@code elo0}. This uses the normal approximation of the
+     * generalized SPRT, which is accurate when the number of games is large.
+     */
+    public double llr(final double elo0, final double elo1) {
+        final double variance = variance();
+        if (variance == 0) {
+            return 0;
+        }
+        final double score0 = toScore(elo0);
+        final double score1 = toScore(elo1);
+        return games() * (score1 - score0) * (2 * score() - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * Converts an average score to an Elo difference, using the logistic model.
+     */
+    static double toElo(final double score) {
+        if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        } else if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Converts an Elo difference to an expected average score, using the logistic model.
+     */
+    static double toScore(final double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double square(final double value) {
+        return value * value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Games: %d, W/D/L: %d/%d/%d, score: %.1f%%, Elo: %.1f +/- %.1f",
+                             games(), wins, draws, losses, score() * 100, elo(), eloError());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.function.Function;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.book.OpeningBookLoader;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.engine.core.NnueNetwork;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.engine.time.TimeControl;
+import se.dykstrom.ronja.engine.time.TimeUtils;
+
+/**
+ * A tool that runs a concurrent self-play match between two engine configurations in the same JVM.
+ * The time control is given in XBoard level format, for example "40 5 0", or as a fixed number of
+ * seconds per move. If no opening book is given, openings are selected from the built-in book.
+ * With option --sprt, the match stops when the sequential probability ratio test finishes.
+ * <p>
+ * Usage: SelfPlayMatch [-b BOOK] [-g GAMES] [-c THREADS] [-l LEVEL | --st SECONDS] [-p PLIES] [--max-plies PLIES]
+ * [--seed SEED] [--hash MB] [--nnue1 NETWORK] [--nnue2 NETWORK] [--sprt] [--elo0 ELO] [--elo1 ELO] [--alpha ALPHA] [--beta BETA]
+ *
+ * @author Johan Dykstrom
+ */
+public class SelfPlayMatch {
+
+    private static final String USAGE = "Usage: SelfPlayMatch [-b BOOK] [-g GAMES] [-c THREADS] [-l LEVEL | --st SECONDS] [-p PLIES] " +
+                                        "[--max-plies PLIES] [--seed SEED] [--hash MB] [--nnue1 NETWORK] [--nnue2 NETWORK] " +
+                                        "[--sprt] [--elo0 ELO] [--elo1 ELO] [--alpha ALPHA] [--beta BETA]";
+
+    /** The default maximum number of games. */
+    private static final int DEFAULT_GAMES = 1000;
+
+    /** The default time control, one minute plus one second per move. */
+    private static final String DEFAULT_LEVEL = "0 1 1";
+
+    /** The default maximum number of book plies. */
+    private static final int DEFAULT_OPENING_PLIES = 8;
+
+    /** The default number of plies after which a game is adjudicated as a draw. */
+    private static final int DEFAULT_MAX_PLIES = 300;
+
+    /** The default transposition table size in megabytes per engine. */
+    private static final long DEFAULT_HASH_SIZE = 16;
+
+    /** The evaluation cache size in megabytes per engine. */
+    private static final long EVAL_CACHE_SIZE = 4;
+
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+        Path bookFile = null;
+        int games = DEFAULT_GAMES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String level = DEFAULT_LEVEL;
+        String secondsPerMove = null;
+        int openingPlies = DEFAULT_OPENING_PLIES;
+        int maxPlies = DEFAULT_MAX_PLIES;
+        long seed = System.nanoTime();
+        long hashSize = DEFAULT_HASH_SIZE;
+        Path firstNetworkFile = null;
+        Path secondNetworkFile = null;
+        boolean useSprt = false;
+        double elo0 = 0;
+        double elo1 = 5;
+        double alpha = 0.05;
+        double beta = 0.05;
+        boolean valid = true;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-b" -> bookFile = Path.of(args[++i]);
+                    case "-g" -> games = Integer.parseInt(args[++i]);
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    case "-l" -> level = args[++i];
+                    case "--st" -> secondsPerMove = args[++i];
+                    case "-p" -> openingPlies = Integer.parseInt(args[++i]);
+                    case "--max-plies" -> maxPlies = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--hash" -> hashSize = Long.parseLong(args[++i]);
+                    case "--nnue1" -> firstNetworkFile = Path.of(args[++i]);
+                    case "--nnue2" -> secondNetworkFile = Path.of(args[++i]);
+                    case "--sprt" -> useSprt = true;
+                    case "--elo0" -> elo0 = Double.parseDouble(args[++i]);
+                    case "--elo1" -> elo1 = Double.parseDouble(args[++i]);
+                    case "--alpha" -> alpha = Double.parseDouble(args[++i]);
+                    case "--beta" -> beta = Double.parseDouble(args[++i]);
+                    default -> throw new IllegalArgumentException("unknown argument: " + args[i]);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            valid = false;
+        }
+        if (!valid) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final OpeningBook book = (bookFile != null) ? OpeningBookLoader.load(bookFile.toFile()) : OpeningBook.DEFAULT;
+        final TimeControl timeControl = (secondsPerMove != null) ? TimeUtils.parseStText(secondsPerMove) : TimeUtils.parseLevelText(level);
+        final NnueNetwork firstNetwork = (firstNetworkFile != null) ? NnueNetwork.load(firstNetworkFile) : null;
+        final NnueNetwork secondNetwork = (secondNetworkFile != null) ? NnueNetwork.load(secondNetworkFile) : null;
+
+        final Sprt sprt = useSprt ? new Sprt(elo0, elo1, alpha, beta) : null;
+        final MatchSettings settings = new MatchSettings(timeControl, games, threads, openingPlies, maxPlies, seed, sprt);
+        final long finalHashSize = hashSize;
+        final Function<Game, SearchEngine> firstFactory = game -> new SearchEngine(game, finalHashSize, EVAL_CACHE_SIZE, firstNetwork);
+        final Function<Game, SearchEngine> secondFactory = game -> new SearchEngine(game, finalHashSize, EVAL_CACHE_SIZE, secondNetwork);
+        final MatchRunner runner = new MatchRunner(book, settings, firstFactory, secondFactory, SelfPlayMatch::printProgress);
+
+        final long start = System.nanoTime();
+        final MatchStatistics statistics = runner.run();
+        final long elapsed = (System.nanoTime() - start) / 1_000_000_000;
+        System.out.println("Final result after " + elapsed + " s: " + statistics);
+        if (sprt != null) {
+            System.out.printf("SPRT [%.1f, %.1f]: %s, LLR = %.2f [%.2f, %.2f]%n", elo0, elo1, runner.getSprtResult(),
+                              statistics.llr(elo0, elo1), sprt.lowerBound(), sprt.upperBound());
+        }
+    }
+
+    @SuppressWarnings("java:S106")
+    private static void printProgress(final MatchStatistics statistics) {
+        if (statistics.games() % 10 == 0) {
+            System.out.println(statistics);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+/**
+ * The parameters of a sequential probability ratio test (SPRT), that is used to stop a match as soon as
+ * there is enough evidence that the Elo difference is {@code elo1} rather than {@code elo0}, or vice versa.
+ * The test is run after each game, and the match can be stopped as soon as the result is not
+ * {@link Result#CONTINUE}.
+ *
+ * @param elo0 The Elo difference of the null hypothesis.
+ * @param elo1 The Elo difference of the alternative hypothesis.
+ * @param alpha The probability of accepting H1 when H0 is true (false positive).
+ * @param beta The probability of accepting H0 when H1 is true (false negative).
+ * @author Johan Dykstrom
+ */
+public record Sprt(double elo0, double elo1, double alpha, double beta) {
+
+    public enum Result { ACCEPT_H0, ACCEPT_H1, CONTINUE }
+
+    public Sprt {
+        if (elo0 >= elo1) {
+            throw new IllegalArgumentException("elo0 must be less than elo1");
+        }
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("alpha and beta must be between 0 and 1");
+        }
+    }
+
+    /**
+     * Returns the lower bound of the log-likelihood ratio, below which H0 is accepted.
+     */
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    /**
+     * Returns the upper bound of the log-likelihood ratio, above which H1 is accepted.
+     */
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Tests the given match statistics.
+     */
+    public Result test(final MatchStatistics statistics) {
+        final double llr = statistics.llr(elo0, elo1);
+        if (llr >= upperBound()) {
+            return Result.ACCEPT_H1;
+        } else if (llr <= lowerBound()) {
+            return Result.ACCEPT_H0;
+        } else {
+            return Result.CONTINUE;
+        }
+    }
+}
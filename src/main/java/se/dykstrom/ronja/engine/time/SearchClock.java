@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.time;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A clock used to measure the time spent searching. The clock is based on {@link System#nanoTime()},
+ * which is monotonic, and unlike the wall-clock time is not affected by adjustments of the system time.
+ *
+ * @author Johan Dykstrom
+ */
+public final class SearchClock {
+
+    /** The time the clock was started, in nanoseconds. */
+    private long startTime;
+
+    /** The time limit in nanoseconds, relative to the start time. */
+    private long timeLimit = Long.MAX_VALUE;
+
+    /**
+     * Starts the clock without any time limit.
+     */
+    public void start() {
+        start(Long.MAX_VALUE);
+    }
+
+    /**
+     * Starts the clock with the given time limit.
+     *
+     * @param maxTime The time limit in milliseconds.
+     */
+    public void start(final long maxTime) {
+        startTime = System.nanoTime();
+        timeLimit = (maxTime >= NANOSECONDS.toMillis(Long.MAX_VALUE)) ? Long.MAX_VALUE : MILLISECONDS.toNanos(maxTime);
+    }
+
+    /**
+     * Returns the time elapsed since the clock was started, in milliseconds.
+     */
+    public long getElapsedTime() {
+        return NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Returns the time remaining until the time limit is reached, in milliseconds.
+     * If there is no time limit, this method returns {@link Long#MAX_VALUE}.
+     */
+    public long getRemainingTime() {
+        if (timeLimit == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return NANOSECONDS.toMillis(timeLimit - (System.nanoTime() - startTime));
+    }
+
+    /**
+     * Returns {@code true} if the time limit has been reached.
+     */
+    public boolean isOutOfTime() {
+        return System.nanoTime() - startTime >= timeLimit;
+    }
+}
@@ -46,6 +46,9 @@ public final class TimeUtils {
     // Base time is given as MIN or MIN:SEC, possibly followed by other characters that can be ignored for now
     private static final Pattern BASE_TIME_PATTERN = Pattern.compile("([0-9]+)(:[0-9]+)?.*");
 
+    /** The minimum time in millis to allocate for a move, regardless of the move overhead. */
+    private static final long MIN_TIME_FOR_MOVE = 1;
+
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ISO_TIME;
 
     private TimeUtils() { }
@@ -151,6 +154,22 @@ public final class TimeUtils {
         }
     }
 
+    /**
+     * Calculates the amount of time available in millis for the next move, taking into account
+     * the given move overhead. The move overhead is a margin that compensates for the time it
+     * takes to communicate the move to the GUI.
+     *
+     * @param timeControl The time control.
+     * @param timeData The remaining time and moves.
+     * @param moveOverhead The move overhead in millis.
+     * @return The time available for the next move, minus the move overhead.
+     */
+    public static long calculateTimeForNextMove(final TimeControl timeControl,
+                                                final TimeData timeData,
+                                                final long moveOverhead) {
+        return Math.max(calculateTimeForNextMove(timeControl, timeData) - moveOverhead, MIN_TIME_FOR_MOVE);
+    }
+
     /**
      * Estimates the time it will take to find the best move at the next search depth,
      * by looking at the previous search times.
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import se.dykstrom.ronja.engine.core.EvaluationWeights;
+
+/**
+ * A tool that tunes the evaluation weights with Texel's tuning method, using labeled positions read from
+ * EPD, PGN, or training data files. Files ending with .pgn are read as PGN, files ending with .tdat as
+ * training data, and all other files as EPD.
+ * <p>
+ * Usage: EvaluatorTuner [-i ITERATIONS] [-s STEP] [-c THREADS] INPUT...
+ *
+ * @author Johan Dykstrom
+ */
+public class EvaluatorTuner {
+
+    private static final String USAGE = "Usage: EvaluatorTuner [-i ITERATIONS] [-s STEP] [-c THREADS] INPUT...";
+
+    /** The default maximum number of iterations. */
+    private static final int DEFAULT_ITERATIONS = 100;
+
+    /** The default amount to change a weight by in each step. */
+    private static final int DEFAULT_STEP = 5;
+
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException {
+        int iterations = DEFAULT_ITERATIONS;
+        int step = DEFAULT_STEP;
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<Path> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-i" -> iterations = Integer.parseInt(args[++i]);
+                    case "-s" -> step = Integer.parseInt(args[++i]);
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    default -> inputs.add(Path.of(args[i]));
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            inputs.clear();
+        }
+        if (inputs.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final TuningPositions positions = new TuningPositions();
+        for (Path input : inputs) {
+            final long start = System.nanoTime();
+            final int count = TuningDataReader.read(input, positions);
+            System.out.printf("Read %d positions from %s in %d ms%n", count, input, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (positions.size() == 0) {
+            System.err.println("No positions found");
+            System.exit(1);
+        }
+        positions.trimToSize();
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final TexelTuner tuner = new TexelTuner(positions, pool);
+            final long start = System.nanoTime();
+            final EvaluationWeights weights = tuner.tune(EvaluationWeights.DEFAULT, step, iterations);
+            final long elapsed = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Tuned %d positions with %d error computations in %d ms%n", positions.size(), tuner.getEvaluations(), elapsed);
+            for (int i = 0; i < EvaluationWeights.SIZE; i++) {
+                System.out.printf("%-16s %6d -> %6d%n", EvaluationWeights.getName(i), EvaluationWeights.DEFAULT.get(i), weights.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.Evaluator;
+import se.dykstrom.ronja.engine.core.FullMoveGenerator;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.engine.core.SearchListener;
+import se.dykstrom.ronja.engine.utils.PositionUtils;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static se.dykstrom.ronja.engine.core.Evaluator.CHECK_MATE_VALUE;
+
+/**
+ * Generates training data by letting the engine play games against itself. The games are played concurrently,
+ * and each thread creates its own game and search engine, and reuses them for all games it plays. Each move is
+ * searched to a fixed depth, or a fixed number of nodes, which is much faster than searching with a clock.
+ * <p>
+ * The games start from openings selected randomly from the opening book, followed by a number of random moves,
+ * so the games are varied even if the book is small. When a game is finished, all quiet positions that were
+ * searched in the game are written, together with their search scores and the result of the game. A position
+ * is quiet if the side to move is not in check, and the best move is not a capture or a promotion. Positions
+ * with a mate score are not written, because their score does not say anything about the evaluation.
+ * <p>
+ * The progress is reported periodically to a listener, from the thread that called {@link #run(TrainingDataWriter)}.
+ *
+ * @author Johan Dykstrom
+ */
+public class SelfPlayGenerator {
+
+    private static final Logger TLOG = Logger.getLogger(SelfPlayGenerator.class.getName());
+
+    /** The maximum search time per move, if searching a fixed number of nodes. */
+    private static final long MAX_SEARCH_TIME = 60_000;
+
+    private final OpeningBook book;
+
+    private final SelfPlaySettings settings;
+
+    /** Creates the search engines. */
+    private final Function<Game, SearchEngine> engineFactory;
+
+    /** Notified periodically with the current progress. */
+    private final Consumer<SelfPlayProgress> listener;
+
+    /** The time between progress reports in milliseconds. */
+    private final long reportInterval;
+
+    /** The index of the next game to play. */
+    private final AtomicInteger nextGame = new AtomicInteger();
+
+    /** The number of games played, and positions written, so far. */
+    private final AtomicInteger games = new AtomicInteger();
+    private final AtomicLong positions = new AtomicLong();
+
+    /** All workers, guarded by the list itself. */
+    private final List<Worker> workers = new ArrayList<>();
+
+    /** The time the run started, from {@link System#nanoTime()}. */
+    private long startTime;
+
+    public SelfPlayGenerator(final OpeningBook book,
+                             final SelfPlaySettings settings,
+                             final Function<Game, SearchEngine> engineFactory,
+                             final Consumer<SelfPlayProgress> listener,
+                             final long reportInterval) {
+        this.book = book;
+        this.settings = settings;
+        this.engineFactory = engineFactory;
+        this.listener = listener;
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Plays all games, and writes the positions using {@code writer}. Returns the final progress
+     * when all games have been played.
+     *
+     * @throws IOException If writing fails.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the games to finish.
+     */
+    public SelfPlayProgress run(final TrainingDataWriter writer) throws IOException, InterruptedException {
+        startTime = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(settings.threads());
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < settings.threads(); i++) {
+                futures.add(executor.submit(() -> {
+                    playGames(writer);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(reportInterval, MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        listener.accept(getProgress());
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new IllegalStateException("self-play failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        final SelfPlayProgress progress = getProgress();
+        TLOG.fine(() -> "Finished self-play: " + progress);
+        return progress;
+    }
+
+    /**
+     * Returns the progress so far.
+     */
+    public SelfPlayProgress getProgress() {
+        final long[] nodesPerSecond;
+        synchronized (workers) {
+            nodesPerSecond = workers.stream().mapToLong(Worker::getNodesPerSecond).toArray();
+        }
+        return new SelfPlayProgress(games.get(), positions.get(), (System.nanoTime() - startTime) / 1_000_000, nodesPerSecond);
+    }
+
+    /**
+     * Plays games until all games have been played.
+     */
+    private void playGames(final TrainingDataWriter writer) throws IOException {
+        final Worker worker = new Worker();
+        synchronized (workers) {
+            workers.add(worker);
+        }
+        int index;
+        while ((index = nextGame.getAndIncrement()) < settings.games()) {
+            final List<TrainingRecord> records = worker.playGame(new Random(settings.seed() + index));
+            writer.write(records);
+            positions.addAndGet(records.size());
+            games.incrementAndGet();
+        }
+    }
+
+    /**
+     * A worker, that is, a game and a search engine that searches in that game. The worker also
+     * listens to the search engine, to get the score of the last completed iteration.
+     */
+    class Worker implements SearchListener {
+
+        private final Game game = new Game(OpeningBook.DEFAULT);
+        private final SearchEngine searchEngine;
+        private final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+
+        /** The positions searched in the current game, and their scores. */
+        private final List<Position> gamePositions = new ArrayList<>();
+        private final List<Integer> gameScores = new ArrayList<>();
+
+        /** The search statistics of this worker, read by other threads. */
+        private volatile long nodes;
+        private volatile long searchTime;
+
+        private int lastScore;
+
+        Worker() {
+            this.searchEngine = engineFactory.apply(game);
+            this.searchEngine.setSearchListener(this);
+            if (settings.depth() == 0) {
+                this.searchEngine.setMaxNodes(settings.nodes());
+            }
+        }
+
+        /**
+         * Plays a single game, and returns the quiet positions searched in the game, labeled with their
+         * scores and the result of the game.
+         */
+        List<TrainingRecord> playGame(final Random random) {
+            searchEngine.clear();
+            game.setPosition(Position.START);
+            final int[] opening = book.findRandomLine(random, settings.openingPlies());
+            for (int move : opening) {
+                game.makeMove(move);
+            }
+            gamePositions.clear();
+            gameScores.clear();
+
+            final double result = playMoves(random, opening.length);
+            final List<TrainingRecord> records = new ArrayList<>(gamePositions.size());
+            for (int i = 0; i < gamePositions.size(); i++) {
+                records.add(new TrainingRecord(gamePositions.get(i), gameScores.get(i), result));
+            }
+            return records;
+        }
+
+        /**
+         * Plays the random moves, and then the searched moves, until the game is over.
+         * Returns the result of the game from white's perspective.
+         */
+        private double playMoves(final Random random, final int openingPlies) {
+            int randomPlies = settings.randomPlies();
+            for (int ply = openingPlies; ply < settings.maxPlies(); ply++) {
+                final Position position = game.getPosition();
+                if (PositionUtils.isCheckMate(position)) {
+                    return position.isWhiteMove() ? 0.0 : 1.0;
+                }
+                if (PositionUtils.isDraw(position, game)) {
+                    return 0.5;
+                }
+
+                final int move;
+                if (randomPlies > 0) {
+                    move = findRandomMove(position, random);
+                    randomPlies--;
+                } else {
+                    move = search();
+                    if (isQuiet(position, move) && Math.abs(lastScore) < Math.abs(CHECK_MATE_VALUE)) {
+                        gamePositions.add(position);
+                        gameScores.add(Evaluator.toCentipawns(lastScore));
+                    }
+                }
+                game.makeMove(move);
+            }
+            return 0.5;
+        }
+
+        /**
+         * Searches the current position, and returns the best move.
+         */
+        private int search() {
+            lastScore = 0;
+            final long start = System.nanoTime();
+            final int move = (settings.depth() > 0) ? searchEngine.findBestMove(settings.depth())
+                                                    : searchEngine.findBestMoveWithinTime(MAX_SEARCH_TIME);
+            searchTime += System.nanoTime() - start;
+            nodes += searchEngine.getNodes();
+            return move;
+        }
+
+        /**
+         * Returns a random legal move in the given position. The position must not be checkmate or stalemate.
+         */
+        private int findRandomMove(final Position position, final Random random) {
+            final int numberOfMoves = moveGenerator.generateMoves(position, 0);
+            final int[] legalMoves = new int[numberOfMoves];
+            int numberOfLegalMoves = 0;
+            for (int i = 0; i < numberOfMoves; i++) {
+                final int move = moveGenerator.moves[0][i];
+                if (!position.withMove(move).isIllegalCheck()) {
+                    legalMoves[numberOfLegalMoves++] = move;
+                }
+            }
+            return legalMoves[random.nextInt(numberOfLegalMoves)];
+        }
+
+        private static boolean isQuiet(final Position position, final int move) {
+            return !position.isCheck(position.getActiveColor()) && !Move.isCapture(move) && !Move.isPromotion(move);
+        }
+
+        long getNodesPerSecond() {
+            final long time = searchTime;
+            return (time > 0) ? nodes * 1_000_000_000L / time : 0;
+        }
+
+        @Override
+        public void depthCompleted(final int depth, final int bestMove, final int score, final long nodes, final long elapsedTime) {
+            lastScore = score;
+        }
+    }
+}
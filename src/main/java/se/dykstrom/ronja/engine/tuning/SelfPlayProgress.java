@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The progress of a self-play training data generation run.
+ *
+ * @param games The number of games played so far.
+ * @param positions The number of positions written so far.
+ * @param elapsedTime The time elapsed since the run started, in milliseconds.
+ * @param nodesPerSecond The search speed of each worker thread, in nodes per second.
+ * @author Johan Dykstrom
+ */
+public record SelfPlayProgress(int games, long positions, long elapsedTime, long[] nodesPerSecond) {
+
+    /**
+     * Returns the number of positions written per second.
+     */
+    public double positionsPerSecond() {
+        return positions * 1000.0 / Math.max(elapsedTime, 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games, %d positions in %.1f s (%.1f positions/s), NPS per thread: %s",
+                             games, positions, elapsedTime / 1000.0, positionsPerSecond(),
+                             Arrays.stream(nodesPerSecond).mapToObj(Long::toString).collect(Collectors.joining(" ")));
+    }
+}
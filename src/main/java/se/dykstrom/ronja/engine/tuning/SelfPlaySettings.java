@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+/**
+ * The settings of a self-play training data generation run. Each move is searched either to a fixed
+ * depth, or to a fixed number of nodes.
+ *
+ * @param games The number of games to play.
+ * @param threads The number of games to play concurrently.
+ * @param depth The search depth, or 0 to search a fixed number of nodes instead.
+ * @param nodes The number of nodes to search for each move, used if {@code depth} is 0.
+ * @param openingPlies The maximum number of plies to play from the opening book.
+ * @param randomPlies The number of random moves to play after the book moves, to make the openings more varied.
+ * @param maxPlies The number of plies after which a game is adjudicated as a draw, at most {@link #MAX_PLIES}.
+ * @param seed The seed used to select openings and random moves, so runs can be repeated.
+ * @author Johan Dykstrom
+ */
+public record SelfPlaySettings(int games, int threads, int depth, long nodes, int openingPlies, int randomPlies, int maxPlies, long seed) {
+
+    /** The maximum number of plies in a game, limited by the size of the game history. */
+    public static final int MAX_PLIES = 400;
+
+    public SelfPlaySettings {
+        if (games < 1 || threads < 1 || depth < 0 || (depth == 0 && nodes < 1) || openingPlies < 0 || randomPlies < 0 ||
+            maxPlies < 1 || maxPlies > MAX_PLIES) {
+            throw new IllegalArgumentException("invalid self-play settings");
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.EvaluationCache;
+import se.dykstrom.ronja.engine.core.EvaluationWeights;
+import se.dykstrom.ronja.engine.core.Evaluator;
+
+/**
+ * Tunes the {@link EvaluationWeights} of the {@link Evaluator} using the Texel tuning method. The tuner
+ * minimizes the mean squared error between the game results of a set of labeled positions, and the
+ * expected results predicted by the static evaluation of the positions, mapped through a sigmoid function.
+ * The weights are optimized using a simple local search, that changes one weight at a time.
+ * <p>
+ * Computing the error requires evaluating all positions, and this is done in parallel, by splitting the
+ * positions into ranges that are evaluated by a fork-join pool. Each range is evaluated by its own
+ * {@link Evaluator}, because evaluators are not thread safe.
+ * <p>
+ * The pawn value is never changed, because it defines the scale of all other weights. The scaling
+ * constant K of the sigmoid function is fitted to the start weights before tuning.
+ * <p>
+ * For an explanation of Texel tuning, see
+ * <a href="https://www.chessprogramming.org/Texel%27s_Tuning_Method">Chess Programming Wiki</a>.
+ *
+ * @author Johan Dykstrom
+ */
+public class TexelTuner {
+
+    private static final Logger TLOG = Logger.getLogger(TexelTuner.class.getName());
+
+    /** The minimum number of positions evaluated by a single task. */
+    private static final int MIN_TASK_SIZE = 4096;
+
+    /** The scaling constant is searched for in this range. */
+    private static final double MIN_K = 0.0;
+    private static final double MAX_K = 1.0;
+
+    private final TuningPositions positions;
+
+    private final ForkJoinPool pool;
+
+    /** The number of positions evaluated by a single task. */
+    private final int taskSize;
+
+    /** The number of times the error has been computed. */
+    private int evaluations;
+
+    /**
+     * Creates a new tuner for the given positions, that uses the given pool to evaluate positions.
+     */
+    public TexelTuner(final TuningPositions positions, final ForkJoinPool pool) {
+        this.positions = positions;
+        this.pool = pool;
+        // Create a few tasks per thread to balance the load, but not too many, since each task creates an evaluator
+        this.taskSize = Math.max(MIN_TASK_SIZE, positions.size() / (4 * pool.getParallelism()) + 1);
+    }
+
+    /**
+     * Returns the expected result, between 0 and 1, for a position with the given score from white's
+     * perspective, using the scaling constant {@code k}.
+     */
+    static double sigmoid(final double score, final double k) {
+        return 1.0 / (1.0 + Math.pow(10.0, -k * score / 400.0));
+    }
+
+    /**
+     * Computes the mean squared error of all positions, evaluated with the given weights.
+     */
+    public double computeError(final EvaluationWeights weights, final double k) {
+        evaluations++;
+        return pool.invoke(new ErrorTask(weights, k, 0, positions.size())) / positions.size();
+    }
+
+    /**
+     * Finds the scaling constant K that minimizes the error for the given weights, using a golden section search.
+     */
+    public double computeK(final EvaluationWeights weights) {
+        final double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = MIN_K;
+        double high = MAX_K;
+        double k1 = high - ratio * (high - low);
+        double k2 = low + ratio * (high - low);
+        double e1 = computeError(weights, k1);
+        double e2 = computeError(weights, k2);
+        while (high - low > 1e-4) {
+            if (e1 < e2) {
+                high = k2;
+                k2 = k1;
+                e2 = e1;
+                k1 = high - ratio * (high - low);
+                e1 = computeError(weights, k1);
+            } else {
+                low = k1;
+                k1 = k2;
+                e1 = e2;
+                k2 = low + ratio * (high - low);
+                e2 = computeError(weights, k2);
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Tunes the given weights, by repeatedly trying to change each weight by {@code step}, in both
+     * directions, and keeping changes that reduce the error. Tuning stops when no change reduces the
+     * error, or when the maximum number of iterations has been reached.
+     *
+     * @param start The weights to start from.
+     * @param step The amount to change a weight by in each step.
+     * @param maxIterations The maximum number of iterations over all weights.
+     * @return The tuned weights.
+     */
+    public EvaluationWeights tune(final EvaluationWeights start, final int step, final int maxIterations) {
+        final double k = computeK(start);
+        TLOG.info(() -> String.format("Tuning %d positions, K = %.4f", positions.size(), k));
+
+        EvaluationWeights best = start;
+        double bestError = computeError(best, k);
+        boolean improved = true;
+        for (int iteration = 1; iteration <= maxIterations && improved; iteration++) {
+            improved = false;
+            for (int index = 0; index < EvaluationWeights.SIZE; index++) {
+                if (index == EvaluationWeights.PAWN) {
+                    continue;
+                }
+                final EvaluationWeights increased = best.with(index, best.get(index) + step);
+                final double increasedError = computeError(increased, k);
+                if (increasedError < bestError) {
+                    best = increased;
+                    bestError = increasedError;
+                    improved = true;
+                } else {
+                    final EvaluationWeights decreased = best.with(index, best.get(index) - step);
+                    final double decreasedError = computeError(decreased, k);
+                    if (decreasedError < bestError) {
+                        best = decreased;
+                        bestError = decreasedError;
+                        improved = true;
+                    }
+                }
+            }
+            final int finalIteration = iteration;
+            final double finalError = bestError;
+            final EvaluationWeights finalWeights = best;
+            TLOG.info(() -> String.format("Iteration %d, error = %.6f, weights: %s", finalIteration, finalError, finalWeights));
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of times the error has been computed.
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * A task that computes the sum of the squared errors of a range of positions.
+     */
+    private class ErrorTask extends RecursiveTask<Double> {
+
+        private final EvaluationWeights weights;
+        private final double k;
+        private final int from;
+        private final int to;
+
+        ErrorTask(final EvaluationWeights weights, final double k, final int from, final int to) {
+            this.weights = weights;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= taskSize) {
+                return computeSquaredErrors();
+            }
+            final int middle = (from + to) >>> 1;
+            final ErrorTask left = new ErrorTask(weights, k, from, middle);
+            left.fork();
+            final double right = new ErrorTask(weights, k, middle, to).compute();
+            return right + left.join();
+        }
+
+        private double computeSquaredErrors() {
+            // Positions are only evaluated once for each set of weights, so a minimal cache is enough
+            final Evaluator evaluator = new Evaluator(new EvaluationCache(0), weights);
+            double sum = 0;
+            for (int index = from; index < to; index++) {
+                final Position position = positions.getPosition(index);
+                final int score = evaluator.evaluate(position);
+                final int whiteScore = position.isWhiteMove() ? score : -score;
+                final double error = positions.getResult(index) - sigmoid(whiteScore, k);
+                sum += error * error;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.function.Function;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.book.OpeningBookLoader;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.engine.core.NnueNetwork;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+
+/**
+ * A tool that generates training data by letting Ronja play fast games against itself. The scored positions
+ * are appended to the output file, which should end with {@value TrainingDataWriter#EXTENSION}. Each move is
+ * searched to a fixed depth, or for a fixed number of nodes. If no opening book is given, openings are
+ * selected from the built-in book.
+ * <p>
+ * Usage: TrainingDataGenerator [-b BOOK] [-g GAMES] [-c THREADS] [-d DEPTH | -n NODES] [-p PLIES] [-r PLIES]
+ * [--max-plies PLIES] [--seed SEED] [--hash MB] [--nnue NETWORK] [--report SECONDS] OUTPUT
+ *
+ * @author Johan Dykstrom
+ */
+public class TrainingDataGenerator {
+
+    private static final String USAGE = "Usage: TrainingDataGenerator [-b BOOK] [-g GAMES] [-c THREADS] [-d DEPTH | -n NODES] [-p PLIES] " +
+                                        "[-r PLIES] [--max-plies PLIES] [--seed SEED] [--hash MB] [--nnue NETWORK] [--report SECONDS] OUTPUT";
+
+    /** The default number of games. */
+    private static final int DEFAULT_GAMES = 1000;
+
+    /** The default number of nodes to search per move. */
+    private static final long DEFAULT_NODES = 5000;
+
+    /** The default maximum number of book plies. */
+    private static final int DEFAULT_OPENING_PLIES = 8;
+
+    /** The default number of random plies after the book moves. */
+    private static final int DEFAULT_RANDOM_PLIES = 4;
+
+    /** The default number of plies after which a game is adjudicated as a draw. */
+    private static final int DEFAULT_MAX_PLIES = 300;
+
+    /** The default transposition table size in megabytes per engine. */
+    private static final long DEFAULT_HASH_SIZE = 16;
+
+    /** The evaluation cache size in megabytes per engine. */
+    private static final long EVAL_CACHE_SIZE = 4;
+
+    /** The default time between progress reports in seconds. */
+    private static final int DEFAULT_REPORT_INTERVAL = 10;
+
+    @SuppressWarnings("java:S106")
+    public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+        Path bookFile = null;
+        int games = DEFAULT_GAMES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = 0;
+        long nodes = DEFAULT_NODES;
+        int openingPlies = DEFAULT_OPENING_PLIES;
+        int randomPlies = DEFAULT_RANDOM_PLIES;
+        int maxPlies = DEFAULT_MAX_PLIES;
+        long seed = System.nanoTime();
+        long hashSize = DEFAULT_HASH_SIZE;
+        Path networkFile = null;
+        int reportInterval = DEFAULT_REPORT_INTERVAL;
+        Path output = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-b" -> bookFile = Path.of(args[++i]);
+                    case "-g" -> games = Integer.parseInt(args[++i]);
+                    case "-c" -> threads = Integer.parseInt(args[++i]);
+                    case "-d" -> depth = Integer.parseInt(args[++i]);
+                    case "-n" -> nodes = Long.parseLong(args[++i]);
+                    case "-p" -> openingPlies = Integer.parseInt(args[++i]);
+                    case "-r" -> randomPlies = Integer.parseInt(args[++i]);
+                    case "--max-plies" -> maxPlies = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--hash" -> hashSize = Long.parseLong(args[++i]);
+                    case "--nnue" -> networkFile = Path.of(args[++i]);
+                    case "--report" -> reportInterval = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("too many arguments");
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            output = null;
+        }
+        if (output == null) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final OpeningBook book = (bookFile != null) ? OpeningBookLoader.load(bookFile.toFile()) : OpeningBook.DEFAULT;
+        final NnueNetwork network = (networkFile != null) ? NnueNetwork.load(networkFile) : null;
+
+        final SelfPlaySettings settings = new SelfPlaySettings(games, threads, depth, nodes, openingPlies, randomPlies, maxPlies, seed);
+        final long finalHashSize = hashSize;
+        final Function<Game, SearchEngine> factory = game -> new SearchEngine(game, finalHashSize, EVAL_CACHE_SIZE, network);
+        final SelfPlayGenerator generator = new SelfPlayGenerator(book, settings, factory, System.out::println, reportInterval * 1000L);
+
+        try (TrainingDataWriter writer = TrainingDataWriter.open(output)) {
+            final SelfPlayProgress progress = generator.run(writer);
+            System.out.println("Finished: " + progress);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.PackedPositionCodec;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes training records to a binary training data file. The writer only appends to the file, so
+ * several runs of the training data generator can write to the same file. Records are collected in
+ * a large buffer, and written to the file when the buffer is full, or when the writer is closed.
+ * <p>
+ * The file consists of a header, with the magic number (int) and the version (int), followed by
+ * the records. Each record contains the position, packed using {@link PackedPositionCodec}, the
+ * score (short), the result in half points from white's perspective (byte), and a reserved byte.
+ * All numbers are stored in little-endian byte order.
+ * <p>
+ * The methods of this class are synchronized, so a single writer can be used by many threads.
+ *
+ * @author Johan Dykstrom
+ */
+public class TrainingDataWriter implements Closeable {
+
+    /** The file extension of training data files. */
+    public static final String EXTENSION = ".tdat";
+
+    static final int MAGIC = 0x41445452;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+    static final int RECORD_SIZE = PackedPositionCodec.SIZE + Short.BYTES + 2;
+
+    /** The number of records that are buffered before they are written. */
+    private static final int RECORDS_PER_BUFFER = 1 << 14;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORDS_PER_BUFFER * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /** The number of records written by this writer. */
+    private long count;
+
+    private TrainingDataWriter(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the given training data file for appending, creating it if it does not exist.
+     *
+     * @throws IOException If the file cannot be opened, or exists but is not a valid training data file.
+     */
+    public static TrainingDataWriter open(final Path path) throws IOException {
+        if (Files.exists(path) && Files.size(path) > 0) {
+            try (FileChannel channel = FileChannel.open(path, READ)) {
+                readHeader(channel, path);
+            }
+            return new TrainingDataWriter(FileChannel.open(path, WRITE, APPEND));
+        }
+
+        final FileChannel channel = FileChannel.open(path, CREATE, WRITE, APPEND);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return new TrainingDataWriter(channel);
+    }
+
+    /**
+     * Writes the given records.
+     */
+    public synchronized void write(final List<TrainingRecord> records) throws IOException {
+        for (TrainingRecord record : records) {
+            if (buffer.remaining() < RECORD_SIZE) {
+                flush();
+            }
+            PackedPositionCodec.encode(record.position(), buffer);
+            buffer.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, record.score())));
+            buffer.put((byte) Math.round(record.result() * 2));
+            buffer.put((byte) 0);
+        }
+        count += records.size();
+    }
+
+    /**
+     * Writes all buffered records to the file.
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Returns the number of records written by this writer.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads all records in the given training data file, and passes them to the given consumer.
+     *
+     * @return The number of records read.
+     * @throws IOException If the file cannot be read, or is not a valid training data file.
+     */
+    public static long read(final Path path, final Consumer<TrainingRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            readHeader(channel, path);
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORDS_PER_BUFFER * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long count = 0;
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                endOfFile = channel.read(buffer) == -1;
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    final Position position = PackedPositionCodec.decode(buffer);
+                    final int score = buffer.getShort();
+                    final double result = buffer.get() / 2.0;
+                    buffer.get();
+                    consumer.accept(new TrainingRecord(position, score, result));
+                    count++;
+                }
+                buffer.compact();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Reads and validates the header of a training data file, and checks that the file contains whole records.
+     */
+    private static void readHeader(final FileChannel channel, final Path path) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header) != -1) {
+            // Keep reading until the header is complete, or the end of the file
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("not a valid training data file: " + path);
+        }
+        if ((channel.size() - HEADER_SIZE) % RECORD_SIZE != 0) {
+            throw new IOException("invalid size of training data file: " + path);
+        }
+    }
+}
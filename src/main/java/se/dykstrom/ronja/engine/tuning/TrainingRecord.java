@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * A position labeled with a search score and the result of the game it occurred in.
+ *
+ * @param position The position.
+ * @param score The search score in centipawns, from the perspective of the side to move.
+ * @param result The result of the game from white's perspective, that is, 1.0, 0.5, or 0.0.
+ * @author Johan Dykstrom
+ */
+public record TrainingRecord(Position position, int score, double result) { }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.logging.Logger;
+
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.PgnGame;
+import se.dykstrom.ronja.common.parser.PgnReader;
+import se.dykstrom.ronja.engine.epd.EpdParser;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Reads labeled positions for tuning from EPD or PGN files.
+ * <p>
+ * In an EPD file, each line contains a position, and the result of the game it occurred in, either as
+ * an opcode, like {@code c9 "1-0";}, or in brackets, like {@code [1-0]} or {@code [1.0]}.
+ * <p>
+ * In a PGN file, all positions in all games are read, and labeled with the result of the game. Positions
+ * from the opening, positions where the side to move is in check, and positions where a capture or a
+ * promotion was played, are skipped, because their static evaluation does not reflect their real value.
+ * Games without a decisive result or draw are also skipped.
+ * <p>
+ * Lines that cannot be parsed are logged and skipped.
+ *
+ * @author Johan Dykstrom
+ */
+public final class TuningDataReader {
+
+    private static final Logger TLOG = Logger.getLogger(TuningDataReader.class.getName());
+
+    /** The number of plies at the start of each PGN game that are skipped. */
+    private static final int OPENING_PLIES = 8;
+
+    private TuningDataReader() { }
+
+    /**
+     * Reads positions from the given file, and adds them to {@code positions}. Files with extension
+     * ".pgn" are read as PGN files, files with extension {@value TrainingDataWriter#EXTENSION} are
+     * read as training data files, and all other files as EPD files.
+     *
+     * @return The number of positions added.
+     */
+    public static int read(final Path path, final TuningPositions positions) throws IOException {
+        final String filename = path.toString().toLowerCase();
+        if (filename.endsWith(".pgn")) {
+            return readPgn(path, positions);
+        } else if (filename.endsWith(TrainingDataWriter.EXTENSION)) {
+            return readTrainingData(path, positions);
+        } else {
+            return readEpd(path, positions);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // EPD:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reads positions from the given EPD file, and adds them to {@code positions}.
+     *
+     * @return The number of positions added.
+     */
+    public static int readEpd(final Path path, final TuningPositions positions) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, ISO_8859_1)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    try {
+                        positions.add(EpdParser.parsePosition(line), parseEpdResult(line));
+                        count++;
+                    } catch (ParseException e) {
+                        TLOG.warning("Skipping line '" + line + "': " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parses the result in an EPD line, and returns it as a number from white's perspective.
+     */
+    static double parseEpdResult(final String line) throws ParseException {
+        final int start;
+        final int end;
+        if (line.contains("c9 \"")) {
+            start = line.indexOf("c9 \"") + 4;
+            end = line.indexOf('"', start);
+        } else if (line.contains("[")) {
+            start = line.indexOf('[') + 1;
+            end = line.indexOf(']', start);
+        } else {
+            throw new ParseException("no result found", 0);
+        }
+        if (end < 0) {
+            throw new ParseException("no result found", start);
+        }
+        final double result = parseResult(line.substring(start, end).strip());
+        if (Double.isNaN(result)) {
+            throw new ParseException("invalid result", start);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a result string, like "1-0" or "0.5", and returns it as a number from white's perspective,
+     * or NaN if the result string is not valid, or the game was not finished.
+     */
+    static double parseResult(final String result) {
+        return switch (result) {
+            case "1-0", "1.0", "1" -> 1.0;
+            case "1/2-1/2", "0.5" -> 0.5;
+            case "0-1", "0.0", "0" -> 0.0;
+            default -> Double.NaN;
+        };
+    }
+
+    // ------------------------------------------------------------------------
+    // PGN:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reads positions from the given PGN file, and adds them to {@code positions}.
+     *
+     * @return The number of positions added.
+     */
+    public static int readPgn(final Path path, final TuningPositions positions) throws IOException {
+        int count = 0;
+        try (PgnReader reader = PgnReader.open(path)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                count += readGame(game, positions);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the positions of a single game to {@code positions}.
+     *
+     * @return The number of positions added.
+     */
+    private static int readGame(final PgnGame game, final TuningPositions positions) {
+        final String resultTag = game.tag("Result");
+        final double result = parseResult((resultTag != null) ? resultTag : game.result());
+        if (Double.isNaN(result)) {
+            return 0;
+        }
+
+        int count = 0;
+        Position position = game.startPosition();
+        final int[] moves = game.moves();
+        for (int ply = 0; ply < moves.length; ply++) {
+            if (ply >= OPENING_PLIES && isQuiet(position, moves[ply])) {
+                positions.add(position, result);
+                count++;
+            }
+            position = position.withMove(moves[ply]);
+        }
+        return count;
+    }
+
+    // ------------------------------------------------------------------------
+    // Training data:
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reads positions from the given training data file, written by {@link TrainingDataWriter}, and adds
+     * them to {@code positions}. The positions are labeled with the game result, and the search score is
+     * ignored. The training data generator only writes quiet positions, so all positions are added.
+     *
+     * @return The number of positions added.
+     */
+    public static int readTrainingData(final Path path, final TuningPositions positions) throws IOException {
+        return (int) TrainingDataWriter.read(path, record -> positions.add(record.position(), record.result()));
+    }
+
+    private static boolean isQuiet(final Position position, final int move) {
+        return !Move.isCapture(move) && !Move.isPromotion(move) && !position.isCheck(position.getActiveColor());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.util.Arrays;
+
+import se.dykstrom.ronja.common.model.Color;
+import se.dykstrom.ronja.common.model.Position;
+
+/**
+ * A compact store of labeled positions used for tuning. To make data sets of millions of positions fit
+ * in memory, the positions are not stored as {@link Position} objects, but as eight bitboards in a
+ * single primitive long array, and a single byte with the side to move and the game result. Each
+ * position takes 65 bytes. Castling rights, the 'en passant' square, and the move counters are not
+ * stored, because they do not affect the evaluation.
+ * <p>
+ * Positions are added sequentially while loading the data set. After that, the store can be read by
+ * any number of threads in parallel.
+ *
+ * @author Johan Dykstrom
+ */
+public class TuningPositions {
+
+    /** The number of bitboards stored for each position. */
+    private static final int BITBOARDS = 8;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int WHITE_MOVE_MASK = 0x01;
+    private static final int RESULT_SHIFT = 1;
+
+    /** The bitboards of all positions: bishop, king, knight, pawn, queen, rook, white, and black. */
+    private long[] bitboards = new long[INITIAL_CAPACITY * BITBOARDS];
+
+    /** The side to move, and the result in half points from white's perspective, of all positions. */
+    private byte[] info = new byte[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Adds a position with the given result.
+     *
+     * @param position The position to add.
+     * @param result The result of the game from white's perspective: 1.0 for a white win, 0.5 for a draw, and 0.0 for a black win.
+     */
+    public void add(final Position position, final double result) {
+        if (size == info.length) {
+            bitboards = Arrays.copyOf(bitboards, 2 * bitboards.length);
+            info = Arrays.copyOf(info, 2 * info.length);
+        }
+        final int offset = size * BITBOARDS;
+        bitboards[offset] = position.bishop;
+        bitboards[offset + 1] = position.king;
+        bitboards[offset + 2] = position.knight;
+        bitboards[offset + 3] = position.pawn;
+        bitboards[offset + 4] = position.queen;
+        bitboards[offset + 5] = position.rook;
+        bitboards[offset + 6] = position.white;
+        bitboards[offset + 7] = position.black;
+        final int halfPoints = (int) Math.round(result * 2);
+        info[size] = (byte) ((position.isWhiteMove() ? WHITE_MOVE_MASK : 0) | (halfPoints << RESULT_SHIFT));
+        size++;
+    }
+
+    /**
+     * Returns the number of positions in the store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the result of the game the position with the given index occurred in, from white's perspective.
+     */
+    public double getResult(final int index) {
+        return (info[index] >> RESULT_SHIFT) / 2.0;
+    }
+
+    /**
+     * Returns {@code true} if it is white's move in the position with the given index.
+     */
+    public boolean isWhiteMove(final int index) {
+        return (info[index] & WHITE_MOVE_MASK) != 0;
+    }
+
+    /**
+     * Creates a {@link Position} object from the position with the given index. The position has no castling
+     * rights, and no 'en passant' square.
+     */
+    public Position getPosition(final int index) {
+        final int offset = index * BITBOARDS;
+        final Position position = new Position(bitboards[offset], bitboards[offset + 1], bitboards[offset + 2], bitboards[offset + 3],
+                                               bitboards[offset + 4], bitboards[offset + 5], bitboards[offset + 6], bitboards[offset + 7],
+                                               0, 0, 0, 1, 0, 0);
+        return isWhiteMove(index) ? position.withActiveColor(Color.WHITE) : position;
+    }
+
+    /**
+     * Releases any unused capacity, when all positions have been added.
+     */
+    public void trimToSize() {
+        bitboards = Arrays.copyOf(bitboards, size * BITBOARDS);
+        info = Arrays.copyOf(info, size);
+    }
+}
@@ -19,11 +19,10 @@ package se.dykstrom.ronja.engine.ui;
 
 import java.io.File;
 import java.io.IOException;
-import java.text.ParseException;
 import java.util.logging.Logger;
 
-import se.dykstrom.ronja.common.book.OpeningBook;
-import se.dykstrom.ronja.common.book.OpeningBookParser;
+import se.dykstrom.ronja.common.book.BackgroundOpeningBook;
+import se.dykstrom.ronja.common.book.OpeningBookLoader;
 import se.dykstrom.ronja.common.model.Game;
 import se.dykstrom.ronja.engine.ui.command.Command;
 import se.dykstrom.ronja.engine.ui.command.QuitCommand;
@@ -44,6 +43,9 @@ import se.dykstrom.ronja.engine.utils.Version;
  */
 public class Ronja {
 
+    /** The maximum time in milliseconds to wait for the opening book, if it is still loading when needed. */
+    private static final long BOOK_MAX_WAIT = 100;
+
     static {
         if (System.getProperty("java.util.logging.config.file") == null) {
             System.setProperty("java.util.logging.config.file", "ronja.properties");
@@ -69,16 +71,12 @@ public class Ronja {
     }
 
     /**
-     * Loads the opening book from file, and creates a new game.
+     * Starts loading the opening book from file in the background, and creates a new game.
+     * The game can be started before the book has been loaded.
      */
     private static Game createGame() {
-        try {
-            return new Game(OpeningBookParser.parse(new File(AppConfig.getBookFilename())));
-        } catch (IOException | ParseException e) {
-            final var logger = Logger.getLogger(Ronja.class.getName());
-            logger.severe("Failed to load opening book. " + e.getMessage());
-            return new Game(OpeningBook.DEFAULT);
-        }
+        final var file = new File(AppConfig.getBookFilename());
+        return new Game(BackgroundOpeningBook.load(() -> OpeningBookLoader.load(file), BOOK_MAX_WAIT));
     }
 
     /**
@@ -23,10 +23,11 @@ import se.dykstrom.ronja.common.model.Color;
 import se.dykstrom.ronja.common.model.Game;
 import se.dykstrom.ronja.common.model.Position;
 import se.dykstrom.ronja.common.parser.CanParser;
-import se.dykstrom.ronja.common.parser.SanParser;
-import se.dykstrom.ronja.engine.core.AlphaBetaFinder;
+import se.dykstrom.ronja.common.parser.SanCodec;
+import se.dykstrom.ronja.engine.time.SearchClock;
 import se.dykstrom.ronja.engine.time.TimeUtils;
 import se.dykstrom.ronja.engine.ui.io.Response;
+import se.dykstrom.ronja.engine.utils.AppConfig;
 import se.dykstrom.ronja.engine.utils.PositionUtils;
 
 /**
@@ -48,7 +49,8 @@ public abstract class AbstractMoveCommand extends AbstractCommand {
     protected void move() {
         // If not in force mode, make a move
         if (!game.getForceMode()) {
-            final long startTime = System.currentTimeMillis();
+            final var clock = new SearchClock();
+            clock.start();
 
             final var position = game.getPosition();
 
@@ -60,9 +62,10 @@ public abstract class AbstractMoveCommand extends AbstractCommand {
             // If no book move found, use Finder to find best move
             final int move;
             if (bookMove == 0) {
-                final var availableTime = TimeUtils.calculateTimeForNextMove(game.getTimeControl(), game.getTimeData());
-                final var finder = new AlphaBetaFinder(game);
-                move = finder.findBestMoveWithinTime(availableTime);
+                final var availableTime = TimeUtils.calculateTimeForNextMove(game.getTimeControl(),
+                                                                             game.getTimeData(),
+                                                                             AppConfig.getMoveOverhead());
+                move = game.getSearchEngine().findBestMoveWithinTime(availableTime);
                 TLOG.fine(() -> "Engine move: " + formatForLogging(move, position));
             } else {
                 move = bookMove;
@@ -80,9 +83,7 @@ public abstract class AbstractMoveCommand extends AbstractCommand {
                 notifyUserGameOverOk();
             }
 
-            final long stopTime = System.currentTimeMillis();
-            final long usedTime = stopTime - startTime;
-            game.updateTimeDataAfterMove(usedTime);
+            game.updateTimeDataAfterMove(clock.getElapsedTime());
         }
     }
 
@@ -104,7 +105,7 @@ public abstract class AbstractMoveCommand extends AbstractCommand {
      * Formats the given move for logging.
      */
     String formatForLogging(int move, Position position) {
-        return position.getFullMoveNumber() + (position.isWhiteMove() ? ". " : "... ") + SanParser.format(position, move);
+        return position.getFullMoveNumber() + (position.isWhiteMove() ? ". " : "... ") + SanCodec.format(position, move);
     }
 
     /**
@@ -21,7 +21,6 @@ import se.dykstrom.ronja.common.book.OpeningBook;
 import se.dykstrom.ronja.common.model.Game;
 import se.dykstrom.ronja.common.model.Position;
 import se.dykstrom.ronja.common.parser.SanParser;
-import se.dykstrom.ronja.engine.core.AlphaBetaFinder;
 import se.dykstrom.ronja.engine.ui.io.Response;
 import se.dykstrom.ronja.engine.utils.PositionUtils;
 
@@ -46,8 +45,7 @@ public class HintCommand extends AbstractCommand {
         if (!PositionUtils.isGameOver(position, game)) {
             int move = book.findBestMove(position);
             if (move == 0) {
-                var finder = new AlphaBetaFinder(game);
-                move = finder.findBestMoveWithinTime(50);
+                move = game.getSearchEngine().findBestMoveWithinTime(50);
             }
             response.write("Hint: " + SanParser.format(position, move));
         }
@@ -42,6 +42,27 @@ public class AppConfig {
     /** The environment property for game log filename. */
     public static final String PROPERTY_GAME_LOG_FILE = "ronja.game.file";
 
+    /** The environment property for move overhead. */
+    public static final String PROPERTY_MOVE_OVERHEAD = "ronja.move.overhead";
+
+    /** The environment property for transposition table size. */
+    public static final String PROPERTY_HASH_SIZE = "ronja.hash.size";
+
+    /** The environment property for evaluation cache size. */
+    public static final String PROPERTY_EVAL_CACHE_SIZE = "ronja.eval.cache.size";
+
+    /** The environment property for neural network filename. */
+    public static final String PROPERTY_NNUE_FILE = "ronja.nnue.file";
+
+    /** The default move overhead in milliseconds. */
+    private static final long DEFAULT_MOVE_OVERHEAD = 50;
+
+    /** The default transposition table size in megabytes. */
+    private static final long DEFAULT_HASH_SIZE = 16;
+
+    /** The default evaluation cache size in megabytes. */
+    private static final long DEFAULT_EVAL_CACHE_SIZE = 4;
+
     private static final Logger TLOG = Logger.getLogger(AppConfig.class.getName());
 
     /** The name of the application properties file. */
@@ -51,6 +72,10 @@ public class AppConfig {
     private static String engineName;
     private static String bookFilename;
     private static String gameLogFilename;
+    private static String nnueFilename;
+    private static Long moveOverhead;
+    private static Long hashSize;
+    private static Long evalCacheSize;
 
     // ------------------------------------------------------------------------
     // Configuration data:
@@ -118,6 +143,26 @@ public class AppConfig {
         return gameLogFilename;
     }
 
+    /**
+     * Sets the neural network filename.
+     */
+    public static void setNnueFilename(String nnueFilename) {
+        AppConfig.nnueFilename = nnueFilename;
+    }
+
+    /**
+     * Returns the neural network filename, or {@code null} if no neural network has been configured.
+     */
+    public static String getNnueFilename() {
+        if (nnueFilename == null) {
+            nnueFilename = getStringProperty(PROPERTY_NNUE_FILE);
+        }
+        if (nnueFilename == null) {
+            nnueFilename = getString(PROPERTY_NNUE_FILE, null);
+        }
+        return nnueFilename;
+    }
+
     /**
      * Sets the engine name.
      */
@@ -138,6 +183,70 @@ public class AppConfig {
         return engineName;
     }
 
+    /**
+     * Sets the move overhead in milliseconds.
+     */
+    public static void setMoveOverhead(Long moveOverhead) {
+        AppConfig.moveOverhead = moveOverhead;
+    }
+
+    /**
+     * Returns the move overhead in milliseconds, that is, the time to reserve for each move
+     * to compensate for the latency in communicating with the GUI.
+     */
+    public static long getMoveOverhead() {
+        if (moveOverhead == null) {
+            String value = getStringProperty(PROPERTY_MOVE_OVERHEAD);
+            if (value == null) {
+                value = getString(PROPERTY_MOVE_OVERHEAD, Long.toString(DEFAULT_MOVE_OVERHEAD));
+            }
+            moveOverhead = getLong(value, DEFAULT_MOVE_OVERHEAD);
+        }
+        return moveOverhead;
+    }
+
+    /**
+     * Sets the transposition table size in megabytes.
+     */
+    public static void setHashSize(Long hashSize) {
+        AppConfig.hashSize = hashSize;
+    }
+
+    /**
+     * Returns the transposition table size in megabytes.
+     */
+    public static long getHashSize() {
+        if (hashSize == null) {
+            String value = getStringProperty(PROPERTY_HASH_SIZE);
+            if (value == null) {
+                value = getString(PROPERTY_HASH_SIZE, Long.toString(DEFAULT_HASH_SIZE));
+            }
+            hashSize = getLong(value, DEFAULT_HASH_SIZE);
+        }
+        return hashSize;
+    }
+
+    /**
+     * Sets the evaluation cache size in megabytes.
+     */
+    public static void setEvalCacheSize(Long evalCacheSize) {
+        AppConfig.evalCacheSize = evalCacheSize;
+    }
+
+    /**
+     * Returns the evaluation cache size in megabytes.
+     */
+    public static long getEvalCacheSize() {
+        if (evalCacheSize == null) {
+            String value = getStringProperty(PROPERTY_EVAL_CACHE_SIZE);
+            if (value == null) {
+                value = getString(PROPERTY_EVAL_CACHE_SIZE, Long.toString(DEFAULT_EVAL_CACHE_SIZE));
+            }
+            evalCacheSize = getLong(value, DEFAULT_EVAL_CACHE_SIZE);
+        }
+        return evalCacheSize;
+    }
+
     // ------------------------------------------------------------------------
     // File properties:
     // ------------------------------------------------------------------------
@@ -159,6 +268,22 @@ public class AppConfig {
         }
     }
 
+    /**
+     * Converts the given string to a long. If the string cannot be converted,
+     * a default value is returned.
+     *
+     * @param value The string to convert.
+     * @param def The default value to use if the string cannot be converted.
+     */
+    private static long getLong(final String value, final long def) {
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException nfe) {
+            TLOG.warning(() -> "Invalid number '" + value + "'. Using default value '" + def + "'.");
+            return def;
+        }
+    }
+
     /**
      * Returns a properties object loaded from the application properties file.
      */
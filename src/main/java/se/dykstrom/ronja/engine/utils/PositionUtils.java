@@ -30,7 +30,8 @@ import se.dykstrom.ronja.engine.core.FullMoveGenerator;
  */
 public final class PositionUtils {
 
-    private static final FullMoveGenerator MOVE_GENERATOR = new FullMoveGenerator();
+    /** One move generator per thread, since move generators are not thread safe. */
+    private static final ThreadLocal<FullMoveGenerator> MOVE_GENERATOR = ThreadLocal.withInitial(FullMoveGenerator::new);
 
     private PositionUtils() { }
 
@@ -61,9 +62,10 @@ public final class PositionUtils {
         }
 
         // If we can find a move out of check, it is not checkmate
-        int numberOfMoves = MOVE_GENERATOR.generateMoves(position, 0);
+        final FullMoveGenerator moveGenerator = MOVE_GENERATOR.get();
+        int numberOfMoves = moveGenerator.generateMoves(position, 0);
         for (int moveIndex = 0; moveIndex < numberOfMoves; moveIndex++) {
-            int move = MOVE_GENERATOR.moves[0][moveIndex];
+            int move = moveGenerator.moves[0][moveIndex];
             if (!position.withMove(move).isCheck(color)) {
                 return false;
             }
@@ -115,9 +117,10 @@ public final class PositionUtils {
         }
 
         // If we find a move that is not check, it is not stalemate
-        int numberOfMoves = MOVE_GENERATOR.generateMoves(position, 0);
+        final FullMoveGenerator moveGenerator = MOVE_GENERATOR.get();
+        int numberOfMoves = moveGenerator.generateMoves(position, 0);
         for (int moveIndex = 0; moveIndex < numberOfMoves; moveIndex++) {
-            int move = MOVE_GENERATOR.moves[0][moveIndex];
+            int move = moveGenerator.moves[0][moveIndex];
             if (!position.withMove(move).isCheck(color)) {
                 return false;
             }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import se.dykstrom.ronja.test.AbstractTestCase;
+import se.dykstrom.ronja.test.TestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.common.parser.FenParser.parse;
+
+/**
+ * This class is for testing class {@code BackgroundOpeningBook} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see BackgroundOpeningBook
+ */
+public class BackgroundOpeningBookTest extends AbstractTestCase {
+
+    @Test
+    public void shouldFindNoMovesUntilLoaded() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final OpeningBook expected = OpeningBookParser.parse(TestUtils.createBookFile());
+
+        final BackgroundOpeningBook book = BackgroundOpeningBook.load(() -> {
+            latch.await();
+            return expected;
+        }, 10);
+
+        assertFalse(book.isLoaded());
+        assertEquals(0, book.size());
+        assertEquals(0, book.findBestMove(parse(FEN_START)));
+        assertNull(book.findAllMoves(parse(FEN_E4)));
+
+        latch.countDown();
+
+        assertSame(expected, book.await());
+        assertTrue(book.isLoaded());
+        assertEquals(expected.size(), book.size());
+        assertEquals(MOVE_E2E4, book.findBestMove(parse(FEN_START)));
+        assertEquals(List.of(new BookMove(MOVE_E7E5, 50), new BookMove(MOVE_E7E6, 50)), book.findAllMoves(parse(FEN_E4)));
+    }
+
+    @Test
+    public void shouldWaitBrieflyForBook() throws Exception {
+        final OpeningBook expected = OpeningBookParser.parse(TestUtils.createBookFile());
+
+        final BackgroundOpeningBook book = BackgroundOpeningBook.load(() -> expected, 10_000);
+
+        assertEquals(MOVE_E2E4, book.findBestMove(parse(FEN_START)));
+    }
+
+    @Test
+    public void shouldUseDefaultBookIfLoadingFails() throws Exception {
+        final BackgroundOpeningBook book = BackgroundOpeningBook.load(() -> {
+            throw new IOException("no such file");
+        }, 0);
+
+        assertSame(OpeningBook.DEFAULT, book.await());
+        assertEquals(OpeningBook.DEFAULT.size(), book.size());
+    }
+}
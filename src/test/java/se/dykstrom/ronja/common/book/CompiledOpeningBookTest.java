@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.test.AbstractTestCase;
+import se.dykstrom.ronja.test.TestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.common.parser.FenParser.parse;
+
+/**
+ * This class is for testing class {@code CompiledOpeningBook} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see CompiledOpeningBook
+ * @see OpeningBookCompiler
+ */
+public class CompiledOpeningBookTest extends AbstractTestCase {
+
+    private File csvFile;
+    private Path compiledFile;
+
+    @Before
+    public void setUp() throws Exception {
+        csvFile = TestUtils.createBookFile();
+        compiledFile = Files.createTempFile("ronja_", OpeningBookLoader.COMPILED_EXTENSION);
+        compiledFile.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void shouldFindSameMovesAsCsvBook() throws Exception {
+        assertEquals(4, OpeningBookCompiler.compile(csvFile, compiledFile));
+
+        final OpeningBook expected = OpeningBookParser.parse(csvFile);
+        final OpeningBook book = CompiledOpeningBook.open(compiledFile);
+
+        assertEquals(expected.size(), book.size());
+        for (String fen : List.of(FEN_START, FEN_E4, FEN_E4_E5, FEN_E4_E6)) {
+            final Position position = parse(fen);
+            assertEquals(fen, expected.findAllMoves(position), book.findAllMoves(position));
+        }
+    }
+
+    @Test
+    public void shouldFindBestMove() throws Exception {
+        OpeningBookCompiler.compile(csvFile, compiledFile);
+        final OpeningBook book = CompiledOpeningBook.open(compiledFile);
+
+        assertEquals(MOVE_E2E4, book.findBestMove(parse(FEN_START)));
+        assertEquals(MOVE_G1F3, book.findBestMove(parse(FEN_E4_E5)));
+        for (int i = 0; i < 20; i++) {
+            final int move = book.findBestMove(parse(FEN_E4));
+            assertTrue(move == MOVE_E7E5 || move == MOVE_E7E6);
+        }
+    }
+
+    @Test
+    public void shouldNotFindUnknownPosition() throws Exception {
+        OpeningBookCompiler.compile(csvFile, compiledFile);
+        final OpeningBook book = CompiledOpeningBook.open(compiledFile);
+
+        assertEquals(0, book.findBestMove(parse(FEN_MIDDLE_GAME_0)));
+        assertNull(book.findAllMoves(parse(FEN_MIDDLE_GAME_0)));
+    }
+
+    @Test
+    public void shouldMergeTranspositions() throws Exception {
+        final Position position = parse(FEN_START);
+        final Map<Position, List<BookMove>> positions = Map.of(
+                position, List.of(new BookMove(MOVE_E2E4, 60)),
+                position.withFullMoveNumber(5), List.of(new BookMove(MOVE_E2E4, 20), new BookMove(MOVE_D2D4, 20)));
+
+        assertEquals(1, OpeningBookCompiler.compile(positions, compiledFile));
+        final OpeningBook book = CompiledOpeningBook.open(compiledFile);
+
+        assertEquals(List.of(new BookMove(MOVE_E2E4, 80), new BookMove(MOVE_D2D4, 20)), book.findAllMoves(position));
+    }
+
+    @Test
+    public void shouldOpenEmptyBook() throws Exception {
+        assertEquals(0, OpeningBookCompiler.compile(Map.of(), compiledFile));
+        final OpeningBook book = CompiledOpeningBook.open(compiledFile);
+
+        assertEquals(0, book.size());
+        assertEquals(0, book.findBestMove(parse(FEN_START)));
+    }
+
+    @Test
+    public void shouldNotOpenInvalidFile() throws Exception {
+        Files.writeString(compiledFile, "not a compiled opening book");
+        assertThrows(IOException.class, () -> CompiledOpeningBook.open(compiledFile));
+    }
+
+    @Test
+    public void shouldSelectBookTypeFromExtension() throws Exception {
+        OpeningBookCompiler.compile(csvFile, compiledFile);
+
+        assertTrue(OpeningBookLoader.load(compiledFile.toFile()) instanceof CompiledOpeningBook);
+        assertEquals(OpeningBook.class, OpeningBookLoader.load(csvFile).getClass());
+    }
+}
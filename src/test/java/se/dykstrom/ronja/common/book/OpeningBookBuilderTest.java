@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static se.dykstrom.ronja.common.parser.FenParser.parse;
+
+/**
+ * This class is for testing class {@code OpeningBookBuilder} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see OpeningBookBuilder
+ * @see MoveStatistics
+ */
+public class OpeningBookBuilderTest extends AbstractTestCase {
+
+    private static final String WHITE_WINS = "[Result \"1-0\"]\n\n1. e4 e5 2. Nf3 Nc6 3. Bb5 1-0\n\n";
+    private static final String BLACK_WINS = "[Result \"0-1\"]\n\n1. e4 e6 2. d4 d5 0-1\n\n";
+    private static final String DRAW = "[Result \"1/2-1/2\"]\n\n1. d4 d5 2. c4 e6 1/2-1/2\n\n";
+    private static final String UNFINISHED = "[Result \"*\"]\n\n1. d4 d5 2. c4 e6 *\n\n";
+    private static final String NO_RESULT = "1. d4 d5 2. c4 e6\n\n";
+    private static final String ENGLISH = "[Result \"1/2-1/2\"]\n\n1. c4 c5 2. Nc3 Nc6 1/2-1/2\n\n";
+    private static final String OTHER_START = "[FEN \"" + "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1" + "\"]\n[Result \"1-0\"]\n\n1... c5 1-0\n\n";
+
+    private Path pgnFile;
+    private Path bookFile;
+
+    @Before
+    public void setUp() throws Exception {
+        pgnFile = Files.createTempFile("ronja_", ".pgn");
+        bookFile = Files.createTempFile("ronja_", ".csv");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(pgnFile);
+        Files.deleteIfExists(bookFile);
+    }
+
+    @Test
+    public void shouldBuildCsvBook() throws Exception {
+        writeGames(3, WHITE_WINS, 1, BLACK_WINS, 2, DRAW, 1, OTHER_START);
+        final OpeningBookBuilder builder = new OpeningBookBuilder(2, 1, 1000);
+
+        assertEquals(7, builder.addAll(pgnFile, 2));
+        assertEquals(6, builder.getNumberOfGames());
+        assertEquals(1, builder.getNumberOfSkippedGames());
+
+        // Start, e4, and d4 - the plies after 1... e6 and 1... d5 are not included
+        assertEquals(3, builder.write(bookFile));
+        final OpeningBook book = OpeningBookParser.parse(bookFile.toFile());
+
+        // White scored 6 points with 1. e4 (3 wins, 1 loss), and 2 points with 1. d4 (2 draws)
+        assertEquals(List.of(new BookMove(MOVE_E2E4, 75), new BookMove(MOVE_D2D4, 25)), book.findAllMoves(parse(FEN_START)));
+        // Black scored 2 points with 1... e6, and none with 1... e5
+        assertEquals(List.of(new BookMove(MOVE_E7E6, 100)), book.findAllMoves(parse(FEN_E4)));
+        assertNull(book.findAllMoves(parse(FEN_E4_E6)));
+    }
+
+    @Test
+    public void shouldSkipMovesWithFewGames() throws Exception {
+        writeGames(3, WHITE_WINS, 1, BLACK_WINS, 2, DRAW);
+        final OpeningBookBuilder builder = new OpeningBookBuilder(10, 3, 1000);
+        builder.addAll(pgnFile, 1);
+
+        // Only 1. e4 was played in at least three games, and no reply was
+        assertEquals(1, builder.write(bookFile));
+        final OpeningBook book = OpeningBookParser.parse(bookFile.toFile());
+        assertEquals(List.of(new BookMove(MOVE_E2E4, 100)), book.findAllMoves(parse(FEN_START)));
+    }
+
+    @Test
+    public void shouldSkipGamesWithoutResult() throws Exception {
+        writeGames(2, DRAW, 1, UNFINISHED, 1, NO_RESULT);
+        final OpeningBookBuilder builder = new OpeningBookBuilder(10, 3, 1000);
+        builder.addAll(pgnFile, 1);
+
+        assertEquals(2, builder.getNumberOfGames());
+        assertEquals(2, builder.getNumberOfSkippedGames());
+        // Only two games with 1. d4 count, which is less than three
+        assertEquals(0, builder.write(bookFile));
+    }
+
+    @Test
+    public void shouldBuildCompiledBook() throws Exception {
+        final Path compiledFile = Files.createTempFile("ronja_", OpeningBookLoader.COMPILED_EXTENSION);
+        try {
+            writeGames(3, WHITE_WINS, 1, BLACK_WINS, 2, DRAW);
+            final OpeningBookBuilder builder = new OpeningBookBuilder(4, 1, 1000);
+            builder.addAll(pgnFile, 2);
+            builder.write(bookFile);
+
+            assertEquals(builder.write(bookFile), builder.write(compiledFile));
+            final OpeningBook expected = OpeningBookParser.parse(bookFile.toFile());
+            final OpeningBook book = OpeningBookLoader.load(compiledFile.toFile());
+            for (String fen : List.of(FEN_START, FEN_E4, FEN_E4_E5, FEN_E4_E6)) {
+                assertEquals(fen, expected.findAllMoves(parse(fen)), book.findAllMoves(parse(fen)));
+            }
+        } finally {
+            Files.deleteIfExists(compiledFile);
+        }
+    }
+
+    @Test
+    public void shouldKeepPopularMovesWhenMemoryIsFull() throws Exception {
+        writeGames(50, DRAW, 1, WHITE_WINS, 1, BLACK_WINS, 1, ENGLISH);
+        // Room for only 12 of the 16 entries, so entries with few games must be removed
+        final OpeningBookBuilder builder = new OpeningBookBuilder(10, 1, 10);
+        builder.addAll(pgnFile, 1);
+        builder.write(bookFile);
+
+        final OpeningBook book = OpeningBookParser.parse(bookFile.toFile());
+        assertEquals(List.of(new BookMove(MOVE_D7D5, 100)), book.findAllMoves(Position.of(List.of("d2d4"))));
+        assertEquals(List.of(new BookMove(MOVE_C2C4, 100)), book.findAllMoves(Position.of(List.of("d2d4", "d7d5"))));
+        assertNull(book.findAllMoves(Position.of(List.of("c2c4"))));
+    }
+
+    @Test
+    public void shouldPruneMoveStatistics() {
+        final MoveStatistics statistics = new MoveStatistics(8);
+        int count = 0;
+        while (!statistics.isFull()) {
+            statistics.add(count, MOVE_E2E4, (count % 2) + 1, 0);
+            count++;
+        }
+        statistics.add(0, MOVE_E2E4, 1, 2);
+
+        // All entries with an even key have one game, except the entry with key 0
+        assertEquals(count / 2 - 1, statistics.prune(2));
+        assertEquals(count / 2 + 1, statistics.size());
+        final List<Long> keys = new ArrayList<>();
+        statistics.forEach((key, move, games, points) -> keys.add(key));
+        assertEquals(count / 2 + 1, keys.size());
+        keys.forEach(key -> assertEquals(key == 0 || key % 2 == 1, true));
+    }
+
+    /**
+     * Writes games to the PGN file, given as pairs of the number of copies and the game text.
+     */
+    private void writeGames(final Object... copiesAndGames) throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < copiesAndGames.length; i += 2) {
+            builder.append(((String) copiesAndGames[i + 1]).repeat((Integer) copiesAndGames[i]));
+        }
+        Files.writeString(pgnFile, builder.toString(), ISO_8859_1);
+    }
+}
@@ -46,6 +46,9 @@ public class OpeningBookParserTest extends AbstractTestCase {
     private static final String START_E4_E6 = "e2e4;e7e6/100;French Defense";
     private static final String LINE_WITHOUT_COMMENT = ";e2e4/100;";
     private static final String LINE_WITH_SYNTAX_ERROR = "Syntax Error";
+    private static final String LINE_WITH_ILLEGAL_MOVE = "e2x4;e7e5/100;";
+    private static final String LINE_AFTER_ILLEGAL_MOVE = "e2x4 e7e5;g1f3/100;";
+    private static final String LINE_WITH_ILLEGAL_BOOK_MOVE = "e2e4 e7e5;g1x3/100;";
 
     @Test
     public void shouldParseEmptyFile() throws Exception {
@@ -112,4 +115,33 @@ public class OpeningBookParserTest extends AbstractTestCase {
     public void shouldNotParseSyntaxError() throws Exception {
         OpeningBookParser.parseLines(singletonList(LINE_WITH_SYNTAX_ERROR));
     }
+
+    @Test
+    public void shouldParseSharedPrefixesInLineOrder() throws Exception {
+        // Given
+        List<BookMove> expectedE4Moves = asList(new BookMove(MOVE_E7E6, 100), new BookMove(MOVE_E7E5, 100));
+        List<BookMove> expectedStartMoves = asList(new BookMove(MOVE_D2D4, 50), new BookMove(MOVE_E2E4, 100));
+
+        // When
+        Map<Position, List<BookMove>> positions =
+                OpeningBookParser.parseLines(asList(START_E4_E6, START_D4, START_E4_E5_NF3, START_E4_E5, START_E4));
+
+        // Then
+        assertEquals(3, positions.size());
+        assertEquals(expectedStartMoves, positions.get(FenParser.parse(FEN_START)));
+        assertEquals(expectedE4Moves, positions.get(FenParser.parse(FEN_E4)));
+        assertEquals(singletonList(new BookMove(MOVE_G1F3, 100)), positions.get(FenParser.parse(FEN_E4_E5)));
+    }
+
+    @Test
+    public void shouldSkipLinesWithIllegalMoves() throws Exception {
+        // When
+        Map<Position, List<BookMove>> positions = OpeningBookParser.parseLines(
+                asList(LINE_WITH_ILLEGAL_MOVE, LINE_AFTER_ILLEGAL_MOVE, LINE_WITH_ILLEGAL_BOOK_MOVE, START_E4));
+
+        // Then
+        assertEquals(2, positions.size());
+        assertEquals(singletonList(new BookMove(MOVE_E2E4, 100)), positions.get(FenParser.parse(FEN_START)));
+        assertEquals(emptyList(), positions.get(FenParser.parse(FEN_E4_E5)));
+    }
 }
@@ -257,6 +257,46 @@ public class OpeningBookTest extends AbstractTestCase {
         assertNull(book.findAllMoves(parse(FEN_SCHOLARS_MATE)));
     }
 
+    @Test
+    public void testFindBestMove_SomeMoves0() throws Exception {
+        Position position = parse(FEN_START);
+        OpeningBook book = new OpeningBook(Map.of(position, List.of(new BookMove(MOVE_E2E4, 0),
+                                                                    new BookMove(MOVE_D2D4, 30),
+                                                                    new BookMove(MOVE_C2C4, 0),
+                                                                    new BookMove(MOVE_G1F3, 70))));
+        for (int i = 0; i < 100; i++) {
+            assertThat(book.findBestMove(position), anyOf(is(MOVE_D2D4), is(MOVE_G1F3)));
+        }
+    }
+
+    @Test
+    public void testMergeTranspositions() throws Exception {
+        Position position = parse(FEN_E4_E5);
+        Map<Position, List<BookMove>> positions = new HashMap<>();
+        positions.put(position, List.of(new BookMove(MOVE_G1F3, 60)));
+        positions.put(position.withFullMoveNumber(7), List.of(new BookMove(MOVE_G1F3, 20), new BookMove(MOVE_D2D4, 20)));
+        OpeningBook book = new OpeningBook(positions);
+
+        assertEquals(1, book.size());
+        assertEquals(List.of(new BookMove(MOVE_G1F3, 80), new BookMove(MOVE_D2D4, 20)), book.findAllMoves(position.withFullMoveNumber(3)));
+    }
+
+    @Test
+    public void testManyPositions() throws Exception {
+        Map<Position, List<BookMove>> positions = new HashMap<>();
+        List<String> fens = List.of(FEN_START, FEN_E4, FEN_E4_E5, FEN_E4_C5, FEN_SCHOLARS_MATE, FEN_MIDDLE_GAME_0);
+        for (String fen : fens) {
+            positions.put(parse(fen), List.of(new BookMove(MOVE_E2E4, 100)));
+        }
+        OpeningBook book = new OpeningBook(positions);
+
+        assertEquals(fens.size(), book.size());
+        for (String fen : fens) {
+            assertEquals(MOVE_E2E4, book.findBestMove(parse(fen)));
+        }
+        assertEquals(0, new OpeningBook(Map.of()).findBestMove(parse(FEN_START)));
+    }
+
     /**
      * Finds all book moves in the position identified by {@code fen} and returns those as normal moves.
      */
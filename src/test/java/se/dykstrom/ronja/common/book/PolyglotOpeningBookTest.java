@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.book;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.test.AbstractTestCase;
+import se.dykstrom.ronja.test.TestUtils;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.common.parser.FenParser.parse;
+
+/**
+ * This class is for testing class {@code PolyglotOpeningBook} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PolyglotOpeningBook
+ * @see PolyglotKeys
+ */
+public class PolyglotOpeningBookTest extends AbstractTestCase {
+
+    private static final String FEN_CASTLING = "r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1";
+
+    private PolyglotKeys keys;
+    private Path bookFile;
+
+    @Before
+    public void setUp() throws Exception {
+        final SplittableRandom random = new SplittableRandom(17);
+        final long[] randoms = new long[PolyglotKeys.NUMBER_OF_RANDOMS];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = random.nextLong();
+        }
+        keys = new PolyglotKeys(randoms);
+        bookFile = Files.createTempFile("ronja_", OpeningBookLoader.POLYGLOT_EXTENSION);
+        bookFile.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void shouldFindSameMovesAsCsvBook() throws Exception {
+        final Map<Position, List<BookMove>> positions = OpeningBookParser.readPositions(TestUtils.createBookFile());
+        writeBook(positions);
+
+        final OpeningBook expected = new OpeningBook(positions);
+        final PolyglotOpeningBook book = PolyglotOpeningBook.open(bookFile, keys);
+
+        assertEquals(expected.size(), book.size());
+        assertEquals(5, book.getNumberOfEntries());
+        for (String fen : List.of(FEN_START, FEN_E4, FEN_E4_E5, FEN_E4_E6)) {
+            final Position position = parse(fen);
+            assertEquals(fen, expected.findAllMoves(position), book.findAllMoves(position));
+        }
+        assertNull(book.findAllMoves(parse(FEN_MIDDLE_GAME_0)));
+    }
+
+    @Test
+    public void shouldFindBestMove() throws Exception {
+        writeBook(OpeningBookParser.readPositions(TestUtils.createBookFile()));
+        final OpeningBook book = PolyglotOpeningBook.open(bookFile, keys);
+
+        assertEquals(MOVE_E2E4, book.findBestMove(parse(FEN_START)));
+        assertEquals(MOVE_G1F3, book.findBestMove(parse(FEN_E4_E5)));
+        for (int i = 0; i < 20; i++) {
+            final int move = book.findBestMove(parse(FEN_E4));
+            assertTrue(move == MOVE_E7E5 || move == MOVE_E7E6);
+        }
+        assertEquals(0, book.findBestMove(parse(FEN_MIDDLE_GAME_0)));
+    }
+
+    @Test
+    public void shouldOpenBookWithStandardKeys() throws Exception {
+        keys = PolyglotKeys.standard();
+        writeBook(OpeningBookParser.readPositions(TestUtils.createBookFile()));
+        final OpeningBook book = PolyglotOpeningBook.open(bookFile);
+
+        assertEquals(MOVE_E2E4, book.findBestMove(parse(FEN_START)));
+        assertEquals(MOVE_G1F3, book.findBestMove(parse(FEN_E4_E5)));
+    }
+
+    @Test
+    public void shouldNotCountPositionsWhenLoadedInBackground() throws Exception {
+        writeBook(OpeningBookParser.readPositions(TestUtils.createBookFile()));
+        final BackgroundOpeningBook book = BackgroundOpeningBook.load(() -> PolyglotOpeningBook.open(bookFile, keys), 0);
+
+        final PolyglotOpeningBook loaded = (PolyglotOpeningBook) book.await();
+        assertFalse(loaded.isSizeKnown());
+        assertEquals(MOVE_E2E4, book.findBestMove(parse(FEN_START)));
+        assertFalse(loaded.isSizeKnown());
+    }
+
+    @Test
+    public void shouldConvertWeightsToPercent() throws Exception {
+        final Position position = parse(FEN_E4);
+        writeBook(Map.of(position, List.of(new BookMove(MOVE_E7E5, 3000), new BookMove(MOVE_E7E6, 1000))));
+        final OpeningBook book = PolyglotOpeningBook.open(bookFile, keys);
+
+        assertEquals(List.of(new BookMove(MOVE_E7E5, 75), new BookMove(MOVE_E7E6, 25)), book.findAllMoves(position));
+    }
+
+    @Test
+    public void shouldDecodeCastling() throws Exception {
+        final Position position = parse(FEN_CASTLING);
+        writeBook(Map.of(position, List.of(new BookMove(MOVE_E1G1, 1), new BookMove(MOVE_E1C1, 1))));
+        final OpeningBook book = PolyglotOpeningBook.open(bookFile, keys);
+
+        assertEquals(List.of(new BookMove(MOVE_E1G1, 50), new BookMove(MOVE_E1C1, 50)), book.findAllMoves(position));
+    }
+
+    @Test
+    public void shouldIgnoreIllegalMoves() throws Exception {
+        final Position position = parse(FEN_START);
+        writeBook(Map.of(position, List.of(new BookMove(MOVE_E7E5, 1))));
+        final OpeningBook book = PolyglotOpeningBook.open(bookFile, keys);
+
+        assertNull(book.findAllMoves(position));
+        assertEquals(0, book.findBestMove(position));
+    }
+
+    @Test
+    public void shouldIncludeEnPassantOnlyIfCapturePossible() throws Exception {
+        // No black pawn can capture on e3
+        final Position e4 = parse(FEN_E4);
+        assertEquals(keys.key(e4.withEnPassantSquare(0)), keys.key(e4));
+
+        // White pawn on e5 can capture on d6
+        final Position ep = parse(FEN_WEP_E5D6);
+        assertNotEquals(keys.key(ep.withEnPassantSquare(0)), keys.key(ep));
+    }
+
+    @Test
+    public void shouldNotIncludeMoveCountersInKey() throws Exception {
+        final Position position = parse(FEN_E4_E5);
+        assertEquals(keys.key(position), keys.key(position.withFullMoveNumber(17).withHalfMoveClock(3)));
+    }
+
+    /**
+     * Checks the standard keys against the test positions in the Polyglot book format specification.
+     */
+    @Test
+    public void shouldCalculateStandardKeys() throws Exception {
+        final PolyglotKeys standard = PolyglotKeys.standard();
+        assertEquals(0x463b96181691fc9cL, standard.key(parse(FEN_START)));
+        assertEquals(0x823c9b50fd114196L, standard.key(parse(FEN_E4)));
+        assertEquals(0x0756b94461c50fb0L, standard.key(Position.of(List.of("e2e4", "d7d5"))));
+        assertEquals(0x662fafb965db29d4L, standard.key(Position.of(List.of("e2e4", "d7d5", "e4e5"))));
+        // White can capture 'en passant'
+        assertEquals(0x22a48b5a8e47ff78L, standard.key(Position.of(List.of("e2e4", "d7d5", "e4e5", "f7f5"))));
+        // White has lost the castling rights
+        assertEquals(0x652a607ca3f242c1L, standard.key(Position.of(List.of("e2e4", "d7d5", "e4e5", "f7f5", "e1e2"))));
+        assertEquals(0x00fdd303c946bdd9L, standard.key(Position.of(List.of("e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7"))));
+        // Black can capture 'en passant'
+        assertEquals(0x3c8123ea7b067637L, standard.key(Position.of(List.of("a2a4", "b7b5", "h2h4", "b5b4", "c2c4"))));
+        assertEquals(0x5c3f9b829b279560L, standard.key(Position.of(List.of("a2a4", "b7b5", "h2h4", "b5b4", "c2c4", "b4c3", "a1a3"))));
+    }
+
+    @Test
+    public void shouldReadRandomNumbers() throws Exception {
+        final StringBuilder builder = new StringBuilder("const uint64 Random64[781] = {\n");
+        for (int i = 0; i < PolyglotKeys.NUMBER_OF_RANDOMS; i++) {
+            builder.append(String.format("   0x%016XULL,%n", i * 0x9E3779B97F4A7C15L));
+        }
+        builder.append("};\n");
+
+        final PolyglotKeys read = PolyglotKeys.read(new ByteArrayInputStream(builder.toString().getBytes(US_ASCII)));
+        assertNotEquals(0, read.key(parse(FEN_START)));
+    }
+
+    @Test
+    public void shouldNotReadTooFewRandomNumbers() {
+        assertThrows(IOException.class, () -> PolyglotKeys.read(new ByteArrayInputStream("0x1234, 0x5678".getBytes(US_ASCII))));
+    }
+
+    @Test
+    public void shouldNotOpenInvalidFile() throws Exception {
+        Files.write(bookFile, new byte[17]);
+        assertThrows(IOException.class, () -> PolyglotOpeningBook.open(bookFile, keys));
+    }
+
+    /**
+     * Writes the given positions to the book file in Polyglot format.
+     */
+    private void writeBook(final Map<Position, List<BookMove>> positions) throws IOException {
+        final List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Position, List<BookMove>> entry : positions.entrySet()) {
+            for (BookMove bookMove : entry.getValue()) {
+                entries.add(new long[]{keys.key(entry.getKey()), encodeMove(bookMove.move()), bookMove.weight()});
+            }
+        }
+        // Polyglot books are sorted on unsigned key, and the sort is stable to keep the move order
+        entries.sort((e1, e2) -> Long.compareUnsigned(e1[0], e2[0]));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(entries.size() * PolyglotOpeningBook.ENTRY_SIZE);
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+        }
+        Files.write(bookFile, buffer.array());
+    }
+
+    private static int encodeMove(final int move) {
+        final int from = Move.getFromIndex(move);
+        int to = Move.getToIndex(move);
+        if (Move.isCastling(move)) {
+            to = (to > from) ? from + 3 : from - 4;
+        }
+        final int promotion = Move.isPromotion(move) ? Move.getPromoted(move) - 1 : 0;
+        return (promotion << 12) | (from << 6) | to;
+    }
+}
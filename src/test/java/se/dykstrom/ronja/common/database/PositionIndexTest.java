@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import se.dykstrom.ronja.common.parser.PgnGame;
+import se.dykstrom.ronja.common.parser.PgnReader;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.common.parser.FenParser.parse;
+
+/**
+ * This class is for testing classes {@code PositionIndex} and {@code PositionIndexBuilder} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PositionIndex
+ * @see PositionIndexBuilder
+ */
+public class PositionIndexTest extends AbstractTestCase {
+
+    private static final String WHITE_WINS = "[Result \"1-0\"]\n\n1. e4 e5 2. Nf3 Nc6 3. Bb5 1-0\n\n";
+    private static final String BLACK_WINS = "[Result \"0-1\"]\n\n1. e4 e6 2. d4 d5 0-1\n\n";
+    private static final String DRAW = "[Result \"1/2-1/2\"]\n\n1. d4 d5 2. c4 e6 1/2-1/2\n\n";
+    private static final String REPETITION = "[Result \"*\"]\n\n1. Nf3 Nf6 2. Ng1 Ng8 3. Nf3 *\n\n";
+
+    private static final List<String> GAMES = List.of(WHITE_WINS, BLACK_WINS, WHITE_WINS, DRAW, REPETITION, WHITE_WINS, DRAW);
+
+    private Path pgnFile;
+    private Path indexFile;
+
+    @Before
+    public void setUp() throws Exception {
+        pgnFile = Files.createTempFile("ronja_", ".pgn");
+        indexFile = Files.createTempFile("ronja_", ".idx");
+        Files.writeString(pgnFile, String.join("", GAMES), ISO_8859_1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(pgnFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    @Test
+    public void shouldBuildIndexWithManyRunsAndMergePasses() throws Exception {
+        // Tiny runs and a small fan-in force several merge passes
+        final long numberOfRecords = new PositionIndexBuilder(4, 2).build(pgnFile, indexFile, 2);
+
+        // One record per position, including the last position of each game
+        assertEquals(6 * 3 + 5 + 5 * 2 + 6, numberOfRecords);
+        final PositionIndex index = PositionIndex.open(indexFile);
+        assertEquals(numberOfRecords, index.size());
+
+        // The start position occurs twice in the game with a repetition
+        assertEquals(GAMES.size() + 1, index.count(parse(FEN_START)));
+        assertEquals(4, index.count(parse(FEN_E4)));
+        assertEquals(3, index.count(parse(FEN_E4_E5)));
+        assertEquals(0, index.count(parse(FEN_E4_C5)));
+    }
+
+    @Test
+    public void shouldFindGames() throws Exception {
+        new PositionIndexBuilder(4, 2).build(pgnFile, indexFile, 1);
+        final PositionIndex index = PositionIndex.open(indexFile);
+
+        assertArrayEquals(offsetsOf(0, 1, 2, 3, 4, 5, 6), index.findGames(parse(FEN_START)));
+        assertArrayEquals(offsetsOf(0, 1, 2, 5), index.findGames(parse(FEN_E4)));
+        assertArrayEquals(offsetsOf(0, 2, 5), index.findGames(parse(FEN_E4_E5)));
+        assertArrayEquals(new long[0], index.findGames(parse(FEN_E4_C5)));
+
+        // The offsets can be used to read the games
+        for (long offset : index.findGames(parse(FEN_E4))) {
+            try (PgnReader reader = PgnReader.open(pgnFile, offset)) {
+                final PgnGame game = reader.next();
+                assertEquals(offset, game.offset());
+                assertEquals(MOVE_E2E4, game.moves()[0]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindMoves() throws Exception {
+        new PositionIndexBuilder(4, 2).build(pgnFile, indexFile, 2);
+        final PositionIndex index = PositionIndex.open(indexFile);
+
+        assertEquals(List.of(new MoveCount(MOVE_E2E4, 4, 3, 0, 1),
+                             new MoveCount(MOVE_D2D4, 2, 0, 2, 0),
+                             new MoveCount(MOVE_G1F3, 2, 0, 0, 0)),
+                     index.findMoves(parse(FEN_START)));
+        assertEquals(List.of(new MoveCount(MOVE_E7E5, 3, 3, 0, 0),
+                             new MoveCount(MOVE_E7E6, 1, 0, 0, 1)),
+                     index.findMoves(parse(FEN_E4)));
+        assertTrue(index.findMoves(parse(FEN_E4_C5)).isEmpty());
+    }
+
+    @Test
+    public void shouldSortRecords() {
+        final Random random = new Random(17);
+        final int size = 1000;
+        final long[] keys = new long[size + 10];
+        final long[] values = new long[size + 10];
+        for (int i = 0; i < size; i++) {
+            // Few distinct keys, so that many records are sorted on value
+            keys[i] = random.nextInt(50) - 25;
+            values[i] = random.nextLong();
+        }
+
+        PositionIndexBuilder.sort(keys, values, size);
+
+        for (int i = 1; i < size; i++) {
+            assertTrue(keys[i - 1] < keys[i] || (keys[i - 1] == keys[i] && Long.compareUnsigned(values[i - 1], values[i]) <= 0));
+        }
+        assertEquals(0, Arrays.stream(keys, size, keys.length).filter(key -> key != 0).count());
+    }
+
+    private static long[] offsetsOf(final int... games) {
+        final long[] offsets = new long[games.length];
+        for (int i = 0; i < games.length; i++) {
+            offsets[i] = GAMES.subList(0, games[i]).stream().mapToLong(String::length).sum();
+        }
+        return offsets;
+    }
+}
@@ -72,6 +72,13 @@ public class MoveTest extends AbstractTestCase {
         createAndAssertCastlingMove(KING, Square.E8, Square.C8);
     }
     
+    @Test
+    public void shouldGetSquareIndices() {
+        int move = Move.createCapture(QUEEN, Square.D1_IDX, Square.D8_IDX, KNIGHT);
+        assertThat(Move.getFromIndex(move), is(Square.D1_IDX));
+        assertThat(Move.getToIndex(move), is(Square.D8_IDX));
+    }
+
     @Test
     public void shouldCreateEnPassantMove() {
         createAndAssertEnPassantMove(PAWN, Square.E6, Square.F7, PAWN);
@@ -424,4 +424,118 @@ public class PositionTest extends AbstractTestCase {
         assertEquals(0, resultPosition.getPiece(Square.A2));
         assertNull(resultPosition.getColor(Square.A2));
     }
+
+    /**
+     * Tests that the incrementally updated key is the same as the key calculated from scratch.
+     */
+    @Test
+    public void testKeyAfterMove() throws Exception {
+        assertKeyAfterMove(FEN_START, "e2e4");
+        assertKeyAfterMove(FEN_E4, "c7c5");
+        assertKeyAfterMove(FEN_PC_E4D5, "e4d5");
+        assertKeyAfterMove(FEN_WEP_E5D6, "e5d6");
+        assertKeyAfterMove(FEN_BEP_D4C3, "d4c3");
+        assertKeyAfterMove(FEN_WKC_OK, "e1g1");
+        assertKeyAfterMove(FEN_BKC_OK, "e8g8");
+        assertKeyAfterMove(FEN_WQC_OK, "e1c1");
+        assertKeyAfterMove(FEN_BQC_OK, "e8c8");
+        assertKeyAfterMove(FEN_WP_E7F8, "e7f8n");
+        assertKeyAfterMove(FEN_BP_A2A1, "a2a1q");
+        assertKeyAfterMove(FEN_BP_B2A1, "b2a1r");
+    }
+
+    @Test
+    public void testKeyDependsOnActiveColorCastlingAndEnPassant() throws Exception {
+        Position position = FenParser.parse(FEN_START);
+        assertNotEquals(position.getKey(), position.withActiveColor(Color.BLACK).getKey());
+        assertNotEquals(position.getKey(), position.withKingSideCastlingAllowed(Color.WHITE, false).getKey());
+        assertNotEquals(position.getKey(), position.withEnPassantSquare(Square.E3).getKey());
+        assertEquals(position.getKey(), position.withFullMoveNumber(17).withHalfMoveClock(3).getKey());
+    }
+
+    @Test
+    public void testKeyOfTransposition() throws Exception {
+        Position position1 = Position.of(new String[]{"g1f3", "g8f6", "b1c3", "b8c6"});
+        Position position2 = Position.of(new String[]{"b1c3", "b8c6", "g1f3", "g8f6"});
+        assertTrue(position1.equalTo(position2));
+        assertEquals(position1.getKey(), position2.getKey());
+        assertNotEquals(position1.getKey(), Position.START.getKey());
+    }
+
+    @Test
+    public void testPawnKeyAfterMove() throws Exception {
+        assertPawnKeyAfterMove(FEN_START, "e2e4");
+        assertPawnKeyAfterMove(FEN_START, "g1f3");
+        assertPawnKeyAfterMove(FEN_PC_E4D5, "e4d5");
+        assertPawnKeyAfterMove(FEN_WEP_E5D6, "e5d6");
+        assertPawnKeyAfterMove(FEN_BEP_D4C3, "d4c3");
+        assertPawnKeyAfterMove(FEN_WP_E7F8, "e7f8n");
+        assertPawnKeyAfterMove(FEN_BP_B2A1, "b2a1r");
+    }
+
+    @Test
+    public void testPawnKeyOnlyDependsOnPawns() throws Exception {
+        Position position = FenParser.parse(FEN_START);
+        assertEquals(position.getPawnKey(), position.withMove(MoveParser.parse("g1f3", position)).getPawnKey());
+        assertEquals(position.getPawnKey(), position.withActiveColor(Color.BLACK).getPawnKey());
+        assertNotEquals(position.getPawnKey(), position.withMove(MoveParser.parse("e2e4", position)).getPawnKey());
+        assertNotEquals(position.getKey(), position.getPawnKey());
+    }
+
+    @Test
+    public void testAttackedSquaresAfterMove() throws Exception {
+        assertAttackedSquaresAfterMove(FEN_START, "e2e4");
+        assertAttackedSquaresAfterMove(FEN_PC_E4D5, "e4d5");
+        assertAttackedSquaresAfterMove(FEN_WKC_OK, "e1g1");
+        assertAttackedSquaresAfterMove(FEN_BQC_OK, "e8c8");
+        assertAttackedSquaresAfterMove(FEN_BP_B2A1, "b2a1r");
+    }
+
+    @Test
+    public void testIsAttackedMatchesAttackedSquares() throws Exception {
+        for (String fen : new String[]{FEN_START, FEN_MIDDLE_GAME_0, FEN_MIDDLE_GAME_1, FEN_MIDDLE_GAME_2,
+                                       FEN_END_GAME_0, FEN_END_GAME_1, FEN_CHECKMATE_0, FEN_WEP_E5D6}) {
+            Position position = FenParser.parse(fen);
+            for (Color color : Color.values()) {
+                long attacked = position.getAttackedSquares(color);
+                for (int index = 0; index < 64; index++) {
+                    assertEquals(fen + " " + color + " " + index,
+                                 (attacked & (1L << index)) != 0, position.isAttacked(index, color));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIsCheckMatchesAttackedSquares() throws Exception {
+        Position position = FenParser.parse(FEN_CHECKMATE_0);
+        assertEquals(position.isCheck(Color.WHITE),
+                     (position.king & position.white & position.getAttackedSquares(Color.BLACK)) != 0);
+        assertEquals(position.isCheck(Color.BLACK),
+                     (position.king & position.black & position.getAttackedSquares(Color.WHITE)) != 0);
+        assertTrue(position.isCheck(position.getActiveColor()));
+        assertFalse(Position.START.isCheck(Color.WHITE));
+        assertFalse(Position.START.isCheck(Color.BLACK));
+    }
+
+    private void assertAttackedSquaresAfterMove(String fen, String move) throws Exception {
+        Position position = FenParser.parse(fen);
+        Position result = position.withMove(MoveParser.parse(move, position));
+        Position expected = FenParser.parse(FenParser.format(result));
+        assertEquals(expected.getAttackedSquares(Color.WHITE), result.getAttackedSquares(Color.WHITE));
+        assertEquals(expected.getAttackedSquares(Color.BLACK), result.getAttackedSquares(Color.BLACK));
+    }
+
+    private void assertPawnKeyAfterMove(String fen, String move) throws Exception {
+        Position position = FenParser.parse(fen);
+        Position result = position.withMove(MoveParser.parse(move, position));
+        assertEquals(FenParser.parse(FenParser.format(result)).getPawnKey(), result.getPawnKey());
+    }
+
+    private void assertKeyAfterMove(String fen, String move) throws Exception {
+        Position position = FenParser.parse(fen);
+        position.getKey();
+        Position result = position.withMove(MoveParser.parse(move, position));
+        assertEquals(FenParser.parse(FenParser.format(result)).getKey(), result.getKey());
+    }
 }
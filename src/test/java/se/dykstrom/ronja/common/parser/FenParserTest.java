@@ -384,4 +384,51 @@ public class FenParserTest extends AbstractTestCase {
 
         assertEmpty(position, Square.A1, Square.C1, Square.C5, Square.E4, Square.F5, Square.G6, Square.H1, Square.H8);
     }
+
+    @Test
+    public void testFormatIntoReusedBuilder() throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        FenParser.format(FenParser.parse(FEN_START), builder);
+        assertEquals(FEN_START, builder.toString());
+        builder.setLength(0);
+        FenParser.format(FenParser.parse(FEN_WEP_E5D6), builder);
+        assertEquals(FEN_WEP_E5D6, builder.toString());
+    }
+
+    @Test
+    public void testParsedPositionIsComplete() throws Exception {
+        final Position expected = Position.of(MOVE_E4_C5_NF3_NC6_D4);
+        final Position position = FenParser.parse(FEN_E4_C5_NF3_NC6_D4);
+        assertEquals(expected.getKey(), position.getKey());
+        assertEquals(expected.getPawnKey(), position.getPawnKey());
+        assertEquals(expected.getAttackedSquares(Color.WHITE), position.getAttackedSquares(Color.WHITE));
+        assertEquals(expected.getAttackedSquares(Color.BLACK), position.getAttackedSquares(Color.BLACK));
+    }
+
+    @Test
+    public void testParseWithTrailingWhiteSpace() throws Exception {
+        assertEquals(FenParser.parse(FEN_START), FenParser.parse(FEN_START + " \n"));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        for (String fen : new String[] {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR  w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e9 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 -1",
+                "rnbqqbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        }) {
+            Assert.assertThrows(fen, ParseException.class, () -> FenParser.parse(fen));
+        }
+    }
 }
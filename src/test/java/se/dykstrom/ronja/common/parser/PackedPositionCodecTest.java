@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Color;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class is for testing class {@code PackedPositionCodec} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PackedPositionCodec
+ */
+public class PackedPositionCodecTest extends AbstractTestCase {
+
+    private static final String FEN_LATE_ENDGAME = "8/8/4k3/8/2K5/8/6p1/8 b - - 99 187";
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("ronja_", ".pos");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void shouldRoundTripAllTestPositions() throws Exception {
+        for (String fen : getAllFens()) {
+            final Position position = FenParser.parse(fen);
+            final byte[] bytes = PackedPositionCodec.encode(position);
+            assertEquals(PackedPositionCodec.SIZE, bytes.length);
+
+            final Position decoded = PackedPositionCodec.decode(bytes);
+            assertEquals(fen, position, decoded);
+            assertEquals(fen, FenParser.format(position), FenParser.format(decoded));
+            assertEquals(fen, position.getKey(), decoded.getKey());
+            assertEquals(fen, position.getAttackedSquares(Color.WHITE), decoded.getAttackedSquares(Color.WHITE));
+        }
+    }
+
+    @Test
+    public void shouldBeIndependentOfByteOrder() throws Exception {
+        final Position position = FenParser.parse(FEN_E4_C5_NF3_NC6_D4);
+        final ByteBuffer little = ByteBuffer.allocate(PackedPositionCodec.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        final ByteBuffer big = ByteBuffer.allocate(PackedPositionCodec.SIZE).order(ByteOrder.BIG_ENDIAN);
+
+        PackedPositionCodec.encode(position, little);
+        PackedPositionCodec.encode(position, big);
+
+        assertArrayEquals(little.array(), big.array());
+        assertEquals(position, PackedPositionCodec.decode(little.flip()));
+        assertEquals(position, PackedPositionCodec.decode(big.flip()));
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeAll() throws Exception {
+        final List<Position> positions = parseAll(getAllFens());
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(positions.size() * PackedPositionCodec.SIZE);
+
+        PackedPositionCodec.encodeAll(positions, buffer);
+        assertEquals(0, buffer.remaining());
+
+        assertEquals(positions, PackedPositionCodec.decodeAll(buffer.flip()));
+    }
+
+    @Test
+    public void shouldWriteAndReadFile() throws Exception {
+        // More positions than fit in the I/O buffer
+        final List<Position> positions = new ArrayList<>();
+        final List<Position> testPositions = parseAll(getAllFens());
+        while (positions.size() < 5000) {
+            positions.addAll(testPositions);
+        }
+
+        PackedPositionCodec.write(file, positions);
+
+        assertEquals(PackedPositionCodec.HEADER_SIZE + (long) positions.size() * PackedPositionCodec.SIZE, Files.size(file));
+        assertEquals(positions, PackedPositionCodec.read(file));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotReadInvalidFile() throws Exception {
+        Files.writeString(file, FEN_START + "\n" + FEN_E4 + "\n");
+        PackedPositionCodec.read(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotReadTruncatedFile() throws Exception {
+        PackedPositionCodec.write(file, parseAll(List.of(FEN_START, FEN_E4)));
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        PackedPositionCodec.read(file);
+    }
+
+    /**
+     * Returns all valid FEN strings defined in {@link AbstractTestCase}, and some extra ones.
+     */
+    private static List<String> getAllFens() throws IllegalAccessException {
+        final List<String> fens = new ArrayList<>(List.of(FEN_LATE_ENDGAME));
+        for (Field field : AbstractTestCase.class.getDeclaredFields()) {
+            if (field.getName().startsWith("FEN_") && Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                final String fen = (String) field.get(null);
+                try {
+                    FenParser.parse(fen);
+                    fens.add(fen);
+                } catch (ParseException e) {
+                    // Some test positions are invalid on purpose
+                }
+            }
+        }
+        return fens;
+    }
+
+    private static List<Position> parseAll(final List<String> fens) throws Exception {
+        final List<Position> positions = new ArrayList<>();
+        for (String fen : fens) {
+            positions.add(FenParser.parse(fen));
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class is for testing class {@code PgnReader} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PgnReader
+ */
+public class PgnReaderTest extends AbstractTestCase {
+
+    private static final String GAME_1 = String.join("\n",
+            "[Event \"Casual \\\"game\\\"\"]",
+            "[White \"Ronja\"]",
+            "[Result \"1-0\"]",
+            "",
+            "1. e4 c5 2. Nf3 1-0",
+            "");
+
+    private static final String GAME_2 = String.join("\n",
+            "[Event \"Second\"]",
+            "[FEN \"" + FEN_E4_E5 + "\"]",
+            "",
+            "2. Nf3 Nc6 *",
+            "");
+
+    @Test
+    public void shouldReadGames() throws Exception {
+        final List<PgnGame> games = readAll(GAME_1 + "\n" + GAME_2);
+
+        assertEquals(2, games.size());
+        final PgnGame first = games.get(0);
+        assertEquals("Casual \"game\"", first.tag("Event"));
+        assertEquals("Ronja", first.tag("White"));
+        assertEquals(List.of("Event", "White", "Result"), new ArrayList<>(first.tags().keySet()));
+        assertEquals("1-0", first.result());
+        assertEquals(Position.START, first.startPosition());
+        assertArrayEquals(parseMoves(MOVE_E4_C5_NF3), first.moves());
+
+        final PgnGame second = games.get(1);
+        assertEquals(FEN_E4_E5, FenParser.format(second.startPosition()));
+        assertEquals(2, second.moves().length);
+        assertEquals("*", second.result());
+        assertNull(second.tag("Result"));
+    }
+
+    @Test
+    public void shouldSkipCommentsVariationsAndAnnotations() throws Exception {
+        final String pgn = String.join("\n",
+                "% Escaped line with [brackets] and 1-0",
+                "[Event \"Annotated\"]",
+                "",
+                "1.e4 {A comment with (parentheses) and 0-1} c5!? 2. Nf3 ; rest of line 1/2-1/2",
+                "(2. Nc3 {nested} (2. f4) Nc6) 2...Nc6 $1 3. d4?! 1/2-1/2");
+        final List<PgnGame> games = readAll(pgn);
+
+        assertEquals(1, games.size());
+        assertEquals("1/2-1/2", games.get(0).result());
+        assertArrayEquals(parseMoves(new String[]{"e2e4", "c7c5", "g1f3", "b8c6", "d2d4"}), games.get(0).moves());
+    }
+
+    @Test
+    public void shouldReadCastlingWrittenWithZeros() throws Exception {
+        final List<PgnGame> games = readAll("[FEN \"" + FEN_WKC_OK + "\"]\n\n4. 0-0 *");
+        assertEquals(1, games.get(0).moves().length);
+        assertEquals(SanParser.parse("O-O", FenParser.parse(FEN_WKC_OK)), games.get(0).moves()[0]);
+    }
+
+    @Test
+    public void shouldReadGamesWithoutTerminationMarker() throws Exception {
+        final List<PgnGame> games = readAll("[Event \"1\"]\n\n1. e4 e5\n[Event \"2\"]\n\n1. d4 d5\n");
+        assertEquals(2, games.size());
+        assertEquals("", games.get(0).result());
+        assertEquals("2", games.get(1).tag("Event"));
+        assertEquals(2, games.get(1).moves().length);
+    }
+
+    @Test
+    public void shouldStopAtIllegalMove() throws Exception {
+        final List<PgnGame> games = readAll("[Event \"Illegal\"]\n\n1. e4 Nf6 2. Qxf7 Kd6 1-0\n\n" + GAME_1);
+        assertEquals(2, games.size());
+        assertEquals(2, games.get(0).moves().length);
+        assertEquals("1-0", games.get(0).result());
+        assertEquals(3, games.get(1).moves().length);
+    }
+
+    @Test
+    public void shouldReadEmptyInput() throws Exception {
+        assertEquals(0, readAll("").size());
+        assertEquals(0, readAll("\n\n  \n").size());
+    }
+
+    @Test
+    public void shouldReadLargeInput() throws Exception {
+        // Many games, to make sure tokens that cross buffer boundaries are read correctly
+        final int numberOfGames = 5000;
+        final List<PgnGame> games = readAll(String.join("\n", Collections.nCopies(numberOfGames, GAME_1)));
+        assertEquals(numberOfGames, games.size());
+        for (PgnGame game : games) {
+            assertEquals(3, game.moves().length);
+            assertEquals(3, game.tags().size());
+        }
+    }
+
+    @Test
+    public void shouldReadGamesInParallel() throws Exception {
+        final int numberOfGames = 1000;
+        final Path path = Files.createTempFile("test", ".pgn");
+        try {
+            Files.writeString(path, String.join("\n", Collections.nCopies(numberOfGames, GAME_1 + "\n" + GAME_2)), ISO_8859_1);
+            final AtomicInteger moves = new AtomicInteger();
+            final int count = PgnReader.readAll(path, 3, game -> moves.addAndGet(game.moves().length));
+            assertEquals(2 * numberOfGames, count);
+            assertEquals(5 * numberOfGames, moves.get());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldReadGameAtOffset() throws Exception {
+        final String pgn = "\n" + GAME_1 + "\n{ A comment }\n" + GAME_2;
+        final List<PgnGame> games = readAll(pgn);
+        assertEquals(1, games.get(0).offset());
+        assertEquals(pgn.indexOf("{ A comment }"), games.get(1).offset());
+
+        final Path path = Files.createTempFile("test", ".pgn");
+        try {
+            Files.writeString(path, pgn, ISO_8859_1);
+            try (PgnReader reader = PgnReader.open(path, games.get(1).offset())) {
+                final PgnGame game = reader.next();
+                assertEquals("Second", game.tag("Event"));
+                assertEquals(games.get(1).offset(), game.offset());
+                assertArrayEquals(games.get(1).moves(), game.moves());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static List<PgnGame> readAll(final String pgn) throws Exception {
+        final List<PgnGame> games = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(ISO_8859_1))))) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+}
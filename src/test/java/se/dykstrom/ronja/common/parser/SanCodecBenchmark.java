@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.FullMoveGenerator;
+
+/**
+ * A simple benchmark that compares the performance of {@link SanCodec} with {@link SanParser}.
+ * It formats and parses all legal moves in the positions of a number of random games, and prints
+ * the average time per move for each implementation. Run it from the command line or the IDE,
+ * optionally with the number of rounds as the only argument.
+ *
+ * @author Johan Dykstrom
+ */
+public final class SanCodecBenchmark {
+
+    /** A position and a legal move in that position. */
+    private record Sample(Position position, int move, String san) { }
+
+    private SanCodecBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        final int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 5;
+        final List<Sample> samples = createSamples();
+        System.out.printf("Benchmarking %d moves in %d rounds%n", samples.size(), rounds);
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("Round %d:%n", round);
+            System.out.printf("  SanParser.format %8.1f ns/move%n", formatOld(samples));
+            System.out.printf("  SanCodec.format  %8.1f ns/move%n", formatNew(samples));
+            System.out.printf("  SanParser.parse  %8.1f ns/move%n", parseOld(samples));
+            System.out.printf("  SanCodec.parse   %8.1f ns/move%n", parseNew(samples));
+        }
+    }
+
+    private static List<Sample> createSamples() {
+        final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+        final int[] moves = new int[FullMoveGenerator.MAX_MOVES];
+        final List<Sample> samples = new ArrayList<>();
+        for (Position position : SanCodecTest.randomPositions(new Random(4711), 200, 150)) {
+            final int numberOfMoves = SanCodecTest.legalMoves(position, moveGenerator, moves);
+            for (int i = 0; i < numberOfMoves; i++) {
+                samples.add(new Sample(position, moves[i], SanCodec.format(position, moves[i])));
+            }
+        }
+        return samples;
+    }
+
+    private static double formatOld(final List<Sample> samples) {
+        final long start = System.nanoTime();
+        long length = 0;
+        for (Sample sample : samples) {
+            length += SanParser.format(sample.position(), sample.move()).length();
+        }
+        return nanosPerMove(start, samples, length);
+    }
+
+    private static double formatNew(final List<Sample> samples) {
+        final StringBuilder builder = new StringBuilder();
+        final long start = System.nanoTime();
+        long length = 0;
+        for (Sample sample : samples) {
+            builder.setLength(0);
+            length += SanCodec.format(sample.position(), sample.move(), builder).length();
+        }
+        return nanosPerMove(start, samples, length);
+    }
+
+    private static double parseOld(final List<Sample> samples) throws IllegalMoveException {
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (Sample sample : samples) {
+            sum += SanParser.parse(sample.san(), sample.position());
+        }
+        return nanosPerMove(start, samples, sum);
+    }
+
+    private static double parseNew(final List<Sample> samples) throws IllegalMoveException {
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (Sample sample : samples) {
+            sum += SanCodec.parse(sample.san(), sample.position());
+        }
+        return nanosPerMove(start, samples, sum);
+    }
+
+    /**
+     * Returns the average time per move in nanoseconds. The checksum is only used
+     * to prevent the JIT compiler from removing the benchmarked code.
+     */
+    private static double nanosPerMove(final long start, final List<Sample> samples, final long checksum) {
+        final long elapsed = System.nanoTime() - start;
+        if (checksum == Long.MIN_VALUE) {
+            System.out.println("Unlikely checksum");
+        }
+        return (double) elapsed / samples.size();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.common.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.FullMoveGenerator;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.common.model.Piece.BISHOP;
+import static se.dykstrom.ronja.common.model.Piece.KNIGHT;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
+import static se.dykstrom.ronja.common.model.Square.A1_IDX;
+import static se.dykstrom.ronja.common.model.Square.A3_IDX;
+import static se.dykstrom.ronja.common.model.Square.B1_IDX;
+import static se.dykstrom.ronja.common.model.Square.B4_IDX;
+import static se.dykstrom.ronja.common.model.Square.B5_IDX;
+import static se.dykstrom.ronja.common.model.Square.B7_IDX;
+import static se.dykstrom.ronja.common.model.Square.B8_IDX;
+import static se.dykstrom.ronja.common.model.Square.C1_IDX;
+import static se.dykstrom.ronja.common.model.Square.C3_IDX;
+import static se.dykstrom.ronja.common.model.Square.C4_IDX;
+import static se.dykstrom.ronja.common.model.Square.C5_IDX;
+import static se.dykstrom.ronja.common.model.Square.C6_IDX;
+import static se.dykstrom.ronja.common.model.Square.D1_IDX;
+import static se.dykstrom.ronja.common.model.Square.D2_IDX;
+import static se.dykstrom.ronja.common.model.Square.D6_IDX;
+import static se.dykstrom.ronja.common.model.Square.E1_IDX;
+import static se.dykstrom.ronja.common.model.Square.E4_IDX;
+import static se.dykstrom.ronja.common.model.Square.E5_IDX;
+import static se.dykstrom.ronja.common.model.Square.E7_IDX;
+import static se.dykstrom.ronja.common.model.Square.E8_IDX;
+import static se.dykstrom.ronja.common.model.Square.F3_IDX;
+import static se.dykstrom.ronja.common.model.Square.F4_IDX;
+import static se.dykstrom.ronja.common.model.Square.F6_IDX;
+import static se.dykstrom.ronja.common.model.Square.F7_IDX;
+import static se.dykstrom.ronja.common.model.Square.F8_IDX;
+import static se.dykstrom.ronja.common.model.Square.G1_IDX;
+import static se.dykstrom.ronja.common.model.Square.H6_IDX;
+import static se.dykstrom.ronja.common.parser.FenParser.parse;
+import static se.dykstrom.ronja.common.parser.SanCodec.format;
+import static se.dykstrom.ronja.common.parser.SanCodec.isMove;
+
+/**
+ * This class is for testing class {@code SanCodec} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see SanCodec
+ */
+public class SanCodecTest extends AbstractTestCase {
+
+    /** Two white knights can move to c3, but the knight on e2 is pinned. */
+    private static final String FEN_PINNED_KNIGHT = "k3r3/8/8/8/8/8/4N3/1N2K3 w - - 0 1";
+
+    /** The knight on e4 can give discovered check. */
+    private static final String FEN_DISCOVERED_CHECK = "4k3/8/8/8/4N3/8/8/K3R3 w - - 0 1";
+
+    /** White can give check by castling. */
+    private static final String FEN_CASTLING_CHECK = "5k2/8/8/8/8/8/8/4K2R w K - 0 1";
+
+    /** White can give discovered check by capturing 'en passant'. */
+    private static final String FEN_EN_PASSANT_CHECK = "8/8/8/R2pP2k/8/8/8/K7 w - d6 0 1";
+
+    /** White cannot castle, because f1 is attacked. */
+    private static final String FEN_CASTLING_ATTACKED = "5r1k/8/8/8/8/8/8/4K2R w K - 0 1";
+
+    @Test
+    public void testIsMove() {
+        assertTrue(isMove("Nf3"));
+        assertTrue(isMove("Qd5d6"));
+        assertTrue(isMove("R7xf8+"));
+        assertTrue(isMove("e4"));
+        assertTrue(isMove("hxg5#"));
+        assertTrue(isMove("axb8=N#"));
+        assertTrue(isMove("O-O"));
+        assertTrue(isMove("O-O-O+"));
+
+        assertFalse(isMove(""));
+        assertFalse(isMove("Nf9"));
+        assertFalse(isMove("Nfff5"));
+        assertFalse(isMove("Q9g8"));
+        assertFalse(isMove("a0#"));
+        assertFalse(isMove("e8"));
+        assertFalse(isMove("e6=Q"));
+        assertFalse(isMove("g8=K"));
+        assertFalse(isMove("e8=Q##"));
+        assertFalse(isMove("O-O-O-O"));
+    }
+
+    // -----------------------------------------------------------------------
+    // Formatting:
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void testFormat() throws Exception {
+        assertEquals("e4", format(parse(FEN_START), MOVE_E2E4));
+        assertEquals("Nf3", format(parse(FEN_START), Move.create(KNIGHT, G1_IDX, F3_IDX)));
+        assertEquals("exf8=N", format(parse(FEN_WP_E7F8), Move.createCapturePromotion(E7_IDX, F8_IDX, BISHOP, KNIGHT)));
+        assertEquals("exd6", format(parse(FEN_WEP_E5D6), Move.createEnPassant(E5_IDX, D6_IDX)));
+        assertEquals("O-O-O", format(parse(FEN_WQC_OK), Move.createCastling(E1_IDX, C1_IDX)));
+    }
+
+    @Test
+    public void testFormatDisambiguation() throws Exception {
+        assertEquals("Qcf6", format(parse(FEN_TWO_QUEENS), Move.create(QUEEN, C6_IDX, F6_IDX)));
+        assertEquals("Qfxe4", format(parse(FEN_TWO_QUEENS), Move.createCapture(QUEEN, F3_IDX, E4_IDX, PAWN)));
+        assertEquals("Nba3", format(parse(FEN_MANY_CAPTURES), Move.create(KNIGHT, B5_IDX, A3_IDX)));
+        assertEquals("N5xd6", format(parse(FEN_MANY_CAPTURES), Move.createCapture(KNIGHT, B5_IDX, D6_IDX, ROOK)));
+        assertEquals("Ncxd6", format(parse(FEN_MANY_CAPTURES), Move.createCapture(KNIGHT, C4_IDX, D6_IDX, ROOK)));
+        assertEquals("N7xd6", format(parse(FEN_MANY_CAPTURES), Move.createCapture(KNIGHT, B7_IDX, D6_IDX, ROOK)));
+        assertEquals("R1xd6+", format(parse(FEN_MANY_CAPTURES), Move.createCapture(ROOK, D1_IDX, D6_IDX, ROOK)));
+        // The pinned knight cannot move to c3, so there is no need to disambiguate
+        assertEquals("Nc3", format(parse(FEN_PINNED_KNIGHT), Move.create(KNIGHT, B1_IDX, C3_IDX)));
+    }
+
+    @Test
+    public void testFormatCheck() throws Exception {
+        assertEquals("Bf4+", format(parse(FEN_DRAW_2_2), Move.create(BISHOP, D2_IDX, F4_IDX)));
+        assertEquals("b8=Q+", format(parse(FEN_DRAW_2_0), Move.createPromotion(B7_IDX, B8_IDX, QUEEN)));
+        assertEquals("Nc5+", format(parse(FEN_DISCOVERED_CHECK), Move.create(KNIGHT, E4_IDX, C5_IDX)));
+        assertEquals("O-O+", format(parse(FEN_CASTLING_CHECK), Move.createCastling(E1_IDX, G1_IDX)));
+        assertEquals("exd6+", format(parse(FEN_EN_PASSANT_CHECK), Move.createEnPassant(E5_IDX, D6_IDX)));
+    }
+
+    @Test
+    public void testFormatCheckMate() throws Exception {
+        assertEquals("Ba3#", format(parse(FEN_CHECKMATE_3_2), Move.create(BISHOP, B4_IDX, A3_IDX)));
+        assertEquals("Nf7#", format(parse(FEN_CHECKMATE_2_8), Move.create(KNIGHT, H6_IDX, F7_IDX)));
+        assertEquals("Rxc1#", format(parse(FEN_CHECKMATE_1_2), Move.createCapture(ROOK, A1_IDX, C1_IDX, BISHOP)));
+    }
+
+    @Test
+    public void testFormatIntoReusedBuilder() throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        format(parse(FEN_START), MOVE_E2E4, builder).append(' ');
+        format(parse(FEN_E4), MOVE_E7E5, builder);
+        assertEquals("e4 e5", builder.toString());
+    }
+
+    // -----------------------------------------------------------------------
+    // Parsing:
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void testParse() throws Exception {
+        assertEquals(MOVE_E2E4, SanCodec.parse("e4", parse(FEN_START)));
+        assertEquals(MOVE_E7E5, SanCodec.parse("e5", parse(FEN_E4)));
+        assertEquals(MOVE_E4D5, SanCodec.parse("exd5", parse(FEN_PC_E4D5)));
+        assertEquals(MOVE_E5D6, SanCodec.parse("exd6", parse(FEN_WEP_E5D6)));
+        assertEquals(MOVE_D4C3, SanCodec.parse("dxc3", parse(FEN_BEP_D4C3)));
+        assertEquals(Move.createCapturePromotion(E7_IDX, F8_IDX, BISHOP, QUEEN), SanCodec.parse("exf8=Q+", parse(FEN_WP_E7F8)));
+        assertEquals(Move.create(QUEEN, C6_IDX, F6_IDX), SanCodec.parse("Qcf6", parse(FEN_TWO_QUEENS)));
+        assertEquals(Move.createCapture(KNIGHT, B7_IDX, D6_IDX, ROOK), SanCodec.parse("N7xd6", parse(FEN_MANY_CAPTURES)));
+        assertEquals(Move.create(KNIGHT, B1_IDX, C3_IDX), SanCodec.parse("Nc3", parse(FEN_PINNED_KNIGHT)));
+        assertEquals(MOVE_E1G1, SanCodec.parse("O-O", parse(FEN_WKC_OK)));
+        assertEquals(MOVE_E8C8, SanCodec.parse("O-O-O", parse(FEN_BQC_OK)));
+        assertEquals(MOVE_E1G1, SanCodec.parse("0-0", parse(FEN_WKC_OK)));
+    }
+
+    @Test
+    public void testParseIllegalMoves() {
+        // No knight can move to f4
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("Nf4", parse(FEN_START)));
+        // Both queens can move to f6
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("Qf6", parse(FEN_TWO_QUEENS)));
+        // The knight on e2 is pinned
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("Nd4", parse(FEN_PINNED_KNIGHT)));
+        // The king would pass through check
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("O-O", parse(FEN_CASTLING_ATTACKED)));
+        // The pawn must promote
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("exf8", parse(FEN_WP_E7F8)));
+        // Invalid syntax
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("Nf", parse(FEN_START)));
+        assertThrows(IllegalMoveException.class, () -> SanCodec.parse("e9", parse(FEN_START)));
+
+        IllegalMoveException e = assertThrows(IllegalMoveException.class, () -> SanCodec.parse("dxe5", parse(FEN_E4_C5)));
+        assertEquals("illegal pawn move, no pawn on d4", e.getMessage());
+        e = assertThrows(IllegalMoveException.class, () -> SanCodec.parse("exd5", parse(FEN_E4_C5)));
+        assertEquals("illegal capture", e.getMessage());
+    }
+
+    // -----------------------------------------------------------------------
+    // Comparison with SanParser:
+    // -----------------------------------------------------------------------
+
+    /**
+     * Formats and parses all legal moves in the positions of a number of random games, and verifies
+     * that the results are compatible with class {@link SanParser}. The formatted moves may differ,
+     * because {@code SanParser} disambiguates moves using pinned pieces too, and does not add check
+     * symbols to castling moves, but each parser must be able to parse the other parser's moves.
+     */
+    @Test
+    public void testCompatibleWithSanParser() throws Exception {
+        final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+        final int[] moves = new int[FullMoveGenerator.MAX_MOVES];
+        for (Position position : randomPositions(new Random(17), 40, 200)) {
+            final int numberOfMoves = legalMoves(position, moveGenerator, moves);
+            for (int i = 0; i < numberOfMoves; i++) {
+                final int move = moves[i];
+                final String newFormat = format(position, move);
+                final String oldFormat = SanParser.format(position, move);
+                final String message = FenParser.format(position) + " " + newFormat + " " + oldFormat;
+                assertEquals(message, move, SanCodec.parse(newFormat, position));
+                assertEquals(message, move, SanCodec.parse(oldFormat, position));
+                assertEquals(message, move, SanParser.parse(newFormat, position));
+                if (!Move.isCastling(move)) {
+                    assertEquals(message, suffix(oldFormat), suffix(newFormat));
+                }
+            }
+        }
+    }
+
+    private static char suffix(final String move) {
+        final char last = move.charAt(move.length() - 1);
+        return (last == '+' || last == '#') ? last : ' ';
+    }
+
+    /**
+     * Plays a number of games with random legal moves, and returns all positions in the games.
+     */
+    static List<Position> randomPositions(final Random random, final int games, final int maxPlies) {
+        final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+        final int[] moves = new int[FullMoveGenerator.MAX_MOVES];
+        final List<Position> positions = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            Position position = Position.START;
+            for (int ply = 0; ply < maxPlies; ply++) {
+                final int numberOfMoves = legalMoves(position, moveGenerator, moves);
+                if (numberOfMoves == 0) {
+                    break;
+                }
+                positions.add(position);
+                position = position.withMove(moves[random.nextInt(numberOfMoves)]);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Stores all legal moves in the given position in {@code moves}, and returns the number of moves.
+     */
+    static int legalMoves(final Position position, final FullMoveGenerator moveGenerator, final int[] moves) {
+        int count = 0;
+        final int numberOfMoves = moveGenerator.generateMoves(position, 0);
+        for (int i = 0; i < numberOfMoves; i++) {
+            final int move = moveGenerator.moves[0][i];
+            if (!position.withMove(move).isCheck(position.getActiveColor())) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+    }
+}
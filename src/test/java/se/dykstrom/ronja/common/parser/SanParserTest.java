@@ -17,11 +17,14 @@
 
 package se.dykstrom.ronja.common.parser;
 
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Test;
 import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
 import se.dykstrom.ronja.common.model.Square;
+import se.dykstrom.ronja.engine.core.FullMoveGenerator;
 import se.dykstrom.ronja.test.AbstractTestCase;
 
 import static org.junit.Assert.assertEquals;
@@ -263,6 +266,46 @@ public class SanParserTest extends AbstractTestCase {
         assertEquals("O-O-O", format(parse(FEN_BQC_OK), Move.createCastling(E8_IDX, C8_IDX)));
     }
 
+    // -----------------------------------------------------------------------
+    // Parsing:
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void testParsePieceMove() throws Exception {
+        assertEquals(Move.create(KNIGHT, G1_IDX, F3_IDX), SanParser.parse("Nf3", parse(FEN_START)));
+        assertEquals(Move.create(QUEEN, C6_IDX, F6_IDX), SanParser.parse("Qcf6", parse(FEN_TWO_QUEENS)));
+        assertEquals(Move.create(QUEEN, F3_IDX, F6_IDX), SanParser.parse("Qff6", parse(FEN_TWO_QUEENS)));
+        assertEquals(Move.createCapture(KNIGHT, B7_IDX, D6_IDX, ROOK), SanParser.parse("N7xd6", parse(FEN_MANY_CAPTURES)));
+        assertEquals(Move.createCapture(ROOK, D1_IDX, D6_IDX, ROOK), SanParser.parse("R1xd6+", parse(FEN_MANY_CAPTURES)));
+        assertEquals(Move.createCapture(ROOK, A1_IDX, C1_IDX, BISHOP), SanParser.parse("Rxc1#", parse(FEN_CHECKMATE_1_2)));
+        assertEquals(Move.createCastling(E1_IDX, G1_IDX), SanParser.parse("O-O", parse(FEN_WKC_OK)));
+    }
+
+    @Test
+    public void testParseIllegalPieceMove() {
+        // No knight can move to f4
+        assertThrows(IllegalMoveException.class, () -> SanParser.parse("Nf4", parse(FEN_START)));
+        // Both queens can move to f6
+        assertThrows(IllegalMoveException.class, () -> SanParser.parse("Qf6", parse(FEN_TWO_QUEENS)));
+    }
+
+    @Test
+    public void testParseFormattedMoves() throws Exception {
+        final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+        for (String fen : List.of(FEN_START, FEN_MIDDLE_GAME_0, FEN_MIDDLE_GAME_1, FEN_END_GAME_0, FEN_TWO_QUEENS, FEN_MANY_CAPTURES,
+                                  FEN_WKC_OK, FEN_BQC_OK, FEN_WP_E7F8, FEN_BP_A2A1, FEN_WEP_E5D6, FEN_BEP_D4C3)) {
+            final Position position = parse(fen);
+            final int numberOfMoves = moveGenerator.generateMoves(position, 0);
+            for (int i = 0; i < numberOfMoves; i++) {
+                final int move = moveGenerator.moves[0][i];
+                if (!position.withMove(move).isCheck(position.getActiveColor())) {
+                    final String formatted = format(position, move);
+                    assertEquals(fen + " " + formatted, move, SanParser.parse(formatted, position));
+                }
+            }
+        }
+    }
+
     // -----------------------------------------------------------------------
     // Formatting utility methods:
     // -----------------------------------------------------------------------
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code BatchAnalyzer} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see BatchAnalyzer
+ */
+public class BatchAnalyzerTest extends AbstractTestCase {
+
+    @Test
+    public void shouldAnalyzeAllPositions() throws Exception {
+        final Path input = Files.createTempFile("test", ".fen");
+        final Path output = Files.createTempFile("test", ".csv");
+        try {
+            Files.write(input, List.of(FEN_START, FEN_E4, FEN_E4_C5, FEN_MIDDLE_GAME_0, FEN_SCHOLARS_MATE, FEN_OPENING_0, FEN_OPENING_1));
+            final BatchAnalyzer analyzer = new BatchAnalyzer(game -> new SearchEngine(game, 1, 1), 3, 0, 3);
+
+            final long count;
+            try (PositionReader reader = PositionReader.open(input); ResultWriter writer = ResultWriter.open(output)) {
+                count = analyzer.analyze(reader, writer);
+            }
+
+            assertEquals(7, count);
+            final List<String> lines = Files.readAllLines(output);
+            assertEquals(CsvResultWriter.HEADER, lines.get(0));
+            assertEquals(8, lines.size());
+            for (String line : lines.subList(1, lines.size())) {
+                final String[] fields = line.split(",");
+                if (fields[0].equals("5")) {
+                    // Checkmate, no move
+                    assertEquals("", fields[2]);
+                } else {
+                    assertEquals(line, "3", fields[4]);
+                    assertTrue(line, Long.parseLong(fields[5]) > 0);
+                }
+            }
+        } finally {
+            Files.delete(input);
+            Files.delete(output);
+        }
+    }
+
+    @Test
+    public void shouldWriteJsonLines() throws Exception {
+        final Path input = Files.createTempFile("test", ".pgn");
+        final Path output = Files.createTempFile("test", ".jsonl");
+        try {
+            Files.write(input, List.of("[Event \"Test\"]", "", "1. e4 c5 2. Nf3 d6 *"));
+            final BatchAnalyzer analyzer = new BatchAnalyzer(game -> new SearchEngine(game, 1, 1), 0, 50, 2);
+
+            try (PositionReader reader = PositionReader.open(input); ResultWriter writer = ResultWriter.open(output)) {
+                assertEquals(4, analyzer.analyze(reader, writer));
+            }
+
+            final List<String> lines = Files.readAllLines(output);
+            assertEquals(4, lines.size());
+            assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"id\":\"1:") && line.endsWith("}")));
+        } finally {
+            Files.delete(input);
+            Files.delete(output);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptInvalidSettings() {
+        new BatchAnalyzer(game -> new SearchEngine(game, 1, 1), 0, 0, 1);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.common.parser.PgnReader;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class is for testing class {@code PositionReader} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PositionReader
+ */
+public class PositionReaderTest extends AbstractTestCase {
+
+    @Test
+    public void shouldReadFenAndEpdLines() throws Exception {
+        final String input = String.join("\n", "# Comment", FEN_E4, "", "invalid line",
+                                         "6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id \"mate\";");
+        final List<AnalysisTask> tasks = readAll(input, false);
+
+        assertEquals(2, tasks.size());
+        assertEquals("2", tasks.get(0).id());
+        assertEquals(FEN_E4, FenParser.format(tasks.get(0).position()));
+        assertEquals("5", tasks.get(1).id());
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", FenParser.format(tasks.get(1).position()));
+    }
+
+    @Test
+    public void shouldReadPgnGames() throws Exception {
+        final String input = String.join("\n",
+                "[Event \"First\"]",
+                "[Result \"1-0\"]",
+                "",
+                "1. e4 c5 {Sicilian} 2. Nf3 1-0",
+                "",
+                "[Event \"Second\"]",
+                "[FEN \"" + FEN_E4_E5 + "\"]",
+                "",
+                "2. Nf3 Nc6 *",
+                "");
+        final List<AnalysisTask> tasks = readAll(input, true);
+
+        assertEquals(5, tasks.size());
+        assertEquals("1:1", tasks.get(0).id());
+        assertEquals(Position.START, tasks.get(0).position());
+        assertEquals(FEN_E4, FenParser.format(tasks.get(1).position()));
+        assertEquals(FEN_E4_C5, FenParser.format(tasks.get(2).position()));
+        assertEquals("2:1", tasks.get(3).id());
+        assertEquals(FEN_E4_E5, FenParser.format(tasks.get(3).position()));
+        assertEquals("2:2", tasks.get(4).id());
+    }
+
+    @Test
+    public void shouldSkipRestOfGameAfterIllegalMove() throws Exception {
+        final String input = String.join("\n", "[Event \"First\"]", "", "1. e4 Nf6 2. Qxf7 Kd6 1-0", "");
+        final List<AnalysisTask> tasks = readAll(input, true);
+        // The positions before 1. e4 and 1... Nf6 are read, and 2. Qxf7 is illegal
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void shouldReadEmptyInput() throws Exception {
+        assertNull(createReader("", true).next());
+        assertNull(createReader("", false).next());
+    }
+
+    private static List<AnalysisTask> readAll(final String input, final boolean pgn) throws Exception {
+        final List<AnalysisTask> tasks = new ArrayList<>();
+        try (PositionReader reader = createReader(input, pgn)) {
+            AnalysisTask task;
+            while ((task = reader.next()) != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    private static PositionReader createReader(final String input, final boolean pgn) {
+        if (pgn) {
+            return new PositionReader(new PgnReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes(ISO_8859_1)))));
+        } else {
+            return new PositionReader(new BufferedReader(new StringReader(input)));
+        }
+    }
+}
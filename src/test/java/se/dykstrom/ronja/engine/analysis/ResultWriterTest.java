@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.analysis;
+
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Square.E2_IDX;
+import static se.dykstrom.ronja.common.model.Square.E4_IDX;
+
+/**
+ * This class is for testing class {@code ResultWriter} and its subclasses using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see ResultWriter
+ * @see CsvResultWriter
+ * @see JsonResultWriter
+ */
+public class ResultWriterTest {
+
+    private static final String FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String EOL = System.lineSeparator();
+
+    private final AnalysisResult result = new AnalysisResult("1:1", Position.START, Move.create(PAWN, E2_IDX, E4_IDX), 25, 6, 12345, 100);
+    private final AnalysisResult gameOver = new AnalysisResult("2", Position.START, 0, 0, 0, 0, 0);
+
+    @Test
+    public void shouldWriteCsv() throws Exception {
+        final StringWriter output = new StringWriter();
+        try (ResultWriter writer = new CsvResultWriter(new BufferedWriter(output))) {
+            writer.write(result);
+            writer.write(gameOver);
+        }
+        assertEquals(CsvResultWriter.HEADER + EOL +
+                     "1:1," + FEN + ",e4,25,6,12345,100" + EOL +
+                     "2," + FEN + ",,0,0,0,0" + EOL, output.toString());
+    }
+
+    @Test
+    public void shouldWriteJson() throws Exception {
+        final StringWriter output = new StringWriter();
+        try (ResultWriter writer = new JsonResultWriter(new BufferedWriter(output))) {
+            writer.write(result);
+        }
+        assertEquals("{\"id\":\"1:1\",\"fen\":\"" + FEN + "\",\"move\":\"e4\",\"score\":25,\"depth\":6,\"nodes\":12345,\"time\":100}" + EOL,
+                     output.toString());
+    }
+
+    @Test
+    public void shouldQuoteCsv() {
+        assertEquals("abc", CsvResultWriter.quote("abc"));
+        assertEquals("\"a,b\"", CsvResultWriter.quote("a,b"));
+        assertEquals("\"a\"\"b\"", CsvResultWriter.quote("a\"b"));
+    }
+
+    @Test
+    public void shouldQuoteJson() {
+        assertEquals("\"abc\"", JsonResultWriter.quote("abc"));
+        assertEquals("\"a\\\"b\\\\c\\n\"", JsonResultWriter.quote("a\"b\\c\n"));
+        assertEquals("\"\\u0001\"", JsonResultWriter.quote("\u0001"));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Color;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.common.model.Square.*;
+import static se.dykstrom.ronja.engine.core.AttackTables.NORTH_EAST;
+import static se.dykstrom.ronja.engine.core.AttackTables.SOUTH;
+
+/**
+ * This class is for testing class {@code AttackTables} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see AttackTables
+ */
+public class AttackTablesTest extends AbstractTestCase {
+
+    @Test
+    public void shouldFindSquaresBetween() {
+        assertEquals(B1 | C1 | D1, AttackTables.between(A1_IDX, E1_IDX));
+        assertEquals(B1 | C1 | D1, AttackTables.between(E1_IDX, A1_IDX));
+        assertEquals(B2 | C3 | D4 | E5 | F6 | G7, AttackTables.between(A1_IDX, H8_IDX));
+        assertEquals(E3, AttackTables.between(E2_IDX, E4_IDX));
+        assertEquals(0, AttackTables.between(E2_IDX, E3_IDX));
+        assertEquals(0, AttackTables.between(A1_IDX, B3_IDX));
+        assertEquals(0, AttackTables.between(A1_IDX, A1_IDX));
+    }
+
+    @Test
+    public void shouldFindLine() {
+        long fileE = E1 | E2 | E3 | E4 | E5 | E6 | E7 | E8;
+        assertEquals(fileE, AttackTables.line(E2_IDX, E7_IDX));
+        assertEquals(fileE, AttackTables.line(E8_IDX, E1_IDX));
+        assertEquals(A8 | B7 | C6 | D5 | E4 | F3 | G2 | H1, AttackTables.line(C6_IDX, G2_IDX));
+        assertEquals(0, AttackTables.line(A1_IDX, B3_IDX));
+    }
+
+    @Test
+    public void shouldFindDistance() {
+        assertEquals(0, AttackTables.distance(E4_IDX, E4_IDX));
+        assertEquals(7, AttackTables.distance(A1_IDX, H8_IDX));
+        assertEquals(2, AttackTables.distance(E4_IDX, F6_IDX));
+        assertEquals(7, AttackTables.distance(A1_IDX, A8_IDX));
+    }
+
+    @Test
+    public void shouldFindRays() {
+        assertEquals(E3 | E2 | E1, AttackTables.ray(SOUTH, E4_IDX));
+        assertEquals(F5 | G6 | H7, AttackTables.ray(NORTH_EAST, E4_IDX));
+        assertEquals(0, AttackTables.ray(NORTH_EAST, H4_IDX));
+    }
+
+    @Test
+    public void shouldFindSlidingAttacks() {
+        long occupied = E6 | C4 | E2 | G2 | B7;
+        assertEquals(E5 | E6 | E3 | E2 | D4 | C4 | F4 | G4 | H4, AttackTables.rookAttacks(E4_IDX, occupied));
+        assertEquals(D5 | C6 | B7 | F5 | G6 | H7 | D3 | C2 | B1 | F3 | G2, AttackTables.bishopAttacks(E4_IDX, occupied));
+        assertEquals(B1 | C1 | D1 | E1 | F1 | G1 | H1 | A2, AttackTables.rookAttacks(A1_IDX, A2 | H1));
+        assertEquals(AttackTables.rookAttacks(D4_IDX, occupied) | AttackTables.bishopAttacks(D4_IDX, occupied),
+                     AttackTables.queenAttacks(D4_IDX, occupied));
+    }
+
+    @Test
+    public void shouldFindPawnAttacks() {
+        assertEquals(D5 | F5, AttackTables.pawnAttacks(E4_IDX, true));
+        assertEquals(D3 | F3, AttackTables.pawnAttacks(E4_IDX, false));
+        assertEquals(B3, AttackTables.pawnAttacks(A2_IDX, true));
+        assertEquals(G6, AttackTables.pawnAttacks(H7_IDX, false));
+    }
+
+    @Test
+    public void shouldMatchAttackGenerator() throws Exception {
+        for (String fen : new String[]{FEN_START, FEN_MIDDLE_GAME_0, FEN_MIDDLE_GAME_1, FEN_END_GAME_3}) {
+            Position position = FenParser.parse(fen);
+            long occupied = position.white | position.black;
+            long expected = 0;
+            for (long b = position.white; b != 0; b &= b - 1) {
+                int index = Long.numberOfTrailingZeros(b);
+                expected |= switch (position.getPiece(1L << index)) {
+                    case 1 -> AttackTables.pawnAttacks(index, true);
+                    case 2 -> AttackTables.knightAttacks(index);
+                    case 3 -> AttackTables.bishopAttacks(index, occupied);
+                    case 4 -> AttackTables.rookAttacks(index, occupied);
+                    case 5 -> AttackTables.queenAttacks(index, occupied);
+                    default -> AttackTables.kingAttacks(index);
+                };
+            }
+            assertEquals(fen, expected, new AttackGenerator().getAttackedSquares(Color.WHITE, position));
+        }
+    }
+}
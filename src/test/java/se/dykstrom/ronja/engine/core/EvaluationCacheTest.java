@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.engine.core.EvaluationCache.NOT_FOUND;
+
+/**
+ * This class is for testing class {@code EvaluationCache} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see EvaluationCache
+ */
+public class EvaluationCacheTest {
+
+    private static final long KEY = 0x1234_5678_9abc_def0L;
+
+    /** A key that maps to the same slot as {@link #KEY}, but has different upper bits. */
+    private static final long OTHER_KEY = KEY ^ (1L << 40);
+
+    private final EvaluationCache cache = new EvaluationCache(1);
+
+    @Test
+    public void shouldHavePowerOfTwoSize() {
+        assertEquals(131072, new EvaluationCache(1).size());
+        assertEquals(1, new EvaluationCache(0).size());
+    }
+
+    @Test
+    public void shouldFindStoredScore() {
+        cache.store(KEY, 1234);
+        assertEquals(1234, cache.probe(KEY));
+        cache.store(KEY, -Evaluator.CHECK_MATE_VALUE);
+        assertEquals(-Evaluator.CHECK_MATE_VALUE, cache.probe(KEY));
+        cache.store(KEY, Evaluator.CHECK_MATE_VALUE);
+        assertEquals(Evaluator.CHECK_MATE_VALUE, cache.probe(KEY));
+    }
+
+    @Test
+    public void shouldNotFindScoreOfOtherKeyInSameSlot() {
+        cache.store(KEY, 1234);
+        assertEquals(NOT_FOUND, cache.probe(OTHER_KEY));
+        cache.store(OTHER_KEY, 5678);
+        assertEquals(NOT_FOUND, cache.probe(KEY));
+        assertEquals(5678, cache.probe(OTHER_KEY));
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        cache.probe(KEY);
+        cache.store(KEY, 0);
+        cache.probe(KEY);
+        cache.probe(KEY);
+        cache.probe(OTHER_KEY);
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void shouldClearCache() {
+        cache.store(KEY, 1234);
+        cache.probe(KEY);
+        cache.clear();
+        assertEquals(NOT_FOUND, cache.probe(KEY));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
@@ -22,6 +22,9 @@ import se.dykstrom.ronja.common.parser.FenParser;
 import se.dykstrom.ronja.test.AbstractTestCase;
 
 import static org.junit.Assert.*;
+import static se.dykstrom.ronja.engine.core.Evaluator.DRAW_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.KNOWN_WIN_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.QUEEN_VALUE;
 
 /**
  * This class is for testing class {@code Evaluator} using JUnit.
@@ -53,4 +56,37 @@ public class EvaluatorTest extends AbstractTestCase {
         assertEquals(0, evaluator.calculateAttackedSquares(FenParser.parse(FEN_START)));
         assertEquals(-20, evaluator.calculateAttackedSquares(FenParser.parse(FEN_END_GAME_3)));
     }
+
+    @Test
+    public void shouldLookUpScoreInEvaluationCache() throws Exception {
+        final EvaluationCache cache = new EvaluationCache(1);
+        final Evaluator cachingEvaluator = new Evaluator(cache);
+        final int score = cachingEvaluator.evaluate(FenParser.parse(FEN_MIDDLE_GAME_0));
+        assertEquals(score, cachingEvaluator.evaluate(FenParser.parse(FEN_MIDDLE_GAME_0)));
+        assertEquals(score, evaluator.evaluate(FenParser.parse(FEN_MIDDLE_GAME_0)));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldUseEvaluationWeights() throws Exception {
+        final EvaluationWeights weights = EvaluationWeights.DEFAULT.with(EvaluationWeights.QUEEN, 2 * QUEEN_VALUE);
+        final Evaluator weightedEvaluator = new Evaluator(new EvaluationCache(1), weights);
+        // Black has an extra queen in this position
+        assertEquals(evaluator.calculatePieceValues(FenParser.parse(FEN_TWO_QUEENS)) - QUEEN_VALUE,
+                     weightedEvaluator.calculatePieceValues(FenParser.parse(FEN_TWO_QUEENS)));
+    }
+
+    @Test
+    public void shouldEvaluateKpkWithBitbase() throws Exception {
+        // The side with the pawn wins only if the other side is to move
+        assertEquals(DRAW_VALUE, evaluator.evaluate(FenParser.parse("8/4k3/8/4K3/4P3/8/8/8 w - - 0 1")));
+        assertTrue(evaluator.evaluate(FenParser.parse("8/4k3/8/4K3/4P3/8/8/8 b - - 0 1")) <= -KNOWN_WIN_VALUE);
+        assertEquals(DRAW_VALUE, evaluator.evaluate(FenParser.parse("8/8/8/3p4/3k4/8/3K4/8 b - - 0 1")));
+        assertTrue(evaluator.evaluate(FenParser.parse("8/8/8/3p4/3k4/8/3K4/8 w - - 0 1")) <= -KNOWN_WIN_VALUE);
+
+        // An advanced pawn scores higher than a pawn that is further back
+        assertTrue(evaluator.evaluate(FenParser.parse("7k/8/8/8/1P6/8/8/K7 w - - 0 1")) >
+                   evaluator.evaluate(FenParser.parse("7k/8/8/8/8/8/1P6/K7 w - - 0 1")));
+    }
 }
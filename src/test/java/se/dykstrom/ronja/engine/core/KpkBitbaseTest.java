@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Color;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code KpkBitbase} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see KpkBitbase
+ */
+public class KpkBitbaseTest extends AbstractTestCase {
+
+    @Test
+    public void shouldRecognizeKpk() throws Exception {
+        assertTrue(KpkBitbase.isKpk(FenParser.parse("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")));
+        assertTrue(KpkBitbase.isKpk(FenParser.parse("8/8/8/8/4p3/4k3/8/4K3 b - - 0 1")));
+        assertFalse(KpkBitbase.isKpk(FenParser.parse("4k3/8/4K3/4P3/4P3/8/8/8 w - - 0 1")));
+        assertFalse(KpkBitbase.isKpk(FenParser.parse("4k3/8/4K3/4P3/8/8/8/7N w - - 0 1")));
+        assertFalse(KpkBitbase.isKpk(FenParser.parse("4k3/8/4K3/8/8/8/8/8 w - - 0 1")));
+        assertFalse(KpkBitbase.isKpk(Position.START));
+    }
+
+    @Test
+    public void shouldProbeKnownPositions() throws Exception {
+        // Opposition: white to move cannot make progress, black to move must give way
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/4k3/8/4K3/4P3/8/8/8 w - - 0 1")));
+        assertTrue(KpkBitbase.isWin(FenParser.parse("8/4k3/8/4K3/4P3/8/8/8 b - - 0 1")));
+        // The white king on the sixth rank in front of the pawn wins regardless of the side to move
+        assertTrue(KpkBitbase.isWin(FenParser.parse("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")));
+        assertTrue(KpkBitbase.isWin(FenParser.parse("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1")));
+        // The black king in front of a rook pawn always draws
+        assertFalse(KpkBitbase.isWin(FenParser.parse("k7/8/K7/P7/8/8/8/8 w - - 0 1")));
+        assertFalse(KpkBitbase.isWin(FenParser.parse("k7/8/K7/P7/8/8/8/8 b - - 0 1")));
+        // The pawn outruns the black king, unless the black king is inside the square of the pawn
+        assertTrue(KpkBitbase.isWin(FenParser.parse("8/8/8/P7/8/8/8/K5k1 w - - 0 1")));
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/8/3k4/P7/8/8/8/K7 b - - 0 1")));
+        // The black king captures the undefended pawn
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/8/8/8/8/4k3/4P3/K7 b - - 0 1")));
+    }
+
+    @Test
+    public void shouldGiveSameResultForMirroredPositions() throws Exception {
+        assertTrue(KpkBitbase.isWin(FenParser.parse("8/4k3/8/4K3/4P3/8/8/8 b - - 0 1")));
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/4k3/8/4K3/4P3/8/8/8 w - - 0 1")));
+        // Mirrored horizontally
+        assertTrue(KpkBitbase.isWin(FenParser.parse("8/3k4/8/3K4/3P4/8/8/8 b - - 0 1")));
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/3k4/8/3K4/3P4/8/8/8 w - - 0 1")));
+        // Colors reversed
+        assertTrue(KpkBitbase.isWin(FenParser.parse("8/8/8/4p3/4k3/8/4K3/8 w - - 0 1")));
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/8/8/4p3/4k3/8/4K3/8 b - - 0 1")));
+        // Colors reversed, and mirrored horizontally
+        assertTrue(KpkBitbase.isWin(FenParser.parse("8/8/8/3p4/3k4/8/3K4/8 w - - 0 1")));
+        assertFalse(KpkBitbase.isWin(FenParser.parse("8/8/8/3p4/3k4/8/3K4/8 b - - 0 1")));
+    }
+
+    /**
+     * Checks that the result of every position with the pawn on rank 2-6 agrees with the results of the positions
+     * reachable in one move, using the real move generator. White wins if any move wins, and black loses if all
+     * moves lose. Capturing the pawn, and stalemate, are draws.
+     */
+    @Test
+    public void shouldAgreeWithPositionsOneMoveAhead() {
+        final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+        int checked = 0;
+        for (int pawn = 8; pawn < 48; pawn++) {
+            if ((pawn & 7) >= 4) {
+                continue;
+            }
+            for (int whiteKing = 0; whiteKing < 64; whiteKing++) {
+                for (int blackKing = 0; blackKing < 64; blackKing++) {
+                    if (whiteKing == pawn || blackKing == pawn || AttackTables.distance(whiteKing, blackKing) <= 1) {
+                        continue;
+                    }
+                    for (boolean isWhiteToMove : new boolean[]{true, false}) {
+                        final Position position = createPosition(whiteKing, pawn, blackKing, isWhiteToMove);
+                        if (position.isIllegalCheck()) {
+                            continue;
+                        }
+                        assertEquals(position.toString(), expectedResult(position, moveGenerator), KpkBitbase.isWin(position));
+                        checked++;
+                    }
+                }
+            }
+        }
+        assertTrue(checked > 100_000);
+    }
+
+    private static boolean expectedResult(final Position position, final FullMoveGenerator moveGenerator) {
+        final Color color = position.getActiveColor();
+        final int numberOfMoves = moveGenerator.generateMoves(position, 0);
+        boolean anyLegalMove = false;
+        boolean anyWin = false;
+        boolean allWin = true;
+        for (int i = 0; i < numberOfMoves; i++) {
+            final Position next = position.withMove(moveGenerator.moves[0][i]);
+            if (next.isCheck(color)) {
+                continue;
+            }
+            anyLegalMove = true;
+            final boolean isWin = KpkBitbase.isKpk(next) && KpkBitbase.isWin(next);
+            anyWin |= isWin;
+            allWin &= isWin;
+        }
+        return anyLegalMove && (position.isWhiteMove() ? anyWin : allWin);
+    }
+
+    private static Position createPosition(final int whiteKing, final int pawn, final int blackKing, final boolean isWhiteToMove) {
+        final long white = (1L << whiteKing) | (1L << pawn);
+        final long black = 1L << blackKing;
+        return Position.of(0, (1L << whiteKing) | black, 0, 1L << pawn, 0, 0, white, black, isWhiteToMove, 0, 0, 0, 1);
+    }
+}
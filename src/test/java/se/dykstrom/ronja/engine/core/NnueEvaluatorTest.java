@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code NnueEvaluator} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see NnueEvaluator
+ */
+public class NnueEvaluatorTest extends AbstractTestCase {
+
+    private final NnueNetwork network = NnueNetworkTest.createRandomNetwork(4711, 8, 4);
+
+    private final NnueEvaluator evaluator = new NnueEvaluator(network);
+
+    /** Used to evaluate all positions from scratch. */
+    private final NnueEvaluator referenceEvaluator = new NnueEvaluator(network);
+
+    private final FullMoveGenerator moveGenerator = new FullMoveGenerator();
+
+    private final Random random = new Random(1);
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void shouldEvaluateMirroredPositionsTheSame() throws Exception {
+        final Position position = FenParser.parse("r3k2r/ppp2ppp/2n1bn2/3qp3/8/2NP1N2/PPP1BPPP/R2QK2R w KQkq - 0 1");
+        final Position mirrored = FenParser.parse("r2qk2r/ppp1bppp/2np1n2/8/3QP3/2N1BN2/PPP2PPP/R3K2R b KQkq - 0 1");
+        assertEquals(evaluator.calculateScore(position), evaluator.calculateScore(mirrored));
+    }
+
+    @Test
+    public void shouldEvaluateDifferentPositionsDifferently() throws Exception {
+        assertNotEquals(evaluator.calculateScore(FenParser.parse(FEN_MIDDLE_GAME_0)), evaluator.calculateScore(FenParser.parse(FEN_MIDDLE_GAME_1)));
+    }
+
+    @Test
+    public void shouldReturnCheckMateValue() throws Exception {
+        assertEquals(Evaluator.CHECK_MATE_VALUE, evaluator.calculateScore(FenParser.parse(FEN_CHECKMATE_0)));
+    }
+
+    @Test
+    public void shouldUpdateAccumulatorsIncrementally() throws Exception {
+        final String[] fens = {FEN_START, FEN_MIDDLE_GAME_0, FEN_MIDDLE_GAME_3, FEN_END_GAME_0, FEN_WKC_OK, FEN_BQC_OK,
+                               FEN_WP_E7F8, FEN_BP_B2A1, FEN_WEP_E5D6, FEN_BEP_D4C3, FEN_PC_E4D5};
+        for (String fen : fens) {
+            for (int game = 0; game < 5; game++) {
+                playRandomGame(FenParser.parse(fen));
+            }
+        }
+    }
+
+    /**
+     * Plays random moves from the given position, telling the evaluator about every move made and
+     * unmade, and verifies that the incrementally updated score equals the score calculated from scratch.
+     */
+    private void playRandomGame(final Position root) {
+        final Position[] path = new Position[FullMoveGenerator.MAX_POSITIONS];
+        path[0] = root;
+        evaluator.setRootPosition(root);
+        assertEquals(referenceEvaluator.calculateScore(root), evaluator.calculateScore(root));
+
+        int ply = 0;
+        for (int i = 0; i < 60 && ply < path.length - 1; i++) {
+            // Now and then, take back a few moves
+            if (ply > 0 && random.nextInt(5) == 0) {
+                final int count = 1 + random.nextInt(ply);
+                for (int j = 0; j < count; j++) {
+                    evaluator.unmakeMove();
+                    ply--;
+                }
+            } else {
+                final int move = randomLegalMove(path[ply], ply);
+                if (move == 0) {
+                    break;
+                }
+                path[ply + 1] = path[ply].withMove(move);
+                ply++;
+                evaluator.makeMove(move, path[ply]);
+            }
+            // Do not evaluate every position, to test updating several plies at once
+            if (random.nextBoolean()) {
+                assertEquals(referenceEvaluator.calculateScore(path[ply]), evaluator.calculateScore(path[ply]));
+            }
+        }
+    }
+
+    private int randomLegalMove(final Position position, final int depth) {
+        final int numberOfMoves = moveGenerator.generateMoves(position, depth);
+        final int start = (numberOfMoves > 0) ? random.nextInt(numberOfMoves) : 0;
+        for (int i = 0; i < numberOfMoves; i++) {
+            final int move = moveGenerator.moves[depth][(start + i) % numberOfMoves];
+            if (!position.withMove(move).isCheck(position.getActiveColor())) {
+                return move;
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    public void shouldFindMoveWithNeuralNetwork() throws Exception {
+        final Game game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final SearchEngine engine = new SearchEngine(game, 1, 1, network);
+
+        final int move = engine.findBestMove(3);
+
+        assertTrue(move != 0);
+        assertEquals(game.getPosition().getActiveColor(), game.getPosition().getColor(Move.getFrom(move)));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class is for testing class {@code NnueNetwork} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see NnueNetwork
+ */
+public class NnueNetworkTest {
+
+    /**
+     * Creates a small network with random weights, that are small enough not to overflow the accumulator.
+     */
+    static NnueNetwork createRandomNetwork(final long seed, final int accumulatorSize, final int hiddenSize) {
+        final Random random = new Random(seed);
+        return new NnueNetwork(accumulatorSize,
+                               hiddenSize,
+                               randomShorts(random, NnueNetwork.INPUT_SIZE * accumulatorSize, 64),
+                               randomShorts(random, accumulatorSize, 64),
+                               randomShorts(random, hiddenSize * 2 * accumulatorSize, 32),
+                               random.ints(hiddenSize, -1000, 1000).toArray(),
+                               randomShorts(random, hiddenSize, 64),
+                               random.nextInt(200) - 100);
+    }
+
+    private static short[] randomShorts(final Random random, final int size, final int bound) {
+        final short[] values = new short[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (short) (random.nextInt(2 * bound + 1) - bound);
+        }
+        return values;
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void shouldSaveAndLoadNetwork() throws Exception {
+        final NnueNetwork network = createRandomNetwork(17, 8, 4);
+        final Path path = Files.createTempFile("NnueNetworkTest_", ".nnue");
+        try {
+            network.save(path);
+            final NnueNetwork loaded = NnueNetwork.load(path);
+
+            assertEquals(network.getAccumulatorSize(), loaded.getAccumulatorSize());
+            assertEquals(network.getHiddenSize(), loaded.getHiddenSize());
+            assertArrayEquals(network.featureWeights, loaded.featureWeights);
+            assertArrayEquals(network.featureBiases, loaded.featureBiases);
+            assertArrayEquals(network.hiddenWeights, loaded.hiddenWeights);
+            assertArrayEquals(network.hiddenBiases, loaded.hiddenBiases);
+            assertArrayEquals(network.outputWeights, loaded.outputWeights);
+            assertEquals(network.outputBias, loaded.outputBias);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotLoadInvalidFile() throws Exception {
+        final Path path = Files.createTempFile("NnueNetworkTest_", ".nnue");
+        try {
+            Files.write(path, new byte[]{'n', 'o', 't', ' ', 'a', ' ', 'n', 'e', 't', 'w', 'o', 'r', 'k', '!', '!', '!', '!', '!', '!', '!'});
+            NnueNetwork.load(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldUpdateAccumulatorIncrementally() {
+        final NnueNetwork network = createRandomNetwork(42, 8, 4);
+        final short[] accumulator = new short[8];
+        network.resetAccumulator(accumulator);
+        assertArrayEquals(network.featureBiases, accumulator);
+
+        network.addFeature(accumulator, 1234);
+        network.addFeature(accumulator, 4321);
+        network.removeFeature(accumulator, 1234);
+        network.removeFeature(accumulator, 4321);
+        assertArrayEquals(network.featureBiases, accumulator);
+    }
+
+    @Test
+    public void shouldMapFeaturesSymmetrically() {
+        // A white knight on b1 with the white king on e1, seen by white, is the same feature
+        // as a black knight on b8 with the black king on e8, seen by black
+        assertEquals(NnueNetwork.featureIndex(true, 4, 2, true, 1), NnueNetwork.featureIndex(false, 60, 2, false, 57));
+        // An enemy piece is not the same feature as an own piece
+        assertEquals(NnueNetwork.featureIndex(true, 4, 2, false, 1) - 64, NnueNetwork.featureIndex(true, 4, 2, true, 1));
+    }
+}
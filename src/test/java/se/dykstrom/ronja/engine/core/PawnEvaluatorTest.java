@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.engine.core.PawnEvaluator.BACKWARD_PAWN_VALUE;
+import static se.dykstrom.ronja.engine.core.PawnEvaluator.DOUBLED_PAWN_VALUE;
+import static se.dykstrom.ronja.engine.core.PawnEvaluator.ISOLATED_PAWN_VALUE;
+import static se.dykstrom.ronja.engine.core.PawnEvaluator.PASSED_PAWN_VALUES;
+import static se.dykstrom.ronja.engine.core.PawnEvaluator.PAWN_SHIELD_VALUE;
+
+/**
+ * This class is for testing class {@code PawnEvaluator} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PawnEvaluator
+ */
+public class PawnEvaluatorTest extends AbstractTestCase {
+
+    private final PawnEvaluator evaluator = new PawnEvaluator(new PawnHashTable(1024));
+
+    @Test
+    public void shouldEvaluateStartPositionAsEqual() throws Exception {
+        assertEquals(0, evaluator.evaluate(FenParser.parse(FEN_START)));
+    }
+
+    @Test
+    public void shouldPenalizeDoubledAndIsolatedPawns() throws Exception {
+        // White has doubled, isolated pawns on the c-file, black has a pair of connected pawns
+        assertEquals(DOUBLED_PAWN_VALUE + 2 * ISOLATED_PAWN_VALUE,
+                     structure("4k3/8/2pp4/8/8/2P5/2P5/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void shouldRewardPassedPawns() throws Exception {
+        // The white pawn on d6 is passed, the pawns on the g-file block each other
+        assertEquals(PASSED_PAWN_VALUES[5] + ISOLATED_PAWN_VALUE,
+                     structure("4k3/6p1/3P4/8/8/6P1/8/4K3 w - - 0 1"));
+        // The black pawn on b2 is passed, and more valuable than the white pawn on a5
+        assertEquals(PASSED_PAWN_VALUES[4] - PASSED_PAWN_VALUES[6],
+                     structure("4k3/8/8/P7/8/8/1p6/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void shouldPenalizeBackwardPawns() throws Exception {
+        // The white pawn on d2 cannot be supported by the pawn on e3, and d3 is attacked by the pawn on c4
+        assertEquals(BACKWARD_PAWN_VALUE + PASSED_PAWN_VALUES[2] - ISOLATED_PAWN_VALUE,
+                     structure("4k3/8/8/8/2p5/4P3/3P4/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void shouldRewardPawnShield() throws Exception {
+        assertEquals(3 * PAWN_SHIELD_VALUE, evaluator.calculatePawnShield(FenParser.parse("6k1/8/8/8/8/8/5PPP/6K1 w - - 0 1")));
+        assertEquals(-3 * PAWN_SHIELD_VALUE, evaluator.calculatePawnShield(FenParser.parse("6k1/5pp1/7p/8/8/8/8/3K4 w - - 0 1")));
+    }
+
+    @Test
+    public void shouldLookUpPawnStructureInPawnHashTable() throws Exception {
+        final PawnHashTable table = evaluator.getPawnHashTable();
+        final int score = structure(FEN_MIDDLE_GAME_0);
+        assertEquals(0, table.getHits());
+        assertEquals(score, structure(FEN_MIDDLE_GAME_0));
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getMisses());
+    }
+
+    private int structure(final String fen) throws Exception {
+        return evaluator.calculatePawnStructure(FenParser.parse(fen));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.engine.core.PawnHashTable.NOT_FOUND;
+
+/**
+ * This class is for testing class {@code PawnHashTable} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see PawnHashTable
+ */
+public class PawnHashTableTest {
+
+    private static final long KEY = 0x1234_5678_9abc_def0L;
+
+    private final PawnHashTable table = new PawnHashTable(1024);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptSizeThatIsNotPowerOfTwo() {
+        new PawnHashTable(1000);
+    }
+
+    @Test
+    public void shouldFindStoredScore() {
+        table.store(KEY, -150);
+        assertEquals(-150, table.probe(KEY));
+        assertEquals(NOT_FOUND, table.probe(KEY ^ (1L << 40)));
+    }
+
+    @Test
+    public void shouldNotFindScoreForPositionWithoutPawnsInEmptyTable() {
+        assertEquals(NOT_FOUND, table.probe(0));
+        table.store(0, 0);
+        assertEquals(0, table.probe(0));
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        assertEquals(0.0, table.getHitRate(), 0.0);
+        table.probe(KEY);
+        table.store(KEY, 50);
+        table.probe(KEY);
+        table.probe(KEY);
+        table.probe(KEY + 1);
+        assertEquals(2, table.getHits());
+        assertEquals(2, table.getMisses());
+        assertEquals(0.5, table.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void shouldClearTable() {
+        table.store(KEY, 50);
+        table.probe(KEY);
+        table.clear();
+        assertEquals(NOT_FOUND, table.probe(KEY));
+        assertEquals(0, table.getHits());
+        assertEquals(1, table.getMisses());
+    }
+}
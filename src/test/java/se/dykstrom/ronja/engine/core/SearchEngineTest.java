@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Game;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.NOT_FOUND;
+
+/**
+ * This class is for testing class {@code SearchEngine} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see SearchEngine
+ */
+public class SearchEngineTest extends AbstractTestCase {
+
+    @Test
+    public void shouldKeepTranspositionTableBetweenSearches() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final var engine = new SearchEngine(game, 1, 1);
+
+        final int move = engine.findBestMove(3);
+        game.makeMove(move);
+        game.makeMove(engine.findBestMove(3));
+        game.unmakeMove();
+
+        // The position after the first move was searched in the first search
+        final long entry = engine.getTranspositionTable().probe(game.getPosition().getKey());
+        assertNotEquals(NOT_FOUND, entry);
+    }
+
+    @Test
+    public void shouldFindSameMoveAsFinder() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_2));
+        final var engine = new SearchEngine(game, 1, 1);
+
+        assertEquals(new AlphaBetaFinder(game).findBestMove(4), engine.findBestMove(4));
+        assertEquals(new AlphaBetaFinder(game).findBestMove(4), engine.findBestMove(4));
+    }
+
+    @Test
+    public void shouldClearWhenGameIsReset() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final var engine = game.getSearchEngine();
+        final long key = game.getPosition().withMove(engine.findBestMove(3)).getKey();
+        assertNotEquals(NOT_FOUND, engine.getTranspositionTable().probe(key));
+
+        game.reset();
+
+        assertSame(engine, game.getSearchEngine());
+        assertEquals(NOT_FOUND, engine.getTranspositionTable().probe(key));
+    }
+
+    @Test
+    public void shouldRunManyEnginesInParallel() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final int expectedMove = new SearchEngine(game, 1, 1).findBestMove(3);
+
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> {
+                final var threadGame = new Game(OpeningBook.DEFAULT);
+                threadGame.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+                return new SearchEngine(threadGame, 1, 1).findBestMove(3);
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                assertEquals(expectedMove, (int) future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldNotifySearchListener() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final var engine = new SearchEngine(game, 1, 1);
+        final List<long[]> depths = new ArrayList<>();
+        engine.setSearchListener((depth, bestMove, score, nodes, elapsedTime) -> depths.add(new long[]{depth, bestMove, nodes}));
+
+        final int move = engine.findBestMoveWithinTime(200);
+
+        assertTrue(depths.size() > 1);
+        for (int i = 0; i < depths.size(); i++) {
+            assertEquals(i + 1, depths.get(i)[0]);
+            assertTrue(i == 0 || depths.get(i)[2] > depths.get(i - 1)[2]);
+        }
+        assertEquals(move, depths.get(depths.size() - 1)[1]);
+    }
+
+    @Test
+    public void shouldStopAtNodeLimit() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final var engine = new SearchEngine(game, 1, 1);
+        engine.setMaxNodes(20_000);
+
+        assertNotEquals(0, engine.findBestMoveWithinTime(60_000));
+        // The node limit is checked at the same interval as the time limit
+        assertTrue(engine.getNodes() >= 20_000);
+        assertTrue(engine.getNodes() < 20_000 + 2048);
+    }
+
+    @Test
+    public void shouldNotifySearchListenerForFixedDepth() throws Exception {
+        final var game = new Game(OpeningBook.DEFAULT);
+        game.setPosition(FenParser.parse(FEN_MIDDLE_GAME_0));
+        final var engine = new SearchEngine(game, 1, 1);
+        final List<int[]> depths = new ArrayList<>();
+        engine.setSearchListener((depth, bestMove, score, nodes, elapsedTime) -> depths.add(new int[]{depth, bestMove}));
+
+        final int move = engine.findBestMove(3);
+
+        assertEquals(1, depths.size());
+        assertEquals(3, depths.get(0)[0]);
+        assertEquals(move, depths.get(0)[1]);
+        assertTrue(engine.getNodes() > 0);
+    }
+}
@@ -279,4 +279,23 @@ public class SortUtilsTest {
         // Then
         assertArrayEquals(expected, array);
     }
+
+    @Test
+    public void shouldSortBySortKeys() {
+        // Given
+        int pawnMove = Move.create(PAWN, A2_IDX, A4_IDX);
+        int knightMove = Move.create(KNIGHT, G1_IDX, F3_IDX);
+        int queenCapture = Move.createCapture(PAWN, D7_IDX, D8_IDX, QUEEN);
+
+        int[] array = {pawnMove, queenCapture, knightMove};
+        int[] keys = {5, 10, 20};
+        int[] expected = {knightMove, queenCapture, pawnMove};
+
+        // When
+        SortUtils.sort(array, keys, array.length);
+
+        // Then
+        assertArrayEquals(expected, array);
+        assertArrayEquals(new int[]{20, 10, 5}, keys);
+    }
 }
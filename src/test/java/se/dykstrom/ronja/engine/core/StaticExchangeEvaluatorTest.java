@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.common.parser.MoveParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.engine.core.Evaluator.KNIGHT_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.PAWN_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.QUEEN_VALUE;
+import static se.dykstrom.ronja.engine.core.Evaluator.ROOK_VALUE;
+
+/**
+ * This class is for testing class {@code StaticExchangeEvaluator} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see StaticExchangeEvaluator
+ */
+public class StaticExchangeEvaluatorTest extends AbstractTestCase {
+
+    private final StaticExchangeEvaluator see = new StaticExchangeEvaluator();
+
+    @Test
+    public void shouldWinUndefendedPiece() throws Exception {
+        assertSee(KNIGHT_VALUE, "4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1", "e4d5");
+        assertSee(PAWN_VALUE, "1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5");
+    }
+
+    @Test
+    public void shouldLoseWhenCapturingDefendedPawnWithRook() throws Exception {
+        assertSee(PAWN_VALUE - ROOK_VALUE, "4k3/8/3p4/4p3/8/8/8/4RK2 w - - 0 1", "e1e5");
+    }
+
+    @Test
+    public void shouldTakeXRayAttackersIntoAccount() throws Exception {
+        // Nxe5 Nxe5 Rxe5 Bxe5 Qxe5 Rxe5 - the queen behind the rook and the rook behind the bishop join in
+        assertSee(PAWN_VALUE - KNIGHT_VALUE, "1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3e5");
+        // Rxd5 Rxd5 Rxd5 - the doubled white rooks win the pawn
+        assertSee(PAWN_VALUE, "3r2k1/8/8/3p4/8/8/3R4/3R2K1 w - - 0 1", "d2d5");
+    }
+
+    @Test
+    public void shouldLoseWhenCapturingWithMoreValuablePiece() throws Exception {
+        // Qxd5 Rxd5 Rxd5 - white wins back a rook, but still loses material
+        assertSee(PAWN_VALUE - QUEEN_VALUE + ROOK_VALUE, "3r2k1/8/8/3p4/8/8/3Q4/3R2K1 w - - 0 1", "d2d5");
+    }
+
+    @Test
+    public void shouldEvaluateEnPassantAndPromotion() throws Exception {
+        // exd6 is met by cxd6
+        assertSee(0, FEN_WEP_E5D6, "e5d6");
+        assertSee(QUEEN_VALUE - PAWN_VALUE, "4k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b7b8q");
+    }
+
+    @Test
+    public void shouldEvaluateQuietMoveToUnsafeSquare() throws Exception {
+        assertSee(0, FEN_START, "e2e4");
+        assertSee(-KNIGHT_VALUE, "4k3/8/8/4p3/8/5N2/8/4K3 w - - 0 1", "f3d4");
+    }
+
+    private void assertSee(final int expected, final String fen, final String move) throws Exception {
+        final Position position = FenParser.parse(fen);
+        assertEquals(fen + " " + move, expected, see.evaluate(position, MoveParser.parse(move, position)));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.core;
+
+import org.junit.Test;
+import se.dykstrom.ronja.common.model.Move;
+
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Square.D7_IDX;
+import static se.dykstrom.ronja.common.model.Square.D8_IDX;
+import static se.dykstrom.ronja.common.model.Square.E2_IDX;
+import static se.dykstrom.ronja.common.model.Square.E4_IDX;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.EXACT;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.LOWER_BOUND;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.NOT_FOUND;
+import static se.dykstrom.ronja.engine.core.TranspositionTable.UPPER_BOUND;
+
+/**
+ * This class is for testing class {@code TranspositionTable} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see TranspositionTable
+ */
+public class TranspositionTableTest {
+
+    private static final long KEY = 0x1234_5678_9abc_def0L;
+
+    /** A key that maps to the same slot as {@link #KEY} in a small table. */
+    private static final long OTHER_KEY = KEY ^ (1L << 40);
+
+    private static final int MOVE = Move.create(PAWN, E2_IDX, E4_IDX);
+    private static final int OTHER_MOVE = Move.createCapturePromotion(D7_IDX, D8_IDX, QUEEN, QUEEN);
+
+    private final TranspositionTable table = new TranspositionTable(1);
+
+    @Test
+    public void shouldHavePowerOfTwoSize() {
+        assertEquals(65536, new TranspositionTable(1).size());
+        assertEquals(1, new TranspositionTable(0).size());
+    }
+
+    @Test
+    public void shouldNotFindMissingEntry() {
+        assertEquals(NOT_FOUND, table.probe(KEY));
+    }
+
+    @Test
+    public void shouldStoreAndProbe() {
+        table.store(KEY, MOVE, 5, EXACT, 1234);
+
+        long entry = table.probe(KEY);
+        assertEquals(MOVE, TranspositionTable.getMove(entry));
+        assertEquals(5, TranspositionTable.getDepth(entry));
+        assertEquals(EXACT, TranspositionTable.getBound(entry));
+        assertEquals(1234, TranspositionTable.getScore(entry));
+        assertEquals(NOT_FOUND, table.probe(OTHER_KEY));
+    }
+
+    @Test
+    public void shouldStoreNegativeScores() {
+        table.store(KEY, OTHER_MOVE, 12, UPPER_BOUND, Evaluator.CHECK_MATE_VALUE);
+        table.store(OTHER_KEY ^ 1, MOVE, 1, LOWER_BOUND, -Evaluator.ILLEGAL_CHECK_VALUE);
+
+        assertEquals(Evaluator.CHECK_MATE_VALUE, TranspositionTable.getScore(table.probe(KEY)));
+        assertEquals(OTHER_MOVE, TranspositionTable.getMove(table.probe(KEY)));
+        assertEquals(UPPER_BOUND, TranspositionTable.getBound(table.probe(KEY)));
+        assertEquals(-Evaluator.ILLEGAL_CHECK_VALUE, TranspositionTable.getScore(table.probe(OTHER_KEY ^ 1)));
+    }
+
+    @Test
+    public void shouldKeepDeeperEntryFromCurrentSearch() {
+        table.store(KEY, MOVE, 5, EXACT, 100);
+        table.store(OTHER_KEY, OTHER_MOVE, 3, EXACT, 200);
+
+        assertEquals(100, TranspositionTable.getScore(table.probe(KEY)));
+        assertEquals(NOT_FOUND, table.probe(OTHER_KEY));
+    }
+
+    @Test
+    public void shouldReplaceEntryFromPreviousSearch() {
+        table.store(KEY, MOVE, 5, EXACT, 100);
+        table.incrementAge();
+        table.store(OTHER_KEY, OTHER_MOVE, 3, EXACT, 200);
+
+        assertEquals(NOT_FOUND, table.probe(KEY));
+        assertEquals(200, TranspositionTable.getScore(table.probe(OTHER_KEY)));
+    }
+
+    @Test
+    public void shouldReplaceEntryWithSameKey() {
+        table.store(KEY, MOVE, 5, EXACT, 100);
+        table.store(KEY, OTHER_MOVE, 3, LOWER_BOUND, 200);
+
+        assertEquals(OTHER_MOVE, TranspositionTable.getMove(table.probe(KEY)));
+        assertEquals(200, TranspositionTable.getScore(table.probe(KEY)));
+    }
+
+    @Test
+    public void shouldKeepEntriesFromPreviousSearch() {
+        table.store(KEY, MOVE, 5, EXACT, 100);
+        table.incrementAge();
+
+        assertEquals(100, TranspositionTable.getScore(table.probe(KEY)));
+    }
+
+    @Test
+    public void shouldClear() {
+        table.store(KEY, MOVE, 5, EXACT, 100);
+        table.clear();
+
+        assertEquals(NOT_FOUND, table.probe(KEY));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Move;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static se.dykstrom.ronja.common.model.Piece.PAWN;
+import static se.dykstrom.ronja.common.model.Piece.QUEEN;
+import static se.dykstrom.ronja.common.model.Piece.ROOK;
+import static se.dykstrom.ronja.common.model.Square.A1_IDX;
+import static se.dykstrom.ronja.common.model.Square.A8_IDX;
+import static se.dykstrom.ronja.common.model.Square.D2_IDX;
+import static se.dykstrom.ronja.common.model.Square.D5_IDX;
+
+/**
+ * This class is for testing class {@code EpdParser} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see EpdParser
+ */
+public class EpdParserTest {
+
+    static final String EPD_MATE_IN_ONE = "6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id \"mate.001\";";
+    static final String EPD_AVOID_MOVE = "4k3/8/4p3/3p4/8/8/3Q4/4K3 w - - am Qxd5; id \"avoid.001\";";
+
+    @Test
+    public void shouldParseBestMove() throws Exception {
+        final EpdEntry entry = EpdParser.parse(EPD_MATE_IN_ONE, "1");
+        assertEquals("mate.001", entry.id());
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", FenParser.format(entry.position()));
+        assertArrayEquals(new int[]{Move.create(ROOK, A1_IDX, A8_IDX)}, entry.bestMoves());
+        assertArrayEquals(new int[0], entry.avoidMoves());
+    }
+
+    @Test
+    public void shouldParseAvoidMove() throws Exception {
+        final EpdEntry entry = EpdParser.parse(EPD_AVOID_MOVE, "1");
+        assertArrayEquals(new int[0], entry.bestMoves());
+        assertArrayEquals(new int[]{Move.createCapture(QUEEN, D2_IDX, D5_IDX, PAWN)}, entry.avoidMoves());
+    }
+
+    @Test
+    public void shouldParseSeveralMovesAndIgnoreOtherOpcodes() throws Exception {
+        final EpdEntry entry = EpdParser.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8# Re1!; c0 \"comment; with semicolon\"; acd 10;", "7");
+        assertEquals("7", entry.id());
+        assertEquals(2, entry.bestMoves().length);
+    }
+
+    @Test
+    public void shouldDecideIfMoveIsSolution() throws Exception {
+        final EpdEntry best = EpdParser.parse(EPD_MATE_IN_ONE, "1");
+        assertEquals(true, best.isSolution(Move.create(ROOK, A1_IDX, A8_IDX)));
+        assertEquals(false, best.isSolution(Move.create(ROOK, A1_IDX, A8_IDX - 8)));
+        assertEquals(false, best.isSolution(0));
+
+        final EpdEntry avoid = EpdParser.parse(EPD_AVOID_MOVE, "1");
+        assertEquals(false, avoid.isSolution(Move.createCapture(QUEEN, D2_IDX, D5_IDX, PAWN)));
+        assertEquals(true, avoid.isSolution(Move.create(QUEEN, D2_IDX, D2_IDX + 8)));
+    }
+
+    @Test
+    public void shouldSplitOperations() {
+        assertEquals(List.of("bm e4", "id \"a;b\""), EpdParser.splitOperations(" bm e4; id \"a;b\";"));
+        assertEquals(List.of("bm e4"), EpdParser.splitOperations("bm e4"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void shouldNotParseIllegalMove() throws Exception {
+        EpdParser.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Qa8;", "1");
+    }
+
+    @Test
+    public void shouldParsePositionWithoutMoves() throws Exception {
+        final Position position = EpdParser.parsePosition("6k1/5ppp/8/8/8/8/8/R5K1 b - - id \"none\"; c9 \"1/2-1/2\";");
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 b - - 0 1", FenParser.format(position));
+    }
+
+    @Test(expected = ParseException.class)
+    public void shouldNotParseWithoutMoves() throws Exception {
+        EpdParser.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - id \"none\";", "1");
+    }
+
+    @Test
+    public void shouldReadFileAndSkipInvalidLines() throws Exception {
+        final Path path = Files.createTempFile("test", ".epd");
+        try {
+            Files.write(path, List.of("# Comment", EPD_MATE_IN_ONE, "invalid line", "", EPD_AVOID_MOVE));
+            final List<EpdEntry> entries = EpdParser.read(path);
+            assertEquals(2, entries.size());
+            assertEquals("mate.001", entries.get(0).id());
+            assertEquals("avoid.001", entries.get(1).id());
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.epd;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.engine.core.SearchEngine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.engine.epd.EpdParserTest.EPD_AVOID_MOVE;
+import static se.dykstrom.ronja.engine.epd.EpdParserTest.EPD_MATE_IN_ONE;
+
+/**
+ * This class is for testing class {@code EpdRunner} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see EpdRunner
+ */
+public class EpdRunnerTest {
+
+    @Test
+    public void shouldSolvePositions() throws Exception {
+        final List<EpdEntry> entries = List.of(EpdParser.parse(EPD_MATE_IN_ONE, "1"),
+                                               EpdParser.parse(EPD_AVOID_MOVE, "2"),
+                                               EpdParser.parse(EPD_MATE_IN_ONE, "3"));
+        final List<EpdResult> notified = new CopyOnWriteArrayList<>();
+        final EpdRunner runner = new EpdRunner(game -> new SearchEngine(game, 1, 1), 500, Long.MAX_VALUE, 2);
+
+        final List<EpdResult> results = runner.run(entries, notified::add);
+
+        assertEquals(3, results.size());
+        assertEquals(3, notified.size());
+        for (int i = 0; i < entries.size(); i++) {
+            final EpdResult result = results.get(i);
+            assertSame(entries.get(i), result.entry());
+            assertTrue(result.isSolved());
+            assertTrue(result.timeToSolution() <= result.time());
+            assertTrue(result.nodesToSolution() <= result.nodes());
+            assertTrue(result.depth() > 0);
+        }
+    }
+
+    @Test
+    public void shouldNotSolveWithWrongBestMove() throws Exception {
+        final EpdEntry entry = EpdParser.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Rb1;", "1");
+        final EpdRunner runner = new EpdRunner(game -> new SearchEngine(game, 1, 1), 200, 10_000, 1);
+
+        final EpdResult result = runner.run(List.of(entry), r -> { }).get(0);
+
+        assertFalse(result.isSolved());
+        assertEquals(-1, result.timeToSolution());
+        assertEquals(-1, result.nodesToSolution());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptInvalidSettings() {
+        new EpdRunner(game -> new SearchEngine(game, 1, 1), 100, 0, 1);
+    }
+}
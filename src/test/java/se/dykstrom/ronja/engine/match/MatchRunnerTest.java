@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+import se.dykstrom.ronja.engine.time.TimeControl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static se.dykstrom.ronja.engine.time.TimeControlType.SECONDS_PER_MOVE;
+
+/**
+ * This class is for testing class {@code MatchRunner} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see MatchRunner
+ */
+public class MatchRunnerTest {
+
+    private static final TimeControl TIME_CONTROL = new TimeControl(0, 0, 50, SECONDS_PER_MOVE);
+
+    @Test
+    public void shouldPlayAllGames() throws Exception {
+        final List<MatchStatistics> progress = new CopyOnWriteArrayList<>();
+        final MatchSettings settings = new MatchSettings(TIME_CONTROL, 5, 2, 4, 12, 17, null);
+        final MatchRunner runner = new MatchRunner(OpeningBook.DEFAULT, settings,
+                                                   game -> new SearchEngine(game, 1, 1),
+                                                   game -> new SearchEngine(game, 1, 1),
+                                                   progress::add);
+
+        final MatchStatistics statistics = runner.run();
+
+        assertEquals(5, statistics.games());
+        assertEquals(5, progress.size());
+        assertEquals(statistics, runner.getStatistics());
+        assertEquals(Sprt.Result.CONTINUE, runner.getSprtResult());
+    }
+
+    @Test
+    public void shouldStopWhenSprtFinishes() throws Exception {
+        // A very wide hypothesis interval, and large alpha and beta, makes the test finish quickly
+        final Sprt sprt = new Sprt(-1000, 1000, 0.4, 0.4);
+        final MatchSettings settings = new MatchSettings(TIME_CONTROL, 1000, 1, 4, 12, 17, sprt);
+        final MatchRunner runner = new MatchRunner(OpeningBook.DEFAULT, settings,
+                                                   game -> new SearchEngine(game, 1, 1),
+                                                   game -> new SearchEngine(game, 1, 1),
+                                                   statistics -> { });
+
+        final MatchStatistics statistics = runner.run();
+
+        assertTrue(statistics.games() < 1000);
+        assertTrue(runner.getSprtResult() != Sprt.Result.CONTINUE);
+    }
+
+    @Test
+    public void shouldSelectOpeningFromBook() {
+        final MatchSettings settings = new MatchSettings(TIME_CONTROL, 2, 1, 6, 12, 0, null);
+        final MatchRunner runner = new MatchRunner(OpeningBook.DEFAULT, settings, null, null, statistics -> { });
+
+        final int[] opening = runner.selectOpening(new Random(42));
+
+        assertTrue(opening.length > 0);
+        assertTrue(opening.length <= 6);
+        Position position = Position.START;
+        for (int move : opening) {
+            assertTrue(OpeningBook.DEFAULT.findAllMoves(position).stream().anyMatch(bookMove -> bookMove.move() == move));
+            position = position.withMove(move);
+        }
+
+        // The same seed gives the same opening
+        assertArrayEquals(opening, runner.selectOpening(new Random(42)));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code MatchStatistics} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see MatchStatistics
+ */
+public class MatchStatisticsTest {
+
+    @Test
+    public void shouldAddResults() {
+        final MatchStatistics statistics = MatchStatistics.EMPTY.withResult(1.0).withResult(0.5).withResult(0.0).withResult(1.0);
+        assertEquals(new MatchStatistics(2, 1, 1), statistics);
+        assertEquals(4, statistics.games());
+        assertEquals(0.625, statistics.score(), 1e-9);
+    }
+
+    @Test
+    public void shouldCalculateElo() {
+        assertEquals(0, new MatchStatistics(10, 10, 10).elo(), 1e-9);
+        // A score of 75% is 191 Elo
+        assertEquals(190.85, new MatchStatistics(3, 0, 1).elo(), 0.01);
+        assertEquals(-190.85, new MatchStatistics(1, 0, 3).elo(), 0.01);
+        assertEquals(Double.POSITIVE_INFINITY, new MatchStatistics(3, 0, 0).elo(), 0.0);
+    }
+
+    @Test
+    public void shouldCalculateEloError() {
+        // The error decreases with the square root of the number of games
+        final double error100 = new MatchStatistics(40, 20, 40).eloError();
+        final double error400 = new MatchStatistics(160, 80, 160).eloError();
+        assertEquals(2.0, error100 / error400, 0.05);
+        // Score 50%, variance per game 0.2, 95% confidence interval of the score = 1.96 * sqrt(0.2 / 100)
+        assertEquals(0.0877, MatchStatistics.toScore(error100) - 0.5, 0.002);
+    }
+
+    @Test
+    public void shouldCalculateLlr() {
+        final MatchStatistics even = new MatchStatistics(400, 200, 400);
+        final MatchStatistics winning = new MatchStatistics(450, 200, 350);
+        assertTrue(even.llr(0, 5) < 0);
+        assertTrue(winning.llr(0, 5) > 0);
+        assertEquals(0, MatchStatistics.EMPTY.llr(0, 5), 0.0);
+    }
+
+    @Test
+    public void shouldConvertBetweenEloAndScore() {
+        assertEquals(0.5, MatchStatistics.toScore(0), 1e-9);
+        assertEquals(100, MatchStatistics.toElo(MatchStatistics.toScore(100)), 1e-9);
+    }
+}
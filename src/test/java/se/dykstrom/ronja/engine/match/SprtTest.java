@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.match;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code Sprt} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see Sprt
+ */
+public class SprtTest {
+
+    private final Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+
+    @Test
+    public void shouldCalculateBounds() {
+        assertEquals(-2.94, sprt.lowerBound(), 0.01);
+        assertEquals(2.94, sprt.upperBound(), 0.01);
+        assertTrue(new Sprt(0, 10, 0.01, 0.05).upperBound() > sprt.upperBound());
+    }
+
+    @Test
+    public void shouldContinueWithFewGames() {
+        assertEquals(Sprt.Result.CONTINUE, sprt.test(MatchStatistics.EMPTY));
+        assertEquals(Sprt.Result.CONTINUE, sprt.test(new MatchStatistics(5, 10, 5)));
+    }
+
+    @Test
+    public void shouldAcceptH1() {
+        assertEquals(Sprt.Result.ACCEPT_H1, sprt.test(new MatchStatistics(600, 400, 400)));
+    }
+
+    @Test
+    public void shouldAcceptH0() {
+        assertEquals(Sprt.Result.ACCEPT_H0, sprt.test(new MatchStatistics(400, 400, 600)));
+        assertEquals(Sprt.Result.ACCEPT_H0, sprt.test(new MatchStatistics(1000, 2000, 1000)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptInvalidElo() {
+        new Sprt(5, 0, 0.05, 0.05);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptInvalidAlpha() {
+        new Sprt(0, 5, 0, 0.05);
+    }
+}
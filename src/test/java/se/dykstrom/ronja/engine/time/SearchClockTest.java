@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.time;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code SearchClock} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see SearchClock
+ */
+public class SearchClockTest {
+
+    private final SearchClock clock = new SearchClock();
+
+    @Test
+    public void shouldNeverRunOutOfTimeWithoutLimit() {
+        clock.start();
+        assertFalse(clock.isOutOfTime());
+        assertEquals(Long.MAX_VALUE, clock.getRemainingTime());
+    }
+
+    @Test
+    public void shouldRunOutOfTime() throws Exception {
+        clock.start(10);
+        Thread.sleep(20);
+        assertTrue(clock.isOutOfTime());
+        assertTrue(clock.getRemainingTime() <= 0);
+        assertTrue(clock.getElapsedTime() >= 10);
+    }
+
+    @Test
+    public void shouldMeasureElapsedTime() throws Exception {
+        clock.start(60_000);
+        Thread.sleep(20);
+        final long elapsedTime = clock.getElapsedTime();
+        assertFalse(clock.isOutOfTime());
+        assertTrue(elapsedTime >= 20);
+        assertTrue(clock.getRemainingTime() <= 60_000 - elapsedTime);
+    }
+}
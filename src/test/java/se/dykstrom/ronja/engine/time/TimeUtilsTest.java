@@ -104,6 +104,15 @@ public class TimeUtilsTest {
         assertTrue(calculateTimeForNextMove(TC_10_1_30_00, TimeData.from(TC_10_1_30_00)) > 9000);
     }
 
+    @Test
+    public void testCalculateTimeForNextMoveWithMoveOverhead() {
+        final var timeData = TimeData.from(TC_0_0_03);
+        final long timeWithoutOverhead = calculateTimeForNextMove(TC_0_0_03, timeData);
+        assertEquals(timeWithoutOverhead - 50, calculateTimeForNextMove(TC_0_0_03, timeData, 50));
+        // The move overhead can never reduce the available time to zero
+        assertEquals(1, calculateTimeForNextMove(TC_0_0_03, timeData, 10_000));
+    }
+
     @Test
     public void testCalculateTimeForLastMoveBeforeTimeControl() {
         final var timeData = TimeData.from(TC_10_01_00).withNumberOfMoves(1);
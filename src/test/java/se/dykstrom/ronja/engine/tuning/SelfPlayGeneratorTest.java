@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.book.OpeningBook;
+import se.dykstrom.ronja.engine.core.SearchEngine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code SelfPlayGenerator} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see SelfPlayGenerator
+ */
+public class SelfPlayGeneratorTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        path = Files.createTempFile("SelfPlayGeneratorTest_", TrainingDataWriter.EXTENSION);
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void shouldGenerateFixedDepthGames() throws Exception {
+        final List<SelfPlayProgress> progress = new CopyOnWriteArrayList<>();
+        final SelfPlaySettings settings = new SelfPlaySettings(4, 2, 2, 0, 4, 2, 30, 17);
+        final SelfPlayGenerator generator = new SelfPlayGenerator(OpeningBook.DEFAULT, settings,
+                                                                  game -> new SearchEngine(game, 1, 1),
+                                                                  progress::add, 1);
+
+        final SelfPlayProgress result;
+        try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+            result = generator.run(writer);
+            assertEquals(result.positions(), writer.getCount());
+        }
+
+        assertEquals(4, result.games());
+        assertTrue(result.positions() > 0);
+        assertEquals(2, result.nodesPerSecond().length);
+        assertFalse(progress.isEmpty());
+
+        final List<TrainingRecord> records = readAll();
+        assertEquals(result.positions(), records.size());
+        for (TrainingRecord record : records) {
+            assertTrue(record.result() == 0.0 || record.result() == 0.5 || record.result() == 1.0);
+            assertFalse(record.position().isCheck(record.position().getActiveColor()));
+        }
+    }
+
+    @Test
+    public void shouldGenerateSameGamesWithSameSeed() throws Exception {
+        final SelfPlaySettings settings = new SelfPlaySettings(2, 1, 0, 2000, 6, 1, 20, 42);
+
+        final List<List<TrainingRecord>> runs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Files.deleteIfExists(path);
+            final SelfPlayGenerator generator = new SelfPlayGenerator(OpeningBook.DEFAULT, settings,
+                                                                      game -> new SearchEngine(game, 1, 1),
+                                                                      progress -> { }, 1000);
+            try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+                generator.run(writer);
+            }
+            runs.add(readAll());
+        }
+
+        assertFalse(runs.get(0).isEmpty());
+        assertEquals(runs.get(0), runs.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptInvalidSettings() {
+        new SelfPlaySettings(1, 1, 0, 0, 0, 0, 100, 0);
+    }
+
+    private List<TrainingRecord> readAll() throws Exception {
+        final List<TrainingRecord> records = new ArrayList<>();
+        TrainingDataWriter.read(path, records::add);
+        return records;
+    }
+}
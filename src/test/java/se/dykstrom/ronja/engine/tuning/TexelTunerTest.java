@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.engine.core.EvaluationWeights;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code TexelTuner} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see TexelTuner
+ */
+public class TexelTunerTest extends AbstractTestCase {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void shouldCalculateSigmoid() {
+        assertEquals(0.5, TexelTuner.sigmoid(0, 1.0), 1e-9);
+        assertEquals(1.0 / 1.1, TexelTuner.sigmoid(400, 1.0), 1e-9);
+        assertEquals(1.0 / 11, TexelTuner.sigmoid(-400, 1.0), 1e-9);
+    }
+
+    @Test
+    public void shouldComputeSameErrorInParallelAndSequentially() throws Exception {
+        final TuningPositions positions = createPositions(10_000);
+        final double parallelError = new TexelTuner(positions, pool).computeError(EvaluationWeights.DEFAULT, 0.1);
+        final ForkJoinPool singlePool = new ForkJoinPool(1);
+        try {
+            final double sequentialError = new TexelTuner(positions, singlePool).computeError(EvaluationWeights.DEFAULT, 0.1);
+            assertEquals(sequentialError, parallelError, 1e-9);
+        } finally {
+            singlePool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReduceError() throws Exception {
+        final TuningPositions positions = createPositions(100);
+        final TexelTuner tuner = new TexelTuner(positions, pool);
+        final double k = tuner.computeK(EvaluationWeights.DEFAULT);
+
+        final EvaluationWeights tuned = tuner.tune(EvaluationWeights.DEFAULT, 50, 2);
+
+        assertTrue(tuner.computeError(tuned, k) < tuner.computeError(EvaluationWeights.DEFAULT, k));
+        assertEquals(EvaluationWeights.DEFAULT.get(EvaluationWeights.PAWN), tuned.get(EvaluationWeights.PAWN));
+    }
+
+    /**
+     * Creates a data set where white always wins the middle game positions,
+     * and black always wins the end game positions.
+     */
+    private static TuningPositions createPositions(final int count) throws Exception {
+        final String[] whiteWins = {FEN_MIDDLE_GAME_0, FEN_MIDDLE_GAME_1, FEN_MIDDLE_GAME_2};
+        final String[] blackWins = {FEN_END_GAME_0, FEN_END_GAME_1, FEN_END_GAME_2};
+        final TuningPositions positions = new TuningPositions();
+        for (int i = 0; i < count; i++) {
+            final boolean isWhiteWin = (i % 2) == 0;
+            final String fen = isWhiteWin ? whiteWins[i % 3] : blackWins[i % 3];
+            positions.add(FenParser.parse(fen), isWhiteWin ? 1.0 : 0.0);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class is for testing class {@code TrainingDataWriter} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see TrainingDataWriter
+ */
+public class TrainingDataWriterTest {
+
+    private static final String FEN = "r1bqkbnr/pp1ppppp/2n5/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        path = Files.createTempFile("TrainingDataWriterTest_", TrainingDataWriter.EXTENSION);
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void shouldWriteAndReadRecords() throws Exception {
+        final List<TrainingRecord> records = List.of(
+            new TrainingRecord(Position.START, 12, 0.5),
+            new TrainingRecord(FenParser.parse(FEN), -87, 0.0),
+            new TrainingRecord(Position.START, 100_000, 1.0)
+        );
+
+        try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+            writer.write(records);
+            assertEquals(3, writer.getCount());
+        }
+
+        final List<TrainingRecord> actual = readAll();
+        assertEquals(TrainingDataWriter.HEADER_SIZE + 3L * TrainingDataWriter.RECORD_SIZE, Files.size(path));
+        assertEquals(records.subList(0, 2), actual.subList(0, 2));
+        // Scores are limited to the range of a short
+        assertEquals(Short.MAX_VALUE, actual.get(2).score());
+    }
+
+    @Test
+    public void shouldAppendToExistingFile() throws Exception {
+        try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+            writer.write(List.of(new TrainingRecord(Position.START, 1, 1.0)));
+        }
+        try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+            writer.write(List.of(new TrainingRecord(FenParser.parse(FEN), 2, 0.0)));
+            assertEquals(1, writer.getCount());
+        }
+
+        final List<TrainingRecord> records = readAll();
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).score());
+        assertEquals(2, records.get(1).score());
+    }
+
+    @Test
+    public void shouldWriteMoreRecordsThanFitInBuffer() throws Exception {
+        final List<TrainingRecord> records = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            records.add(new TrainingRecord(Position.START, i % 1000, 0.5));
+        }
+
+        try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+            writer.write(records);
+        }
+
+        assertEquals(records, readAll());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotAppendToInvalidFile() throws Exception {
+        Files.writeString(path, FEN);
+        TrainingDataWriter.open(path);
+    }
+
+    private List<TrainingRecord> readAll() throws IOException {
+        final List<TrainingRecord> records = new ArrayList<>();
+        TrainingDataWriter.read(path, records::add);
+        return records;
+    }
+}
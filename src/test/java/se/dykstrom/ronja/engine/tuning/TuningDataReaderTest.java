@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class is for testing class {@code TuningDataReader} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see TuningDataReader
+ */
+public class TuningDataReaderTest {
+
+    private static final List<String> EPD = List.of(
+        "# Comment",
+        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - c9 \"1-0\";",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - [0.5]",
+        "8/8/8/8/8/8/8/k6K w - - c9 \"0-1\";",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+        ""
+    );
+
+    private static final List<String> PGN = List.of(
+        "[Event \"Test\"]",
+        "[Result \"0-1\"]",
+        "",
+        "1. e4 e5 2. Nf3 {comment} Nc6 3. Bb5 a6 (3... Nf6 4. O-O) 4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 $1",
+        "8. c3 O-O 9. h3 Nb8 10. d4 Nbd7!? 11. Nbd2 Bb7 0-1",
+        "",
+        "[Event \"Unfinished\"]",
+        "[Result \"*\"]",
+        "",
+        "1. d4 d5 2. c4 e6 3. Nc3 Nf6 4. Bg5 Be7 5. e3 O-O *",
+        "",
+        "[Event \"Setup\"]",
+        "[Result \"1/2-1/2\"]",
+        "[FEN \"4k3/8/8/8/8/8/4P3/4K3 w - - 0 1\"]",
+        "",
+        "1. Kd2 Kd7 2. Kd3 Kd6 3. Kd4 Kc6 4. Ke5 Kc5 5. e4 Kc4 6. Kf5 Kd4 1/2-1/2"
+    );
+
+    @Test
+    public void shouldReadEpdFile() throws Exception {
+        final Path path = Files.createTempFile("TuningDataReaderTest_", ".epd");
+        try {
+            Files.write(path, EPD, ISO_8859_1);
+            final TuningPositions positions = new TuningPositions();
+
+            assertEquals(3, TuningDataReader.read(path, positions));
+            assertEquals(1.0, positions.getResult(0), 0.0);
+            assertEquals(0.5, positions.getResult(1), 0.0);
+            assertEquals(0.0, positions.getResult(2), 0.0);
+            assertEquals(Position.START.pawn, positions.getPosition(1).pawn);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldReadPgnFile() throws Exception {
+        final Path path = Files.createTempFile("TuningDataReaderTest_", ".pgn");
+        try {
+            Files.write(path, PGN, ISO_8859_1);
+            final TuningPositions positions = new TuningPositions();
+
+            // First game: 22 plies, minus 8 opening plies. The unfinished game is skipped. Last game: 12 plies, minus 8.
+            assertEquals(14 + 4, TuningDataReader.read(path, positions));
+            assertEquals(0.0, positions.getResult(0), 0.0);
+            assertEquals(0.5, positions.getResult(positions.size() - 1), 0.0);
+
+            // The last position added is the position before 6... Kd4
+            final Position expected = FenParser.parse("8/8/8/5K2/2k1P3/8/8/8 b - - 0 6");
+            assertEquals(expected.king, positions.getPosition(positions.size() - 1).king);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldReadTrainingDataFile() throws Exception {
+        final Path path = Files.createTempFile("TuningDataReaderTest_", TrainingDataWriter.EXTENSION);
+        try {
+            final Position position = FenParser.parse("8/8/8/5K2/2k1P3/8/8/8 b - - 0 6");
+            try (TrainingDataWriter writer = TrainingDataWriter.open(path)) {
+                writer.write(List.of(new TrainingRecord(Position.START, 25, 1.0), new TrainingRecord(position, -300, 0.5)));
+            }
+            final TuningPositions positions = new TuningPositions();
+
+            assertEquals(2, TuningDataReader.read(path, positions));
+            assertEquals(1.0, positions.getResult(0), 0.0);
+            assertEquals(0.5, positions.getResult(1), 0.0);
+            assertEquals(position.king, positions.getPosition(1).king);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldParseResults() {
+        assertEquals(1.0, TuningDataReader.parseResult("1-0"), 0.0);
+        assertEquals(0.5, TuningDataReader.parseResult("1/2-1/2"), 0.0);
+        assertEquals(0.0, TuningDataReader.parseResult("0.0"), 0.0);
+        assertEquals(Double.NaN, TuningDataReader.parseResult("*"), 0.0);
+    }
+}
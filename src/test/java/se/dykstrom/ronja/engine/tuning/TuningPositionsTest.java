@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 Johan Dykstrom
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package se.dykstrom.ronja.engine.tuning;
+
+import org.junit.Test;
+
+import se.dykstrom.ronja.common.model.Position;
+import se.dykstrom.ronja.common.parser.FenParser;
+import se.dykstrom.ronja.test.AbstractTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class is for testing class {@code TuningPositions} using JUnit.
+ *
+ * @author Johan Dykstrom
+ * @see TuningPositions
+ */
+public class TuningPositionsTest extends AbstractTestCase {
+
+    private final TuningPositions positions = new TuningPositions();
+
+    @Test
+    public void shouldStoreAndRestorePositions() throws Exception {
+        final Position white = FenParser.parse(FEN_E4_C5);
+        final Position black = FenParser.parse(FEN_E4);
+
+        positions.add(white, 1.0);
+        positions.add(black, 0.5);
+        positions.add(Position.START, 0.0);
+
+        assertEquals(3, positions.size());
+        assertPosition(white, positions.getPosition(0));
+        assertPosition(black, positions.getPosition(1));
+        assertPosition(Position.START, positions.getPosition(2));
+        assertTrue(positions.isWhiteMove(0));
+        assertFalse(positions.isWhiteMove(1));
+        assertEquals(1.0, positions.getResult(0), 0.0);
+        assertEquals(0.5, positions.getResult(1), 0.0);
+        assertEquals(0.0, positions.getResult(2), 0.0);
+    }
+
+    @Test
+    public void shouldGrowAndTrim() {
+        for (int i = 0; i < 5000; i++) {
+            positions.add(Position.START, (i % 3) / 2.0);
+        }
+        positions.trimToSize();
+
+        assertEquals(5000, positions.size());
+        assertEquals(1.0, positions.getResult(4997), 0.0);
+        assertPosition(Position.START, positions.getPosition(4999));
+    }
+
+    private static void assertPosition(final Position expected, final Position actual) {
+        assertEquals(expected.bishop, actual.bishop);
+        assertEquals(expected.king, actual.king);
+        assertEquals(expected.knight, actual.knight);
+        assertEquals(expected.pawn, actual.pawn);
+        assertEquals(expected.queen, actual.queen);
+        assertEquals(expected.rook, actual.rook);
+        assertEquals(expected.white, actual.white);
+        assertEquals(expected.black, actual.black);
+        assertEquals(expected.getActiveColor(), actual.getActiveColor());
+    }
+}
@@ -39,6 +39,10 @@ public class AppConfigTest extends AbstractTestCase {
     private static final String SETTER_ENGINE_NAME = "setter";
     private static final String PROPERTIES_ENGINE_NAME = "properties";
     private static final String FILE_ENGINE_NAME = "file";
+    private static final long FILE_MOVE_OVERHEAD = 75;
+    private static final long FILE_HASH_SIZE = 8;
+    private static final long FILE_EVAL_CACHE_SIZE = 2;
+    private static final String FILE_NNUE_FILE = "file.nnue";
 
     private static final String TEMP_DIRECTORY = System.getProperty("java.io.tmpdir");
 
@@ -46,13 +50,25 @@ public class AppConfigTest extends AbstractTestCase {
     public void setUp() throws Exception {
         AppConfig.setConfigDirectory(TEMP_DIRECTORY);
         AppConfig.setEngineName(null);
+        AppConfig.setMoveOverhead(null);
+        AppConfig.setHashSize(null);
+        AppConfig.setEvalCacheSize(null);
+        AppConfig.setNnueFilename(null);
         System.clearProperty(AppConfig.PROPERTY_ENGINE_NAME);
+        System.clearProperty(AppConfig.PROPERTY_MOVE_OVERHEAD);
+        System.clearProperty(AppConfig.PROPERTY_HASH_SIZE);
+        System.clearProperty(AppConfig.PROPERTY_EVAL_CACHE_SIZE);
+        System.clearProperty(AppConfig.PROPERTY_NNUE_FILE);
 
         File file = new File(TEMP_DIRECTORY, "ronja.properties");
         file.deleteOnExit();
 
         try (PrintStream out = new PrintStream(file, StandardCharsets.ISO_8859_1)) {
             out.println(AppConfig.PROPERTY_ENGINE_NAME + "=" + FILE_ENGINE_NAME);
+            out.println(AppConfig.PROPERTY_MOVE_OVERHEAD + "=" + FILE_MOVE_OVERHEAD);
+            out.println(AppConfig.PROPERTY_HASH_SIZE + "=" + FILE_HASH_SIZE);
+            out.println(AppConfig.PROPERTY_EVAL_CACHE_SIZE + "=" + FILE_EVAL_CACHE_SIZE);
+            out.println(AppConfig.PROPERTY_NNUE_FILE + "=" + FILE_NNUE_FILE);
         }
     }
 
@@ -75,4 +91,54 @@ public class AppConfigTest extends AbstractTestCase {
     public void testGetFromDataStore() {
         assertEquals(FILE_ENGINE_NAME, AppConfig.getEngineName());
     }
+
+    @Test
+    public void testGetMoveOverheadFromDataStore() {
+        assertEquals(FILE_MOVE_OVERHEAD, AppConfig.getMoveOverhead());
+    }
+
+    @Test
+    public void testGetMoveOverheadFromSystemProperties() {
+        System.setProperty(AppConfig.PROPERTY_MOVE_OVERHEAD, "25");
+        assertEquals(25, AppConfig.getMoveOverhead());
+    }
+
+    @Test
+    public void testGetInvalidMoveOverhead() {
+        System.setProperty(AppConfig.PROPERTY_MOVE_OVERHEAD, "foo");
+        assertEquals(50, AppConfig.getMoveOverhead());
+    }
+
+    @Test
+    public void testGetHashSizeFromDataStore() {
+        assertEquals(FILE_HASH_SIZE, AppConfig.getHashSize());
+    }
+
+    @Test
+    public void testGetHashSizeFromSystemProperties() {
+        System.setProperty(AppConfig.PROPERTY_HASH_SIZE, "32");
+        assertEquals(32, AppConfig.getHashSize());
+    }
+
+    @Test
+    public void testGetEvalCacheSizeFromDataStore() {
+        assertEquals(FILE_EVAL_CACHE_SIZE, AppConfig.getEvalCacheSize());
+    }
+
+    @Test
+    public void testGetEvalCacheSizeFromSystemProperties() {
+        System.setProperty(AppConfig.PROPERTY_EVAL_CACHE_SIZE, "1");
+        assertEquals(1, AppConfig.getEvalCacheSize());
+    }
+
+    @Test
+    public void testGetNnueFilenameFromDataStore() {
+        assertEquals(FILE_NNUE_FILE, AppConfig.getNnueFilename());
+    }
+
+    @Test
+    public void testGetNnueFilenameFromSystemProperties() {
+        System.setProperty(AppConfig.PROPERTY_NNUE_FILE, "properties.nnue");
+        assertEquals("properties.nnue", AppConfig.getNnueFilename());
+    }
 }
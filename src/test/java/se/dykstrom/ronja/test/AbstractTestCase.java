@@ -44,6 +44,7 @@ import static se.dykstrom.ronja.common.model.Square.D2_IDX;
 import static se.dykstrom.ronja.common.model.Square.D4_IDX;
 import static se.dykstrom.ronja.common.model.Square.D5_IDX;
 import static se.dykstrom.ronja.common.model.Square.D6_IDX;
+import static se.dykstrom.ronja.common.model.Square.D7_IDX;
 import static se.dykstrom.ronja.common.model.Square.E1_IDX;
 import static se.dykstrom.ronja.common.model.Square.E2_IDX;
 import static se.dykstrom.ronja.common.model.Square.E4_IDX;
@@ -69,6 +70,7 @@ public abstract class AbstractTestCase {
     protected static final int MOVE_C2C4 = Move.create(PAWN, C2_IDX, C4_IDX);
     protected static final int MOVE_E7E5 = Move.create(PAWN, E7_IDX, E5_IDX);
     protected static final int MOVE_E7E6 = Move.create(PAWN, E7_IDX, E6_IDX);
+    protected static final int MOVE_D7D5 = Move.create(PAWN, D7_IDX, D5_IDX);
     protected static final int MOVE_C7C5 = Move.create(PAWN, C7_IDX, C5_IDX);
     protected static final int MOVE_G1F3 = Move.create(KNIGHT, G1_IDX, F3_IDX);
     protected static final int MOVE_F3G1 = Move.create(KNIGHT, F3_IDX, G1_IDX);